@@ -0,0 +1,456 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Random;
+
+import org.knime.dl.core.data.DLReadableBitBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableByteBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.DLReadableIntBuffer;
+import org.knime.dl.core.data.DLReadableLongBuffer;
+import org.knime.dl.core.data.DLReadableShortBuffer;
+import org.knime.dl.core.data.DLReadableUnsignedByteBuffer;
+import org.knime.dl.core.data.DLWritableBitBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableByteBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableIntBuffer;
+import org.knime.dl.core.data.DLWritableLongBuffer;
+import org.knime.dl.core.data.DLWritableShortBuffer;
+import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * The tensor element types covered by the benchmarks. Each constant knows how to fill and drain buffers of its type
+ * element by element and in bulk, which keeps the type dispatch out of the measured benchmark methods' signatures.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+enum DLBenchmarkElementType {
+
+	DOUBLE(double.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			return random.doubles(length).toArray();
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableDoubleBuffer buf = (DLWritableDoubleBuffer) buffer;
+			for (final double v : (double[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableDoubleBuffer) buffer).putAll((double[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableDoubleBuffer buf = (DLReadableDoubleBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextDouble());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableDoubleBuffer) buffer).readToDoubleArray((double[]) dest, 0, ((double[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new double[length];
+		}
+	},
+
+	FLOAT(float.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			final float[] values = new float[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = random.nextFloat();
+			}
+			return values;
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableFloatBuffer buf = (DLWritableFloatBuffer) buffer;
+			for (final float v : (float[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableFloatBuffer) buffer).putAll((float[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableFloatBuffer buf = (DLReadableFloatBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextFloat());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableFloatBuffer) buffer).readToFloatArray((float[]) dest, 0, ((float[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new float[length];
+		}
+	},
+
+	INT(int.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			return random.ints(length).toArray();
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableIntBuffer buf = (DLWritableIntBuffer) buffer;
+			for (final int v : (int[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableIntBuffer) buffer).putAll((int[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableIntBuffer buf = (DLReadableIntBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextInt());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableIntBuffer) buffer).readToIntArray((int[]) dest, 0, ((int[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new int[length];
+		}
+	},
+
+	LONG(long.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			return random.longs(length).toArray();
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableLongBuffer buf = (DLWritableLongBuffer) buffer;
+			for (final long v : (long[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableLongBuffer) buffer).putAll((long[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableLongBuffer buf = (DLReadableLongBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextLong());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableLongBuffer) buffer).readToLongArray((long[]) dest, 0, ((long[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new long[length];
+		}
+	},
+
+	SHORT(short.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			final short[] values = new short[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (short) random.nextInt();
+			}
+			return values;
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableShortBuffer buf = (DLWritableShortBuffer) buffer;
+			for (final short v : (short[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableShortBuffer) buffer).putAll((short[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableShortBuffer buf = (DLReadableShortBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextShort());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableShortBuffer) buffer).readToShortArray((short[]) dest, 0, ((short[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new short[length];
+		}
+	},
+
+	BYTE(byte.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			final byte[] values = new byte[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (byte) random.nextInt();
+			}
+			return values;
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableByteBuffer buf = (DLWritableByteBuffer) buffer;
+			for (final byte v : (byte[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableByteBuffer) buffer).putAll((byte[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableByteBuffer buf = (DLReadableByteBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextByte());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableByteBuffer) buffer).readToByteArray((byte[]) dest, 0, ((byte[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new byte[length];
+		}
+	},
+
+	UNSIGNED_BYTE(UnsignedBytes.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			final short[] values = new short[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = (short) random.nextInt(256);
+			}
+			return values;
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableUnsignedByteBuffer buf = (DLWritableUnsignedByteBuffer) buffer;
+			for (final short v : (short[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableUnsignedByteBuffer) buffer).putAll((short[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableUnsignedByteBuffer buf = (DLReadableUnsignedByteBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextUnsignedByte());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableUnsignedByteBuffer) buffer).readToUnsignedByteArray((short[]) dest, 0,
+					((short[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new short[length];
+		}
+	},
+
+	BIT(boolean.class) {
+
+		@Override
+		Object createValues(final int length, final Random random) {
+			final boolean[] values = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = random.nextBoolean();
+			}
+			return values;
+		}
+
+		@Override
+		void put(final DLWritableBuffer buffer, final Object values) {
+			final DLWritableBitBuffer buf = (DLWritableBitBuffer) buffer;
+			for (final boolean v : (boolean[]) values) {
+				buf.put(v);
+			}
+		}
+
+		@Override
+		void putAll(final DLWritableBuffer buffer, final Object values) {
+			((DLWritableBitBuffer) buffer).putAll((boolean[]) values);
+		}
+
+		@Override
+		void read(final DLReadableBuffer buffer, final Blackhole bh) {
+			final DLReadableBitBuffer buf = (DLReadableBitBuffer) buffer;
+			for (long i = 0; i < buf.size(); i++) {
+				bh.consume(buf.readNextBit());
+			}
+		}
+
+		@Override
+		void readAll(final DLReadableBuffer buffer, final Object dest) {
+			((DLReadableBitBuffer) buffer).readToBitArray((boolean[]) dest, 0, ((boolean[]) dest).length);
+		}
+
+		@Override
+		Object createDestination(final int length) {
+			return new boolean[length];
+		}
+	};
+
+	private final Class<?> m_elementType;
+
+	DLBenchmarkElementType(final Class<?> elementType) {
+		m_elementType = elementType;
+	}
+
+	/**
+	 * @return the element type of tensor specs of this type, as understood by the Python tensor factory
+	 */
+	Class<?> getElementType() {
+		return m_elementType;
+	}
+
+	/**
+	 * @return a primitive array of the given length filled with random values of this type
+	 */
+	abstract Object createValues(int length, Random random);
+
+	/**
+	 * @return an empty primitive array of this type that can be passed to {@link #readAll(DLReadableBuffer, Object)}
+	 */
+	abstract Object createDestination(int length);
+
+	/**
+	 * Writes the given values element by element.
+	 */
+	abstract void put(DLWritableBuffer buffer, Object values);
+
+	/**
+	 * Writes the given values in a single bulk operation.
+	 */
+	abstract void putAll(DLWritableBuffer buffer, Object values);
+
+	/**
+	 * Reads all values element by element.
+	 */
+	abstract void read(DLReadableBuffer buffer, Blackhole bh);
+
+	/**
+	 * Reads all values in a single bulk operation.
+	 */
+	abstract void readAll(DLReadableBuffer buffer, Object dest);
+}
@@ -0,0 +1,89 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the KNIME Deep Learning benchmarks and writes the results to a JSON file that can be compared against the
+ * results of earlier runs to detect performance regressions.
+ * <P>
+ * Usage: <code>DLBenchmarkRunner [result-file [include-regex]]</code>. The result file defaults to
+ * {@value #DEFAULT_RESULT_FILE}, the include pattern defaults to all benchmarks of this bundle.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLBenchmarkRunner {
+
+	private static final String DEFAULT_RESULT_FILE = "dl-benchmarks.json";
+
+	private DLBenchmarkRunner() {
+		// entry point only
+	}
+
+	/**
+	 * @param args optional: the path of the result file and a regular expression that selects the benchmarks to run
+	 * @throws RunnerException if running the benchmarks failed
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		final String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+		final String include = args.length > 1 ? args[1] : DLBenchmarkRunner.class.getPackage().getName() + ".*";
+		final Options options = new OptionsBuilder() //
+				.include(include) //
+				.warmupIterations(5) //
+				.measurementIterations(10) //
+				.forks(1) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result(resultFile) //
+				.build();
+		new Runner(options).run();
+	}
+}
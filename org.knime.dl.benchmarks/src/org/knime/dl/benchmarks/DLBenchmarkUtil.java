@@ -0,0 +1,113 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Arrays;
+
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.DLPythonDefaultTensorFactory;
+
+/**
+ * Utility methods shared by the benchmarks.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLBenchmarkUtil {
+
+	/**
+	 * The benchmarks use the same tensors as the Python back ends, i.e. tensors that are backed by Python data
+	 * buffers.
+	 */
+	static final DLTensorFactory TENSOR_FACTORY = new DLPythonDefaultTensorFactory();
+
+	/**
+	 * Seed of the random values the benchmarks operate on. Fixed to make runs comparable.
+	 */
+	static final long SEED = 42;
+
+	private DLBenchmarkUtil() {
+		// utility class
+	}
+
+	/**
+	 * @param shape a shape in the form of <code>"d1xd2x...xdn"</code>, e.g. <code>"224x224x3"</code>
+	 * @return the parsed shape
+	 */
+	static long[] parseShape(final String shape) {
+		return Arrays.stream(shape.split("x")).mapToLong(Long::parseLong).toArray();
+	}
+
+	static DLTensorSpec createTensorSpec(final DLBenchmarkElementType type, final int batchSize, final long[] shape) {
+		return new DLDefaultTensorSpec(new DLDefaultTensorId("benchmark"), "benchmark", batchSize,
+				new DLDefaultFixedTensorShape(shape), type.getElementType(), DLDimensionOrder.TDHWC);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <B extends DLWritableBuffer> DLTensor<B> createWritableTensor(final DLTensorSpec spec) {
+		return (DLTensor<B>) TENSOR_FACTORY.createWritableTensor(spec);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <B extends DLReadableBuffer> DLTensor<B> createReadableTensor(final DLTensorSpec spec) {
+		return (DLTensor<B>) TENSOR_FACTORY.createReadableTensor(spec);
+	}
+
+	/**
+	 * @return the number of elements of a tensor of the given shape and batch size, must be representable as int
+	 */
+	static int getSize(final int batchSize, final long[] shape) {
+		return Math.toIntExact(batchSize * Arrays.stream(shape).reduce(1, Math::multiplyExact));
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures writing a full batch into and reading a full batch from the tensor buffers, element by element and in
+ * bulk.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DLBufferBenchmark {
+
+	@Param({ "DOUBLE", "FLOAT", "INT", "LONG", "SHORT", "BYTE", "UNSIGNED_BYTE", "BIT" })
+	public DLBenchmarkElementType m_type;
+
+	/**
+	 * Tabular data, MNIST-like and ImageNet-like images.
+	 */
+	@Param({ "100", "28x28x1", "224x224x3" })
+	public String m_shape;
+
+	@Param({ "32" })
+	public int m_batchSize;
+
+	private DLTensor<DLWritableBuffer> m_writeTensor;
+
+	private DLTensor<DLReadableBuffer> m_readTensor;
+
+	private Object m_values;
+
+	private Object m_dest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final long[] shape = DLBenchmarkUtil.parseShape(m_shape);
+		final DLTensorSpec spec = DLBenchmarkUtil.createTensorSpec(m_type, m_batchSize, shape);
+		final int size = DLBenchmarkUtil.getSize(m_batchSize, shape);
+		m_values = m_type.createValues(size, new Random(DLBenchmarkUtil.SEED));
+		m_dest = m_type.createDestination(size);
+		m_writeTensor = DLBenchmarkUtil.createWritableTensor(spec);
+		m_readTensor = DLBenchmarkUtil.createReadableTensor(spec);
+		// readable tensors of the Python back end are writable as well
+		m_type.putAll((DLWritableBuffer) m_readTensor.getBuffer(), m_values);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_writeTensor.close();
+		m_readTensor.close();
+	}
+
+	@Benchmark
+	public void put() {
+		final DLWritableBuffer buffer = m_writeTensor.getBuffer();
+		buffer.reset();
+		m_type.put(buffer, m_values);
+	}
+
+	@Benchmark
+	public void putAll() {
+		final DLWritableBuffer buffer = m_writeTensor.getBuffer();
+		buffer.reset();
+		m_type.putAll(buffer, m_values);
+	}
+
+	@Benchmark
+	public void read(final Blackhole bh) {
+		final DLReadableBuffer buffer = m_readTensor.getBuffer();
+		buffer.resetRead();
+		m_type.read(buffer, bh);
+	}
+
+	@Benchmark
+	public Object readAll() {
+		final DLReadableBuffer buffer = m_readTensor.getBuffer();
+		buffer.resetRead();
+		m_type.readAll(buffer, m_dest);
+		return m_dest;
+	}
+}
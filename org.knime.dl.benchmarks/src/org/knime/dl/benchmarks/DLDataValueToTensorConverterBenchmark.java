@@ -0,0 +1,224 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.knime.core.data.DataValue;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bytevector.DenseByteVector;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLBitVectorToBitTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLBooleanValueToBitTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLByteVectorToByteTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleValueToDoubleTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleValueToFloatTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLIntCollectionValueToOneHotFloatTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLIntValueToFloatTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLIntValueToIntTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLLongValueToDoubleTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLLongValueToLongTensorConverterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures converting a batch of input rows into a tensor for each of the
+ * {@link DLDataValueToTensorConverterFactory input converters} shipped with KNIME Deep Learning.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DLDataValueToTensorConverterBenchmark {
+
+	/**
+	 * One case per converter factory. Scalar converters receive one cell per tensor element (i.e. one column per
+	 * element), vector and collection converters receive a single cell per row.
+	 */
+	public enum DLConverterCase {
+
+		DOUBLE_TO_DOUBLE(new DLDoubleValueToDoubleTensorConverterFactory(), DLBenchmarkElementType.DOUBLE, "100",
+				(size, r) -> scalars(size, () -> new DoubleCell(r.nextDouble()))),
+
+		DOUBLE_TO_FLOAT(new DLDoubleValueToFloatTensorConverterFactory(), DLBenchmarkElementType.FLOAT, "100",
+				(size, r) -> scalars(size, () -> new DoubleCell(r.nextDouble()))),
+
+		INT_TO_INT(new DLIntValueToIntTensorConverterFactory(), DLBenchmarkElementType.INT, "100",
+				(size, r) -> scalars(size, () -> new IntCell(r.nextInt()))),
+
+		INT_TO_FLOAT(new DLIntValueToFloatTensorConverterFactory(), DLBenchmarkElementType.FLOAT, "100",
+				(size, r) -> scalars(size, () -> new IntCell(r.nextInt()))),
+
+		LONG_TO_LONG(new DLLongValueToLongTensorConverterFactory(), DLBenchmarkElementType.LONG, "100",
+				(size, r) -> scalars(size, () -> new LongCell(r.nextLong()))),
+
+		LONG_TO_DOUBLE(new DLLongValueToDoubleTensorConverterFactory(), DLBenchmarkElementType.DOUBLE, "100",
+				(size, r) -> scalars(size, () -> new LongCell(r.nextLong()))),
+
+		BOOLEAN_TO_BIT(new DLBooleanValueToBitTensorConverterFactory(), DLBenchmarkElementType.BIT, "100",
+				(size, r) -> scalars(size, () -> BooleanCell.get(r.nextBoolean()))),
+
+		BIT_VECTOR_TO_BIT(new DLBitVectorToBitTensorConverterFactory(), DLBenchmarkElementType.BIT, "1024",
+				(size, r) -> {
+					final DenseBitVector vector = new DenseBitVector(size);
+					for (int i = 0; i < size; i++) {
+						if (r.nextBoolean()) {
+							vector.set(i);
+						}
+					}
+					return Collections.<DataValue> singletonList(new DenseBitVectorCellFactory(vector).createDataCell());
+				}),
+
+		BYTE_VECTOR_TO_UNSIGNED_BYTE(new DLByteVectorToByteTensorConverterFactory(),
+				DLBenchmarkElementType.UNSIGNED_BYTE, "224x224x3", (size, r) -> {
+					final byte[] values = new byte[size];
+					r.nextBytes(values);
+					return Collections.<DataValue> singletonList(
+							new DenseByteVectorCellFactory(new DenseByteVector(values)).createDataCell());
+				}),
+
+		INT_COLLECTION_TO_ONE_HOT_FLOAT(new DLIntCollectionValueToOneHotFloatTensorConverterFactory(),
+				DLBenchmarkElementType.FLOAT, "50x1000", (size, r) -> {
+					// 50 time steps, vocabulary of 1000
+					final List<IntCell> indices = new ArrayList<>(50);
+					for (int i = 0; i < 50; i++) {
+						indices.add(new IntCell(r.nextInt(1000)));
+					}
+					return Collections.<DataValue> singletonList(CollectionCellFactory.createListCell(indices));
+				});
+
+		private final DLDataValueToTensorConverterFactory<?, ?> m_factory;
+
+		private final DLBenchmarkElementType m_type;
+
+		private final String m_shape;
+
+		private final BiFunction<Integer, Random, List<DataValue>> m_rowCreator;
+
+		DLConverterCase(final DLDataValueToTensorConverterFactory<?, ?> factory, final DLBenchmarkElementType type,
+				final String shape, final BiFunction<Integer, Random, List<DataValue>> rowCreator) {
+			m_factory = factory;
+			m_type = type;
+			m_shape = shape;
+			m_rowCreator = rowCreator;
+		}
+
+		private static List<DataValue> scalars(final int size, final Supplier<DataValue> cells) {
+			final List<DataValue> row = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				row.add(cells.get());
+			}
+			return row;
+		}
+	}
+
+	@Param
+	public DLConverterCase m_case;
+
+	@Param({ "32" })
+	public int m_batchSize;
+
+	private DLDataValueToTensorConverter<DataValue, DLWritableBuffer> m_converter;
+
+	private DLTensor<DLWritableBuffer> m_tensor;
+
+	private List<List<DataValue>> m_rows;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() {
+		final long[] shape = DLBenchmarkUtil.parseShape(m_case.m_shape);
+		m_converter = (DLDataValueToTensorConverter<DataValue, DLWritableBuffer>) m_case.m_factory.createConverter();
+		m_tensor = DLBenchmarkUtil
+				.createWritableTensor(DLBenchmarkUtil.createTensorSpec(m_case.m_type, m_batchSize, shape));
+		final Random random = new Random(DLBenchmarkUtil.SEED);
+		final int exampleSize = DLBenchmarkUtil.getSize(1, shape);
+		m_rows = new ArrayList<>(m_batchSize);
+		for (int i = 0; i < m_batchSize; i++) {
+			m_rows.add(m_case.m_rowCreator.apply(exampleSize, random));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableBuffer> convertBatch() {
+		m_tensor.getBuffer().reset();
+		for (final List<DataValue> row : m_rows) {
+			m_converter.convert(row, m_tensor);
+		}
+		return m_tensor;
+	}
+}
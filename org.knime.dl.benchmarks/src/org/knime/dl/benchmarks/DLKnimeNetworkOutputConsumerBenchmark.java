@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDoubleTensorToDoubleCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.execution.DLKnimeNetworkOutputConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link DLKnimeNetworkOutputConsumer#accept(Map)}, i.e. converting a batch of network output into cells
+ * and assembling them into output rows, both when appending to and when replacing the input columns.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DLKnimeNetworkOutputConsumerBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean m_append;
+
+	/**
+	 * Number of output columns, i.e. the size of a (tabular) network output.
+	 */
+	@Param({ "10", "100" })
+	public String m_shape;
+
+	@Param({ "32" })
+	public int m_batchSize;
+
+	private DLTensor<DLReadableBuffer> m_tensor;
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_tensors;
+
+	private DLKnimeNetworkOutputConsumer m_consumer;
+
+	private DataRow m_lastRow;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final long[] shape = DLBenchmarkUtil.parseShape(m_shape);
+		m_tensor = DLBenchmarkUtil.createReadableTensor(
+				DLBenchmarkUtil.createTensorSpec(DLBenchmarkElementType.DOUBLE, m_batchSize, shape));
+		final int size = DLBenchmarkUtil.getSize(m_batchSize, shape);
+		// readable tensors of the Python back end are writable as well
+		DLBenchmarkElementType.DOUBLE.putAll((DLWritableBuffer) m_tensor.getBuffer(),
+				DLBenchmarkElementType.DOUBLE.createValues(size, new Random(DLBenchmarkUtil.SEED)));
+		m_tensors = Collections.singletonMap(m_tensor.getSpec().getIdentifier(), m_tensor);
+		final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> converters = new LinkedHashMap<>();
+		converters.put(m_tensor.getSpec().getIdentifier(), new DLDoubleTensorToDoubleCellConverterFactory());
+		// the base rows are never exhausted, the last pushed row is returned by the benchmark
+		final DataRow baseRow = new DefaultRow(new RowKey("Row0"), new DataCell[] { new StringCell("benchmark") });
+		final RowOutput output = new RowOutput() {
+
+			@Override
+			public void push(final DataRow row) {
+				m_lastRow = row;
+			}
+
+			@Override
+			public void close() {
+				// nothing to do
+			}
+		};
+		m_consumer = new DLKnimeNetworkOutputConsumer(output, () -> baseRow, m_append, converters, null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		m_consumer.close();
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public DataRow accept() {
+		m_tensor.getBuffer().resetRead();
+		m_consumer.accept(m_tensors);
+		return m_lastRow;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.data.serde.DLPythonBitBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonBitBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonByteBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonByteBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
+import org.knime.dl.python.core.data.serde.DLPythonDoubleBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonDoubleBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonFloatBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonFloatBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonIntBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonIntBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonLongBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonLongBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonShortBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonShortBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonUnsignedByteBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonUnsignedByteBufferSerializerFactory;
+import org.knime.python.typeextension.DeserializerFactory;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the serializers and deserializers that transfer tensors between KNIME and Python, i.e. the Java side of
+ * every data transmission of the Python back ends.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DLPythonBufferSerdeBenchmark {
+
+	/**
+	 * One case per pair of serializer and deserializer factories.
+	 */
+	public enum DLSerdeCase {
+
+		DOUBLE(DLBenchmarkElementType.DOUBLE, new DLPythonDoubleBufferSerializerFactory(),
+				new DLPythonDoubleBufferDeserializerFactory()),
+
+		FLOAT(DLBenchmarkElementType.FLOAT, new DLPythonFloatBufferSerializerFactory(),
+				new DLPythonFloatBufferDeserializerFactory()),
+
+		INT(DLBenchmarkElementType.INT, new DLPythonIntBufferSerializerFactory(),
+				new DLPythonIntBufferDeserializerFactory()),
+
+		LONG(DLBenchmarkElementType.LONG, new DLPythonLongBufferSerializerFactory(),
+				new DLPythonLongBufferDeserializerFactory()),
+
+		SHORT(DLBenchmarkElementType.SHORT, new DLPythonShortBufferSerializerFactory(),
+				new DLPythonShortBufferDeserializerFactory()),
+
+		BYTE(DLBenchmarkElementType.BYTE, new DLPythonByteBufferSerializerFactory(),
+				new DLPythonByteBufferDeserializerFactory()),
+
+		UNSIGNED_BYTE(DLBenchmarkElementType.UNSIGNED_BYTE, new DLPythonUnsignedByteBufferSerializerFactory(),
+				new DLPythonUnsignedByteBufferDeserializerFactory()),
+
+		BIT(DLBenchmarkElementType.BIT, new DLPythonBitBufferSerializerFactory(),
+				new DLPythonBitBufferDeserializerFactory());
+
+		private final DLBenchmarkElementType m_type;
+
+		private final SerializerFactory<?> m_serializerFactory;
+
+		private final DeserializerFactory m_deserializerFactory;
+
+		DLSerdeCase(final DLBenchmarkElementType type, final SerializerFactory<?> serializerFactory,
+				final DeserializerFactory deserializerFactory) {
+			m_type = type;
+			m_serializerFactory = serializerFactory;
+			m_deserializerFactory = deserializerFactory;
+		}
+	}
+
+	@Param
+	public DLSerdeCase m_case;
+
+	/**
+	 * Tabular data, MNIST-like and ImageNet-like images.
+	 */
+	@Param({ "100", "28x28x1", "224x224x3" })
+	public String m_shape;
+
+	@Param({ "32" })
+	public int m_batchSize;
+
+	private Serializer<DLWritableBuffer> m_serializer;
+
+	private DLPythonDeserializer<DLWritableBuffer> m_deserializer;
+
+	private DLTensor<DLWritableBuffer> m_tensor;
+
+	private byte[] m_bytes;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final long[] shape = DLBenchmarkUtil.parseShape(m_shape);
+		final int size = DLBenchmarkUtil.getSize(m_batchSize, shape);
+		m_serializer = (Serializer<DLWritableBuffer>) m_case.m_serializerFactory.createSerializer();
+		m_deserializer = (DLPythonDeserializer<DLWritableBuffer>) m_case.m_deserializerFactory.createDeserializer();
+		// tensors of the Python back end are readable and writable
+		m_tensor = DLBenchmarkUtil
+				.createWritableTensor(DLBenchmarkUtil.createTensorSpec(m_case.m_type, m_batchSize, shape));
+		m_case.m_type.putAll(m_tensor.getBuffer(), m_case.m_type.createValues(size, new Random(DLBenchmarkUtil.SEED)));
+		m_bytes = m_serializer.serialize(m_tensor.getBuffer());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return m_serializer.serialize(m_tensor.getBuffer());
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableBuffer> deserialize() {
+		m_tensor.getBuffer().reset();
+		m_deserializer.deserialize(m_bytes, m_tensor);
+		return m_tensor;
+	}
+}
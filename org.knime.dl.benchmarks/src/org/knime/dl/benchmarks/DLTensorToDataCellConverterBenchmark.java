@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.lang.reflect.Array;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataCell;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLBitTensorToBitVectorCellConverterFactory;
+import org.knime.dl.core.data.convert.DLBitTensorToBooleanCellConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleTensorToDoubleCellConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleTensorToDoubleVectorCellConverterFactory;
+import org.knime.dl.core.data.convert.DLIntTensorToIntCellConverterFactory;
+import org.knime.dl.core.data.convert.DLLongTensorToLongCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverter;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToListCellConverterFactory;
+import org.knime.dl.core.data.convert.DLUnsignedByteTensorToByteVectorCellConverterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures converting a batch of network output into cells for each of the
+ * {@link DLTensorToDataCellConverterFactory output converters} shipped with KNIME Deep Learning.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DLTensorToDataCellConverterBenchmark {
+
+	/**
+	 * One case per converter factory. Converters that create one cell per tensor element are measured on tabular
+	 * output, converters that create one cell per example on image-like output.
+	 */
+	public enum DLConverterCase {
+
+		DOUBLE_TO_DOUBLE_CELL(new DLDoubleTensorToDoubleCellConverterFactory(), DLBenchmarkElementType.DOUBLE, "100"),
+
+		DOUBLE_TO_DOUBLE_VECTOR_CELL(new DLDoubleTensorToDoubleVectorCellConverterFactory(),
+				DLBenchmarkElementType.DOUBLE, "28x28x1"),
+
+		DOUBLE_TO_LIST_CELL(new DLTensorToListCellConverterFactory<>(new DLDoubleTensorToDoubleCellConverterFactory()),
+				DLBenchmarkElementType.DOUBLE, "28x28x1"),
+
+		INT_TO_INT_CELL(new DLIntTensorToIntCellConverterFactory(), DLBenchmarkElementType.INT, "100"),
+
+		LONG_TO_LONG_CELL(new DLLongTensorToLongCellConverterFactory(), DLBenchmarkElementType.LONG, "100"),
+
+		BIT_TO_BOOLEAN_CELL(new DLBitTensorToBooleanCellConverterFactory(), DLBenchmarkElementType.BIT, "100"),
+
+		BIT_TO_BIT_VECTOR_CELL(new DLBitTensorToBitVectorCellConverterFactory(), DLBenchmarkElementType.BIT, "1024"),
+
+		UNSIGNED_BYTE_TO_BYTE_VECTOR_CELL(new DLUnsignedByteTensorToByteVectorCellConverterFactory(),
+				DLBenchmarkElementType.UNSIGNED_BYTE, "224x224x3");
+
+		private final DLTensorToDataCellConverterFactory<?, ?> m_factory;
+
+		private final DLBenchmarkElementType m_type;
+
+		private final String m_shape;
+
+		DLConverterCase(final DLTensorToDataCellConverterFactory<?, ?> factory, final DLBenchmarkElementType type,
+				final String shape) {
+			m_factory = factory;
+			m_type = type;
+			m_shape = shape;
+		}
+	}
+
+	@Param
+	public DLConverterCase m_case;
+
+	@Param({ "32" })
+	public int m_batchSize;
+
+	private DLTensorToDataCellConverter<DLReadableBuffer, DataCell> m_converter;
+
+	private DLTensor<DLReadableBuffer> m_tensor;
+
+	private DataCell[] m_output;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() {
+		final long[] shape = DLBenchmarkUtil.parseShape(m_case.m_shape);
+		m_converter = (DLTensorToDataCellConverter<DLReadableBuffer, DataCell>) m_case.m_factory.createConverter();
+		m_tensor = DLBenchmarkUtil
+				.createReadableTensor(DLBenchmarkUtil.createTensorSpec(m_case.m_type, m_batchSize, shape));
+		final int size = DLBenchmarkUtil.getSize(m_batchSize, shape);
+		// readable tensors of the Python back end are writable as well
+		m_case.m_type.putAll((DLWritableBuffer) m_tensor.getBuffer(),
+				m_case.m_type.createValues(size, new Random(DLBenchmarkUtil.SEED)));
+		final long numOutputElements = m_case.m_factory.getDestCount(m_tensor.getSpec()).getAsLong();
+		m_output = (DataCell[]) Array.newInstance(m_case.m_factory.getDestType().getCellClass(),
+				Math.toIntExact(m_batchSize * numOutputElements));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public DataCell[] convertBatch() {
+		m_tensor.getBuffer().resetRead();
+		// the converters shipped with KNIME Deep Learning do not create file store cells
+		m_converter.convert(m_tensor, m_output, null);
+		return m_output;
+	}
+}
@@ -0,0 +1,129 @@
+# -*- coding: utf-8 -*-
+
+import os
+import shutil
+import tempfile
+
+from keras.layers import Dense
+from keras.layers import Input
+from keras.models import Model
+
+from DLKerasNetwork import DLKerasNetwork
+from DLKerasNetwork import DLKerasTrainingConfig
+from DLKerasTrainingCallbacks import DLKerasModelCheckpoint
+
+
+class _History(object):
+    def __init__(self, history):
+        self.history = history
+
+
+class _Model(object):
+    def __init__(self):
+        self.stop_training = False
+
+
+class _Fit(object):
+    """
+    Records the calls of fit(initial_epoch, epochs, start_batch) and returns one loss entry per epoch.
+    """
+
+    def __init__(self, model, stop_after_first_call=False):
+        self.calls = []
+        self._model = model
+        self._stop_after_first_call = stop_after_first_call
+
+    def __call__(self, initial_epoch, epochs, start_batch):
+        self.calls.append((initial_epoch, epochs, start_batch))
+        if self._stop_after_first_call:
+            self._model.stop_training = True
+        return _History({'loss': [float(e) for e in range(initial_epoch, epochs)]})
+
+
+def _create_network():
+    network = DLKerasNetwork.__new__(DLKerasNetwork)
+    network._model = _Model()
+    return network
+
+
+def _create_config(initial_epoch, initial_batch, epochs, callbacks=None):
+    config = DLKerasTrainingConfig()
+    config.initial_epoch = initial_epoch
+    config.initial_batch = initial_batch
+    config.epochs = epochs
+    config.callbacks = callbacks or []
+    return config
+
+
+def _read_state(directory):
+    state = {}
+    with open(os.path.join(directory, DLKerasModelCheckpoint.STATE_FILE_NAME)) as f:
+        for line in f:
+            key, value = line.strip().split('=', 1)
+            state[key] = value
+    return state
+
+
+def test_train_from_epoch_start():
+    network = _create_network()
+    fit = _Fit(network._model)
+    history = network._train_from(fit, _create_config(2, 0, 5))
+    assert fit.calls == [(2, 5, 0)], fit.calls
+    assert history['loss'] == [2., 3., 4.], history
+
+
+def test_train_from_mid_epoch():
+    network = _create_network()
+    fit = _Fit(network._model)
+    checkpoint = DLKerasModelCheckpoint(tempfile.gettempdir())
+    history = network._train_from(fit, _create_config(1, 3, 4, [checkpoint]))
+    # the remainder of the interrupted epoch first, then the remaining epochs
+    assert fit.calls == [(1, 2, 3), (2, 4, 0)], fit.calls
+    assert checkpoint.batch_offset == 3, checkpoint.batch_offset
+    assert history['loss'] == [1., 2., 3.], history
+
+
+def test_train_from_mid_last_epoch():
+    network = _create_network()
+    fit = _Fit(network._model)
+    history = network._train_from(fit, _create_config(3, 7, 4))
+    assert fit.calls == [(3, 4, 7)], fit.calls
+    assert history['loss'] == [3.], history
+
+
+def test_train_from_mid_epoch_stopped_early():
+    network = _create_network()
+    fit = _Fit(network._model, stop_after_first_call=True)
+    network._train_from(fit, _create_config(0, 2, 3))
+    assert fit.calls == [(0, 1, 2)], fit.calls
+
+
+def test_checkpoint_save_commits_model_with_position():
+    directory = tempfile.mkdtemp()
+    try:
+        inputs = Input(shape=(2,))
+        model = Model(inputs=inputs, outputs=Dense(1)(inputs))
+        model.compile(optimizer='sgd', loss='mse')
+        checkpoint = DLKerasModelCheckpoint(directory)
+        checkpoint.set_model(model)
+        checkpoint.set_params({'steps': 5})
+        checkpoint.on_train_begin()
+        checkpoint._save(1, 2)
+        first_state = _read_state(directory)
+        checkpoint._save(2, 0)
+        state = _read_state(directory)
+        assert state['epoch'] == '2' and state['batch'] == '0' and state['steps'] == '5', state
+        # each save writes a new model file, the state file names the one that belongs to its position
+        assert state['model'] != first_state['model'], state
+        model_files = [n for n in os.listdir(directory) if n.endswith(DLKerasModelCheckpoint.MODEL_FILE_SUFFIX)]
+        assert model_files == [state['model']], model_files
+        assert not os.path.exists(os.path.join(directory, DLKerasModelCheckpoint.STATE_FILE_NAME + '.tmp'))
+    finally:
+        shutil.rmtree(directory, ignore_errors=True)
+
+
+test_train_from_epoch_start()
+test_train_from_mid_epoch()
+test_train_from_mid_last_epoch()
+test_train_from_mid_epoch_stopped_early()
+test_checkpoint_save_commits_model_with_position()
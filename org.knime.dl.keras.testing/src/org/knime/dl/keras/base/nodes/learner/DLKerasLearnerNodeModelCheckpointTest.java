@@ -0,0 +1,171 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.keras.base.nodes.learner.DLKerasLearnerNodeModel.DLCheckpointPosition;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasLearnerNodeModelCheckpointTest {
+
+	private static final String MODEL_FILE_NAME = "checkpoint-0123456789abcdef.h5";
+
+	private File m_directory;
+
+	@Before
+	public void setUp() throws IOException {
+		m_directory = FileUtil.createTempDir("dl-keras-checkpoint-test");
+	}
+
+	@After
+	public void tearDown() {
+		FileUtil.deleteRecursively(m_directory);
+	}
+
+	@Test
+	public void testEmptyDirectoryHasNoCheckpoint() throws Exception {
+		assertNull(DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5));
+	}
+
+	@Test
+	public void testMissingModelFileIsNoCheckpoint() throws Exception {
+		writeState("epoch=1\nbatch=4\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		assertNull(DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5));
+	}
+
+	@Test
+	public void testResumesMidEpoch() throws Exception {
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=1\nbatch=4\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		final DLCheckpointPosition position = DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+		assertEquals(1, position.getEpoch());
+		assertEquals(4, position.getBatch());
+		assertEquals(new File(m_directory, MODEL_FILE_NAME), position.getModelFile());
+	}
+
+	@Test
+	public void testResumesWithModelFileNamedByState() throws Exception {
+		// the model file of a previous checkpoint that was not cleaned up yet must not be picked up
+		writeModel(DLKerasModelCheckpoint.MODEL_FILE_NAME);
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=2\nbatch=0\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		final DLCheckpointPosition position = DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+		assertEquals(new File(m_directory, MODEL_FILE_NAME), position.getModelFile());
+	}
+
+	@Test
+	public void testResumesFromLegacyCheckpoint() throws Exception {
+		writeModel(DLKerasModelCheckpoint.MODEL_FILE_NAME);
+		writeState("epoch=2\nbatch=3\nsteps=10\n");
+		final DLCheckpointPosition position = DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+		assertEquals(2, position.getEpoch());
+		assertEquals(3, position.getBatch());
+		assertEquals(new File(m_directory, DLKerasModelCheckpoint.MODEL_FILE_NAME), position.getModelFile());
+	}
+
+	@Test
+	public void testRollsOverToNextEpochAfterLastBatch() throws Exception {
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=1\nbatch=10\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		final DLCheckpointPosition position = DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+		assertEquals(2, position.getEpoch());
+		assertEquals(0, position.getBatch());
+	}
+
+	@Test
+	public void testChangedNumberOfBatchesResumesAtEpochStart() throws Exception {
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=1\nbatch=4\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		final DLCheckpointPosition position = DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 12, 5);
+		assertEquals(1, position.getEpoch());
+		assertEquals(0, position.getBatch());
+	}
+
+	@Test(expected = InvalidSettingsException.class)
+	public void testCheckpointCoveringAllEpochsFails() throws Exception {
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=4\nbatch=10\nsteps=10\nmodel=" + MODEL_FILE_NAME + "\n");
+		DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptStateFileFails() throws Exception {
+		writeModel(MODEL_FILE_NAME);
+		writeState("epoch=1\nbatch=\nmodel=" + MODEL_FILE_NAME + "\n");
+		DLKerasLearnerNodeModel.readCheckpointPosition(m_directory, 10, 5);
+	}
+
+	private void writeModel(final String name) throws IOException {
+		new File(m_directory, name).createNewFile();
+	}
+
+	private void writeState(final String content) throws IOException {
+		try (final Writer writer = new OutputStreamWriter(
+				new FileOutputStream(new File(m_directory, DLKerasModelCheckpoint.STATE_FILE_NAME)),
+				StandardCharsets.ISO_8859_1)) {
+			writer.write(content);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewData.DLLinePlotViewDataEntry;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLDecimatingLinePlotViewDataTest {
+
+	@Test
+	public void testFullResolutionWithinWindow() {
+		final DLDecimatingLinePlotViewData data = new DLDecimatingLinePlotViewData(100);
+		for (int i = 0; i < 50; i++) {
+			data.add(i);
+		}
+		final List<float[]> entries = collect(data.iterator());
+		assertEquals(50, entries.size());
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, (int) entries.get(i)[0]);
+			assertEquals(i, entries.get(i)[1], 0f);
+		}
+	}
+
+	@Test
+	public void testBoundedAndKeepsExtrema() {
+		final DLDecimatingLinePlotViewData data = new DLDecimatingLinePlotViewData(10, 8);
+		for (int i = 0; i < 100000; i++) {
+			data.add(i == 12345 ? -1f : i == 54321 ? 1000000f : 1f);
+		}
+		final List<float[]> entries = collect(data.iterator());
+		// at most two entries per bucket plus the partial bucket plus the window
+		assertTrue(entries.size() <= 2 * 8 + 2 + 10);
+		assertTrue(entries.stream().anyMatch(e -> (int) e[0] == 12345 && e[1] == -1f));
+		assertTrue(entries.stream().anyMatch(e -> (int) e[0] == 54321 && e[1] == 1000000f));
+		// the window is kept at full resolution
+		for (int i = 0; i < 10; i++) {
+			assertEquals(99990 + i, (int) entries.get(entries.size() - 10 + i)[0]);
+		}
+		assertStrictlyIncreasingX(entries);
+	}
+
+	@Test
+	public void testLiveIteratorResumesAndSkipsAhead() {
+		final DLDecimatingLinePlotViewData data = new DLDecimatingLinePlotViewData(5, 4);
+		final Iterator<DLLinePlotViewDataEntry> it = data.iterator();
+		final List<float[]> entries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			data.add((float) Math.sin(i));
+			if (i % 7 == 0) {
+				entries.addAll(collect(it));
+			}
+		}
+		entries.addAll(collect(it));
+		assertFalse(it.hasNext());
+		assertEquals(999, (int) entries.get(entries.size() - 1)[0]);
+		assertStrictlyIncreasingX(entries);
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		final DLDecimatingLinePlotViewData data = new DLDecimatingLinePlotViewData(16, 4);
+		for (int i = 0; i < 777; i++) {
+			data.add((float) Math.cos(i));
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream objOut = new ObjectOutputStream(bytes)) {
+			data.writeExternal(objOut);
+		}
+		final DLDecimatingLinePlotViewData deserialized = new DLDecimatingLinePlotViewData();
+		try (final ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			deserialized.readExternal(objIn);
+		}
+		assertEquals(data.size(), deserialized.size());
+		assertEquals(data.getBucketWidth(), deserialized.getBucketWidth());
+		final List<float[]> expected = collect(data.iterator());
+		final List<float[]> actual = collect(deserialized.iterator());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i)[0], actual.get(i)[0], 0f);
+			assertEquals(expected.get(i)[1], actual.get(i)[1], 0f);
+		}
+	}
+
+	private static List<float[]> collect(final Iterator<DLLinePlotViewDataEntry> it) {
+		final List<float[]> entries = new ArrayList<>();
+		while (it.hasNext()) {
+			final DLLinePlotViewDataEntry entry = it.next();
+			entries.add(new float[] { entry.getX(), entry.getY() });
+		}
+		return entries;
+	}
+
+	private static void assertStrictlyIncreasingX(final List<float[]> entries) {
+		for (int i = 1; i < entries.size(); i++) {
+			assertTrue(entries.get(i - 1)[0] < entries.get(i)[0]);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
+import org.knime.dl.keras.testing.DLKerasTestUtil;
+
+import com.google.common.io.Files;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkSpecCacheTest {
+
+	@Rule
+	public final TemporaryFolder m_tmp = new TemporaryFolder();
+
+	@Test
+	public void testHitMissAndInvalidation() throws Exception {
+		final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(m_tmp.newFolder("cache"));
+		final DLKerasNetworkLoader<?> loader = new DLKerasTensorFlowNetworkLoader();
+		final File networkFile = m_tmp.newFile("network.h5");
+		Files.write("first", networkFile, StandardCharsets.UTF_8);
+		final Random random = new Random(42);
+		final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(random);
+		final AtomicInteger numExtractions = new AtomicInteger();
+
+		// miss
+		DLKerasNetworkSpec cached = cache.getOrExtract(networkFile.toURI(), loader, () -> {
+			numExtractions.incrementAndGet();
+			return spec;
+		});
+		assertSame(spec, cached);
+		assertEquals(1, numExtractions.get());
+
+		// hit, spec is deserialized from disk
+		cached = cache.getOrExtract(networkFile.toURI(), loader, () -> {
+			numExtractions.incrementAndGet();
+			return spec;
+		});
+		assertEquals(spec, cached);
+		assertEquals(1, numExtractions.get());
+		assertEquals(1, cache.getHitCount());
+
+		// touched but unchanged content is still a hit
+		assertTrue(networkFile.setLastModified(networkFile.lastModified() - 10000));
+		cache.getOrExtract(networkFile.toURI(), loader, () -> {
+			numExtractions.incrementAndGet();
+			return spec;
+		});
+		assertEquals(1, numExtractions.get());
+
+		// changed content is a miss
+		final DLKerasNetworkSpec otherSpec = DLKerasTestUtil.randomNetworkSpec(random);
+		Files.write("second", networkFile, StandardCharsets.UTF_8);
+		cached = cache.getOrExtract(networkFile.toURI(), loader, () -> {
+			numExtractions.incrementAndGet();
+			return otherSpec;
+		});
+		assertSame(otherSpec, cached);
+		assertEquals(2, numExtractions.get());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		final File cacheDir = m_tmp.newFolder("cache");
+		final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(cacheDir);
+		final DLKerasNetworkLoader<?> loader = new DLKerasTensorFlowNetworkLoader();
+		final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(new Random(42));
+		for (int i = 0; i < DLKerasNetworkSpecCache.MAX_NUM_ENTRIES + 10; i++) {
+			final File networkFile = m_tmp.newFile("network" + i + ".h5");
+			Files.write("network" + i, networkFile, StandardCharsets.UTF_8);
+			cache.getOrExtract(networkFile.toURI(), loader, () -> spec);
+		}
+		assertEquals(DLKerasNetworkSpecCache.MAX_NUM_ENTRIES, cacheDir.listFiles().length);
+		cache.clear();
+		assertEquals(0, cacheDir.listFiles().length);
+	}
+}
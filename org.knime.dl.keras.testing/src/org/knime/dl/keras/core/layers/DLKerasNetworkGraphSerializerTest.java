@@ -58,14 +58,19 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.UUID;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.knime.core.node.NodeSettings;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDefaultInputLayer;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -133,6 +138,105 @@ public void testSerializeMultiInputMultiOutputForkJoinModel() throws IOException
         testSerialize(createMultiInputMultiOutputForkJoinModelTestSetup());
     }
 
+    @Test
+    public void testReadSameGraphTwiceSharesLayers() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> outputLayers = createMultiInputModelTestSetup();
+        DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
+        m_outStream.flush();
+        final List<DLKerasLayer> first = readGraph();
+        final List<DLKerasLayer> second = readGraph();
+        assertGraphEquals(outputLayers, second);
+        assert first.get(0) == second.get(0);
+        final DLKerasInnerLayer firstOutput = (DLKerasInnerLayer)first.get(0);
+        final DLKerasInnerLayer secondOutput = (DLKerasInnerLayer)second.get(0);
+        assert firstOutput.getParent(0) == secondOutput.getParent(0);
+    }
+
+    @Test
+    public void testReadGraphWithoutRuntimeIdsDoesNotShareLayers() throws IOException, ClassNotFoundException {
+        // the input layer of the sequential setup has no runtime id, so none of its descendants may be shared
+        final List<DLKerasLayer> outputLayers = createSequentialModelTestSetup();
+        DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
+        m_outStream.flush();
+        final List<DLKerasLayer> first = readGraph();
+        final List<DLKerasLayer> second = readGraph();
+        assertGraphEquals(first, second);
+        assert first.get(0) != second.get(0);
+    }
+
+    @Test
+    public void testChainedPortsOnlyWriteTheirOwnLayer() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> chain = createChain();
+        // upstream ports are written first, like in a chain of layer nodes
+        final byte[] port0 = writeGraph(Arrays.asList(chain.get(0)));
+        final byte[] port1 = writeGraph(Arrays.asList(chain.get(1)));
+        final byte[] port2 = writeGraph(Arrays.asList(chain.get(2)));
+        assert getNumWrittenLayers(port0) == 1;
+        // the own layer plus a reference to the parent
+        assert getNumWrittenLayers(port1) == 2;
+        assert getNumWrittenLayers(port2) == 2;
+        final List<DLKerasLayer> read0 = readGraph(port0);
+        final List<DLKerasLayer> read1 = readGraph(port1);
+        final List<DLKerasLayer> read2 = readGraph(port2);
+        assertGraphEquals(Arrays.asList(chain.get(2)), read2);
+        assert ((DLKerasInnerLayer)read2.get(0)).getParent(0) == read1.get(0);
+        assert ((DLKerasInnerLayer)read1.get(0)).getParent(0) == read0.get(0);
+    }
+
+    @Test
+    public void testDownstreamPortWrittenFirstWritesFullGraph() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> chain = createChain();
+        final byte[] port2 = writeGraph(Arrays.asList(chain.get(2)));
+        assert getNumWrittenLayers(port2) == 3;
+        assertGraphEquals(Arrays.asList(chain.get(2)), readGraph(port2));
+    }
+
+    /**
+     * @return the layers of a sequential model with unique runtime ids, ordered from input to output
+     */
+    private static List<DLKerasLayer> createChain() {
+        final DLKerasDefaultInputLayer in0 = new DLKerasDefaultInputLayer();
+        in0.setRuntimeId(UUID.randomUUID().toString());
+        final DLKerasDenseLayer hidden0 = new DLKerasDenseLayer();
+        hidden0.setRuntimeId(UUID.randomUUID().toString());
+        hidden0.setParent(0, in0);
+        final DLKerasDenseLayer out0 = new DLKerasDenseLayer();
+        out0.setRuntimeId(UUID.randomUUID().toString());
+        out0.setParent(0, hidden0);
+        return Arrays.asList(in0, hidden0, out0);
+    }
+
+    private static byte[] writeGraph(final List<DLKerasLayer> outputLayers) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream objOut = new ObjectOutputStream(bytes)) {
+            DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, objOut);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<DLKerasLayer> readGraph(final byte[] graph) throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(graph))) {
+            return DLKerasNetworkGraphSerializer.readGraphFrom(objIn, null);
+        }
+    }
+
+    private static int getNumWrittenLayers(final byte[] graph) throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(graph))) {
+            // no base networks
+            assert objIn.readInt() == 0;
+            final NodeSettings graphSettings = (NodeSettings)objIn.readObject();
+            // -1 because of saved output indices
+            return graphSettings.getChildCount() - 1;
+        }
+    }
+
+    private List<DLKerasLayer> readGraph() throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream inStream =
+            new ObjectInputStream(new ByteArrayInputStream(m_outStreamBase.toByteArray()))) {
+            return DLKerasNetworkGraphSerializer.readGraphFrom(inStream, null);
+        }
+    }
+
     private void testSerialize(final List<DLKerasLayer> outputLayers) throws IOException, ClassNotFoundException {
         DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
         m_inStream = outStreamToInStream();
@@ -46,6 +46,11 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createSequentialModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputForkJoinModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputModelAppendedBinaryLayerSetup;
@@ -59,6 +64,8 @@
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -66,7 +73,10 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
+import org.knime.dl.util.DLUtils;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -134,6 +144,54 @@ public void testAppendBinaryLayerToTwoMultiInputMultiOutputModels()
         testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup(this::inferSpecs, Function.identity());
     }
 
+    @Test
+    public void testLayerOutputSpecsAreCached() throws Exception {
+        final DLKerasLayer out0 = createSequentialModelTestSetup().get(0);
+        final List<DLTensorSpec> outputSpecs = out0.getOutputSpecs();
+        assertSame(outputSpecs, out0.getOutputSpecs());
+        new DLKerasNetworkSpecInferrer(Arrays.asList(out0)).inferNetworkSpec();
+        assertSame(outputSpecs, out0.getOutputSpecs());
+    }
+
+    @Test
+    public void testLayerOutputSpecsReflectParameterChanges() throws Exception {
+        final DLKerasDenseLayer out0 = (DLKerasDenseLayer)createSequentialModelTestSetup().get(0);
+        final List<DLTensorSpec> outputSpecs = out0.getOutputSpecs();
+        setUnits(out0, 5);
+        final List<DLTensorSpec> changedOutputSpecs = out0.getOutputSpecs();
+        assertNotSame(outputSpecs, changedOutputSpecs);
+        assertArrayEquals(new long[]{5},
+            DLUtils.Shapes.getFixedShape(changedOutputSpecs.get(0).getShape()).get());
+        final DLKerasNetworkSpec networkSpec =
+            new DLKerasNetworkSpecInferrer(Arrays.asList(out0)).inferNetworkSpec();
+        assertArrayEquals(new long[]{5},
+            DLUtils.Shapes.getFixedShape(networkSpec.getOutputSpecs()[0].getShape()).get());
+    }
+
+    @Test
+    public void testLayerOutputSpecsReflectUpstreamParameterChanges() throws Exception {
+        final DLKerasDenseLayer out0 = (DLKerasDenseLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasDenseLayer hidden2 = (DLKerasDenseLayer)out0.getParent(0);
+        final List<DLTensorSpec> outputSpecs = out0.getOutputSpecs();
+        setUnits(hidden2, 3);
+        // The output shape of a dense layer does not depend on the size of its input, but its inputs changed.
+        assertNotSame(outputSpecs, out0.getOutputSpecs());
+        final DLKerasNetworkSpec networkSpec =
+            new DLKerasNetworkSpecInferrer(Arrays.asList(out0)).inferNetworkSpec();
+        boolean foundHidden2 = false;
+        for (final DLTensorSpec hiddenSpec : networkSpec.getHiddenOutputSpecs()) {
+            foundHidden2 |= Arrays.equals(new long[]{3}, DLUtils.Shapes.getFixedShape(hiddenSpec.getShape()).get());
+        }
+        assertTrue(foundHidden2);
+    }
+
+    private static void setUnits(final DLKerasDenseLayer layer, final long units) throws Exception {
+        // parameters are set via reflection by the node settings, too
+        final Field unitsField = DLKerasDenseLayer.class.getDeclaredField("m_units");
+        unitsField.setAccessible(true);
+        unitsField.setLong(layer, units);
+    }
+
     private DLKerasNetworkSpec inferSpecs(final List<DLKerasLayer> outputLayers) {
         return new DLKerasNetworkSpecInferrer(outputLayers).inferNetworkSpec();
     }
@@ -48,6 +48,8 @@
  */
 package org.knime.dl.keras.tensorflow.testing;
 
+import static org.junit.Assert.assertTrue;
+
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
@@ -78,6 +80,7 @@
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
 import org.knime.dl.keras.core.training.DLKerasTrainingConfig;
 import org.knime.dl.keras.core.training.DLKerasTrainingStatus;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowCommands;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
 import org.knime.dl.keras.tensorflow.core.training.DLKerasTensorFlowDefaultTrainingContext;
@@ -230,6 +233,21 @@ public void close() throws Exception {
 		}
 	}
 
+	/**
+	 * Runs the Python side tests of resuming training from a checkpoint: splitting the interrupted epoch off the
+	 * remaining ones and committing a checkpoint's model along with its position.
+	 */
+	@Test
+	public void testResumeFromCheckpoint() throws Exception {
+		try (final DLKerasTensorFlowCommands commands = new DLKerasTensorFlowCommands()) {
+			final String code = DLUtils.Files.readAllUTF8(DLUtils.Files.getFileFromBundle(BUNDLE_ID,
+					"py/DLKerasTensorFlowNetworkLearnerTest_testResumeFromCheckpoint.py"));
+			final String error = commands.getContext(DLNotCancelable.INSTANCE).executeInKernel(code,
+					DLNotCancelable.INSTANCE)[1];
+			assertTrue(error, error.isEmpty());
+		}
+	}
+
 	private static void populate(final DLTensor<?> data) {
 		if (data.getBuffer() instanceof DLWritableFloatBuffer) {
 			final DLWritableFloatBuffer buffer = (DLWritableFloatBuffer) data.getBuffer();
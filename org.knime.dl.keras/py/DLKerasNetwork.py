@@ -52,6 +52,7 @@
 import abc
 import re
 
+import h5py
 import keras
 import numpy as np
 import pandas as pd
@@ -63,10 +64,11 @@ from keras.models import model_from_yaml
 from keras.layers import Lambda
 
 import DLPythonKernelGateway
+from DLKerasTrainingCallbacks import DLKerasModelCheckpoint
 from DLKerasTrainingCallbacks import DLKerasTrainingMonitor
 from DLPythonDataBuffers import DLPythonDoubleBuffer
 from DLPythonDataBuffers import DLPythonFloatBuffer
-from DLPythonDataBuffers import DLPythonBitBuffer
+from DLPythonDataBuffers import DLPythonPackedBitBuffer
 from DLPythonDataBuffers import DLPythonByteBuffer
 from DLPythonDataBuffers import DLPythonUnsignedByteBuffer
 from DLPythonDataBuffers import DLPythonShortBuffer
@@ -77,6 +79,29 @@ from DLPythonNetwork import DLPythonNetwork
 from DLPythonNetwork import DLPythonNetworkReader
 from DLPythonNetwork import DLPythonNetworkSpec
 from DLPythonNetwork import DLPythonTrainingConfig
+from DLPythonNetwork import add_reset_hook
+
+
+def set_num_threads(num_threads):
+    """
+    Limits the number of threads TensorFlow uses to execute a single operation (intra-op parallelism) and the number
+    of operations it executes concurrently (inter-op parallelism). The setting can only be applied as long as the
+    Keras TensorFlow session has not been created yet, i.e. before the first network was loaded in this process or
+    after the session was cleared. Other back ends are not limited.
+    """
+    if keras.backend.backend() != 'tensorflow':
+        return
+    import keras.backend.tensorflow_backend as tf_backend
+    if getattr(tf_backend, '_SESSION', None) is not None:
+        print('TensorFlow session already exists, the number of threads cannot be changed in this process.')
+        return
+    import tensorflow as tf
+    config = tf.ConfigProto(intra_op_parallelism_threads=num_threads, inter_op_parallelism_threads=num_threads)
+    keras.backend.set_session(tf.Session(config=config))
+
+
+# clears the Keras session, which also resets the default TensorFlow graph when running on TensorFlow
+add_reset_hook(keras.backend.clear_session)
 
 
 class DLKerasNetworkReader(DLPythonNetworkReader):
@@ -124,6 +149,7 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model))
         self._training_monitor = None
+        self._intermediate_models = {}
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -136,9 +162,29 @@ class DLKerasNetwork(DLPythonNetwork):
         return self._spec
 
     def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
         X = self._format_input(in_data, batch_size)
+        intermediate_model = self._get_intermediate_model(output_identifiers)
+        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
+        return self._format_output(Y, output_identifiers)
 
+    def prepare_execution(self, output_identifiers):
+        self._get_intermediate_model(output_identifiers)
+
+    def _get_intermediate_model(self, output_identifiers):
+        # Models are cached per requested output tuple. They share their layers (and thereby their weights) with the
+        # wrapped model, so building them once per session instead of once per batch is safe.
+        key = tuple(output_identifiers)
+        intermediate_model = self._intermediate_models.get(key)
+        if intermediate_model is None:
+            intermediate_model = self._build_intermediate_model(output_identifiers)
+            # Compile the predict function up front, otherwise Keras does it lazily on the first call to predict.
+            if hasattr(intermediate_model, '_make_predict_function'):
+                intermediate_model._make_predict_function()
+            self._intermediate_models[key] = intermediate_model
+        return intermediate_model
+
+    def _build_intermediate_model(self, output_identifiers):
+        model = self._model
         # Get the requested output tensors
         outputs = []
         for id in output_identifiers:
@@ -154,9 +200,7 @@ class DLKerasNetwork(DLPythonNetwork):
             outputs.append(output_tensors[tensor_idx])
 
         # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
-        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
-        return self._format_output(Y, output_identifiers)
+        return Model(inputs=model.inputs, outputs=outputs)
 
     def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None):
         assert training_data_supplier is not None
@@ -177,6 +221,8 @@ class DLKerasNetwork(DLPythonNetwork):
             metrics.append('acc')
 
         self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
+        # Recompiling may replace the backend graph, drop intermediate models built on the old one.
+        self._intermediate_models = {}
 
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
             training_monitor = DLKerasTrainingMonitor(self)
@@ -186,6 +232,29 @@ class DLKerasNetwork(DLPythonNetwork):
         for c in config.callbacks:
             c.send_to_java = send_to_java
 
+        if config.resume_checkpoint is not None:
+            self._restore_checkpoint(config.resume_checkpoint)
+
+        if config.training_data_cache_size > 0:
+            resident_data = self._load_resident_data(training_data_supplier, validation_data_supplier,
+                                                     config.training_data_cache_size)
+            if resident_data is not None:
+                (x, y), validation_data = resident_data
+
+                def fit(initial_epoch, epochs, start_batch):
+                    start = start_batch * training_data_supplier.batch_size
+                    # Note that Keras uses the training batch size for validation as well.
+                    return self._model.fit([a[start:] for a in x], [a[start:] for a in y],
+                                           batch_size=training_data_supplier.batch_size,
+                                           epochs=epochs,
+                                           verbose=1,
+                                           callbacks=config.callbacks,
+                                           validation_data=validation_data,
+                                           shuffle=config.shuffle,
+                                           initial_epoch=initial_epoch)
+
+                return self._train_from(fit, config)
+
         if validation_data_supplier is not None:
             validation_data_generator = validation_data_supplier.get_generator()
             validation_steps = validation_data_supplier.steps
@@ -194,15 +263,67 @@ class DLKerasNetwork(DLPythonNetwork):
             validation_steps = None
 
         kw_max_queue = 'max_queue_size' if compare_versions(keras.__version__, "2.0.5") > 0 else 'max_q_size'
-        history = self._model.fit_generator(training_data_supplier.get_generator(),
-                                            training_data_supplier.steps,
-                                            epochs=config.epochs,
-                                            verbose=1,
-                                            callbacks=config.callbacks,
-                                            validation_data=validation_data_generator,
-                                            validation_steps=validation_steps,
-                                            **{kw_max_queue: 1})
-        return history.history
+
+        def fit_generator(initial_epoch, epochs, start_batch):
+            return self._model.fit_generator(training_data_supplier.get_generator(start_batch),
+                                             training_data_supplier.steps - start_batch,
+                                             epochs=epochs,
+                                             verbose=1,
+                                             callbacks=config.callbacks,
+                                             validation_data=validation_data_generator,
+                                             validation_steps=validation_steps,
+                                             workers=config.workers,
+                                             initial_epoch=initial_epoch,
+                                             **{kw_max_queue: config.max_queue_size})
+
+        return self._train_from(fit_generator, config)
+
+    def _train_from(self, fit, config):
+        """
+        Calls fit(initial_epoch, epochs, start_batch) once, or twice if training starts in the middle of an epoch: first
+        for the remainder of that epoch, then for the remaining epochs.
+        """
+        if config.initial_batch <= 0:
+            return fit(config.initial_epoch, config.epochs, 0).history
+        for c in config.callbacks:
+            if isinstance(c, DLKerasModelCheckpoint):
+                c.batch_offset = config.initial_batch
+        history = fit(config.initial_epoch, config.initial_epoch + 1, config.initial_batch).history
+        if self._model.stop_training or config.initial_epoch + 1 >= config.epochs:
+            return history
+        remaining_history = fit(config.initial_epoch + 1, config.epochs, 0).history
+        for k, v in remaining_history.items():
+            history.setdefault(k, []).extend(v)
+        return history
+
+    def _restore_checkpoint(self, path):
+        # the model is already compiled, restore its weights and then the state of the optimizer, if any
+        self._model.load_weights(path)
+        with h5py.File(path, mode='r') as f:
+            if 'optimizer_weights' not in f:
+                return
+            group = f['optimizer_weights']
+            names = [n.decode('utf8') if isinstance(n, bytes) else n for n in group.attrs['weight_names']]
+            values = [group[n][()] for n in names]
+        # the optimizer's weights are only created along with the training function
+        self._model._make_train_function()
+        try:
+            self._model.optimizer.set_weights(values)
+        except ValueError as e:
+            print('Optimizer state of checkpoint could not be restored, optimizer starts anew. Cause: ' + str(e))
+
+    def _load_resident_data(self, training_data_supplier, validation_data_supplier, max_num_bytes):
+        num_bytes = training_data_supplier.estimate_num_bytes()
+        if validation_data_supplier is not None:
+            num_bytes += validation_data_supplier.estimate_num_bytes()
+        if num_bytes > max_num_bytes:
+            # the batches that were fetched for estimation are retained by the suppliers, nothing is lost
+            print("Training data (estimated " + str(num_bytes) + " bytes) exceeds the memory limit of " +
+                  str(max_num_bytes) + " bytes. Training data will be transferred batch by batch.")
+            return None
+        training_data = training_data_supplier.load_all()
+        validation_data = validation_data_supplier.load_all() if validation_data_supplier is not None else None
+        return training_data, validation_data
 
     def stop_early(self):
         if self._training_monitor is not None:
@@ -256,7 +377,7 @@ class DLKerasNetwork(DLPythonNetwork):
         elif t == np.float32:
             return DLPythonFloatBuffer(y)
         elif t == np.bool_:
-            return DLPythonBitBuffer(y)
+            return DLPythonPackedBitBuffer(y)
         elif t == np.int8:
             return DLPythonByteBuffer(y)
         elif t == np.uint8:
@@ -295,3 +416,11 @@ class DLKerasTrainingConfig(DLPythonTrainingConfig):
         self.loss = {}
         self.metrics = ['acc']
         self.callbacks = []
+        self.max_queue_size = 1
+        self.workers = 1
+        self.validation_data_cache_size = 0
+        self.training_data_cache_size = 0
+        self.shuffle = False
+        self.initial_epoch = 0
+        self.initial_batch = 0
+        self.resume_checkpoint = None
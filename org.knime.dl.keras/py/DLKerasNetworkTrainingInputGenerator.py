@@ -57,7 +57,9 @@ class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator
         assert network is not None
         input_names = [s.identifier for s in network.spec.input_specs]
         target_names = [s.identifier for s in network.spec.output_specs]
-        super().__init__(input_names, target_names, steps, batch_size)
+        # validation data is identical in each epoch, keep it in memory if allowed
+        cache_size = network.spec.training_config.validation_data_cache_size if is_validation_data else 0
+        super().__init__(input_names, target_names, steps, batch_size, cache_size)
         self._network = network
         self._message_category = message_category
         self._request_from_java = None
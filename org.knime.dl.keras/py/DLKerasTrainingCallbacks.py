@@ -49,7 +49,11 @@
 '''
 
 import abc
+import math
+import os
 import sys
+import time
+import uuid
 
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
@@ -160,3 +164,77 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
                 acc = sum(accs) / len(accs)
 
             self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+
+
+class DLKerasModelCheckpoint(Callback, DLKerasAbstractTrainingCallback):
+    """
+    Periodically saves the model including its optimizer state to a new <directory>/checkpoint-<id>.h5 and then the
+    training position of the checkpoint (completed epochs, completed batches of the current epoch and batches per
+    epoch) along with the name of that model file to <directory>/checkpoint.properties. Atomically replacing the
+    properties file commits the checkpoint, so an interrupted save never pairs a model with the position of another
+    checkpoint. Model files of superseded checkpoints are removed afterwards.
+    """
+
+    MODEL_FILE_PREFIX = 'checkpoint-'
+    MODEL_FILE_SUFFIX = '.h5'
+    STATE_FILE_NAME = 'checkpoint.properties'
+
+    def __init__(self, directory, period_epochs=1, period_seconds=0):
+        super().__init__()
+        self._directory = directory
+        self._period_epochs = period_epochs
+        self._period_seconds = period_seconds
+        self._epoch = 0
+        self._last_save = None
+        # the number of batches of the current epoch that were completed before the current call to fit, non-zero if
+        # training was resumed in the middle of an epoch
+        self.batch_offset = 0
+
+    def on_train_begin(self, logs=None):
+        self._last_save = time.time()
+
+    def on_epoch_begin(self, epoch, logs=None):
+        self._epoch = epoch
+
+    def on_batch_end(self, batch, logs=None):
+        if self._period_seconds > 0 and time.time() - self._last_save >= self._period_seconds:
+            completed_batches = self.batch_offset + batch + 1
+            # the checkpoint at the end of the epoch will cover the last batch
+            if completed_batches < self._get_steps():
+                self._save(self._epoch, completed_batches)
+
+    def on_epoch_end(self, epoch, logs=None):
+        if (self._period_epochs > 0 and (epoch + 1) % self._period_epochs == 0) or \
+                (self._period_seconds > 0 and time.time() - self._last_save >= self._period_seconds):
+            self._save(epoch + 1, 0)
+        self.batch_offset = 0
+
+    def _get_steps(self):
+        steps = self.params.get('steps')
+        if steps is None:
+            steps = int(math.ceil(self.params['samples'] / self.params['batch_size']))
+        return steps + self.batch_offset
+
+    def _save(self, epoch, batch):
+        model_file_name = DLKerasModelCheckpoint.MODEL_FILE_PREFIX + uuid.uuid4().hex + \
+            DLKerasModelCheckpoint.MODEL_FILE_SUFFIX
+        state_path = os.path.join(self._directory, DLKerasModelCheckpoint.STATE_FILE_NAME)
+        self.model.save(os.path.join(self._directory, model_file_name))
+        with open(state_path + '.tmp', 'w') as f:
+            f.write('epoch=' + str(epoch) + '\nbatch=' + str(batch) + '\nsteps=' + str(self._get_steps()) +
+                    '\nmodel=' + model_file_name + '\n')
+        os.replace(state_path + '.tmp', state_path)
+        self._remove_stale_model_files(model_file_name)
+        self._last_save = time.time()
+        sys.stdout.flush()  # flush pending Keras logs before printing our own status message
+        print('Saved checkpoint after ' + str(epoch) + ' epoch(s) and ' + str(batch) + ' batch(es).')
+
+    def _remove_stale_model_files(self, current_model_file_name):
+        for name in os.listdir(self._directory):
+            if name != current_model_file_name and name.startswith(DLKerasModelCheckpoint.MODEL_FILE_PREFIX) and \
+                    name.endswith(DLKerasModelCheckpoint.MODEL_FILE_SUFFIX):
+                try:
+                    os.remove(os.path.join(self._directory, name))
+                except OSError:
+                    # a leftover file only costs disk space, the next checkpoint tries again
+                    pass
@@ -62,6 +62,7 @@
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.training.DLTrainingContextRegistry;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasEarlyStopping;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasReduceLROnPlateau;
 import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasTerminateOnNaN;
 import org.knime.dl.keras.core.training.DLKerasOptimizer;
@@ -103,6 +104,57 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	static final String CFG_KEY_SHUFFLE_STRATEGY = "shuffle_strategy";
+
+	static final String CFG_KEY_SHUFFLE_WINDOW_SIZE = "shuffle_window_size";
+
+	/**
+	 * Shuffles the entire table before each epoch. This writes a shuffled copy of the table.
+	 */
+	static final String SHUFFLE_STRATEGY_EXACT = "Exact";
+
+	/**
+	 * Shuffles the table on the fly using an in-memory window of fixed size. No copy of the table is written.
+	 */
+	static final String SHUFFLE_STRATEGY_WINDOWED = "Windowed";
+
+	static final int DEFAULT_SHUFFLE_WINDOW_SIZE = 10000;
+
+	static final String CFG_KEY_PREFETCH_SIZE = "prefetch_size";
+
+	static final String CFG_KEY_WORKERS = "workers";
+
+	static final int DEFAULT_PREFETCH_SIZE = 2;
+
+	static final String CFG_KEY_CACHE_VALIDATION_DATA = "cache_validation_data";
+
+	static final String CFG_KEY_VALIDATION_DATA_CACHE_SIZE = "validation_data_cache_size";
+
+	/**
+	 * In megabytes.
+	 */
+	static final int DEFAULT_VALIDATION_DATA_CACHE_SIZE = 1024;
+
+	static final String CFG_KEY_TRAIN_IN_MEMORY = "train_in_memory";
+
+	static final String CFG_KEY_TRAINING_DATA_CACHE_SIZE = "training_data_cache_size";
+
+	/**
+	 * In megabytes.
+	 */
+	static final int DEFAULT_TRAINING_DATA_CACHE_SIZE = 2048;
+
+	static final String CFG_KEY_MONITOR_WINDOW_SIZE = "monitor_window_size";
+
+	/**
+	 * In batches.
+	 */
+	static final int DEFAULT_MONITOR_WINDOW_SIZE = 10000;
+
+	static final String CFG_KEY_MODEL_CHECKPOINT = "model_checkpoint";
+
+	static final String CFG_KEY_OFF_HEAP_TENSORS = "off_heap_tensors";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -216,6 +268,108 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+		put(new DefaultConfigEntry<String>(CFG_KEY_SHUFFLE_STRATEGY, String.class, SHUFFLE_STRATEGY_EXACT) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): shuffling used to always be exact
+				m_value = SHUFFLE_STRATEGY_EXACT;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_SHUFFLE_WINDOW_SIZE, Integer.class, DEFAULT_SHUFFLE_WINDOW_SIZE) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = DEFAULT_SHUFFLE_WINDOW_SIZE;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_PREFETCH_SIZE, Integer.class, DEFAULT_PREFETCH_SIZE) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): batches used to be prepared on demand
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_WORKERS, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_CACHE_VALIDATION_DATA, Boolean.class, true) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): validation data used to be transferred anew in each epoch
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_VALIDATION_DATA_CACHE_SIZE, Integer.class,
+				DEFAULT_VALIDATION_DATA_CACHE_SIZE) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = DEFAULT_VALIDATION_DATA_CACHE_SIZE;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_TRAIN_IN_MEMORY, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_TRAINING_DATA_CACHE_SIZE, Integer.class,
+				DEFAULT_TRAINING_DATA_CACHE_SIZE) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = DEFAULT_TRAINING_DATA_CACHE_SIZE;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_MONITOR_WINDOW_SIZE, Integer.class, DEFAULT_MONITOR_WINDOW_SIZE) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = DEFAULT_MONITOR_WINDOW_SIZE;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<DLKerasModelCheckpoint>(CFG_KEY_MODEL_CHECKPOINT, DLKerasModelCheckpoint.class,
+				new DLKerasModelCheckpoint(), false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): checkpoints used to be unsupported
+				m_enabled = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_OFF_HEAP_TENSORS, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): tensors were previously always allocated on the Java heap
+				m_value = false;
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -276,6 +430,59 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	ConfigEntry<String> getShuffleStrategyEntry() {
+		return get(CFG_KEY_SHUFFLE_STRATEGY, String.class);
+	}
+
+	ConfigEntry<Integer> getShuffleWindowSizeEntry() {
+		return get(CFG_KEY_SHUFFLE_WINDOW_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Integer> getPrefetchSizeEntry() {
+		return get(CFG_KEY_PREFETCH_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Integer> getWorkersEntry() {
+		return get(CFG_KEY_WORKERS, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getCacheValidationDataEntry() {
+		return get(CFG_KEY_CACHE_VALIDATION_DATA, Boolean.class);
+	}
+
+	/**
+	 * @return the validation data cache size in megabytes
+	 */
+	ConfigEntry<Integer> getValidationDataCacheSizeEntry() {
+		return get(CFG_KEY_VALIDATION_DATA_CACHE_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getTrainInMemoryEntry() {
+		return get(CFG_KEY_TRAIN_IN_MEMORY, Boolean.class);
+	}
+
+	/**
+	 * @return the training data cache size in megabytes
+	 */
+	ConfigEntry<Integer> getTrainingDataCacheSizeEntry() {
+		return get(CFG_KEY_TRAINING_DATA_CACHE_SIZE, Integer.class);
+	}
+
+	/**
+	 * @return the number of most recent batches that are shown at full resolution in the learning monitor
+	 */
+	ConfigEntry<Integer> getMonitorWindowSizeEntry() {
+		return get(CFG_KEY_MONITOR_WINDOW_SIZE, Integer.class);
+	}
+
+	ConfigEntry<DLKerasModelCheckpoint> getModelCheckpointEntry() {
+		return get(CFG_KEY_MODEL_CHECKPOINT, DLKerasModelCheckpoint.class);
+	}
+
+	ConfigEntry<Boolean> getOffHeapTensorsEntry() {
+		return get(CFG_KEY_OFF_HEAP_TENSORS, Boolean.class);
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
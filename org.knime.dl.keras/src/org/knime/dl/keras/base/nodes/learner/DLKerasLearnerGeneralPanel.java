@@ -102,11 +102,70 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		addNumberSpinnerRowComponent(
 				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getValidationBatchSizeEntry(), 1, Integer.MAX_VALUE),
 				"Validation batch size", 1);
+
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getPrefetchSizeEntry(), 0, Integer.MAX_VALUE),
+				"Number of prefetched training batches", 1);
+
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getWorkersEntry(), 1, Integer.MAX_VALUE),
+				"Number of data loading threads", 1);
+
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getOffHeapTensorsEntry()),
+				"Allocate tensors outside of the Java heap", true);
+
+		final ConfigEntry<Boolean> cacheValidationDataEntry = m_cfg.getCacheValidationDataEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(cacheValidationDataEntry),
+				"Keep validation data in memory across epochs", true);
+		final ConfigEntry<Integer> validationDataCacheSizeEntry = m_cfg.getValidationDataCacheSizeEntry();
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(validationDataCacheSizeEntry, 1, Integer.MAX_VALUE),
+				"Validation data memory limit (MB)", 256);
+		final Runnable updateValidationDataCacheOptions = () -> validationDataCacheSizeEntry
+				.setEnabled(cacheValidationDataEntry.getEnabled() && cacheValidationDataEntry.getValue());
+		updateValidationDataCacheOptions.run();
+		cacheValidationDataEntry.addValueChangeListener((e, v) -> updateValidationDataCacheOptions.run());
+		cacheValidationDataEntry.addEnableChangeListener(e -> updateValidationDataCacheOptions.run());
+		cacheValidationDataEntry.addLoadListener(e -> updateValidationDataCacheOptions.run());
+
+		final ConfigEntry<Boolean> trainInMemoryEntry = m_cfg.getTrainInMemoryEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(trainInMemoryEntry), "Train on in-memory data if possible",
+				true);
+		final ConfigEntry<Integer> trainingDataCacheSizeEntry = m_cfg.getTrainingDataCacheSizeEntry();
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(trainingDataCacheSizeEntry, 1, Integer.MAX_VALUE),
+				"In-memory training data limit (MB)", 256);
+		trainingDataCacheSizeEntry.setEnabled(trainInMemoryEntry.getValue());
+		trainInMemoryEntry.addValueChangeListener((e, v) -> trainingDataCacheSizeEntry.setEnabled(e.getValue()));
+		trainInMemoryEntry.addLoadListener(e -> trainingDataCacheSizeEntry.setEnabled(e.getValue()));
+
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getMonitorWindowSizeEntry(), 1, Integer.MAX_VALUE),
+				"Full-resolution learning monitor window (batches)", 1000);
 		
 		ConfigEntry<Boolean> shuffleEntry = m_cfg.getShuffleTrainingData();
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(shuffleEntry),
 				"Shuffle training data before each epoch", true);
-		
+
+		final ConfigEntry<String> shuffleStrategyEntry = m_cfg.getShuffleStrategyEntry();
+		addComboBoxRow(ConfigUtil.toSettingsModelString(shuffleStrategyEntry), "Shuffle strategy",
+				Arrays.asList(DLKerasLearnerGeneralConfig.SHUFFLE_STRATEGY_EXACT,
+						DLKerasLearnerGeneralConfig.SHUFFLE_STRATEGY_WINDOWED));
+		final ConfigEntry<Integer> shuffleWindowSizeEntry = m_cfg.getShuffleWindowSizeEntry();
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(shuffleWindowSizeEntry, 1, Integer.MAX_VALUE),
+				"Shuffle window size (rows)", 1000);
+		final Runnable updateShuffleOptions = () -> {
+			shuffleStrategyEntry.setEnabled(shuffleEntry.getValue());
+			shuffleWindowSizeEntry.setEnabled(shuffleEntry.getValue()
+					&& DLKerasLearnerGeneralConfig.SHUFFLE_STRATEGY_WINDOWED.equals(shuffleStrategyEntry.getValue()));
+		};
+		updateShuffleOptions.run();
+		shuffleEntry.addValueChangeListener((e, v) -> updateShuffleOptions.run());
+		shuffleEntry.addLoadListener(e -> updateShuffleOptions.run());
+		shuffleStrategyEntry.addValueChangeListener((e, v) -> updateShuffleOptions.run());
+		shuffleStrategyEntry.addLoadListener(e -> updateShuffleOptions.run());
+
 		ConfigEntry<Long> randomSeedConfig = m_cfg.getRandomSeed();
 		DialogComponentRandomSeed randomSeed = 
 				new DialogComponentRandomSeed(ConfigUtil.toSettingsModelLong(randomSeedConfig));
@@ -170,6 +229,8 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 			m_cfg.getValidationBatchSizeEntry()
 					.setEnabled(specs[DLKerasLearnerNodeModel.IN_VALIDATION_DATA_PORT_IDX] != null);
 		}
+		m_cfg.getCacheValidationDataEntry()
+				.setEnabled(specs[DLKerasLearnerNodeModel.IN_VALIDATION_DATA_PORT_IDX] != null);
 	}
 
 	private void refreshAvailableBackends(final Class<? extends DLNetwork> networkType)
@@ -54,6 +54,8 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.net.MalformedURLException;
+import java.nio.file.InvalidPathException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -63,6 +65,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -80,6 +83,7 @@
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.core.util.FileUtil;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
@@ -100,14 +104,15 @@
 import org.knime.dl.core.DLShuffleDataTableRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLWindowedShuffleDataTableRowIterator;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
 import org.knime.dl.core.training.DLKnimeTrainingMonitor;
 import org.knime.dl.core.training.DLTrainingContext;
 import org.knime.dl.core.training.DLTrainingStatus.Status;
+import org.knime.dl.keras.base.nodes.learner.view.DLDecimatingLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.DLDefaultLinePlotViewDataCollection;
-import org.knime.dl.keras.base.nodes.learner.view.DLDenseLinePlotViewData;
 import org.knime.dl.keras.base.nodes.learner.view.DLInteractiveLearnerNodeModel;
 import org.knime.dl.keras.base.nodes.learner.view.DLLinePlotViewDataCollection;
 import org.knime.dl.keras.base.nodes.learner.view.DLProgressMonitor;
@@ -119,6 +124,7 @@
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.core.training.DLKerasCallback;
+import org.knime.dl.keras.core.training.DLKerasCallback.DLKerasModelCheckpoint;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingConfig;
 import org.knime.dl.keras.core.training.DLKerasDefaultTrainingStatus;
 import org.knime.dl.keras.core.training.DLKerasLossFunction;
@@ -154,8 +160,31 @@ final class DLKerasLearnerNodeModel extends NodeModel implements DLInteractiveLe
 
 	static final String INTERNAL_FILENAME = "view.data";
 
+	/**
+	 * The VM option that controls the minimum time in milliseconds between two view updates that are triggered by the
+	 * end of a training batch. Epoch boundaries and the end of the training always update the view.
+	 */
+	static final String VIEW_UPDATE_INTERVAL_VM_OPTION = "knime.dl.learner.viewupdateinterval";
+
+	static final long DEFAULT_VIEW_UPDATE_INTERVAL = 500;
+
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasLearnerNodeModel.class);
 
+	private static long getViewUpdateInterval() {
+		final String interval = System.getProperty(VIEW_UPDATE_INTERVAL_VM_OPTION);
+		if (interval == null) {
+			return DEFAULT_VIEW_UPDATE_INTERVAL;
+		}
+		try {
+			return Math.max(0, Long.parseLong(interval));
+		} catch (final NumberFormatException e) {
+			LOGGER.warn("The VM option -D" + VIEW_UPDATE_INTERVAL_VM_OPTION
+					+ " was set to a non-integer value. The default of " + DEFAULT_VIEW_UPDATE_INTERVAL
+					+ " milliseconds will be used.");
+			return DEFAULT_VIEW_UPDATE_INTERVAL;
+		}
+	}
+
 	static DLKerasLearnerGeneralConfig createGeneralModelConfig() {
 		return new DLKerasLearnerGeneralConfig();
 	}
@@ -271,6 +300,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 
 		try {
 			configureGeneral(inNetworkType);
+			configureModelCheckpoint();
 			final DLTensorSpec[] inputSpecs = inNetworkSpec.getInputSpecs();
 	        final DLTensorSpec[] targetSpecs = inNetworkSpec.getOutputSpecs();
 	        final DLKerasTrainingContext<?> trainingContext = m_generalCfg.getTrainingContext().getValue();
@@ -441,6 +471,13 @@ private void configureGeneral(final Class<? extends DLNetwork> inNetworkType) th
 		configureOptimizer(backend);
 	}
 
+	private void configureModelCheckpoint() throws InvalidSettingsException {
+		if (m_generalCfg.getModelCheckpointEntry().getEnabled()
+				&& m_generalCfg.getModelCheckpointEntry().getValue().getDirectory().trim().isEmpty()) {
+			throw new InvalidSettingsException("Please specify a checkpoint directory or disable checkpoints.");
+		}
+	}
+
     private void configureOptimizer(final DLKerasTrainingContext<?> backend) throws DLMissingDependencyException {
         DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
 		if (optimizer == null) {
@@ -632,8 +669,21 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
                 + "' is not available anymore. " + "Please check your local installation.\nDetails: " + e.getMessage());
         }
 
+		// TODO: only valid if we don't crop the last batch. This has to be considered if we want to add 'crop' as an
+		// alternative strategy for handling incomplete batches.
+		final int numTrainingBatchesPerEpoch = (int) Math
+				.ceil(inTable.size() / (double) m_generalCfg.getBatchSizeEntry().getValue());
+
+		// checkpoints
+		final File checkpointDirectory = prepareCheckpointDirectory();
+		final DLCheckpointPosition initialPosition = checkpointDirectory != null
+				&& m_generalCfg.getModelCheckpointEntry().getValue().getResume()
+						? readCheckpointPosition(checkpointDirectory, numTrainingBatchesPerEpoch,
+								m_generalCfg.getEpochsEntry().getValue())
+						: null;
+
 		// training configuration
-		final DLKerasTrainingConfig trainingConfig = createTrainingConfig(inNetworkSpec);
+		final DLKerasTrainingConfig trainingConfig = createTrainingConfig(inNetworkSpec, initialPosition);
 
 		final Map<DLTensorId, int[]> columnsForTensorId = new HashMap<>(
 				inNetworkSpec.getInputSpecs().length + inNetworkSpec.getOutputSpecs().length);
@@ -641,20 +691,18 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 				columnsForTensorId.size());
 		fillInputAndTargetSpecificMaps(inTableSpec, columnsForTensorId, converterForTensorId);
 
-		// TODO: only valid if we don't crop the last batch. This has to be considered if we want to add 'crop' as an
-		// alternative strategy for handling incomplete batches.
-		final int numTrainingBatchesPerEpoch = (int) Math.ceil(inTable.size() / (double) trainingConfig.getBatchSize());
 		final int totalNumTrainingBatches = trainingConfig.getEpochs() * numTrainingBatchesPerEpoch;
-		final int numBatchesPerValidation = doValidation
-				? (int) Math.ceil(inValidationTable.size() / (double) trainingConfig.getValidationBatchSize())
-				: 0;
-		final int totalNumValidationBatches = trainingConfig.getEpochs() * numBatchesPerValidation;
 
-		prepareView(doValidation, totalNumTrainingBatches, totalNumValidationBatches);
+		prepareView(doValidation, trainingConfig.getEpochs());
 
 		final Random random = createRandom();
 
 		m_status = new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch);
+		if (initialPosition != null) {
+			m_status.setInitialPosition(initialPosition.getEpoch(), initialPosition.getBatch());
+			setWarningMessage("Resumed training from checkpoint at epoch " + (initialPosition.getEpoch() + 1)
+					+ ", batch " + (initialPosition.getBatch() + 1) + ".");
+		}
 		try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, random, exec);
 				final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
 						rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId);
@@ -708,6 +756,8 @@ private RuntimeException handleGeneralException(final Exception e) throws Cancel
     private void setupTrainingStatus(final boolean doValidation, final DLKerasTrainingConfig trainingConfig,
         final int numTrainingBatchesPerEpoch, final int totalNumTrainingBatches,
         final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor) {
+        final long viewUpdateInterval = getViewUpdateInterval();
+        final long[] lastViewUpdate = { System.currentTimeMillis() };
         m_status.setViewSpecs(m_viewSpecs);
         m_status.setViewData(m_viewData);
         m_status.trainingEnded().addListener((src, v) -> {
@@ -728,8 +778,10 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         });
         m_status.epochEnded().addListener((src, metrics) -> {
         	if (doValidation) {
+        		// the training plots start at the first batch that was actually trained, e.g. when resuming
         		final int currentBatch = m_status.getCurrentEpoch() * numTrainingBatchesPerEpoch
-        				+ m_status.getCurrentBatchInEpoch();
+        				+ m_status.getCurrentBatchInEpoch()
+        				- (trainingConfig.getInitialEpoch() * numTrainingBatchesPerEpoch + trainingConfig.getInitialBatch());
         		// update view
         		final DLSparseLinePlotViewData accuracyPlot = (DLSparseLinePlotViewData) m_viewData[0].get(1);
         		accuracyPlot.getDataX().add(currentBatch);
@@ -755,9 +807,14 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         			+ " in epoch " + currentEpoch + " of " + trainingConfig.getEpochs() + "...");
         });
         m_status.batchEnded().addListener((src, metrics) -> {
-        	// update view
-        	((DLDenseLinePlotViewData) m_viewData[0].get(0)).getDataY().add(metrics.get("accuracy").getValue());
-        	((DLDenseLinePlotViewData) m_viewData[1].get(0)).getDataY().add(metrics.get("loss").getValue());
+        	// update view, views are notified at most once per update interval
+        	((DLDecimatingLinePlotViewData) m_viewData[0].get(0)).add(metrics.get("accuracy").getValue());
+        	((DLDecimatingLinePlotViewData) m_viewData[1].get(0)).add(metrics.get("loss").getValue());
+        	final long now = System.currentTimeMillis();
+        	if (now - lastViewUpdate[0] < viewUpdateInterval) {
+        		return;
+        	}
+        	lastViewUpdate[0] = now;
         	try {
         		notifyViews(m_status);
         	} catch (final Exception e) {
@@ -781,8 +838,8 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         }
     }
 
-    private void prepareView(final boolean doValidation, final int totalNumTrainingBatches,
-        final int totalNumValidationBatches) {
+    private void prepareView(final boolean doValidation, final int numEpochs) {
+        final int windowSize = m_generalCfg.getMonitorWindowSizeEntry().getValue();
         m_viewSpecs = new DLDefaultJFreeChartLinePlotViewSpec[2];
 		m_viewData = new DLLinePlotViewDataCollection[2];
 		if (doValidation) {
@@ -791,20 +848,18 @@ private void prepareView(final boolean doValidation, final int totalNumTrainingB
 			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
 					new String[] { "Training data", "Validation data" });
 			m_viewData[0] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[0],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches),
-					new DLSparseLinePlotViewData(totalNumValidationBatches));
+					new DLDecimatingLinePlotViewData(windowSize), new DLSparseLinePlotViewData(numEpochs));
 			m_viewData[1] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[1],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches),
-					new DLSparseLinePlotViewData(totalNumValidationBatches));
+					new DLDecimatingLinePlotViewData(windowSize), new DLSparseLinePlotViewData(numEpochs));
 		} else {
 			m_viewSpecs[0] = new DLDefaultJFreeChartLinePlotViewSpec("accuracy", "Accuracy", "Accuracy", "Batches",
 					new String[] { "Training data" });
 			m_viewSpecs[1] = new DLDefaultJFreeChartLinePlotViewSpec("loss", "Loss", "Loss", "Batches",
 					new String[] { "Training data" });
 			m_viewData[0] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[0],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches));
+					new DLDecimatingLinePlotViewData(windowSize));
 			m_viewData[1] = new DLDefaultLinePlotViewDataCollection<>(m_viewSpecs[1],
-					new DLDenseLinePlotViewData(totalNumTrainingBatches));
+					new DLDecimatingLinePlotViewData(windowSize));
 		}
     }
 
@@ -834,19 +889,116 @@ private void fillInputAndTargetSpecificMaps(final DataTableSpec inTableSpec, fin
 		}
     }
 
-    private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNetworkSpec) {
+    private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNetworkSpec,
+        final DLCheckpointPosition initialPosition) {
         final int trainingBatchSize = m_generalCfg.getBatchSizeEntry().getValue();
 		final int numEpochs = m_generalCfg.getEpochsEntry().getValue();
 		final int validationBatchSize = m_generalCfg.getValidationBatchSizeEntry().getValue();
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
         final Map<DLTensorId, DLKerasLossFunction> lossFunctions = createLossFunctionMap(inNetworkSpec);
 		final ArrayList<DLKerasCallback> callbacks = createCallbackList();
-		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize,
-				validationBatchSize, optimizer, lossFunctions, callbacks);
+		final long validationDataCacheSize = m_generalCfg.getCacheValidationDataEntry().getValue()
+				? m_generalCfg.getValidationDataCacheSizeEntry().getValue() * 1024L * 1024L
+				: 0;
+		final long trainingDataCacheSize = m_generalCfg.getTrainInMemoryEntry().getValue()
+				? m_generalCfg.getTrainingDataCacheSizeEntry().getValue() * 1024L * 1024L
+				: 0;
+		final DLKerasDefaultTrainingConfig.Builder builder = DLKerasDefaultTrainingConfig
+				.builder(numEpochs, trainingBatchSize, validationBatchSize, optimizer, lossFunctions, callbacks)
+				.setPrefetchSize(m_generalCfg.getPrefetchSizeEntry().getValue())
+				.setWorkers(m_generalCfg.getWorkersEntry().getValue())
+				.setValidationDataCacheSize(validationDataCacheSize)
+				.setTrainingDataCacheSize(trainingDataCacheSize)
+				.setShuffleTrainingData(m_generalCfg.getShuffleTrainingData().getValue())
+				.setOffHeapTensors(m_generalCfg.getOffHeapTensorsEntry().getValue());
+		if (initialPosition != null) {
+			builder.setResumePosition(initialPosition.getEpoch(), initialPosition.getBatch(),
+					initialPosition.getModelFile().getAbsolutePath());
+		}
+		return builder.build();
     }
 
+	/**
+	 * @return the local checkpoint directory, which is created if it does not exist yet, or null if checkpoints are
+	 *         disabled
+	 */
+	private File prepareCheckpointDirectory() throws InvalidSettingsException {
+		final ConfigEntry<DLKerasModelCheckpoint> checkpointEntry = m_generalCfg.getModelCheckpointEntry();
+		if (!checkpointEntry.getEnabled()) {
+			return null;
+		}
+		final String directoryPath = checkpointEntry.getValue().getDirectory().trim();
+		File directory;
+		try {
+			directory = FileUtil.getFileFromURL(FileUtil.toURL(directoryPath));
+		} catch (final InvalidPathException | MalformedURLException e) {
+			throw new InvalidSettingsException("Invalid checkpoint directory '" + directoryPath + "'.", e);
+		}
+		if (directory == null) {
+			throw new InvalidSettingsException(
+					"Checkpoint directory '" + directoryPath + "' does not point to a local directory.");
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new InvalidSettingsException("Checkpoint directory '" + directory + "' could not be created.");
+		}
+		checkpointEntry.getValue().setResolvedDirectory(directory.getAbsolutePath());
+		return directory;
+	}
+
+	/**
+	 * The state file is the commit record of a checkpoint: it names the model file that belongs to the recorded
+	 * position. State files of older checkpoints do not name a model file, in which case
+	 * {@link DLKerasModelCheckpoint#MODEL_FILE_NAME} is used.
+	 *
+	 * @return the zero-based epoch and batch at which training resumes along with the model file to resume from, or
+	 *         null if the directory does not contain a checkpoint
+	 */
+	static DLCheckpointPosition readCheckpointPosition(final File checkpointDirectory,
+			final int numTrainingBatchesPerEpoch, final int numEpochs) throws IOException, InvalidSettingsException {
+		final File stateFile = new File(checkpointDirectory, DLKerasModelCheckpoint.STATE_FILE_NAME);
+		if (!stateFile.isFile()) {
+			LOGGER.info("No checkpoint found in '" + checkpointDirectory + "'. Training starts anew.");
+			return null;
+		}
+		final Properties state = new Properties();
+		try (final FileInputStream in = new FileInputStream(stateFile)) {
+			state.load(in);
+		}
+		final File modelFile = new File(checkpointDirectory,
+				state.getProperty(DLKerasModelCheckpoint.STATE_KEY_MODEL, DLKerasModelCheckpoint.MODEL_FILE_NAME));
+		if (!modelFile.isFile()) {
+			LOGGER.warn("Checkpoint model file '" + modelFile + "' does not exist. Training starts anew.");
+			return null;
+		}
+		int epoch;
+		int batch;
+		try {
+			epoch = Integer.parseInt(state.getProperty(DLKerasModelCheckpoint.STATE_KEY_EPOCH));
+			batch = Integer.parseInt(state.getProperty(DLKerasModelCheckpoint.STATE_KEY_BATCH));
+			final int steps = Integer.parseInt(state.getProperty(DLKerasModelCheckpoint.STATE_KEY_STEPS));
+			if (batch > 0 && steps != numTrainingBatchesPerEpoch) {
+				LOGGER.warn("The number of batches per epoch changed since the checkpoint was saved (" + steps
+						+ " vs. " + numTrainingBatchesPerEpoch + "). Training resumes at the beginning of epoch "
+						+ (epoch + 1) + ".");
+				batch = 0;
+			}
+		} catch (final NumberFormatException e) {
+			throw new IOException("Checkpoint state file '" + stateFile + "' is corrupt.", e);
+		}
+		if (batch >= numTrainingBatchesPerEpoch) {
+			epoch++;
+			batch = 0;
+		}
+		if (epoch >= numEpochs) {
+			throw new InvalidSettingsException("The checkpoint in '" + checkpointDirectory + "' already covers all "
+					+ numEpochs
+					+ " epochs. Please increase the number of epochs or disable resuming from the last checkpoint.");
+		}
+		return new DLCheckpointPosition(epoch, batch, modelFile);
+	}
+
     private ArrayList<DLKerasCallback> createCallbackList() {
-        final ArrayList<DLKerasCallback> callbacks = new ArrayList<>(3);
+        final ArrayList<DLKerasCallback> callbacks = new ArrayList<>(4);
 		if (m_generalCfg.getTerminateOnNaNEntry().getEnabled()) {
 			callbacks.add(m_generalCfg.getTerminateOnNaNEntry().getValue());
 		}
@@ -856,6 +1008,9 @@ private ArrayList<DLKerasCallback> createCallbackList() {
 		if (m_generalCfg.getReduceLROnPlateauEntry().getEnabled()) {
 			callbacks.add(m_generalCfg.getReduceLROnPlateauEntry().getValue());
 		}
+		if (m_generalCfg.getModelCheckpointEntry().getEnabled()) {
+			callbacks.add(m_generalCfg.getModelCheckpointEntry().getValue());
+		}
         return callbacks;
     }
 
@@ -899,9 +1054,53 @@ private DLRowIterator createRowIterator(final BufferedDataTable inTable,
 			final Map<DLTensorId, int[]> columnsForTensorId, final Random random, final ExecutionContext exec) {
 		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
 		if (doShuffle) {
+			if (DLKerasLearnerGeneralConfig.SHUFFLE_STRATEGY_WINDOWED
+					.equals(m_generalCfg.getShuffleStrategyEntry().getValue())) {
+				return new DLWindowedShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
+						m_generalCfg.getShuffleWindowSizeEntry().getValue());
+			}
 			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
 					exec.createSubExecutionContext(0));
 		}
 		return new DLDataTableRowIterator(inTable, columnsForTensorId);
 	}
+
+	/**
+	 * The position at which training resumes from a checkpoint.
+	 */
+	static final class DLCheckpointPosition {
+
+		private final int m_epoch;
+
+		private final int m_batch;
+
+		private final File m_modelFile;
+
+		DLCheckpointPosition(final int epoch, final int batch, final File modelFile) {
+			m_epoch = epoch;
+			m_batch = batch;
+			m_modelFile = modelFile;
+		}
+
+		/**
+		 * @return the zero-based epoch at which training resumes
+		 */
+		int getEpoch() {
+			return m_epoch;
+		}
+
+		/**
+		 * @return the zero-based batch within {@link #getEpoch() the epoch} at which training resumes
+		 */
+		int getBatch() {
+			return m_batch;
+		}
+
+		/**
+		 * @return the file that contains the network and its optimizer state at this position
+		 */
+		File getModelFile() {
+			return m_modelFile;
+		}
+	}
 }
@@ -0,0 +1,386 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.learner.view;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import gnu.trove.TFloatArrayList;
+import gnu.trove.TIntArrayList;
+
+/**
+ * Dense line plot data of bounded size. The most recent values are kept at full resolution in a ring buffer of fixed
+ * size. Values that leave this window are aggregated into buckets that only retain the minimum and the maximum value
+ * (and their x positions) of the batches they cover. Once the number of buckets reaches its limit, adjacent buckets are
+ * merged pairwise which halves the resolution of the older part of the series. Memory consumption is therefore
+ * independent of the number of appended values.
+ * <P>
+ * Iterators of this class are live: they can be resumed after new values were appended. A lagging iterator that falls
+ * behind the full-resolution window continues with the decimated representation of the skipped range.
+ * <P>
+ * Instances are safe to be written by one thread while being iterated by other threads.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLDecimatingLinePlotViewData implements DLLinePlotViewData {
+
+	/**
+	 * The default maximum number of min/max buckets. Must be even.
+	 */
+	public static final int DEFAULT_MAX_NUM_BUCKETS = 2048;
+
+	private int m_windowSize;
+
+	private int m_maxNumBuckets;
+
+	/**
+	 * Ring buffer holding the most recent values, indexed by x modulo window size.
+	 */
+	private float[] m_window;
+
+	/**
+	 * Total number of appended values, i.e. the x position of the next value.
+	 */
+	private int m_size;
+
+	private int m_bucketWidth;
+
+	private TIntArrayList m_bucketMinX;
+
+	private TFloatArrayList m_bucketMinY;
+
+	private TIntArrayList m_bucketMaxX;
+
+	private TFloatArrayList m_bucketMaxY;
+
+	// the bucket that is currently being filled by values leaving the window
+
+	private int m_partialCount;
+
+	private int m_partialMinX;
+
+	private float m_partialMinY;
+
+	private int m_partialMaxX;
+
+	private float m_partialMaxY;
+
+	/**
+	 * @param windowSize the number of most recent values that are kept at full resolution, must be positive
+	 */
+	public DLDecimatingLinePlotViewData(final int windowSize) {
+		this(windowSize, DEFAULT_MAX_NUM_BUCKETS);
+	}
+
+	/**
+	 * @param windowSize the number of most recent values that are kept at full resolution, must be positive
+	 * @param maxNumBuckets the maximum number of min/max buckets for values outside of the window, must be even and at
+	 *            least two
+	 */
+	public DLDecimatingLinePlotViewData(final int windowSize, final int maxNumBuckets) {
+		checkArgument(windowSize > 0, "Window size must be positive.");
+		checkArgument(maxNumBuckets >= 2 && maxNumBuckets % 2 == 0,
+				"Maximum number of buckets must be even and at least two.");
+		m_windowSize = windowSize;
+		m_maxNumBuckets = maxNumBuckets;
+		m_window = new float[windowSize];
+		m_bucketWidth = 1;
+		m_bucketMinX = new TIntArrayList();
+		m_bucketMinY = new TFloatArrayList();
+		m_bucketMaxX = new TIntArrayList();
+		m_bucketMaxY = new TFloatArrayList();
+	}
+
+	/**
+	 * Empty deserialization constructor. Must not be used for other purposes.
+	 */
+	public DLDecimatingLinePlotViewData() {
+	}
+
+	/**
+	 * Appends the next value of the series.
+	 *
+	 * @param y the value
+	 */
+	public synchronized void add(final float y) {
+		if (m_size >= m_windowSize) {
+			final int evictedX = m_size - m_windowSize;
+			addToPartialBucket(evictedX, m_window[evictedX % m_windowSize]);
+		}
+		m_window[m_size % m_windowSize] = y;
+		m_size++;
+	}
+
+	/**
+	 * @return the total number of values appended so far
+	 */
+	public synchronized int size() {
+		return m_size;
+	}
+
+	/**
+	 * @return the number of most recent values that are kept at full resolution
+	 */
+	public int getWindowSize() {
+		return m_windowSize;
+	}
+
+	/**
+	 * @return the number of batches covered by a single min/max bucket
+	 */
+	public synchronized int getBucketWidth() {
+		return m_bucketWidth;
+	}
+
+	@Override
+	public Iterator<DLLinePlotViewDataEntry> iterator() {
+		return new DLDecimatingLinePlotViewDataIterator();
+	}
+
+	@Override
+	public synchronized void writeExternal(final ObjectOutput objOut) throws IOException {
+		objOut.writeInt(m_windowSize);
+		objOut.writeInt(m_maxNumBuckets);
+		objOut.writeInt(m_size);
+		objOut.writeInt(m_bucketWidth);
+		final int numBuckets = m_bucketMinX.size();
+		objOut.writeInt(numBuckets);
+		for (int i = 0; i < numBuckets; i++) {
+			objOut.writeInt(m_bucketMinX.getQuick(i));
+			objOut.writeFloat(m_bucketMinY.getQuick(i));
+			objOut.writeInt(m_bucketMaxX.getQuick(i));
+			objOut.writeFloat(m_bucketMaxY.getQuick(i));
+		}
+		objOut.writeInt(m_partialCount);
+		if (m_partialCount > 0) {
+			objOut.writeInt(m_partialMinX);
+			objOut.writeFloat(m_partialMinY);
+			objOut.writeInt(m_partialMaxX);
+			objOut.writeFloat(m_partialMaxY);
+		}
+		// only the occupied part of the window, in x order
+		for (int x = Math.max(0, m_size - m_windowSize); x < m_size; x++) {
+			objOut.writeFloat(m_window[x % m_windowSize]);
+		}
+	}
+
+	@Override
+	public synchronized void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
+		m_windowSize = objIn.readInt();
+		m_maxNumBuckets = objIn.readInt();
+		m_size = objIn.readInt();
+		m_bucketWidth = objIn.readInt();
+		final int numBuckets = objIn.readInt();
+		m_bucketMinX = new TIntArrayList(numBuckets);
+		m_bucketMinY = new TFloatArrayList(numBuckets);
+		m_bucketMaxX = new TIntArrayList(numBuckets);
+		m_bucketMaxY = new TFloatArrayList(numBuckets);
+		for (int i = 0; i < numBuckets; i++) {
+			m_bucketMinX.add(objIn.readInt());
+			m_bucketMinY.add(objIn.readFloat());
+			m_bucketMaxX.add(objIn.readInt());
+			m_bucketMaxY.add(objIn.readFloat());
+		}
+		m_partialCount = objIn.readInt();
+		if (m_partialCount > 0) {
+			m_partialMinX = objIn.readInt();
+			m_partialMinY = objIn.readFloat();
+			m_partialMaxX = objIn.readInt();
+			m_partialMaxY = objIn.readFloat();
+		}
+		m_window = new float[m_windowSize];
+		for (int x = Math.max(0, m_size - m_windowSize); x < m_size; x++) {
+			m_window[x % m_windowSize] = objIn.readFloat();
+		}
+	}
+
+	private void addToPartialBucket(final int x, final float y) {
+		if (m_partialCount == 0) {
+			m_partialMinX = x;
+			m_partialMinY = y;
+			m_partialMaxX = x;
+			m_partialMaxY = y;
+		} else {
+			// Float.compare orders NaN above all other values, so NaN losses remain visible as maxima
+			if (Float.compare(y, m_partialMinY) < 0) {
+				m_partialMinX = x;
+				m_partialMinY = y;
+			}
+			if (Float.compare(y, m_partialMaxY) > 0) {
+				m_partialMaxX = x;
+				m_partialMaxY = y;
+			}
+		}
+		if (++m_partialCount == m_bucketWidth) {
+			m_bucketMinX.add(m_partialMinX);
+			m_bucketMinY.add(m_partialMinY);
+			m_bucketMaxX.add(m_partialMaxX);
+			m_bucketMaxY.add(m_partialMaxY);
+			m_partialCount = 0;
+			if (m_bucketMinX.size() == m_maxNumBuckets) {
+				mergeBuckets();
+			}
+		}
+	}
+
+	/**
+	 * Halves the number of buckets by merging adjacent pairs. Only called if the partial bucket is empty and the number
+	 * of buckets is even, which keeps bucket i aligned to the range [i * width, (i + 1) * width).
+	 */
+	private void mergeBuckets() {
+		final int numMerged = m_bucketMinX.size() / 2;
+		for (int i = 0; i < numMerged; i++) {
+			final int l = 2 * i;
+			final int r = l + 1;
+			// ties resolve to the left bucket, i.e. to the earlier x position
+			final boolean minFromRight = Float.compare(m_bucketMinY.getQuick(r), m_bucketMinY.getQuick(l)) < 0;
+			final boolean maxFromRight = Float.compare(m_bucketMaxY.getQuick(r), m_bucketMaxY.getQuick(l)) > 0;
+			m_bucketMinX.setQuick(i, m_bucketMinX.getQuick(minFromRight ? r : l));
+			m_bucketMinY.setQuick(i, m_bucketMinY.getQuick(minFromRight ? r : l));
+			m_bucketMaxX.setQuick(i, m_bucketMaxX.getQuick(maxFromRight ? r : l));
+			m_bucketMaxY.setQuick(i, m_bucketMaxY.getQuick(maxFromRight ? r : l));
+		}
+		m_bucketMinX.remove(numMerged, m_bucketMinX.size() - numMerged);
+		m_bucketMinY.remove(numMerged, m_bucketMinY.size() - numMerged);
+		m_bucketMaxX.remove(numMerged, m_bucketMaxX.size() - numMerged);
+		m_bucketMaxY.remove(numMerged, m_bucketMaxY.size() - numMerged);
+		m_bucketWidth *= 2;
+	}
+
+	private final class DLDecimatingLinePlotViewDataIterator implements Iterator<DLLinePlotViewDataEntry> {
+
+		// at most two entries (the minimum and the maximum of a bucket) are pending at once
+
+		private final int[] m_pendingX = new int[2];
+
+		private final float[] m_pendingY = new float[2];
+
+		private int m_numPending;
+
+		private int m_pendingIdx;
+
+		private final DLMutableLinePlotViewDataEntry m_proxy = new DLMutableLinePlotViewDataEntry();
+
+		private int m_nextX;
+
+		@Override
+		public boolean hasNext() {
+			synchronized (DLDecimatingLinePlotViewData.this) {
+				return m_pendingIdx < m_numPending || m_nextX < m_size;
+			}
+		}
+
+		@Override
+		public DLLinePlotViewDataEntry next() throws NoSuchElementException {
+			synchronized (DLDecimatingLinePlotViewData.this) {
+				while (m_pendingIdx == m_numPending && m_nextX < m_size) {
+					m_numPending = 0;
+					m_pendingIdx = 0;
+					fetch();
+				}
+				if (m_pendingIdx == m_numPending) {
+					throw new NoSuchElementException();
+				}
+				m_proxy.setX(m_pendingX[m_pendingIdx]);
+				m_proxy.setY(m_pendingY[m_pendingIdx]);
+				m_pendingIdx++;
+				return m_proxy;
+			}
+		}
+
+		private void fetch() {
+			final int numEvicted = Math.max(0, m_size - m_windowSize);
+			if (m_nextX >= numEvicted) {
+				enqueue(m_nextX, m_window[m_nextX % m_windowSize]);
+				m_nextX++;
+				return;
+			}
+			// the iterator fell behind the window, continue with the decimated data
+			final int bucket = m_nextX / m_bucketWidth;
+			if (bucket < m_bucketMinX.size()) {
+				enqueueMinMax(m_bucketMinX.getQuick(bucket), m_bucketMinY.getQuick(bucket),
+						m_bucketMaxX.getQuick(bucket), m_bucketMaxY.getQuick(bucket));
+				m_nextX = (bucket + 1) * m_bucketWidth;
+			} else {
+				if (m_partialCount > 0) {
+					enqueueMinMax(m_partialMinX, m_partialMinY, m_partialMaxX, m_partialMaxY);
+				}
+				m_nextX = numEvicted;
+			}
+		}
+
+		private void enqueueMinMax(final int minX, final float minY, final int maxX, final float maxY) {
+			if (minX == maxX) {
+				enqueueIfAhead(minX, minY);
+			} else if (minX < maxX) {
+				enqueueIfAhead(minX, minY);
+				enqueueIfAhead(maxX, maxY);
+			} else {
+				enqueueIfAhead(maxX, maxY);
+				enqueueIfAhead(minX, minY);
+			}
+		}
+
+		private void enqueueIfAhead(final int x, final float y) {
+			if (x >= m_nextX) {
+				enqueue(x, y);
+			}
+		}
+
+		private void enqueue(final int x, final float y) {
+			m_pendingX[m_numPending] = x;
+			m_pendingY[m_numPending] = y;
+			m_numPending++;
+		}
+	}
+}
@@ -64,14 +64,22 @@
 public final class DLDefaultLinePlotViewDataCollection<S extends DLLinePlotViewSpec>
     implements DLLinePlotViewDataCollection {
 
+    // NB: the type flags are compatible to the boolean "is dense" flag that was written before 3.7
+
+    private static final byte TYPE_SPARSE = 0;
+
+    private static final byte TYPE_DENSE = 1;
+
+    private static final byte TYPE_DECIMATING = 2;
+
     private final S m_spec;
 
     private DLLinePlotViewData[] m_viewData;
 
     /**
      * @param spec
-     * @param viewData current limitation: array can only contain elements of types {@link DLDenseLinePlotViewData} and
-     *            {@link DLSparseLinePlotViewData}
+     * @param viewData current limitation: array can only contain elements of types {@link DLDenseLinePlotViewData},
+     *            {@link DLSparseLinePlotViewData} and {@link DLDecimatingLinePlotViewData}
      */
     public DLDefaultLinePlotViewDataCollection(final S spec, final DLLinePlotViewData... viewData) {
         checkArgument(checkNotNull(spec).numPlots() == checkNotNull(viewData).length);
@@ -107,7 +115,14 @@ public Iterator<DLLinePlotViewData> iterator() {
     public void writeExternal(final ObjectOutput objOut) throws IOException {
         objOut.writeInt(m_viewData.length);
         for (int i = 0; i < m_viewData.length; i++) {
-            objOut.writeBoolean(m_viewData[i].getClass() == DLDenseLinePlotViewData.class);
+            final Class<?> type = m_viewData[i].getClass();
+            if (type == DLDenseLinePlotViewData.class) {
+                objOut.writeByte(TYPE_DENSE);
+            } else if (type == DLDecimatingLinePlotViewData.class) {
+                objOut.writeByte(TYPE_DECIMATING);
+            } else {
+                objOut.writeByte(TYPE_SPARSE);
+            }
             m_viewData[i].writeExternal(objOut);
         }
     }
@@ -116,8 +131,17 @@ public void writeExternal(final ObjectOutput objOut) throws IOException {
     public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
         m_viewData = new DLLinePlotViewData[objIn.readInt()];
         for (int i = 0; i < m_viewData.length; i++) {
-            final DLLinePlotViewData viewData =
-                objIn.readBoolean() ? new DLDenseLinePlotViewData() : new DLSparseLinePlotViewData();
+            final byte type = objIn.readByte();
+            final DLLinePlotViewData viewData;
+            if (type == TYPE_DENSE) {
+                viewData = new DLDenseLinePlotViewData();
+            } else if (type == TYPE_DECIMATING) {
+                viewData = new DLDecimatingLinePlotViewData();
+            } else if (type == TYPE_SPARSE) {
+                viewData = new DLSparseLinePlotViewData();
+            } else {
+                throw new IOException("Unknown line plot view data type: " + type + ".");
+            }
             viewData.readExternal(objIn);
             m_viewData[i] = viewData;
         }
@@ -86,6 +86,8 @@
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpec;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkLoader;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecCache;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
@@ -170,8 +172,12 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 		}
         try {
             // TODO: We could allow the user to configure "loadTrainingConfig" flag.
-            m_network = new DLPythonDefaultNetworkReader<>(loader).read(new DLNetworkReferenceLocation(uri), true,
-                DLNotCancelable.INSTANCE);
+            final DLNetworkReferenceLocation source = new DLNetworkReferenceLocation(uri);
+            // Python is only needed if the spec of the network file is not cached yet
+            final DLKerasNetworkSpec spec = DLKerasNetworkSpecCache.getInstance().getOrExtract(uri, loader,
+                () -> new DLPythonDefaultNetworkReader<>(loader).read(source, true, DLNotCancelable.INSTANCE)
+                    .getSpec());
+            m_network = spec.create(source, false);
         } catch (final Exception e) {
             String message;
             if (e instanceof DLException) {
@@ -55,6 +55,7 @@
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.cntk.core.DLKerasCNTKNetwork;
 import org.knime.dl.keras.cntk.core.DLKerasCNTKNetworkLoader;
@@ -80,9 +81,10 @@ public void checkAvailability(final boolean forceRefresh, final int timeout, fin
 
     @Override
 	public DLKerasCNTKNetworkExecutionSession createExecutionSession(final DLKerasCNTKNetwork network,
-			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
-			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
-		return new DLKerasCNTKNetworkExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer,
-				outputConsumer, getTensorFactory());
+			final DLExecutionConfig executionConfig, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer) {
+		return new DLKerasCNTKNetworkExecutionSession(network, executionConfig, executionInputSpecs,
+				requestedOutputs, inputPreparer, outputConsumer, getTensorFactory());
 	}
 }
@@ -53,9 +53,11 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.cntk.core.DLKerasCNTKCommands;
 import org.knime.dl.keras.cntk.core.DLKerasCNTKNetwork;
+import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.keras.core.execution.DLKerasAbstractNetworkExecutionSession;
 
 /**
@@ -66,14 +68,16 @@
 	extends DLKerasAbstractNetworkExecutionSession<DLKerasCNTKNetwork, DLKerasCNTKCommands> {
 
 	public DLKerasCNTKNetworkExecutionSession(final DLKerasCNTKNetwork network,
-			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
-			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
-			final DLTensorFactory tensorFactory) {
-		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+			final DLExecutionConfig executionConfig, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
+		super(network, executionConfig, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				tensorFactory);
 	}
 
 	@Override
-	protected DLKerasCNTKCommands createCommands() throws DLInvalidEnvironmentException {
-		return new DLKerasCNTKCommands();
+	protected DLKerasCNTKCommands createCommands(final DLPythonContext context)
+			throws DLInvalidEnvironmentException {
+		return new DLKerasCNTKCommands(context);
 	}
 }
@@ -158,6 +158,16 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		.n("config.epochs = ").a(config.getEpochs()) //
 		.n("config.batch_size = ").a(config.getBatchSize()) //
 		.n("config.validation_batch_size = ").a(config.getValidationBatchSize()) //
+		// the Java side prefetches as well, keep at least one batch queued on Python side
+		.n("config.max_queue_size = ").a(Math.max(1, config.getPrefetchSize())) //
+		.n("config.workers = ").a(config.getWorkers()) //
+		.n("config.validation_data_cache_size = ").a(config.getValidationDataCacheSize()) //
+		.n("config.training_data_cache_size = ").a(config.getTrainingDataCacheSize()) //
+		.n("config.shuffle = ").a(config.getShuffleTrainingData()) //
+		.n("config.initial_epoch = ").a(config.getInitialEpoch()) //
+		.n("config.initial_batch = ").a(config.getInitialBatch()) //
+		.n("config.resume_checkpoint = ").a(config.getResumeCheckpoint() != null
+			? DLPythonUtils.toPythonRawString(config.getResumeCheckpoint()) : DLPythonUtils.NONE) //
 		// TODO: How to import dependencies (here: of optimizer and losses) in a generic way?
 		.n("import keras") //
 		.n("config.optimizer = ").a(config.getOptimizer().getBackendRepresentation()) //
@@ -172,6 +182,15 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
 	}
 
+	@Override
+	public void setNumThreads(final int numThreads, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLKerasNetwork") //
+				.n("DLKerasNetwork.set_num_threads(").a(numThreads).a(")");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+	}
+
     public void stopTrainNetworkEarly(final DLPythonNetworkHandle network)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
@@ -0,0 +1,324 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.util.DLThrowingLambdas.DLThrowingSupplier;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Persistent on-disk cache of {@link DLKerasNetworkSpec network specs} that were extracted from local network files.
+ * Allows to configure nodes that read Keras networks without starting Python as long as the network file did not
+ * change.
+ * <P>
+ * Entries are keyed by the network loader and the canonical path of the network file. Each entry stores the size, the
+ * modification time and a digest of the content of the file it was created from. An entry is a hit if size and
+ * modification time still match or, failing that, if the content digest still matches. Entries that have not been used
+ * for {@link #MAX_ENTRY_AGE_DAYS} days are evicted, as are the least recently used entries once there are more than
+ * {@link #MAX_NUM_ENTRIES}. Entries that cannot be read anymore (e.g. because the spec classes changed) are treated as
+ * misses and replaced. Networks whose source is not a local file are never cached.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkSpecCache {
+
+    /**
+     * The VM option that disables the cache if set to <code>true</code>.
+     */
+    public static final String DISABLED_VM_OPTION = "knime.dl.keras.speccache.disabled";
+
+    static final int MAX_NUM_ENTRIES = 256;
+
+    static final int MAX_ENTRY_AGE_DAYS = 30;
+
+    private static final String CACHE_DIR_NAME = "dl-keras-spec-cache";
+
+    private static final String ENTRY_FILE_EXTENSION = ".spec";
+
+    /**
+     * Increment if the layout of entry files changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkSpecCache.class);
+
+    private static final DLKerasNetworkSpecCache INSTANCE =
+        new DLKerasNetworkSpecCache(new File(KNIMEConstants.getKNIMEHomeDir(), CACHE_DIR_NAME));
+
+    /**
+     * @return the cache instance
+     */
+    public static DLKerasNetworkSpecCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final File m_directory;
+
+    private final AtomicLong m_hits = new AtomicLong();
+
+    private final AtomicLong m_misses = new AtomicLong();
+
+    DLKerasNetworkSpecCache(final File directory) {
+        m_directory = directory;
+    }
+
+    /**
+     * Returns the cached spec of the network from the given source if the network file did not change since the spec
+     * was cached. Otherwise, extracts the spec using the given extractor and caches it.
+     *
+     * @param source the source of the network
+     * @param loader the loader that is used to read the network
+     * @param extractor extracts the network spec from the source, only called on a cache miss
+     * @return the network spec
+     * @throws Exception if extracting the network spec failed
+     */
+    public DLKerasNetworkSpec getOrExtract(final URI source, final DLKerasNetworkLoader<?> loader,
+        final DLThrowingSupplier<DLKerasNetworkSpec, Exception> extractor) throws Exception {
+        final File file = Boolean.getBoolean(DISABLED_VM_OPTION) ? null : getLocalFile(source);
+        if (file == null) {
+            return extractor.get();
+        }
+        final File entryFile = getEntryFile(file, loader);
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        String digest = null;
+        final Entry entry = readEntry(entryFile);
+        if (entry != null) {
+            boolean hit = entry.m_size == size && entry.m_lastModified == lastModified;
+            if (!hit && entry.m_size == size) {
+                // file was touched or replaced by a copy, check whether its content changed
+                digest = computeDigest(file);
+                hit = entry.m_digest.equals(digest);
+            }
+            if (hit) {
+                LOGGER.debug("Spec of network from '" + source + "' was found in cache (cache hits: "
+                    + m_hits.incrementAndGet() + ", misses: " + m_misses.get() + ").");
+                if (entry.m_lastModified != lastModified) {
+                    writeEntry(entryFile, new Entry(size, lastModified, entry.m_digest, entry.m_spec));
+                } else {
+                    // marks the entry as recently used
+                    entryFile.setLastModified(System.currentTimeMillis());
+                }
+                return entry.m_spec;
+            }
+        }
+        LOGGER.debug("Spec of network from '" + source + "' needs to be extracted (cache hits: " + m_hits.get()
+            + ", misses: " + m_misses.incrementAndGet() + ").");
+        final DLKerasNetworkSpec spec = extractor.get();
+        if (digest == null) {
+            digest = computeDigest(file);
+        }
+        // only cache the spec if the file did not change while it was read
+        if (digest != null && file.length() == size && file.lastModified() == lastModified) {
+            writeEntry(entryFile, new Entry(size, lastModified, digest, spec));
+            evictStaleEntries();
+        }
+        return spec;
+    }
+
+    /**
+     * @return the number of lookups that found a valid cached spec
+     */
+    public long getHitCount() {
+        return m_hits.get();
+    }
+
+    /**
+     * @return the number of lookups that required extracting the spec
+     */
+    public long getMissCount() {
+        return m_misses.get();
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public synchronized void clear() {
+        for (final File entryFile : listEntryFiles()) {
+            entryFile.delete();
+        }
+    }
+
+    /**
+     * Deletes entries that have not been used for too long and, if there are still too many entries, the least
+     * recently used ones.
+     */
+    synchronized void evictStaleEntries() {
+        final File[] entryFiles = listEntryFiles();
+        final long minLastUsed = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_ENTRY_AGE_DAYS);
+        Arrays.sort(entryFiles, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = 0; i < entryFiles.length; i++) {
+            if (i >= MAX_NUM_ENTRIES || entryFiles[i].lastModified() < minLastUsed) {
+                entryFiles[i].delete();
+            }
+        }
+    }
+
+    private File[] listEntryFiles() {
+        final File[] entryFiles = m_directory.listFiles((dir, name) -> name.endsWith(ENTRY_FILE_EXTENSION));
+        return entryFiles != null ? entryFiles : new File[0];
+    }
+
+    private File getEntryFile(final File file, final DLKerasNetworkLoader<?> loader) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (final IOException e) {
+            path = file.getAbsolutePath();
+        }
+        final String name = Hashing.sha1()
+            .hashString(loader.getClass().getName() + "|" + path, StandardCharsets.UTF_8).toString();
+        return new File(m_directory, name + ENTRY_FILE_EXTENSION);
+    }
+
+    private static Entry readEntry(final File entryFile) {
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try (final ObjectInputStream objIn =
+            new ObjectInputStream(new BufferedInputStream(new FileInputStream(entryFile)))) {
+            if (objIn.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final long size = objIn.readLong();
+            final long lastModified = objIn.readLong();
+            final String digest = objIn.readUTF();
+            final DLKerasNetworkSpec spec = (DLKerasNetworkSpec)objIn.readObject();
+            return new Entry(size, lastModified, digest, spec);
+        } catch (final Exception e) {
+            LOGGER.debug("Failed to read network spec cache entry '" + entryFile + "'. Entry will be replaced.", e);
+            return null;
+        }
+    }
+
+    private void writeEntry(final File entryFile, final Entry entry) {
+        try {
+            if (!m_directory.isDirectory() && !m_directory.mkdirs()) {
+                throw new IOException("Cache directory '" + m_directory + "' could not be created.");
+            }
+            // write to a temporary file first, concurrent readers must never see partially written entries
+            final File tmpFile = File.createTempFile("entry", ".tmp", m_directory);
+            try {
+                try (final ObjectOutputStream objOut =
+                    new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                    objOut.writeInt(FORMAT_VERSION);
+                    objOut.writeLong(entry.m_size);
+                    objOut.writeLong(entry.m_lastModified);
+                    objOut.writeUTF(entry.m_digest);
+                    objOut.writeObject(entry.m_spec);
+                }
+                java.nio.file.Files.move(tmpFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                tmpFile.delete();
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("Failed to write network spec cache entry '" + entryFile + "'.", e);
+        }
+    }
+
+    private static String computeDigest(final File file) {
+        try {
+            return Files.asByteSource(file).hash(Hashing.md5()).toString();
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to compute digest of network file '" + file + "'. Spec will not be cached.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the local file or <code>null</code> if the given source is not a local file
+     */
+    private static File getLocalFile(final URI source) {
+        final File file;
+        try {
+            file = FileUtil.getFileFromURL(source.toURL());
+        } catch (final Exception e) {
+            return null;
+        }
+        return file != null && file.isFile() ? file : null;
+    }
+
+    private static final class Entry {
+
+        private final long m_size;
+
+        private final long m_lastModified;
+
+        private final String m_digest;
+
+        private final DLKerasNetworkSpec m_spec;
+
+        private Entry(final long size, final long lastModified, final String digest, final DLKerasNetworkSpec spec) {
+            m_size = size;
+            m_lastModified = lastModified;
+            m_digest = digest;
+            m_spec = spec;
+        }
+    }
+}
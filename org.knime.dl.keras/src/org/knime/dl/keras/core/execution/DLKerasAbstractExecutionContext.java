@@ -48,7 +48,14 @@
  */
 package org.knime.dl.keras.core.execution;
 
+import java.util.Set;
+
+import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLDefaultExecutionConfig;
+import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.python.core.DLPythonDefaultTensorFactory;
 
@@ -85,6 +92,14 @@ public DLTensorFactory getTensorFactory() {
 		return m_layerDataFactory;
 	}
 
+	@Override
+	public DLKerasNetworkExecutionSession createExecutionSession(final N network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
+		return createExecutionSession(network, DLDefaultExecutionConfig.DEFAULT, executionInputSpecs, requestedOutputs,
+				inputPreparer, outputConsumer);
+	}
+
 	@Override
 	public String toString() {
 		return getName() + " (" + getIdentifier() + ")";
@@ -55,6 +55,7 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.core.DLKerasAbstractCommands;
 import org.knime.dl.keras.core.DLKerasNetwork;
@@ -68,10 +69,12 @@
 		C extends DLKerasAbstractCommands>
 	extends DLPythonAbstractNetworkExecutionSession<N, C> implements DLKerasNetworkExecutionSession {
 
-	protected DLKerasAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
-			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
-			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
-		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+	protected DLKerasAbstractNetworkExecutionSession(final N network, final DLExecutionConfig executionConfig,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory) {
+		super(network, executionConfig, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				tensorFactory);
 		boolean hasFixedBatchSizes = false;
 		boolean hasVariableBatchSizes = false;
 		for (final DLTensorSpec inputSpec : network.getSpec().getInputSpecs()) {
@@ -51,6 +51,7 @@
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.core.DLKerasNetwork;
@@ -65,4 +66,9 @@
 	DLKerasNetworkExecutionSession createExecutionSession(N network, Set<DLTensorSpec> executionInputSpecs,
 			Set<DLTensorId> requestedOutputs, DLNetworkInputPreparer inputPreparer,
 			DLNetworkOutputConsumer outputConsumer);
+
+	@Override
+	DLKerasNetworkExecutionSession createExecutionSession(N network, DLExecutionConfig executionConfig,
+			Set<DLTensorSpec> executionInputSpecs, Set<DLTensorId> requestedOutputs,
+			DLNetworkInputPreparer inputPreparer, DLNetworkOutputConsumer outputConsumer);
 }
@@ -51,7 +51,10 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLDefaultTensorSpec;
@@ -66,6 +69,13 @@
  */
 public abstract class DLKerasAbstractInnerLayer extends DLKerasAbstractLayer implements DLKerasInnerLayer {
 
+    private static final AtomicLong INFERENCE_PASSES = new AtomicLong();
+
+    /**
+     * The inference pass the calling thread currently takes part in, <code>null</code> if none.
+     */
+    private static final ThreadLocal<Long> INFERENCE_PASS = new ThreadLocal<>();
+
     protected static void checkInputSpec(final boolean expression, final String message)
         throws DLInvalidTensorSpecException {
         if (!expression) {
@@ -73,12 +83,53 @@ protected static void checkInputSpec(final boolean expression, final String mess
         }
     }
 
+    /**
+     * Runs the given spec inference as a single inference pass. Within a pass, each layer checks its cached output
+     * specs at most once, which makes inferring the specs of all layers of a graph linear in the size of the graph.
+     * Layers must not be modified during a pass.
+     *
+     * @param inference the inference to run
+     * @return the result of the inference
+     */
+    static <T> T inferInSinglePass(final Supplier<T> inference) {
+        final boolean isNewPass = beginPass();
+        try {
+            return inference.get();
+        } finally {
+            endPass(isNewPass);
+        }
+    }
+
+    /**
+     * @return true if a new pass was begun, which must be ended by the caller, false if the calling thread already
+     *         takes part in a pass
+     */
+    private static boolean beginPass() {
+        if (INFERENCE_PASS.get() != null) {
+            return false;
+        }
+        INFERENCE_PASS.set(INFERENCE_PASSES.incrementAndGet());
+        return true;
+    }
+
+    private static void endPass(final boolean isNewPass) {
+        if (isNewPass) {
+            INFERENCE_PASS.remove();
+        }
+    }
+
     private final DLKerasTensorSpecsOutput[] m_parents;
     
     private final int[] m_indexInParents;
     
     private DLKerasDataFormat m_dataFormat;
 
+    /**
+     * Layer instances are reused across node configurations and their parameters and parents may change at any time.
+     * The output specs are therefore cached along with everything they were inferred from.
+     */
+    private volatile DLOutputSpecsCache m_outputSpecsCache;
+
     public DLKerasAbstractInnerLayer(final String kerasIdentifier, final int numParents) {
         super(kerasIdentifier);
         m_parents = new DLKerasTensorSpecsOutput[numParents];
@@ -132,24 +183,31 @@ public int getTensorIndexInParent(int parentIndex) {
         return m_indexInParents[parentIndex];
     }
 
+    /**
+     * {@inheritDoc}
+     * <P>
+     * The returned specs are cached. They are only inferred anew if the parameters of this layer or the specs of its
+     * inputs changed since the last call.
+     */
     @Override
     public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
-        validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
-        final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
-        final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
-        final List<DLTensorSpec> outputSpecs = new ArrayList<>(outputShapes.size());
-        for (int i = 0; i < outputShapes.size(); i++) {
-            outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
-                outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
+        final boolean isNewPass = beginPass();
+        try {
+            return getOutputSpecsInPass(INFERENCE_PASS.get());
+        } finally {
+            endPass(isNewPass);
         }
-        return outputSpecs;
     }
 
     @Override
     public final void validateInputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
-        validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
+        final boolean isNewPass = beginPass();
+        try {
+            final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+            validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
+        } finally {
+            endPass(isNewPass);
+        }
     }
 
     @Override
@@ -175,8 +233,35 @@ public boolean equalsIgnoreName(final DLKerasTensorSpecsOutput other) {
         return true;
     }
 
+    private List<DLTensorSpec> getOutputSpecsInPass(final long pass) throws DLInvalidTensorSpecException {
+        final DLOutputSpecsCache cache = m_outputSpecsCache;
+        if (cache != null && cache.m_pass == pass) {
+            return cache.m_outputSpecs;
+        }
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+        final String parameters = getBackendRepresentation(null);
+        if (cache != null && cache.m_parameters.equals(parameters)
+            && cache.m_inputSpecs.m_parentSpecs.equals(inputSpecs.m_parentSpecs)
+            && cache.m_inputSpecs.m_dimensionOrder == inputSpecs.m_dimensionOrder) {
+            m_outputSpecsCache = new DLOutputSpecsCache(cache.m_inputSpecs, parameters, cache.m_outputSpecs, pass);
+            return cache.m_outputSpecs;
+        }
+        validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
+        final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
+        final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
+        final List<DLTensorSpec> outputSpecs = new ArrayList<>(outputShapes.size());
+        for (int i = 0; i < outputShapes.size(); i++) {
+            outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
+                outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
+        }
+        final List<DLTensorSpec> unmodifiableOutputSpecs = Collections.unmodifiableList(outputSpecs);
+        m_outputSpecsCache = new DLOutputSpecsCache(inputSpecs, parameters, unmodifiableOutputSpecs, pass);
+        return unmodifiableOutputSpecs;
+    }
+
     private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecException {
         Long inputBatchSize = null;
+        final List<DLTensorSpec> parentSpecs = new ArrayList<>(m_parents.length);
         final List<Long[]> inputShapes = new ArrayList<>(m_parents.length);
         final List<Class<?>> inputElementTypes = new ArrayList<>(m_parents.length);
         DLDimensionOrder inputDimensionOrder = null;
@@ -187,6 +272,7 @@ private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecE
                 final List<DLTensorSpec> parentOutputSpecs = parent.getOutputSpecs();
                 DLTensorSpec parentOutputSpec =
                     parentOutputSpecs.contains(selected) ? selected : parentOutputSpecs.get(0);
+                parentSpecs.add(parentOutputSpec);
                 if (parentOutputSpec.getBatchSize().isPresent()) {
                     final long parentBatchSize = parentOutputSpec.getBatchSize().getAsLong();
                     if (inputBatchSize == null) {
@@ -209,25 +295,56 @@ private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecE
             }
         }
         m_dataFormat = DLKerasDataFormat.getDataFormatFor(inputDimensionOrder);
-        return new DLInputSpecsHelperStruct(inputBatchSize, inputShapes, inputElementTypes, inputDimensionOrder);
+        return new DLInputSpecsHelperStruct(inputBatchSize, parentSpecs, inputShapes, inputElementTypes,
+            inputDimensionOrder);
     }
 
     private static final class DLInputSpecsHelperStruct {
 
         private final Long m_batchSize;
 
+        /**
+         * The specs of the parent outputs the layer consumes, used to tell whether the inputs changed. Note that tensor
+         * spec equality does not consider the dimension order.
+         */
+        private final List<DLTensorSpec> m_parentSpecs;
+
         private final List<Long[]> m_shapes;
 
         private final List<Class<?>> m_elementTypes;
 
         private final DLDimensionOrder m_dimensionOrder;
 
-        private DLInputSpecsHelperStruct(final Long inputBatchSize, final List<Long[]> inputShapes,
-            final List<Class<?>> inputElementTypes, final DLDimensionOrder inputDimensionOrder) {
+        private DLInputSpecsHelperStruct(final Long inputBatchSize, final List<DLTensorSpec> parentSpecs,
+            final List<Long[]> inputShapes, final List<Class<?>> inputElementTypes,
+            final DLDimensionOrder inputDimensionOrder) {
             m_batchSize = inputBatchSize;
+            m_parentSpecs = parentSpecs;
             m_shapes = inputShapes;
             m_elementTypes = inputElementTypes;
             m_dimensionOrder = inputDimensionOrder;
         }
     }
+
+    private static final class DLOutputSpecsCache {
+
+        private final DLInputSpecsHelperStruct m_inputSpecs;
+
+        private final String m_parameters;
+
+        private final List<DLTensorSpec> m_outputSpecs;
+
+        /**
+         * The last inference pass in which the cached specs were found to be up to date.
+         */
+        private final long m_pass;
+
+        private DLOutputSpecsCache(final DLInputSpecsHelperStruct inputSpecs, final String parameters,
+            final List<DLTensorSpec> outputSpecs, final long pass) {
+            m_inputSpecs = inputSpecs;
+            m_parameters = parameters;
+            m_outputSpecs = outputSpecs;
+            m_pass = pass;
+        }
+    }
 }
@@ -50,13 +50,16 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
 import org.knime.core.data.filestore.FileStore;
@@ -79,9 +82,28 @@
 import org.knime.dl.keras.core.struct.param.ParameterStructs;
 import org.knime.dl.keras.core.struct.param.ValidityException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import gnu.trove.TIntArrayList;
 
 /**
+ * (De)serializes Keras layer graphs.
+ * <P>
+ * Layers are stored content-addressed: each written layer is tagged with a digest that covers its class, parameters
+ * and runtime id as well as the digests of its parents (and the tensor indices in them). A layer that was already
+ * persisted by another graph - usually the output layer of the upstream port in a chain of layer nodes - is only
+ * written as a reference to its digest. Each port therefore stores its own layer plus a reference to its parent, which
+ * keeps saved workflows linear in the length of the chain. If the parent was not persisted before in this process, e.g.
+ * if the upstream port is saved after the downstream one, the full graph is written instead.
+ * <P>
+ * Layers that are read are shared process-wide by their digest: if the same subgraph is read again, the already
+ * deserialized layers are reused instead of being instantiated and populated again. Loaded layers must therefore not
+ * be modified. References are resolved against these layers, which works since KNIME loads the upstream ports before
+ * their successors. Layers without a runtime id and layers that depend on a base network are never shared or
+ * referenced because the latter's source is amended per port. *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
@@ -109,6 +131,23 @@ public final class DLKerasNetworkGraphSerializer {
 
     private static final String CFG_KEY_OUTPUT_LAYERS = "output_layers";
 
+    private static final String CFG_KEY_LAYER_DIGEST = "digest";
+
+    private static final String CFG_KEY_LAYER_REFERENCE = "reference";
+
+    /**
+     * Layers that were read from a stream, keyed by their content digest. Entries are kept as long as any graph
+     * references them.
+     */
+    private static final Cache<String, DLKerasLayer> SHARED_LAYERS = CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * Layers that were written in full to a stream, keyed by their content digest. Graphs that are written later on
+     * reference these layers instead of writing them again. Entries are kept as long as the layers are in use.
+     */
+    private static final Cache<String, DLKerasTensorSpecsOutput> PERSISTED_LAYERS =
+        CacheBuilder.newBuilder().weakValues().build();
+
     private DLKerasNetworkGraphSerializer() {
     }
 
@@ -152,6 +191,10 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
     /**
      * Writes the Keras network graph specified by the given output layers and their inputs (i.e. predecessor nodes) to
      * a stream.
+     * <P>
+     * Layers that were already persisted by another graph - typically the output layer of the upstream port - are only
+     * written as a reference to their digest, together with their upstream graph. All other layers reachable from the
+     * output layers, including the output layers themselves, are written in full.
      *
      * @param outputLayers the output layers of the network to serialize
      * @param objOut the stream to which to write the network graph, it is the client's responsibility to close it
@@ -160,50 +203,82 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
     public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(final List<DLKerasLayer> outputLayers,
         final ObjectOutputStream objOut) throws IOException {
         final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
-        final AtomicInteger layerIndexCounter = new AtomicInteger();
         final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
         try {
-            final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
-            // Collects all base network specs. We have to serialize them outside the node settings.
-            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
-            // Collects all the base networks whose network location cannot be simply (de)serialized.
-            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
-                new LinkedHashMap<>(2);
+            // Collects all layers in topological order along with their parameters and digests.
+            final List<DLKerasTensorSpecsOutput> layers = new ArrayList<>();
+            final List<DLKerasTensorSpecsOutput> visitedOutputLayers = new ArrayList<>(outputLayers.size());
+            final Map<DLKerasTensorSpecsOutput, NodeSettings> layerParams = new HashMap<>();
+            final Map<DLKerasTensorSpecsOutput, String> layerDigests = new HashMap<>();
             new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
 
                 @Override
                 public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
                     visitHidden(outputLayer);
-                    outputLayerIndices.add(layerIndices.get(outputLayer));
+                    visitedOutputLayers.add(outputLayer);
                 }
 
                 @Override
                 public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
-                    final NodeSettingsWO layerSettings = saveLayer(innerLayer);
-                    final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
-                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
-                        final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
-                        NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
-                        parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
-                        parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
-                    }
+                    collectLayer(innerLayer);
                 }
 
                 @Override
                 public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
-                    saveLayer(inputLayer);
+                    collectLayer(inputLayer);
                 }
 
                 @Override
                 public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
-                    saveLayer(inputOutputLayer);
-                    outputLayerIndices.add(layerIndices.get(inputOutputLayer));
+                    collectLayer(inputOutputLayer);
+                    visitedOutputLayers.add(inputOutputLayer);
                 }
 
                 @Override
                 public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
-                    final NodeSettingsWO layerSettings = createLayerSettings(baseNetworkOutput);
-                    final int layerIndex = layerIndices.get(baseNetworkOutput);
+                    layers.add(baseNetworkOutput);
+                }
+
+                private void collectLayer(final DLKerasLayer layer) throws ValidityException, InvalidSettingsException {
+                    // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
+                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                        ParameterStructs.createInstance(layer);
+                    final NodeSettings paramSettings = new NodeSettings(CFG_KEY_LAYER_PARAMS);
+                    final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
+                        NodeSettingsStructs.createNodeSettingsInstance(paramSettings, layerInstance.struct());
+                    Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
+                    layers.add(layer);
+                    layerParams.put(layer, paramSettings);
+                    final String digest = computeDigest(layer, paramSettings.toString(), layerDigests);
+                    if (digest != null) {
+                        layerDigests.put(layer, digest);
+                    }
+                }
+            });
+            final Map<DLKerasTensorSpecsOutput, Boolean> writtenInFull =
+                selectLayersToWrite(visitedOutputLayers, layerDigests);
+            // Collects all base network specs. We have to serialize them outside the node settings.
+            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
+            // Collects all the base networks whose network location cannot be simply (de)serialized.
+            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
+                new LinkedHashMap<>(2);
+            for (final DLKerasTensorSpecsOutput layer : layers) {
+                final Boolean inFull = writtenInFull.get(layer);
+                if (inFull == null) {
+                    // only reachable via referenced layers
+                    continue;
+                }
+                final int layerIndex = layerIndices.size();
+                layerIndices.put(layer, layerIndex);
+                final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
+                if (!inFull) {
+                    layerSettings.addString(CFG_KEY_LAYER_REFERENCE, layerDigests.get(layer));
+                    continue;
+                }
+                layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
+                if (layer instanceof DLKerasBaseNetworkTensorSpecOutput) {
+                    final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput =
+                        (DLKerasBaseNetworkTensorSpecOutput)layer;
                     layerSettings.addInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX,
                         baseNetworkOutput.getBaseNetworkOutputIndex());
                     final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
@@ -213,31 +288,29 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
                         nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
                     }
                     baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
+                    continue;
                 }
-
-                private NodeSettingsWO saveLayer(final DLKerasLayer layer)
-                    throws ValidityException, InvalidSettingsException {
-                    final NodeSettingsWO layerSettings = createLayerSettings(layer);
-                    // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance(layer);
-                    final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
-                        NodeSettingsStructs.createNodeSettingsInstance(
-                            layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
-                    Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
-                    layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
-                    return layerSettings;
+                layerSettings.addNodeSettings(layerParams.get(layer));
+                if (layer instanceof DLKerasInnerLayer) {
+                    final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+                    final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
+                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                        final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
+                        NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
+                        parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
+                        parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
+                    }
                 }
-
-                private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer) {
-                    assert !layerIndices.containsKey(layer);
-                    final int layerIndex = layerIndexCounter.getAndIncrement();
-                    layerIndices.put(layer, layerIndex);
-                    final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
-                    layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
-                    return layerSettings;
+                layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, ((DLKerasLayer)layer).getRuntimeId());
+                final String digest = layerDigests.get(layer);
+                if (digest != null) {
+                    layerSettings.addString(CFG_KEY_LAYER_DIGEST, digest);
                 }
-            });
+            }
+            final TIntArrayList outputLayerIndices = new TIntArrayList(visitedOutputLayers.size());
+            for (final DLKerasTensorSpecsOutput outputLayer : visitedOutputLayers) {
+                outputLayerIndices.add(layerIndices.get(outputLayer));
+            }
             graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
             // Write to stream.
             objOut.writeInt(baseNetworkSpecs.size());
@@ -246,12 +319,59 @@ private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer)
                 objOut.writeObject(entry.getValue());
             }
             objOut.writeObject(graphSettings);
+            // Graphs that are written later on may reference the layers that were written in full.
+            for (final Entry<DLKerasTensorSpecsOutput, Boolean> entry : writtenInFull.entrySet()) {
+                final String digest = layerDigests.get(entry.getKey());
+                if (entry.getValue() && digest != null) {
+                    PERSISTED_LAYERS.put(digest, entry.getKey());
+                }
+            }
             return nonReferenceBaseNetworkLayers;
         } catch (final Exception e) {
             throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
         }
     }
 
+    /**
+     * Determines which layers need to be written to persist the graph of the given output layers. Starting at the
+     * output layers, the graph is traversed upwards until a layer is reached that was already persisted by another
+     * graph.
+     *
+     * @return the layers to write, mapped to <code>true</code> if a layer must be written in full and to
+     *         <code>false</code> if it is sufficient to reference it by its digest
+     */
+    private static Map<DLKerasTensorSpecsOutput, Boolean> selectLayersToWrite(
+        final List<DLKerasTensorSpecsOutput> outputLayers, final Map<DLKerasTensorSpecsOutput, String> layerDigests) {
+        final Map<DLKerasTensorSpecsOutput, Boolean> writtenInFull = new HashMap<>();
+        final Deque<DLKerasTensorSpecsOutput> pending = new ArrayDeque<>(outputLayers);
+        while (!pending.isEmpty()) {
+            final DLKerasTensorSpecsOutput layer = pending.pop();
+            if (writtenInFull.containsKey(layer)) {
+                continue;
+            }
+            if (!outputLayers.contains(layer) && isPersisted(layer, layerDigests.get(layer))) {
+                writtenInFull.put(layer, false);
+            } else {
+                writtenInFull.put(layer, true);
+                if (layer instanceof DLKerasInnerLayer) {
+                    final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                        pending.push(innerLayer.getParent(i));
+                    }
+                }
+            }
+        }
+        return writtenInFull;
+    }
+
+    /**
+     * @return true if the given layer instance was written in full or read under the given digest before
+     */
+    private static boolean isPersisted(final DLKerasTensorSpecsOutput layer, final String digest) {
+        return digest != null
+            && (PERSISTED_LAYERS.getIfPresent(digest) == layer || SHARED_LAYERS.getIfPresent(digest) == layer);
+    }
+
     /**
      * Reads a Keras network graph from stream and returns its output layers. The entire graph can be accessed via the
      * layers' input (i.e. predecessor node) relationships.
@@ -286,23 +406,23 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
             final DLKerasTensorSpecsOutput[] loadedLayers = new DLKerasTensorSpecsOutput[numLayers];
             for (int i = 0; i < numLayers; i++) {
                 final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(i));
+                if (layerSettings.containsKey(CFG_KEY_LAYER_REFERENCE)) {
+                    loadedLayers[i] = resolveReference(layerSettings.getString(CFG_KEY_LAYER_REFERENCE));
+                    continue;
+                }
                 final Class<?> layerClass = Class.forName(layerSettings.getString(CFG_KEY_LAYER_CLASS));
                 final DLKerasTensorSpecsOutput layer;
                 if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
-                    // Ordinary layers must expose a public nullary constructor.
-                    layer = (DLKerasTensorSpecsOutput)layerClass.newInstance();
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance((DLKerasLayer)layer);
-                    final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
-                        .createNodeSettingsInstance((NodeSettingsRO)layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS),
-                            layerInstance.struct());
-                    Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
-                    if (layer instanceof DLKerasInnerLayer) {
-                        final DLKerasInnerLayer innerLayer = ((DLKerasInnerLayer)layer);
-                        final NodeSettings parentSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS);
-                        loadParentSettings(loadedLayers, innerLayer, parentSettings);
+                    if (layerSettings.containsKey(CFG_KEY_LAYER_DIGEST)) {
+                        try {
+                            layer = SHARED_LAYERS.get(layerSettings.getString(CFG_KEY_LAYER_DIGEST),
+                                () -> loadLayer(layerClass, layerSettings, loadedLayers));
+                        } catch (final ExecutionException e) {
+                            throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                        }
+                    } else {
+                        layer = loadLayer(layerClass, layerSettings, loadedLayers);
                     }
-                    ((DLKerasLayer)layer).setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
                 } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
                     final DLKerasNetworkSpec spec = baseNetworkSpecs.get(i);
                     final int outputIndex = layerSettings.getInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX);
@@ -339,6 +459,65 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
         }
     }
 
+    private static DLKerasLayer resolveReference(final String digest) throws InvalidSettingsException {
+        final DLKerasLayer layer = SHARED_LAYERS.getIfPresent(digest);
+        if (layer == null) {
+            throw new InvalidSettingsException("The upstream layers of the Keras layer graph are not available. "
+                + "They are read along with the output of the preceding layer node. Please re-execute the layer "
+                + "nodes.");
+        }
+        return layer;
+    }
+
+    private static DLKerasLayer loadLayer(final Class<?> layerClass, final NodeSettings layerSettings,
+        final DLKerasTensorSpecsOutput[] loadedLayers) throws Exception {
+        // Ordinary layers must expose a public nullary constructor.
+        final DLKerasLayer layer = (DLKerasLayer)layerClass.newInstance();
+        final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance = ParameterStructs.createInstance(layer);
+        final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs.createNodeSettingsInstance(
+            (NodeSettingsRO)layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
+        Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
+        if (layer instanceof DLKerasInnerLayer) {
+            final DLKerasInnerLayer innerLayer = ((DLKerasInnerLayer)layer);
+            final NodeSettings parentSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS);
+            loadParentSettings(loadedLayers, innerLayer, parentSettings);
+        }
+        layer.setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
+        return layer;
+    }
+
+    /**
+     * @return the content digest of the given layer or <code>null</code> if the layer must not be shared, i.e. if it
+     *         has no runtime id or if any of its parents has no digest
+     */
+    private static String computeDigest(final DLKerasLayer layer, final String params,
+        final Map<DLKerasTensorSpecsOutput, String> layerDigests) {
+        if (layer.getRuntimeId() == null) {
+            return null;
+        }
+        final Hasher hasher = Hashing.sha256().newHasher();
+        putString(hasher, layer.getClass().getCanonicalName());
+        putString(hasher, layer.getRuntimeId());
+        putString(hasher, params);
+        if (layer instanceof DLKerasInnerLayer) {
+            final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+            for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                final String parentDigest = layerDigests.get(innerLayer.getParent(i));
+                if (parentDigest == null) {
+                    return null;
+                }
+                putString(hasher, parentDigest);
+                hasher.putInt(innerLayer.getTensorIndexInParent(i));
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putString(final Hasher hasher, final String value) {
+        hasher.putInt(value.length());
+        hasher.putString(value, StandardCharsets.UTF_8);
+    }
+
     private static void loadParentSettings(final DLKerasTensorSpecsOutput[] loadedLayers,
         final DLKerasInnerLayer innerLayer, final NodeSettings parentSettings) throws InvalidSettingsException {
         try {
@@ -46,7 +46,10 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -58,6 +61,8 @@
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidDestinationException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
@@ -74,6 +79,7 @@
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphIterator.DLNetworkGraphTraversalException;
 import org.knime.dl.keras.core.layers.impl.DLKerasCollectLayer;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkSpec;
 import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
@@ -81,14 +87,40 @@
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
 import gnu.trove.TIntHashSet;
 
 /**
+ * Materializes Keras network graphs, i.e. builds and saves the Keras model that is specified by a graph of layers.
+ * <P>
+ * Materialized networks are cached per process. The cache key is a digest of the generated Python code - which
+ * canonically describes the layer graph including all layer parameters - and of the contents of the base networks the
+ * graph depends on. On a cache hit, the previously saved network file is copied to the requested save location and its
+ * spec is reused, i.e. no Python process needs to be started. Networks are only cached if they are saved to local
+ * files.
+ *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 public final class DLKerasNetworkMaterializer {
 
+    /**
+     * The VM option that disables the materialization cache if set to <code>true</code>.
+     */
+    public static final String CACHE_DISABLED_VM_OPTION = "knime.dl.keras.materializationcache.disabled";
+
+    private static final int MAX_NUM_CACHE_ENTRIES = 100;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkMaterializer.class);
+
+    private static final Cache<String, DLMaterializedNetworkEntry> MATERIALIZED_NETWORKS =
+        CacheBuilder.newBuilder().maximumSize(MAX_NUM_CACHE_ENTRIES).build();
+
     private final List<DLKerasLayer> m_outputLayers;
 
     private final DLNetworkLocation m_saveLocation;
@@ -130,55 +162,71 @@ public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInva
             .getNetworkLoader(backend).orElseThrow(() -> new IllegalStateException("Back end for Keras network type '"
                 + backend.getName() + "' is missing. " + "Are you missing a KNIME Deep Learning extension?"));
 
+        // Base network specs are needed (a) to reserve the layer names that are already present in the base networks
+        // and (b) to specify the inputs and outputs of the new network that come from the base networks.
+        final LinkedHashMap<DLKerasNetworkSpec, DLKerasBaseNetworkHelperStruct> baseNetworks = parser.m_baseNetworks;
+        final List<DLKerasNetworkSpec> baseNetworkSpecs = new ArrayList<>(baseNetworks.size());
+        for (final DLKerasBaseNetworkHelperStruct baseNetworkHelper : baseNetworks.values()) {
+            baseNetworkSpecs.add(baseNetworkHelper.m_networkSpec);
+        }
+
+        // Base network layer names are reserved.
+        final DLKerasNetworkLayerNameGenerator layerNameGen =
+            DLKerasNetworkLayerNameGenerator.createFromBaseNetworks(baseNetworkSpecs);
+
+        // Topological ordering.
+        final List<DLKerasTensorSpecsOutput> layersSortedByDepth =
+            DLKerasNetworkGraphTopologicalOrderIterator.sortTopologically(parser.m_maxDepthsFromOutputs.entrySet());
+
+        // Generate code lines according to the topological ordering above. This ensures that each inner layer's
+        // inputs are generated before itself and that we get an "intuitive" layer naming order ("layerX_1" "before"
+        // "layerX_2" etc.).
+        final StringJoiner generatedCodeJoiner = new StringJoiner("\n");
+        for (final DLKerasTensorSpecsOutput layer : layersSortedByDepth) {
+            if (layer instanceof DLKerasCollectLayer) {
+                // collect layers don't add any python code
+                continue;
+            }
+            generatedCodeJoiner.add(parser.m_codeLinesToGenerate.get(layer).apply(layerNameGen));
+        }
+        final String generatedCode = generatedCodeJoiner.toString();
+
+        // Execute generated code and build network whose lists of inputs and outputs (possibly) contain inputs and
+        // outputs of base networks which have to be "expanded" (base network -> inputs/outputs) first.
+        // Make generated network available on Python side.
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .n("import DLPythonNetwork") //
+            .n(baseNetworks.values(),
+                n -> n.m_variable + " = DLPythonNetwork.get_network(\"" + n.m_variable + "\").model") //
+            .n("import keras").n(generatedCode) //
+            .n("generated_network = keras.models.Model(") //
+            // All inputs and (non-connected) outputs of the base networks are kept.
+            // TODO: This behavior may not be intended.
+            .a("inputs=[" + String.join(",", expandNetworkInputs(parser.m_inputVariables)) + "]").a(", ") //
+            .a("outputs=[" + String.join(",", expandNetworkOutputs(parser.m_outputVariables)) + "]") //
+            .a(")") //
+            .n("import DLPythonNetworkType") //
+            .n("network_type = DLPythonNetworkType.get_model_network_type(generated_network)") //
+            .n("DLPythonNetwork.add_network(network_type.wrap_model(generated_network), \"generated_network\")");
+        final String code = b.toString();
+
+        final File saveFile =
+            Boolean.getBoolean(CACHE_DISABLED_VM_OPTION) ? null : getLocalFile(m_saveLocation.getURI());
+        final String cacheKey = saveFile != null ? createCacheKey(backend, code, baseNetworks) : null;
+        if (cacheKey != null) {
+            final DLKerasNetwork cached = copyFromCache(cacheKey, saveFile);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final DLKerasNetwork network;
         try (final DLKerasAbstractCommands commands =
             ((DLKerasNetworkLoader<?>)loader).createCommands(new DLPythonDefaultContext())) {
-            // Load base networks (if any). Make base networks available on Python side for later. Collect base network
-            // specs.We need the network specs (a) to reserve the layer names that are already present in the base
-            // networks and (b) to specify the inputs and outputs of the new network that come from the base networks.
-            final LinkedHashMap<DLKerasNetworkSpec, DLKerasBaseNetworkHelperStruct> baseNetworks =
-                parser.m_baseNetworks;
-            final List<DLKerasNetworkSpec> baseNetworkSpecs = retrieveBaseNetworkSpecs(loader, commands, baseNetworks);
-
-            // Base network layer names are reserved.
-            final DLKerasNetworkLayerNameGenerator layerNameGen =
-                DLKerasNetworkLayerNameGenerator.createFromBaseNetworks(baseNetworkSpecs);
-
-            // Topological ordering.
-            final List<DLKerasTensorSpecsOutput> layersSortedByDepth =
-                DLKerasNetworkGraphTopologicalOrderIterator.sortTopologically(parser.m_maxDepthsFromOutputs.entrySet());
-
-            // Generate code lines according to the topological ordering above. This ensures that each inner layer's
-            // inputs are generated before itself and that we get an "intuitive" layer naming order ("layerX_1" "before"
-            // "layerX_2" etc.).
-            final StringJoiner generatedCodeJoiner = new StringJoiner("\n");
-            for (final DLKerasTensorSpecsOutput layer : layersSortedByDepth) {
-                if (layer instanceof DLKerasCollectLayer) {
-                    // collect layers don't add any python code
-                    continue;
-                }
-                generatedCodeJoiner.add(parser.m_codeLinesToGenerate.get(layer).apply(layerNameGen));
-            }
-            final String generatedCode = generatedCodeJoiner.toString();
-
-            // Execute generated code and build network whose lists of inputs and outputs (possibly) contain inputs and
-            // outputs of base networks which have to be "expanded" (base network -> inputs/outputs) first.
-            // Make generated network available on Python side.
-            final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
-                .n("import DLPythonNetwork") //
-                .n(baseNetworks.values(),
-                    n -> n.m_variable + " = DLPythonNetwork.get_network(\"" + n.m_variable + "\").model") //
-                .n("import keras").n(generatedCode) //
-                .n("generated_network = keras.models.Model(") //
-                // All inputs and (non-connected) outputs of the base networks are kept.
-                // TODO: This behavior may not be intended.
-                .a("inputs=[" + String.join(",", expandNetworkInputs(parser.m_inputVariables)) + "]").a(", ") //
-                .a("outputs=[" + String.join(",", expandNetworkOutputs(parser.m_outputVariables)) + "]") //
-                .a(")") //
-                .n("import DLPythonNetworkType") //
-                .n("network_type = DLPythonNetworkType.get_model_network_type(generated_network)") //
-                .n("DLPythonNetwork.add_network(network_type.wrap_model(generated_network), \"generated_network\")");
+            // Load base networks (if any). Make base networks available on Python side for later.
+            loadBaseNetworks(loader, commands, baseNetworks);
             try {
-                commands.getContext(DLNotCancelable.INSTANCE).executeInKernel(b.toString(), DLNotCancelable.INSTANCE);
+                commands.getContext(DLNotCancelable.INSTANCE).executeInKernel(code, DLNotCancelable.INSTANCE);
             } catch (final DLCanceledExecutionException e) {
                 // Won't happen
             }
@@ -191,21 +239,87 @@ public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInva
                 throw new IOException(e);
             }
             try {
-                return loader.fetch(handle, m_saveLocation, commands.getContext(DLNotCancelable.INSTANCE),
+                network = loader.fetch(handle, m_saveLocation, commands.getContext(DLNotCancelable.INSTANCE),
                     DLNotCancelable.INSTANCE);
             } catch (final DLInvalidSourceException | DLCanceledExecutionException e) {
                 throw new IOException(e);
             }
         }
+        if (cacheKey != null && saveFile.isFile()) {
+            MATERIALIZED_NETWORKS.put(cacheKey,
+                new DLMaterializedNetworkEntry(network, saveFile, saveFile.length(), saveFile.lastModified()));
+        }
+        return network;
     }
 
-    private static List<DLKerasNetworkSpec> retrieveBaseNetworkSpecs(
-        final DLPythonNetworkLoader<? extends DLKerasNetwork> loader, final DLKerasAbstractCommands commands,
+    /**
+     * Returns a copy of the cached network with the given key that is saved to the given file, or <code>null</code> if
+     * there is no such network or its file is not available anymore.
+     */
+    private DLKerasNetwork copyFromCache(final String cacheKey, final File saveFile) {
+        final DLMaterializedNetworkEntry entry = MATERIALIZED_NETWORKS.getIfPresent(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        // The file store of the cached network is owned by another port object and may have been deleted or reused.
+        if (!entry.m_file.isFile() || entry.m_file.length() != entry.m_size
+            || entry.m_file.lastModified() != entry.m_lastModified) {
+            MATERIALIZED_NETWORKS.invalidate(cacheKey);
+            return null;
+        }
+        final DLKerasNetwork network = entry.m_network;
+        try {
+            if (!entry.m_file.equals(saveFile)) {
+                Files.copy(entry.m_file, saveFile);
+            }
+        } catch (final IOException e) {
+            LOGGER.debug("Failed to copy materialized network from '" + entry.m_file + "' to '" + saveFile
+                + "'. The network will be materialized again.", e);
+            return null;
+        }
+        LOGGER.debug("Network was materialized before, reusing '" + network.getSource() + "'.");
+        return new DLKerasTensorFlowNetwork((DLKerasTensorFlowNetworkSpec)network.getSpec(),
+            m_saveLocation);
+    }
+
+    /**
+     * @return the cache key of the network that is built by the given code from the given base networks, or
+     *         <code>null</code> if the network must not be cached because a base network is not a local file
+     */
+    private static String createCacheKey(final Class<?> backend, final String code,
+        final LinkedHashMap<DLKerasNetworkSpec, DLKerasBaseNetworkHelperStruct> baseNetworks) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(backend.getName(), StandardCharsets.UTF_8);
+        hasher.putString(code, StandardCharsets.UTF_8);
+        for (final DLKerasBaseNetworkHelperStruct baseNetworkHelper : baseNetworks.values()) {
+            // Base networks are identified by content since equal networks are usually stored in different file stores.
+            final File baseNetworkFile = getLocalFile(baseNetworkHelper.m_networkSource.getURI());
+            if (baseNetworkFile == null) {
+                return null;
+            }
+            hasher.putString(baseNetworkHelper.m_variable, StandardCharsets.UTF_8);
+            try {
+                hasher.putBytes(Files.asByteSource(baseNetworkFile).hash(Hashing.md5()).asBytes());
+            } catch (final IOException e) {
+                return null;
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static File getLocalFile(final URI uri) {
+        try {
+            return FileUtil.getFileFromURL(uri.toURL());
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    private static void loadBaseNetworks(final DLPythonNetworkLoader<? extends DLKerasNetwork> loader,
+        final DLKerasAbstractCommands commands,
         final LinkedHashMap<DLKerasNetworkSpec, DLKerasBaseNetworkHelperStruct> baseNetworks)
         throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException {
-        final List<DLKerasNetworkSpec> baseNetworkSpecs = new ArrayList<>(baseNetworks.size());
         for (final DLKerasBaseNetworkHelperStruct baseNetworkHelper : baseNetworks.values()) {
-            baseNetworkSpecs.add(baseNetworkHelper.m_networkSpec);
             try {
                 final DLPythonNetworkHandle baseNetworkHandle = loader.load(baseNetworkHelper.m_networkSource.getURI(),
                     commands.getContext(DLNotCancelable.INSTANCE), true, DLNotCancelable.INSTANCE);
@@ -219,7 +333,6 @@ private static List<DLKerasNetworkSpec> retrieveBaseNetworkSpecs(
                 // Won't happen
             }
         }
-        return baseNetworkSpecs;
     }
 
     private Set<String> expandNetworkInputs(final List<Object> networkInputs) {
@@ -254,6 +367,25 @@ private List<String> expandNetworkOutputs(final List<Object> networkOutputs) {
         return expandedNetworkOutputs;
     }
 
+    private static final class DLMaterializedNetworkEntry {
+
+        private final DLKerasNetwork m_network;
+
+        private final File m_file;
+
+        private final long m_size;
+
+        private final long m_lastModified;
+
+        private DLMaterializedNetworkEntry(final DLKerasNetwork network, final File file, final long size,
+            final long lastModified) {
+            m_network = network;
+            m_file = file;
+            m_size = size;
+            m_lastModified = lastModified;
+        }
+    }
+
     private static class DLKerasNetworkMaterializerParser implements DLKerasLayerVisitor {
 
         private final Map<DLKerasTensorSpecsOutput, List<DLTensorSpec>> m_layerToTensorSpecMap;
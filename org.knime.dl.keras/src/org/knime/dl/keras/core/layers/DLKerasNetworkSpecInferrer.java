@@ -105,10 +105,15 @@ Map<DLKerasTensorSpecsOutput, List<DLTensorSpec>> getLayerToTensorMap() {
      * @throws DLNetworkGraphTraversalException if traversing the network graph failed
      */
     public DLKerasNetworkSpec inferNetworkSpec() {
-        if (m_inferredSpec != null) {
-            return m_inferredSpec;
+        if (m_inferredSpec == null) {
+            // Layers cache their output specs. Inferring all of them in a single pass lets each layer check its cache
+            // only once, regardless of how many layers consume its outputs.
+            m_inferredSpec = DLKerasAbstractInnerLayer.inferInSinglePass(this::inferNetworkSpecInternal);
         }
+        return m_inferredSpec;
+    }
 
+    private DLKerasNetworkSpec inferNetworkSpecInternal() {
         final List<Function<DLKerasNetworkLayerNameGenerator, List<DLTensorSpec>>> inputSpecsToInfer =
             new ArrayList<>(5);
         final List<Function<DLKerasNetworkLayerNameGenerator, List<DLTensorSpec>>> hiddenSpecsToInfer =
@@ -209,9 +214,8 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
         Set<DLTensorSpec> nonOutputHiddenSpecs = Sets.difference(distinctHiddenSpecs, distinctOutputSpecs);
 
         // TODO: Only TensorFlow is supported at the moment.
-        m_inferredSpec = new DLKerasTensorFlowNetworkSpec(inputSpecs,
+        return new DLKerasTensorFlowNetworkSpec(inputSpecs,
             nonOutputHiddenSpecs.toArray(new DLTensorSpec[nonOutputHiddenSpecs.size()]), outputSpecs);
-        return m_inferredSpec;
     }
 
     private List<DLTensorSpec> inferTensorSpecs(final DLKerasNetworkLayerNameGenerator layerNameGen,
@@ -314,4 +314,123 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 			}
 		}
 	}
+
+	/**
+	 * Periodically saves the weights and the optimizer state of the network together with the current training position
+	 * (epoch and batch) to a checkpoint directory. Training can be resumed from the last checkpoint, see
+	 * {@link DLKerasTrainingConfig#getResumeCheckpoint()}.
+	 */
+	public static class DLKerasModelCheckpoint extends DLKerasAbstractCallback {
+
+		/**
+		 * The name of the file in the checkpoint directory that contains the network including its optimizer state if
+		 * the state file does not name one via {@link #STATE_KEY_MODEL}. Only checkpoints of older versions use it.
+		 */
+		public static final String MODEL_FILE_NAME = "checkpoint.h5";
+
+		/**
+		 * The name of the properties file in the checkpoint directory that contains the training position of the last
+		 * checkpoint. Its keys are {@link #STATE_KEY_EPOCH}, {@link #STATE_KEY_BATCH}, {@link #STATE_KEY_STEPS} and
+		 * {@link #STATE_KEY_MODEL}. Replacing this file commits a checkpoint.
+		 */
+		public static final String STATE_FILE_NAME = "checkpoint.properties";
+
+		/**
+		 * The number of completed epochs.
+		 */
+		public static final String STATE_KEY_EPOCH = "epoch";
+
+		/**
+		 * The number of completed batches in the epoch after the completed ones.
+		 */
+		public static final String STATE_KEY_BATCH = "batch";
+
+		/**
+		 * The number of batches per epoch of the training run that wrote the checkpoint.
+		 */
+		public static final String STATE_KEY_STEPS = "steps";
+
+		/**
+		 * The name of the file in the checkpoint directory that contains the network including its optimizer state at
+		 * the recorded position.
+		 */
+		public static final String STATE_KEY_MODEL = "model";
+
+		static final String CFG_KEY = "model_checkpoint";
+
+		static final String CFG_KEY_DIRECTORY = "directory";
+
+		static final String CFG_KEY_PERIOD_EPOCHS = "period_epochs";
+
+		static final String CFG_KEY_PERIOD_MINUTES = "period_minutes";
+
+		static final String CFG_KEY_RESUME = "resume";
+
+		private String m_resolvedDirectory;
+
+		public DLKerasModelCheckpoint() {
+			super(CFG_KEY, "Save checkpoints", "DLKerasTrainingCallbacks.DLKerasModelCheckpoint");
+			setEntryValue(CFG_KEY_DIRECTORY, String.class, "");
+			setEntryValue(CFG_KEY_PERIOD_EPOCHS, Integer.class, 1);
+			setEntryValue(CFG_KEY_PERIOD_MINUTES, Integer.class, 0);
+			setEntryValue(CFG_KEY_RESUME, Boolean.class, false);
+		}
+
+		/**
+		 * @return the path or KNIME URL of the checkpoint directory as entered by the user, may be empty
+		 */
+		public String getDirectory() {
+			return getEntryValue(CFG_KEY_DIRECTORY, String.class);
+		}
+
+		/**
+		 * @return whether training resumes from the last checkpoint in the checkpoint directory, if any
+		 */
+		public boolean getResume() {
+			return getEntryValue(CFG_KEY_RESUME, Boolean.class);
+		}
+
+		/**
+		 * Sets the resolved local checkpoint directory. Must be called before training. Not saved to the settings.
+		 *
+		 * @param resolvedDirectory the local checkpoint directory
+		 */
+		public void setResolvedDirectory(final String resolvedDirectory) {
+			m_resolvedDirectory = resolvedDirectory;
+		}
+
+		@Override
+		protected void populateNamedParameters(final Map<String, String> namedParams) {
+			if (m_resolvedDirectory == null) {
+				throw new IllegalStateException(
+						"Checkpoint directory was not resolved before training. This is an implementation error.");
+			}
+			namedParams.put("directory", DLPythonUtils.toPythonRawString(m_resolvedDirectory));
+			namedParams.put("period_epochs",
+					DLPythonUtils.toPython(getEntryValue(CFG_KEY_PERIOD_EPOCHS, Integer.class)));
+			namedParams.put("period_seconds",
+					DLPythonUtils.toPython(getEntryValue(CFG_KEY_PERIOD_MINUTES, Integer.class) * 60));
+		}
+
+		@Override
+		protected IDialogComponentGroup getParameterDialogGroupInternal() {
+			return new DLKerasModelCheckpointDialog(this);
+		}
+
+		private static class DLKerasModelCheckpointDialog extends AbstractGridBagDialogComponentGroup {
+
+			private DLKerasModelCheckpointDialog(final DLKerasModelCheckpoint model) {
+				addStringEditRowComponent(
+						ConfigUtil.toSettingsModelString(model.get(CFG_KEY_DIRECTORY, String.class)),
+						"Checkpoint directory");
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_PERIOD_EPOCHS, Integer.class), 0, Integer.MAX_VALUE), "Every n epochs", 1);
+				addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+						model.get(CFG_KEY_PERIOD_MINUTES, Integer.class), 0, Integer.MAX_VALUE), "Every n minutes",
+						5);
+				addCheckboxRow(ConfigUtil.toSettingsModelBoolean(model.get(CFG_KEY_RESUME, Boolean.class)),
+						"Resume from last checkpoint", true);
+			}
+		}
+	}
 }
@@ -66,8 +66,20 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	private final DLKerasOptimizer m_optimizer;
 	private final Map<DLTensorId, DLKerasLossFunction> m_losses;
 	private final Collection<DLKerasCallback> m_callbacks;
+	private final int m_prefetchSize;
+	private final int m_workers;
+	private final long m_validationDataCacheSize;
+	private final long m_trainingDataCacheSize;
+	private final boolean m_shuffleTrainingData;
+	private final int m_initialEpoch;
+	private final int m_initialBatch;
+	private final String m_resumeCheckpoint;
+	private final boolean m_offHeapTensors;
 
 	/**
+	 * Creates a builder for configurations that may deviate from the defaults of the optional settings, see
+	 * {@link Builder}.
+	 *
 	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
 	 *            actual number of executed epochs can be smaller in case of early stopping.
 	 * @param batchSize the number of training samples to use for a single training step
@@ -77,17 +89,49 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
 	 *            the network that will be trained.
 	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @return the builder
+	 */
+	public static Builder builder(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks) {
+		return new Builder(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks);
+	}
+
+	/**
+	 * Creates a configuration that uses the defaults of all optional settings, see {@link Builder}.
+	 *
+	 * @param epochs see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
+	 * @param batchSize see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
+	 * @param validationBatchSize see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
+	 * @param optimizer see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
+	 * @param losses see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
+	 * @param callbacks see {@link #builder(int, int, Integer, DLKerasOptimizer, Map, Collection)}
 	 */
 	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
 			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
 			final Collection<DLKerasCallback> callbacks) {
-		m_epochs = epochs;
-		m_batchSize = batchSize;
-		m_validationBatchSize = validationBatchSize != null ? validationBatchSize : batchSize;
-		m_optimizer = optimizer;
-		m_losses = Collections.unmodifiableMap(new HashMap<>(losses));
-		m_callbacks = callbacks != null ? Collections.unmodifiableCollection(new ArrayList<>(callbacks))
+		this(builder(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks));
+	}
+
+	private DLKerasDefaultTrainingConfig(final Builder builder) {
+		m_epochs = builder.m_epochs;
+		m_batchSize = builder.m_batchSize;
+		m_validationBatchSize = builder.m_validationBatchSize != null ? builder.m_validationBatchSize
+				: builder.m_batchSize;
+		m_optimizer = builder.m_optimizer;
+		m_losses = Collections.unmodifiableMap(new HashMap<>(builder.m_losses));
+		m_callbacks = builder.m_callbacks != null
+				? Collections.unmodifiableCollection(new ArrayList<>(builder.m_callbacks))
 				: Collections.emptyList();
+		m_prefetchSize = builder.m_prefetchSize;
+		m_workers = builder.m_workers;
+		m_validationDataCacheSize = builder.m_validationDataCacheSize;
+		m_trainingDataCacheSize = builder.m_trainingDataCacheSize;
+		m_shuffleTrainingData = builder.m_shuffleTrainingData;
+		m_initialEpoch = builder.m_initialEpoch;
+		m_initialBatch = builder.m_initialBatch;
+		m_resumeCheckpoint = builder.m_resumeCheckpoint;
+		m_offHeapTensors = builder.m_offHeapTensors;
 	}
 
 	@Override
@@ -119,4 +163,164 @@ public Map<DLTensorId, DLKerasLossFunction> getLosses() {
 	public Collection<DLKerasCallback> getCallbacks() {
 		return m_callbacks;
 	}
+
+	@Override
+	public int getPrefetchSize() {
+		return m_prefetchSize;
+	}
+
+	@Override
+	public int getWorkers() {
+		return m_workers;
+	}
+
+	@Override
+	public long getValidationDataCacheSize() {
+		return m_validationDataCacheSize;
+	}
+
+	@Override
+	public long getTrainingDataCacheSize() {
+		return m_trainingDataCacheSize;
+	}
+
+	@Override
+	public boolean getShuffleTrainingData() {
+		return m_shuffleTrainingData;
+	}
+
+	@Override
+	public int getInitialEpoch() {
+		return m_initialEpoch;
+	}
+
+	@Override
+	public int getInitialBatch() {
+		return m_initialBatch;
+	}
+
+	@Override
+	public String getResumeCheckpoint() {
+		return m_resumeCheckpoint;
+	}
+
+	@Override
+	public boolean isOffHeapTensorsEnabled() {
+		return m_offHeapTensors;
+	}
+
+	/**
+	 * Builds {@link DLKerasDefaultTrainingConfig training configurations}. Settings that are not set explicitly keep
+	 * their defaults, which correspond to the training behavior prior to their introduction.
+	 */
+	public static final class Builder {
+
+		private final int m_epochs;
+		private final int m_batchSize;
+		private final Integer m_validationBatchSize;
+		private final DLKerasOptimizer m_optimizer;
+		private final Map<DLTensorId, DLKerasLossFunction> m_losses;
+		private final Collection<DLKerasCallback> m_callbacks;
+		private int m_prefetchSize = 0;
+		private int m_workers = 1;
+		private long m_validationDataCacheSize = 0;
+		private long m_trainingDataCacheSize = 0;
+		private boolean m_shuffleTrainingData = false;
+		private int m_initialEpoch = 0;
+		private int m_initialBatch = 0;
+		private String m_resumeCheckpoint = null;
+		private boolean m_offHeapTensors = false;
+
+		private Builder(final int epochs, final int batchSize, final Integer validationBatchSize,
+				final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+				final Collection<DLKerasCallback> callbacks) {
+			m_epochs = epochs;
+			m_batchSize = batchSize;
+			m_validationBatchSize = validationBatchSize;
+			m_optimizer = optimizer;
+			m_losses = losses;
+			m_callbacks = callbacks;
+		}
+
+		/**
+		 * @param prefetchSize the number of training batches to prepare ahead of time, zero (the default) to prepare
+		 *            them on demand
+		 * @return this builder
+		 */
+		public Builder setPrefetchSize(final int prefetchSize) {
+			m_prefetchSize = prefetchSize;
+			return this;
+		}
+
+		/**
+		 * @param workers the number of threads Keras uses to fetch training batches, must be positive. Defaults to one.
+		 * @return this builder
+		 */
+		public Builder setWorkers(final int workers) {
+			m_workers = workers;
+			return this;
+		}
+
+		/**
+		 * @param validationDataCacheSize the maximum number of bytes the validation data may occupy to be kept in
+		 *            memory on Python side across epochs, zero (the default) to transfer it anew in each epoch
+		 * @return this builder
+		 */
+		public Builder setValidationDataCacheSize(final long validationDataCacheSize) {
+			m_validationDataCacheSize = validationDataCacheSize;
+			return this;
+		}
+
+		/**
+		 * @param trainingDataCacheSize the maximum number of bytes the training and validation data may occupy to be
+		 *            transferred to Python once and be trained on in memory, zero (the default) to transfer it batch by
+		 *            batch
+		 * @return this builder
+		 */
+		public Builder setTrainingDataCacheSize(final long trainingDataCacheSize) {
+			m_trainingDataCacheSize = trainingDataCacheSize;
+			return this;
+		}
+
+		/**
+		 * @param shuffleTrainingData whether Python shuffles the in-memory training data before each epoch. Defaults
+		 *            to false.
+		 * @return this builder
+		 */
+		public Builder setShuffleTrainingData(final boolean shuffleTrainingData) {
+			m_shuffleTrainingData = shuffleTrainingData;
+			return this;
+		}
+
+		/**
+		 * @param initialEpoch the zero-based epoch at which training starts
+		 * @param initialBatch the zero-based batch within the initial epoch at which training starts
+		 * @param resumeCheckpoint the path of the checkpoint file to restore before training starts, may be null
+		 * @return this builder
+		 */
+		public Builder setResumePosition(final int initialEpoch, final int initialBatch,
+				final String resumeCheckpoint) {
+			m_initialEpoch = initialEpoch;
+			m_initialBatch = initialBatch;
+			m_resumeCheckpoint = resumeCheckpoint;
+			return this;
+		}
+
+		/**
+		 * @param offHeapTensors whether the buffers of float and double tensors are allocated outside of the Java
+		 *            heap. Defaults to false.
+		 * @return this builder
+		 */
+		public Builder setOffHeapTensors(final boolean offHeapTensors) {
+			m_offHeapTensors = offHeapTensors;
+			return this;
+		}
+
+		/**
+		 * @return the configuration
+		 */
+		public DLKerasDefaultTrainingConfig build() {
+			return new DLKerasDefaultTrainingConfig(this);
+		}
+	}
 }
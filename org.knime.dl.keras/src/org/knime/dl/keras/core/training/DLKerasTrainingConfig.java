@@ -75,4 +75,71 @@ public interface DLKerasTrainingConfig extends DLTrainingConfig {
 	 *         training process
 	 */
 	Collection<DLKerasCallback> getCallbacks();
+
+	/**
+	 * @return the number of threads Keras uses to fetch training data batches from the data generator
+	 */
+	default int getWorkers() {
+		return 1;
+	}
+
+	/**
+	 * @return the maximum number of bytes the validation data may occupy on back end side to be kept in memory across
+	 *         epochs instead of being transferred anew in each epoch, zero if validation data is never kept in memory
+	 */
+	default long getValidationDataCacheSize() {
+		return 0;
+	}
+
+	/**
+	 * @return the maximum number of bytes the training (and validation) data may occupy on back end side to be
+	 *         transferred only once and be trained on entirely in memory, zero if training data is always transferred
+	 *         batch by batch
+	 */
+	default long getTrainingDataCacheSize() {
+		return 0;
+	}
+
+	/**
+	 * @return true if the back end shall shuffle the training data before each epoch when training on in-memory data,
+	 *         see {@link #getTrainingDataCacheSize()}
+	 */
+	default boolean getShuffleTrainingData() {
+		return false;
+	}
+
+	/**
+	 * @return the zero-based epoch at which training starts, greater than zero if training is resumed from a checkpoint
+	 */
+	default int getInitialEpoch() {
+		return 0;
+	}
+
+	/**
+	 * @return the zero-based batch within the {@link #getInitialEpoch() initial epoch} at which training starts,
+	 *         greater than zero if training is resumed from a checkpoint that was saved in the middle of an epoch
+	 */
+	default int getInitialBatch() {
+		return 0;
+	}
+
+	/**
+	 * @return the path of the checkpoint file whose weights and optimizer state are restored before training starts,
+	 *         null if training starts from the input network
+	 */
+	default String getResumeCheckpoint() {
+		return null;
+	}
+
+	@Override
+	default int getNumRequestedEpochs() {
+		// the remainder of the initial epoch is requested as a whole pass, preceding batches are dropped by the back end
+		return getEpochs() - getInitialEpoch();
+	}
+
+	@Override
+	default boolean isSinglePassPossible() {
+		// training on in-memory data only requests a single pass
+		return getTrainingDataCacheSize() > 0;
+	}
 }
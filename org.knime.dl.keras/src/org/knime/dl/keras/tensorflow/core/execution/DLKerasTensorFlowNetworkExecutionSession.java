@@ -53,10 +53,12 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.core.execution.DLKerasAbstractNetworkExecutionSession;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowCommands;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.python.core.DLPythonContext;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -66,14 +68,16 @@
 	extends DLKerasAbstractNetworkExecutionSession<DLKerasTensorFlowNetwork, DLKerasTensorFlowCommands> {
 
 	public DLKerasTensorFlowNetworkExecutionSession(final DLKerasTensorFlowNetwork network,
-			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
-			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
-			final DLTensorFactory tensorFactory) {
-		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+			final DLExecutionConfig executionConfig, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
+		super(network, executionConfig, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				tensorFactory);
 	}
 
 	@Override
-	protected DLKerasTensorFlowCommands createCommands() throws DLInvalidEnvironmentException {
-		return new DLKerasTensorFlowCommands();
+	protected DLKerasTensorFlowCommands createCommands(final DLPythonContext context)
+			throws DLInvalidEnvironmentException {
+		return new DLKerasTensorFlowCommands(context);
 	}
 }
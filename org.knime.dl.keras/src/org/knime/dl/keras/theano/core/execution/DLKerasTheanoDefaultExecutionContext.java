@@ -55,6 +55,7 @@
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.keras.core.execution.DLKerasAbstractExecutionContext;
 import org.knime.dl.keras.theano.core.DLKerasTheanoNetwork;
@@ -80,9 +81,10 @@ public void checkAvailability(final boolean forceRefresh, final int timeout, fin
 
 	@Override
 	public DLKerasTheanoNetworkExecutionSession createExecutionSession(final DLKerasTheanoNetwork network,
-			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
-			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
-		return new DLKerasTheanoNetworkExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer,
-				outputConsumer, getTensorFactory());
+			final DLExecutionConfig executionConfig, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer) {
+		return new DLKerasTheanoNetworkExecutionSession(network, executionConfig, executionInputSpecs,
+				requestedOutputs, inputPreparer, outputConsumer, getTensorFactory());
 	}
 }
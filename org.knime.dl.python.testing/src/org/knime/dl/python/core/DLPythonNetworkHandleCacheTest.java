@@ -0,0 +1,135 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLNetworkReferenceLocation;
+
+/**
+ * Requires a Python environment as the cache identifies networks by the kernel they were loaded in.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLPythonNetworkHandleCacheTest {
+
+	private static final DLPythonNetworkHandle HANDLE = new DLPythonNetworkHandle("dummy");
+
+	@Test
+	public void testSecondLookupInSameKernelIsHit() throws Exception {
+		final File file = File.createTempFile("dl-network-handle-cache-test", ".h5");
+		file.deleteOnExit();
+		Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+		final DLNetworkLocation source = new DLNetworkReferenceLocation(file.toURI());
+		final DLPythonNetworkHandleCache cache = DLPythonNetworkHandleCache.getInstance();
+		final AtomicInteger numLoads = new AtomicInteger();
+		try (final DLPythonDefaultContext context = new DLPythonDefaultContext()) {
+			final long hits = cache.getHitCount();
+			final long misses = cache.getMissCount();
+			assertSame(HANDLE, cache.getOrLoad(context, source, () -> {
+				numLoads.incrementAndGet();
+				return HANDLE;
+			}));
+			assertEquals(hits, cache.getHitCount());
+			assertEquals(misses + 1, cache.getMissCount());
+			assertSame(HANDLE, cache.getOrLoad(context, source, () -> {
+				numLoads.incrementAndGet();
+				return HANDLE;
+			}));
+			assertEquals(1, numLoads.get());
+			assertEquals(hits + 1, cache.getHitCount());
+			assertEquals(misses + 1, cache.getMissCount());
+		}
+	}
+
+	@Test
+	public void testEntriesAreDiscardedWhenKernelIsClosed() throws Exception {
+		final File file = File.createTempFile("dl-network-handle-cache-test", ".h5");
+		file.deleteOnExit();
+		Files.write(file.toPath(), new byte[] { 4, 5, 6 });
+		final DLNetworkLocation source = new DLNetworkReferenceLocation(file.toURI());
+		final DLPythonNetworkHandleCache cache = DLPythonNetworkHandleCache.getInstance();
+		final int numCached = cache.getCachedNetworkCount();
+		final DLPythonDefaultContext context = new DLPythonDefaultContext();
+		try {
+			cache.getOrLoad(context, source, () -> HANDLE);
+			assertEquals(numCached + 1, cache.getCachedNetworkCount());
+		} finally {
+			context.close();
+		}
+		assertEquals(numCached, cache.getCachedNetworkCount());
+	}
+
+	@Test
+	public void testNonLocalNetworkIsNotCached() throws Exception {
+		final DLNetworkLocation source = new DLNetworkReferenceLocation(URI.create("http://localhost/network.h5"));
+		final DLPythonNetworkHandleCache cache = DLPythonNetworkHandleCache.getInstance();
+		final AtomicInteger numLoads = new AtomicInteger();
+		try (final DLPythonDefaultContext context = new DLPythonDefaultContext()) {
+			final long hits = cache.getHitCount();
+			final long misses = cache.getMissCount();
+			for (int i = 0; i < 2; i++) {
+				assertSame(HANDLE, cache.getOrLoad(context, source, () -> {
+					numLoads.incrementAndGet();
+					return HANDLE;
+				}));
+			}
+			assertEquals(2, numLoads.get());
+			assertEquals(hits, cache.getHitCount());
+			assertEquals(misses, cache.getMissCount());
+		}
+	}
+}
@@ -43,6 +43,8 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
+import numpy as np
+
 # base
 class DLPythonDataBuffer(object):  
 	def __init__(self, array):
@@ -87,6 +89,15 @@ class DLPythonBitBuffer(DLPythonDataBuffer):
 		"""
 		super(DLPythonBitBuffer, self).__init__(array)
 
+# packed bit
+class DLPythonPackedBitBuffer(DLPythonDataBuffer):
+	def __init__(self, array):
+		"""
+		Creates a new bit buffer that wraps a boolean numpy.ndarray and is transferred with its bits packed into words.
+		:param array: The numpy.ndarray.
+		"""
+		super(DLPythonPackedBitBuffer, self).__init__(array)
+
 # byte
 class DLPythonByteBuffer(DLPythonDataBuffer):
 	def __init__(self, array):
@@ -132,3 +143,31 @@ class DLPythonLongBuffer(DLPythonDataBuffer):
 		"""
 		super(DLPythonLongBuffer, self).__init__(array)
 
+
+# one-hot indices
+class DLPythonOneHotIndexBuffer(DLPythonDataBuffer):
+	def __init__(self, indices, depth):
+		"""
+		Creates a new buffer that holds the indices of the hot elements of a one-hot encoded float tensor. The dense
+		tensor is only materialized when the buffer's array is accessed.
+		:param indices: The numpy.ndarray of indices, -1 denotes an all-zero vector.
+		:param depth: The length of the one-hot encoded vectors.
+		"""
+		self.indices = indices
+		self.depth = depth
+		self._array = None
+
+	@property
+	def array(self):
+		"""
+		The flat dense float32 tensor, expanded from the indices on first access.
+		"""
+		if self._array is None:
+			array = np.zeros((len(self.indices), self.depth), dtype=np.float32)
+			hot = self.indices >= 0
+			array[np.nonzero(hot)[0], self.indices[hot]] = 1
+			self._array = array.reshape(-1)
+		return self._array
+
+	def __len__(self):
+		return len(self.indices) * self.depth
@@ -49,6 +49,7 @@
 '''
 
 import abc
+import os
 
 from pandas.util.testing import network
 
@@ -57,6 +58,8 @@ _networks = {}
 
 _network_id_suffix = 0
 
+_reset_hooks = []
+
 def get_network(identifier):
     return _networks[identifier]
 
@@ -73,10 +76,21 @@ def add_network(network, identifier=None):
 def remove_network(identifier):
     if identifier in _networks:
         del _networks[identifier]
+        if not _networks:
+            for hook in _reset_hooks:
+                hook()
         return True
     else:
         return False
 
+def add_reset_hook(hook):
+    """
+    Registers a function that resets the global state of a back end, e.g. its computation graph. The hooks are called
+    whenever the last network was removed from this process, which allows pooled kernels to be reused without
+    accumulating the state of previous sessions.
+    """
+    _reset_hooks.append(hook)
+
 def _get_next_network_id():
     global _network_id_suffix
     identifier = 'network_' + str(_network_id_suffix)
@@ -84,6 +98,23 @@ def _get_next_network_id():
     return identifier
 
 
+def get_memory_usage():
+    """
+    Returns the current resident memory of this process in bytes or -1 if it cannot be determined. Unlike the peak
+    resident memory, this also reflects memory that has been released in the meantime.
+    """
+    try:
+        import psutil
+        return psutil.Process().memory_info().rss
+    except ImportError:
+        pass
+    try:
+        with open('/proc/self/statm') as statm:
+            return int(statm.read().split()[1]) * os.sysconf('SC_PAGE_SIZE')
+    except (IOError, OSError, ValueError, IndexError):
+        return -1
+
+
 class DLPythonNetworkReader(object):
     __metaclass__ = abc.ABCMeta
 
@@ -111,6 +142,10 @@ class DLPythonNetwork(object):
     def execute(self, in_data, batch_size, output_identifiers):
         raise NotImplementedError()
 
+    def prepare_execution(self, output_identifiers):
+        # Optional hook that allows networks to do expensive per-session setup before the first batch arrives.
+        pass
+
     @abc.abstractmethod
     def save(self, path):
         raise NotImplementedError()
@@ -49,22 +49,33 @@
 """
 
 import abc
+import threading
 import warnings
 
+import numpy as np
+
 
 class DLPythonNetworkTrainingInputGenerator(object):
     __metaclass__ = abc.ABCMeta
 
-    def __init__(self, input_names, target_names, steps, batch_size):
+    def __init__(self, input_names, target_names, steps, batch_size, cache_size=0):
+        """
+        :param cache_size: the maximum number of bytes the batches of a full pass over the data may occupy to be kept
+            in memory after the first pass, in which case they are not requested again. Zero disables caching.
+            Caching requires batches to be pairs of lists of numpy arrays (inputs and targets).
+        """
         assert len(input_names) > 0
         assert len(target_names) > 0
         assert steps > 0
         assert batch_size > 0
+        assert cache_size >= 0
         self._input_names = input_names
         self._target_names = target_names
         self._size = steps * batch_size
         self._batch_size = batch_size
         self._steps = steps
+        self._cache_size = cache_size
+        self._first_batch = None
 
     @property
     def input_names(self):
@@ -86,20 +97,109 @@ class DLPythonNetworkTrainingInputGenerator(object):
     def steps(self):
         return self._steps
 
-    def get_generator(self):
+    def estimate_num_bytes(self):
+        """
+        Estimates the number of bytes a full pass over the data occupies. This fetches the first batch, which is
+        retained and handed out by the next call of load_all or by the generator.
+        """
+        if self._first_batch is None:
+            self._first_batch = self._get_batch(0)
+        # all batches have the same size
+        return _get_num_bytes(self._first_batch) * self._steps
+
+    def load_all(self):
+        """
+        Fetches a full pass over the data and returns it as a pair of lists of contiguous numpy arrays (inputs and
+        targets), each of which holds all batches.
+        """
+        batches = [self._fetch_batch(i) for i in range(self._steps)]
+        return _concatenate(batches)
+
+    def get_generator(self, start_batch=0):
+        """
+        :param start_batch: if greater than zero, the returned generator is finite and only yields the remaining batches
+            of a single pass over the data starting at the given batch. The preceding batches are still requested to
+            keep the data source in sync but are dropped.
+        """
+        # Keras may fetch batches from several worker threads. Batches must be requested one after another, though.
+        if start_batch > 0:
+            return _DLThreadSafeIterator(self._generate_remainder(start_batch))
+        return _DLThreadSafeIterator(self._generate())
+
+    def _generate_remainder(self, start_batch):
+        for i in range(self._steps):
+            batch = self._fetch_batch(i)
+            if i >= start_batch:
+                yield batch
+
+    def _generate(self):
         i = 0
+        cache = [] if self._cache_size > 0 else None
         while True:
             if i == self._steps:
                 i = 0
+                if cache is not None:
+                    break
             try:
-                batch = self._get_batch(i)
+                batch = self._fetch_batch(i)
             except Exception as e:
                 warnings.warn("An exception of type " + str(type(e)) +
                               " occurred while fetching the next network input batch.\nCause: " + str(e))
                 raise
+            if cache is not None:
+                if i == 0 and _get_num_bytes(batch) * self._steps > self._cache_size:
+                    # all batches have the same size, so the first one tells whether a full pass fits into the cache
+                    print("Data (estimated " + str(_get_num_bytes(batch) * self._steps) +
+                          " bytes) exceeds the memory limit of " + str(self._cache_size) +
+                          " bytes. Data will be requested anew for each pass.")
+                    cache = None
+                else:
+                    cache.append(batch)
             i += 1
             yield batch
+        # Each pass over the data yields the same batches in the same order, serve all further passes from memory.
+        yield from self._generate_from_cache(cache)
+
+    def _generate_from_cache(self, cache):
+        inputs, targets = _concatenate(cache)
+        del cache[:]
+        while True:
+            for i in range(self._steps):
+                start = i * self._batch_size
+                end = start + self._batch_size
+                # slicing contiguous arrays along the first axis yields views, no copying involved
+                yield [a[start:end] for a in inputs], [t[start:end] for t in targets]
+
+    def _fetch_batch(self, batch_index):
+        if batch_index == 0 and self._first_batch is not None:
+            batch = self._first_batch
+            self._first_batch = None
+            return batch
+        return self._get_batch(batch_index)
 
     @abc.abstractmethod
     def _get_batch(self, batch_index):
         raise NotImplementedError()
+
+
+def _get_num_bytes(batch):
+    return sum(a.nbytes for arrays in batch for a in arrays)
+
+
+def _concatenate(batches):
+    inputs = [np.concatenate(arrays) for arrays in zip(*(batch[0] for batch in batches))]
+    targets = [np.concatenate(arrays) for arrays in zip(*(batch[1] for batch in batches))]
+    return inputs, targets
+
+
+class _DLThreadSafeIterator(object):
+    def __init__(self, iterator):
+        self._iterator = iterator
+        self._lock = threading.Lock()
+
+    def __iter__(self):
+        return self
+
+    def __next__(self):
+        with self._lock:
+            return next(self._iterator)
@@ -0,0 +1,106 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Counterpart of org.knime.dl.python.core.DLPythonSharedMemoryTransport. Tensor data is exchanged via memory-mapped files
+instead of being serialized into the tables that are sent over the kernel's socket connection.
+
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+@author Christian Dietz, KNIME GmbH, Konstanz, Germany
+'''
+
+import numpy as np
+import pandas as pd
+
+from DLPythonDataBuffers import DLPythonBitBuffer
+from DLPythonDataBuffers import DLPythonByteBuffer
+from DLPythonDataBuffers import DLPythonDoubleBuffer
+from DLPythonDataBuffers import DLPythonFloatBuffer
+from DLPythonDataBuffers import DLPythonIntBuffer
+from DLPythonDataBuffers import DLPythonLongBuffer
+from DLPythonDataBuffers import DLPythonShortBuffer
+from DLPythonDataBuffers import DLPythonUnsignedByteBuffer
+
+
+_buffer_types = {
+    'bool': DLPythonBitBuffer,
+    'int8': DLPythonByteBuffer,
+    'uint8': DLPythonUnsignedByteBuffer,
+    'int16': DLPythonShortBuffer,
+    'int32': DLPythonIntBuffer,
+    'int64': DLPythonLongBuffer,
+    'float32': DLPythonFloatBuffer,
+    'float64': DLPythonDoubleBuffer
+}
+
+
+def read_input(identifier, path, dtype, size, shape):
+    """
+    Wraps the first size elements of the given file in a buffer and returns it in the same table layout that the
+    default (table based) transport produces, i.e. a single row holding the buffer and the tensor's shape.
+    The file is mapped, not read, and must therefore not be changed while the returned buffer is in use.
+    """
+    if size > 0:
+        array = np.memmap(path, dtype=dtype, mode='r', shape=(size,))
+    else:
+        array = np.empty((0,), dtype=dtype)
+    buffer = _buffer_types[dtype](array)
+    return pd.DataFrame({identifier: [buffer], 'shape': [shape]}, columns=[identifier, 'shape'])
+
+
+def write_output(data_frame, path, dtype):
+    """
+    Writes the buffer contained in the given (single cell) table to the given file. The file is truncated to the exact
+    size of the written data as Java infers the number of elements from the size of the file.
+    """
+    array = np.ascontiguousarray(data_frame.values[0][0].array, dtype=dtype).reshape(-1)
+    if array.size > 0:
+        target = np.memmap(path, dtype=dtype, mode='w+', shape=array.shape)
+        target[:] = array
+        target.flush()
+        del target
+    else:
+        with open(path, 'wb'):
+            pass
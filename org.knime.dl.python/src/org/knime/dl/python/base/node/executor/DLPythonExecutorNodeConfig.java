@@ -47,6 +47,9 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 import org.knime.python2.config.PythonSourceCodeConfig;
 import org.knime.python2.generic.VariableNames;
 
@@ -69,6 +72,16 @@ final class DLPythonExecutorNodeConfig extends PythonSourceCodeConfig {
 			null // general output objects
 	);
 
+	private static final String CFG_KEY_EXECUTE_IN_CHUNKS = "execute_in_chunks";
+
+	private static final String CFG_KEY_CHUNK_SIZE = "chunk_size";
+
+	static final int DEFAULT_CHUNK_SIZE = 10000;
+
+	private boolean m_executeInChunks = false;
+
+	private int m_chunkSize = DEFAULT_CHUNK_SIZE;
+
 	@Override
 	protected String getDefaultSourceCode() {
 		final VariableNames vars = getVariableNames();
@@ -90,4 +103,52 @@ protected String getDefaultSourceCode() {
 	static VariableNames getVariableNames() {
 		return VARIABLE_NAMES;
 	}
+
+	/**
+	 * @return true if the input table is passed to the script in chunks of {@link #getChunkSize()} rows, in which case
+	 *         the script is executed once per chunk
+	 */
+	boolean getExecuteInChunks() {
+		return m_executeInChunks;
+	}
+
+	void setExecuteInChunks(final boolean executeInChunks) {
+		m_executeInChunks = executeInChunks;
+	}
+
+	/**
+	 * @return the maximum number of rows per chunk
+	 */
+	int getChunkSize() {
+		return m_chunkSize;
+	}
+
+	void setChunkSize(final int chunkSize) {
+		m_chunkSize = chunkSize;
+	}
+
+	@Override
+	public void saveTo(final NodeSettingsWO settings) {
+		super.saveTo(settings);
+		settings.addBoolean(CFG_KEY_EXECUTE_IN_CHUNKS, m_executeInChunks);
+		settings.addInt(CFG_KEY_CHUNK_SIZE, m_chunkSize);
+	}
+
+	@Override
+	public void loadFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+		super.loadFrom(settings);
+		// backward compatibility (3.7): the script used to be executed once on the entire input table
+		m_executeInChunks = settings.getBoolean(CFG_KEY_EXECUTE_IN_CHUNKS, false);
+		m_chunkSize = settings.getInt(CFG_KEY_CHUNK_SIZE, DEFAULT_CHUNK_SIZE);
+		if (m_chunkSize < 1) {
+			throw new InvalidSettingsException("Chunk size must be positive but was " + m_chunkSize + ".");
+		}
+	}
+
+	@Override
+	public void loadFromInDialog(final NodeSettingsRO settings) {
+		super.loadFromInDialog(settings);
+		m_executeInChunks = settings.getBoolean(CFG_KEY_EXECUTE_IN_CHUNKS, false);
+		m_chunkSize = Math.max(1, settings.getInt(CFG_KEY_CHUNK_SIZE, DEFAULT_CHUNK_SIZE));
+	}
 }
@@ -47,8 +47,18 @@
  */
 package org.knime.dl.python.base.node.executor;
 
+import java.awt.FlowLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
 import java.io.IOException;
 
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.DataAwareNodeDialogPane;
 import org.knime.core.node.InvalidSettingsException;
@@ -83,14 +93,43 @@ final class DLPythonExecutorNodeDialog extends DataAwareNodeDialogPane {
 
 	private final PythonSourceCodeOptionsPanel m_sourceCodeOptionsPanel;
 
+	private final JCheckBox m_executeInChunks;
+
+	private final JSpinner m_chunkSize;
+
 	private WorkspacePreparer m_workspacePreparer;
 
 	DLPythonExecutorNodeDialog() {
 		m_sourceCodePanel = new DLPythonSourceCodePanel(DLPythonExecutorNodeConfig.getVariableNames(),
 				FlowVariableOptions.parse(getAvailableFlowVariables()));
 		m_sourceCodeOptionsPanel = new PythonSourceCodeOptionsPanel(m_sourceCodePanel, EnforcePythonVersion.PYTHON3);
+		m_executeInChunks = new JCheckBox("Execute script in chunks");
+		m_chunkSize = new JSpinner(
+				new SpinnerNumberModel(DLPythonExecutorNodeConfig.DEFAULT_CHUNK_SIZE, 1, Integer.MAX_VALUE, 1000));
+		m_executeInChunks.addChangeListener(e -> m_chunkSize.setEnabled(m_executeInChunks.isSelected()));
 		addTab("Script", m_sourceCodePanel, false);
 		addTab("Options", m_sourceCodeOptionsPanel, true);
+		addTab("Execution", createExecutionPanel(), true);
+	}
+
+	private JPanel createExecutionPanel() {
+		final JPanel panel = new JPanel(new GridBagLayout());
+		final GridBagConstraints gbc = new GridBagConstraints();
+		gbc.anchor = GridBagConstraints.NORTHWEST;
+		gbc.insets = new Insets(5, 5, 5, 5);
+		gbc.gridx = 0;
+		gbc.gridy = 0;
+		panel.add(m_executeInChunks, gbc);
+		gbc.gridy++;
+		final JPanel chunkSizePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+		chunkSizePanel.add(new JLabel("Chunk size (rows) "));
+		chunkSizePanel.add(m_chunkSize);
+		panel.add(chunkSizePanel, gbc);
+		gbc.gridy++;
+		gbc.weightx = 1;
+		gbc.weighty = 1;
+		panel.add(new JPanel(), gbc);
+		return panel;
 	}
 
 	@Override
@@ -98,6 +137,8 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 		final DLPythonExecutorNodeConfig config = new DLPythonExecutorNodeConfig();
 		m_sourceCodePanel.saveSettingsTo(config);
 		m_sourceCodeOptionsPanel.saveSettingsTo(config);
+		config.setExecuteInChunks(m_executeInChunks.isSelected());
+		config.setChunkSize((Integer) m_chunkSize.getValue());
 		config.saveTo(settings);
 	}
 
@@ -110,6 +151,9 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 		m_sourceCodePanel.updateFlowVariables(
 				getAvailableFlowVariables().values().toArray(new FlowVariable[getAvailableFlowVariables().size()]));
 		m_sourceCodeOptionsPanel.loadSettingsFrom(config);
+		m_executeInChunks.setSelected(config.getExecuteInChunks());
+		m_chunkSize.setValue(config.getChunkSize());
+		m_chunkSize.setEnabled(config.getExecuteInChunks());
 		m_sourceCodePanel.updateData(new BufferedDataTable[] { null }, new PickledObject[] { null });
 	}
 
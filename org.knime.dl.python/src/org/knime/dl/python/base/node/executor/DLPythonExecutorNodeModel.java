@@ -50,10 +50,17 @@
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Set;
 
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
@@ -61,6 +68,8 @@
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.workflow.FlowVariable;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -76,6 +85,8 @@
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 import org.knime.dl.python.core.DLPythonNetworkPortObject;
+import org.knime.dl.util.DLThrowingLambdas.DLThrowingBiConsumer;
+import org.knime.python2.generic.VariableNames;
 import org.knime.python2.kernel.PythonKernel;
 
 /**
@@ -90,6 +101,8 @@ final class DLPythonExecutorNodeModel extends DLPythonNodeModel<DLPythonExecutor
 
 	static final int IN_DATA_PORT_IDX = 1;
 
+	static final int OUT_DATA_PORT_IDX = 0;
+
 	static void setupNetwork(final DLPythonNetwork inputNetwork, final DLPythonContext context, final DLCancelable cancelable)
 			throws DLMissingExtensionException, DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
 		final DLPythonNetworkLoader<? extends DLPythonNetwork> loader = DLPythonNetworkLoaderRegistry.getInstance()
@@ -127,6 +140,18 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			setWarningMessage("Input table is empty. Node created an empty output table.");
 			return new PortObject[] { emptyContainer.getTable() };
 		}
+		if (getConfig().getExecuteInChunks()) {
+			final DLPythonNetworkPortObject<?> portObject = (DLPythonNetworkPortObject<?>) inData[IN_NETWORK_PORT_IDX];
+			final BufferedDataContainer[] outContainer = new BufferedDataContainer[1];
+			executeInChunks(portObject, new DataTableRowInput(inTable), inTable.size(), (outTableSpec, outRow) -> {
+				if (outContainer[0] == null) {
+					outContainer[0] = exec.createDataContainer(outTableSpec);
+				}
+				outContainer[0].addRowToTable(outRow);
+			}, exec);
+			outContainer[0].close();
+			return new PortObject[] { outContainer[0].getTable() };
+		}
 		BufferedDataTable outTable = null;
 		final DLPythonDefaultContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
 		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
@@ -155,6 +180,122 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 		return new BufferedDataTable[] { outTable };
 	}
 
+	/**
+	 * Executes the user script once per chunk of input rows. Kernel and network are set up once and persist across
+	 * chunks. If chunked execution is disabled, all rows form a single chunk.
+	 * <P>
+	 * If all row keys of the output table of the first chunk are row keys of the input chunk (i.e. the script keeps
+	 * the index of the input table), the row keys of all output chunks are kept and each of them has to keep the index
+	 * of its input chunk. Otherwise, the output rows are renumbered across all chunks ("Row0", "Row1", ...) since
+	 * scripts that create new data frames produce the same row keys for each chunk.
+	 *
+	 * @param numRows the number of input rows if known (used for progress reporting), otherwise -1
+	 * @param outRowConsumer receives the spec of the output table and each output row in the order of the input rows
+	 */
+	private void executeInChunks(final DLPythonNetworkPortObject<?> portObject, final RowInput rowInput,
+			final long numRows, final DLThrowingBiConsumer<DataTableSpec, DataRow, Exception> outRowConsumer,
+			final ExecutionContext exec) throws Exception {
+		final int chunkSize = getConfig().getExecuteInChunks() ? getConfig().getChunkSize() : Integer.MAX_VALUE;
+		final VariableNames variableNames = DLPythonExecutorNodeConfig.getVariableNames();
+		final LinkedList<String> stdOut = new LinkedList<>();
+		final LinkedList<String> stdErr = new LinkedList<>();
+		final DLPythonDefaultContext context = new DLPythonDefaultContext(new PythonKernel(getKernelOptions()));
+		final DLCancelable cancelable = new DLExecutionMonitorCancelable(exec);
+		try {
+			context.getKernel().putFlowVariables(variableNames.getFlowVariables(),
+					getAvailableFlowVariables().values());
+			setupNetwork(portObject.getNetwork(), context, cancelable);
+			final DataTableSpec inTableSpec = rowInput.getDataTableSpec();
+			DataTableSpec outTableSpec = null;
+			// decided by the first chunk
+			Boolean keepRowKeys = null;
+			long numProcessedRows = 0;
+			long numOutputRows = 0;
+			DataRow row = rowInput.poll();
+			if (row == null) {
+				setWarningMessage("Input table is empty. Node created an empty output table.");
+			}
+			while (row != null) {
+				exec.checkCanceled();
+				final BufferedDataContainer inChunkContainer = exec.createDataContainer(inTableSpec);
+				final Set<RowKey> inChunkRowKeys = new HashSet<>();
+				while (row != null && inChunkContainer.size() < chunkSize) {
+					inChunkContainer.addRowToTable(row);
+					inChunkRowKeys.add(row.getKey());
+					// if the chunk is full, this row is the first one of the next chunk
+					row = rowInput.poll();
+				}
+				inChunkContainer.close();
+				final BufferedDataTable inChunk = inChunkContainer.getTable();
+				context.getKernel().putDataTable(variableNames.getInputTables()[0], inChunk,
+						exec.createSilentSubProgress(0));
+				final String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+				stdOut.addAll(Arrays.asList(output[0].split("\n")));
+				stdErr.addAll(Arrays.asList(output[1].split("\n")));
+				final BufferedDataTable outChunk = context.getKernel()
+						.getDataTable(variableNames.getOutputTables()[0], exec, exec.createSilentSubProgress(0));
+				if (outTableSpec == null) {
+					outTableSpec = outChunk.getDataTableSpec();
+				} else if (!outTableSpec.equalStructure(outChunk.getDataTableSpec())) {
+					throw new IllegalStateException("The output table of the chunk starting at row " + numProcessedRows
+							+ " does not have the same structure as the output table of the first chunk. "
+							+ "Please make sure that the script creates the same columns for each chunk.");
+				}
+				final boolean rowKeysKept = areRowKeysKept(outChunk, inChunkRowKeys);
+				if (keepRowKeys == null) {
+					keepRowKeys = rowKeysKept;
+				} else if (keepRowKeys && !rowKeysKept) {
+					throw new IllegalStateException("The output table of the chunk starting at row " + numProcessedRows
+							+ " does not keep the row keys of the input table unlike the output table of the first "
+							+ "chunk. Please make sure that the script either keeps the index of the input table for "
+							+ "each chunk or for none.");
+				}
+				try (CloseableRowIterator it = outChunk.iterator()) {
+					while (it.hasNext()) {
+						final DataRow outRow = it.next();
+						outRowConsumer.accept(outTableSpec,
+								keepRowKeys ? outRow : renameRow(outRow, RowKey.createRowKey(numOutputRows)));
+						numOutputRows++;
+					}
+				}
+				numProcessedRows += inChunk.size();
+				// chunks are not needed anymore once they have been processed
+				exec.clearTable(inChunk);
+				exec.clearTable(outChunk);
+				if (numRows > 0) {
+					exec.setProgress(numProcessedRows / (double) numRows,
+							"Processed " + numProcessedRows + " of " + numRows + " rows.");
+				} else {
+					exec.setMessage("Processed " + numProcessedRows + " rows.");
+				}
+			}
+			setExternalOutput(stdOut);
+			setExternalErrorOutput(stdErr);
+			addNewVariables(context.getKernel().getFlowVariables(variableNames.getFlowVariables()));
+		} finally {
+			context.close();
+		}
+	}
+
+	private static boolean areRowKeysKept(final BufferedDataTable outChunk, final Set<RowKey> inChunkRowKeys) {
+		try (CloseableRowIterator it = outChunk.iterator()) {
+			while (it.hasNext()) {
+				if (!inChunkRowKeys.contains(it.next().getKey())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static DataRow renameRow(final DataRow row, final RowKey key) {
+		final DataCell[] cells = new DataCell[row.getNumCells()];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = row.getCell(i);
+		}
+		return new DefaultRow(key, cells);
+	}
+
 	@Override
 	protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
 		final DataTableSpec inTableSpec = (DataTableSpec) inSpecs[IN_DATA_PORT_IDX];
@@ -178,6 +319,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 			setWarningMessage("Input table changed.");
 		}
 		m_lastIncomingTableSpec = inTableSpec;
+		// the output spec is only known once the script was executed
 		return new PortObjectSpec[] { null };
 	}
 
@@ -65,6 +65,6 @@ public void start(final BundleContext context) throws Exception {
 
 	@Override
 	public void stop(final BundleContext context) throws Exception {
-		// no op
+		DLPythonKernelPool.shutdown();
 	}
 }
@@ -50,6 +50,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -73,11 +74,17 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLAbstractDirectDataBuffer;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDirectDoubleBuffer;
+import org.knime.dl.core.data.DLDirectFloatBuffer;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
@@ -147,6 +154,9 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 	/** Name of the 'python version' DataFrame in python */
 	public static final String PYTHON_VERSION_NAME = "python_version";
 
+	/** Name of the 'current resident memory usage' DataFrame in python */
+	public static final String MEMORY_USAGE_NAME = "memory_usage";
+
 	private static final String INSTALLATION_TEST_OK_MSG = "[DL Python installation test: OK]";
 
 	private static final String INSTALLATION_TEST_FAIL_MSG = "[DL Python installation test: FAIL]";
@@ -163,6 +173,12 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
 	private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+	/**
+	 * Lazily created in {@link #getSharedMemoryTransport()} if
+	 * {@link DLPythonSharedMemoryTransport#isApplicable(DLBuffer)} holds for any tensor.
+	 */
+	private DLPythonSharedMemoryTransport m_sharedMemoryTransport;
+
 	/**
 	 * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
 	 */
@@ -318,6 +334,52 @@ public void saveNetwork(final DLPythonNetworkHandle network, final String path,
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
 	}
 
+	@Override
+	public void removeNetwork(final DLPythonNetworkHandle network, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonNetwork") //
+				.n("DLPythonNetwork.remove_network(").as(network.getIdentifier()).a(")");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Does nothing by default. Back ends that are able to limit their threads override this method.
+	 */
+	@Override
+	public void setNumThreads(final int numThreads, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		// no-op
+	}
+
+	@Override
+	public long getMemoryUsage(final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonNetwork") //
+				.n("import pandas as pd") //
+				.n("global ").a(MEMORY_USAGE_NAME) //
+				.n(MEMORY_USAGE_NAME).a(" = pd.DataFrame([int(DLPythonNetwork.get_memory_usage())])");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+		return (long) getContext(cancelable).getDataFromKernel(MEMORY_USAGE_NAME,
+				(s, ts) -> new SingleValueTableCreator<>(s, Cell::getLongValue), cancelable).getTable();
+	}
+
+	@Override
+	public void prepareNetworkExecution(final DLPythonNetworkHandle network,
+			final Set<? extends DLTensorId> requestedOutputs, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final String outputIdentifiers = requestedOutputs.stream().map((id) -> "'" + id.getIdentifierString() + "'")
+				.collect(Collectors.joining(", ", "[", "]"));
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonNetwork") //
+				.n("network = DLPythonNetwork.get_network(").as(network.getIdentifier()).a(")") //
+				.n("network.prepare_execution(").a(outputIdentifiers).a(")");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+	}
+
 	// TODO: implement network handle
 	@Override
 	public void setNetworkInputs(final DLPythonNetworkHandle network,
@@ -327,6 +389,10 @@ public void setNetworkInputs(final DLPythonNetworkHandle network,
 				.entrySet()) {
 			final DLTensorId tensorIdentifier = input.getKey();
 			final DLTensor<? extends DLWritableBuffer> tensor = input.getValue();
+			if (DLPythonSharedMemoryTransport.isApplicable(tensor.getBuffer())) {
+				putTensorViaSharedMemory(tensorIdentifier, tensor, cancelable);
+				continue;
+			}
 			final TableChunker tableChunker = createSingleTensorTableChunker(tensorIdentifier, tensor);
 			try {
 				getContext(cancelable).putDataInKernel(tensorIdentifier.getIdentifierString(), tableChunker, 1, cancelable);
@@ -413,6 +479,10 @@ public void getNetworkOutputs(final DLPythonNetworkHandle network,
 				.entrySet()) {
 			final DLTensorId tensorIdentifier = output.getKey();
 			final DLTensor<? extends DLReadableBuffer> tensor = output.getValue();
+			if (DLPythonSharedMemoryTransport.isApplicable(tensor.getBuffer())) {
+				getTensorViaSharedMemory(tensorIdentifier, tensor, cancelable);
+				continue;
+			}
 
 			getContext(cancelable).getDataFromKernel(tensorIdentifier.getIdentifierString(),
 					(tableSpec, tableSize) -> new TableCreator<DLTensor<? extends DLReadableBuffer>>() {
@@ -555,7 +625,13 @@ public void messageReceived(final String message, final boolean isWarningMessage
 	 */
 	@Override
 	public synchronized void close() {
-		m_context.close();
+		try {
+			if (m_sharedMemoryTransport != null) {
+				m_sharedMemoryTransport.close();
+			}
+		} finally {
+			m_context.close();
+		}
 	}
 
     protected String getRegisterNetworkCode(final String networkVariable, final String networkIdentifier) {
@@ -619,6 +695,45 @@ protected Version getPythonVersion(final DLCancelable cancelable)
         return new Version(pythonVersion);
     }
 
+	private DLPythonSharedMemoryTransport getSharedMemoryTransport() throws IOException {
+		if (m_sharedMemoryTransport == null) {
+			m_sharedMemoryTransport = new DLPythonSharedMemoryTransport();
+		}
+		return m_sharedMemoryTransport;
+	}
+
+	private void putTensorViaSharedMemory(final DLTensorId tensorId,
+			final DLTensor<? extends DLWritableBuffer> tensor, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final DLPythonSharedMemoryTransport transport = getSharedMemoryTransport();
+		final String identifier = tensorId.getIdentifierString();
+		final DLBuffer buffer = tensor.getBuffer();
+		final long size = transport.write(identifier, buffer);
+		final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
+				.orElseThrow(() -> new IllegalStateException("Execution spec does not contain fixed shape."));
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonSharedMemory") //
+				.n("globals()[").as(identifier).a("] = DLPythonSharedMemory.read_input(").as(identifier).a(", ")
+				.asr(transport.getFile(identifier).getAbsolutePath()).a(", ")
+				.as(DLPythonSharedMemoryTransport.getDType(buffer)).a(", ").a(size).a(", ").a(shape).a(")");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+	}
+
+	private void getTensorViaSharedMemory(final DLTensorId tensorId,
+			final DLTensor<? extends DLReadableBuffer> tensor, final DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		final DLPythonSharedMemoryTransport transport = getSharedMemoryTransport();
+		final String identifier = tensorId.getIdentifierString();
+		final DLBuffer buffer = tensor.getBuffer();
+		final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonSharedMemory") //
+				.n("DLPythonSharedMemory.write_output(globals()[").as(identifier).a("], ")
+				.asr(transport.getFile(identifier).getAbsolutePath()).a(", ")
+				.as(DLPythonSharedMemoryTransport.getDType(buffer)).a(")");
+		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+		transport.read(identifier, buffer);
+	}
+
     private TableChunker createSingleTensorTableChunker(final DLTensorId tensorId, final DLTensor<? extends DLWritableBuffer> tensor)
         throws IOException {
         DLPythonTableChunker tableChunker = m_tableChunkers.get(tensorId);
@@ -650,11 +765,20 @@ private static final class DLPythonTableChunker implements TableChunker {
         private final Row m_row;
 
         private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor) {
-            // Create the serializer
+            // Create the serializer. Buffers that live outside of the Java heap share the serialized format of their
+            // heap counterparts and are serialized in resetWithNextTensor.
+            final Class<?> bufferType;
+            if (tensor.getBuffer() instanceof DLDirectFloatBuffer) {
+                bufferType = DLPythonFloatBuffer.class;
+            } else if (tensor.getBuffer() instanceof DLDirectDoubleBuffer) {
+                bufferType = DLPythonDoubleBuffer.class;
+            } else {
+                bufferType = tensor.getBuffer().getClass();
+            }
             final KnimeToPythonExtension extension = KnimeToPythonExtensions.getExtensions().stream()
                 .filter(ext -> (ext.getJavaSerializerFactory() instanceof DLSerializerFactory)
                     && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
-                        .isAssignableFrom(tensor.getBuffer().getClass()))
+                        .isAssignableFrom(bufferType))
                 .findFirst() //
                 .orElseThrow(() -> new RuntimeException(
                     "Transmitting data to Python failed. No matching serializer available."));
@@ -702,11 +826,30 @@ public TableSpec getTableSpec() {
         }
 
         private void resetWithNextTensor(final DLTensor<? extends DLWritableBuffer> tensor) throws IOException {
-            final Cell cell = new CellImpl(m_serializer.serialize((DLPythonDataBuffer<?>)tensor.getBuffer()));
+            final DLBuffer buffer = tensor.getBuffer();
+            final Cell cell = new CellImpl(buffer instanceof DLAbstractDirectDataBuffer
+                ? serializeDirectBuffer((DLAbstractDirectDataBuffer)buffer)
+                : m_serializer.serialize((DLPythonDataBuffer<?>)buffer));
             m_row.setCell(cell, 0);
             m_iterator.reset();
             m_hasNextChunk = true;
         }
+
+        /**
+         * Serializes the unread content of the given buffer to flat little-endian bytes, like the serializers of the
+         * corresponding heap buffers do.
+         */
+        private static byte[] serializeDirectBuffer(final DLAbstractDirectDataBuffer buffer) throws IOException {
+            final long size = buffer.size() - buffer.getNextReadPosition();
+            final long numBytes = size * (buffer instanceof DLDirectDoubleBuffer ? Double.BYTES : Float.BYTES);
+            if (numBytes > Integer.MAX_VALUE) {
+                throw new IOException(
+                    "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+            }
+            final byte[] bytes = new byte[(int)numBytes];
+            buffer.getBytes(buffer.getNextReadPosition(), ByteBuffer.wrap(bytes));
+            return bytes;
+        }
     }
 
     private static final class DLPythonResettableTableIterator implements TableIterator {
@@ -88,6 +88,38 @@ DLPythonNetworkHandle loadNetwork(String path, boolean loadTrainingConfig, DLCan
 
 	void saveNetwork(DLPythonNetworkHandle network, String path, DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
+	/**
+	 * Removes the given network from the Python side. This allows kernels that outlive their commands instance (see
+	 * {@link DLPythonKernelPool}) to release the network's resources.
+	 */
+	void removeNetwork(DLPythonNetworkHandle network, DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
+	/**
+	 * Limits the number of threads the Python process uses to execute networks. Back ends may only be able to apply
+	 * the limit before the first network was loaded in the process. Back ends that cannot limit their threads ignore
+	 * the limit.
+	 *
+	 * @param numThreads the maximum number of threads, must be positive
+	 */
+	void setNumThreads(int numThreads, DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
+	/**
+	 * @return the current resident memory of the Python process in bytes or <code>-1</code> if the platform does not
+	 *         report it
+	 */
+	long getMemoryUsage(DLCancelable cancelable)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
+	/**
+	 * Performs the per-session setup of the given network for the given outputs ahead of the first call to
+	 * {@link #executeNetwork(DLPythonNetworkHandle, Set, long, DLCancelable)}, e.g. building and compiling the
+	 * intermediate model that computes the requested outputs.
+	 */
+	void prepareNetworkExecution(DLPythonNetworkHandle network, Set<? extends DLTensorId> requestedOutputs,
+			DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
+
 	void setNetworkInputs(DLPythonNetworkHandle network,
 			Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs, DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
@@ -202,6 +202,7 @@ public TableCreator<?> getDataFromKernel(final String name, final TableCreatorFa
     @Override
     public void close() {
         if (isKernelOpen()) {
+            DLPythonNetworkHandleCache.getInstance().discard(m_kernel);
             m_kernel.close();
         }
     }
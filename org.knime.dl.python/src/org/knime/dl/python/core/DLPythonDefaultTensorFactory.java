@@ -71,14 +71,16 @@
 import org.knime.dl.core.data.DLWritableFloatBuffer;
 import org.knime.dl.core.data.DLWritableIntBuffer;
 import org.knime.dl.core.data.DLWritableLongBuffer;
+import org.knime.dl.core.data.DLWritableOneHotIndexBuffer;
 import org.knime.dl.core.data.DLWritableShortBuffer;
 import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
-import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.dl.python.core.data.DLPythonByteBuffer;
 import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
 import org.knime.dl.python.core.data.DLPythonFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonIntBuffer;
 import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonOneHotIndexBuffer;
+import org.knime.dl.python.core.data.DLPythonPackedBitBuffer;
 import org.knime.dl.python.core.data.DLPythonShortBuffer;
 import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
 import org.knime.dl.util.DLUtils;
@@ -146,6 +148,15 @@ public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorS
 		return createTensorInternal(spec);
 	}
 
+	@Override
+	public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec,
+			final Class<? extends DLWritableBuffer> preferredBufferType) {
+		if (preferredBufferType == DLWritableOneHotIndexBuffer.class && spec.getElementType().equals(float.class)) {
+			return createOneHotIndexTensor(spec);
+		}
+		return createTensorInternal(spec);
+	}
+
 	@Override
 	public DLTensor<? extends DLReadableBuffer> createReadableTensor(final DLTensorSpec spec) {
 		return createTensorInternal(spec);
@@ -157,6 +168,27 @@ public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final lon
 				new DLDefaultFixedTensorShape(shape), spec.getElementType(), spec.getDimensionOrder());
 	}
 
+	/**
+	 * Only the indices of the hot elements along the last dimension of the tensor are stored, one per vector.
+	 */
+	private DLTensor<DLPythonOneHotIndexBuffer> createOneHotIndexTensor(final DLTensorSpec spec) {
+		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
+				.orElseThrow(() -> new IllegalArgumentException(
+						"Tensor spec '" + spec.getName() + "' does not provide a shape. Tensor cannot be created."));
+		if (!spec.getBatchSize().isPresent()) {
+			throw new IllegalArgumentException(
+					"Tensor spec '" + spec.getName() + "' does not provide a batch size. Tensor cannot be created.");
+		}
+		if (shape.length == 0 || shape[shape.length - 1] > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Tensor spec '" + spec.getName()
+					+ "' does not provide a valid last dimension for one-hot encoding. Tensor cannot be created.");
+		}
+		final long exampleSize = DLUtils.Shapes.getSize(shape);
+		final int depth = (int) shape[shape.length - 1];
+		final long numVectors = exampleSize / depth * spec.getBatchSize().getAsLong();
+		return new DLDefaultTensor<>(spec, new DLPythonOneHotIndexBuffer(numVectors, depth), exampleSize);
+	}
+
 	private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec spec) {
 		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
 				.orElseThrow(() -> new IllegalArgumentException(
@@ -176,7 +208,7 @@ private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec
 		} else if (t.equals(float.class)) {
 			s = () -> (B) new DLPythonFloatBuffer(size);
 		} else if (t.equals(boolean.class)) {
-			s = () -> (B) new DLPythonBitBuffer(size);
+			s = () -> (B) new DLPythonPackedBitBuffer(size);
 		} else if (t.equals(UnsignedBytes.class)) {
 			s = () -> (B) new DLPythonUnsignedByteBuffer(size);
 		} else if (t.equals(byte.class)) {
@@ -0,0 +1,471 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreator;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreatorFactory;
+import org.knime.python2.kernel.PythonKernel;
+
+/**
+ * Keeps started and back end initialized {@link PythonKernel Python kernels} alive across sessions, separately for each
+ * {@link DLPythonNetwork network type}. Contexts that are {@link #acquire(Class) acquired} from the pool hand their
+ * kernel back to the pool when they are {@link DLPythonContext#close() closed} instead of shutting it down.
+ * <P>
+ * The pool can be configured via the VM options {@link #MIN_SIZE_VM_OPT}, {@link #MAX_SIZE_VM_OPT} and
+ * {@link #IDLE_TIMEOUT_VM_OPT}. Setting the maximum size to zero disables pooling.
+ * <P>
+ * Once the last network was removed from a kernel, the back end resets its global state (e.g. the Keras session and
+ * TensorFlow graph) before the kernel is reused, see {@link DLPythonNetworkHandleCache}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonKernelPool {
+
+	/**
+	 * VM option that specifies the number of idle kernels per network type that are started in advance.
+	 */
+	public static final String MIN_SIZE_VM_OPT = "knime.dl.python.kernelpool.minsize";
+
+	/**
+	 * The default of {@link #MIN_SIZE_VM_OPT}: kernels are only pooled once they were used.
+	 */
+	public static final int MIN_SIZE_DEFAULT = 0;
+
+	/**
+	 * VM option that specifies the maximum number of idle kernels per network type that are kept alive.
+	 */
+	public static final String MAX_SIZE_VM_OPT = "knime.dl.python.kernelpool.maxsize";
+
+	/**
+	 * The default of {@link #MAX_SIZE_VM_OPT}: a few idle kernels per network type are kept alive such that subsequent
+	 * sessions neither have to start Python nor to set up the back end again.
+	 */
+	public static final int MAX_SIZE_DEFAULT = 2;
+
+	/**
+	 * VM option that specifies the time in ms after which an idle kernel is shut down (as long as the minimum size of
+	 * the pool is not undercut).
+	 */
+	public static final String IDLE_TIMEOUT_VM_OPT = "knime.dl.python.kernelpool.idletimeout";
+
+	/**
+	 * The default of {@link #IDLE_TIMEOUT_VM_OPT} in ms.
+	 */
+	public static final long IDLE_TIMEOUT_DEFAULT = 600000;
+
+	private static final String HEALTH_CHECK_CODE = "pass";
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonKernelPool.class);
+
+	private static DLPythonKernelPool instance;
+
+	/**
+	 * @return the pool instance
+	 */
+	public static synchronized DLPythonKernelPool getInstance() {
+		if (instance == null) {
+			instance = new DLPythonKernelPool(parseVMOption(MIN_SIZE_VM_OPT, MIN_SIZE_DEFAULT),
+					parseVMOption(MAX_SIZE_VM_OPT, MAX_SIZE_DEFAULT),
+					parseVMOption(IDLE_TIMEOUT_VM_OPT, IDLE_TIMEOUT_DEFAULT));
+		}
+		return instance;
+	}
+
+	/**
+	 * Shuts down all idle kernels of the pool instance if it was created. Called when the bundle is stopped.
+	 */
+	static synchronized void shutdown() {
+		if (instance != null) {
+			instance.close();
+			instance = null;
+		}
+	}
+
+	private static int parseVMOption(final String option, final int defaultValue) {
+		return (int) parseVMOption(option, (long) defaultValue);
+	}
+
+	private static long parseVMOption(final String option, final long defaultValue) {
+		long value = -1;
+		try {
+			value = Long.parseLong(System.getProperty(option, Long.toString(defaultValue)));
+		} catch (final NumberFormatException ex) {
+			// Ignore, see below.
+		}
+		if (value < 0) {
+			value = defaultValue;
+			LOGGER.warn("The VM option -D" + option
+					+ " was not set to a non-negative integer value, and thus defaults to " + value + ".");
+		}
+		return value;
+	}
+
+	private static boolean isHealthy(final PythonKernel kernel) {
+		try {
+			final String error =
+					new DLPythonDefaultContext(kernel).executeInKernel(HEALTH_CHECK_CODE, DLNotCancelable.INSTANCE)[1];
+			return error.isEmpty();
+		} catch (final Exception e) {
+			LOGGER.debug("Pooled Python kernel failed health check.", e);
+			return false;
+		}
+	}
+
+	private static void closeQuietly(final PythonKernel kernel) {
+		DLPythonNetworkHandleCache.getInstance().discard(kernel);
+		try {
+			kernel.close();
+		} catch (final Exception e) {
+			LOGGER.debug("An error occurred while shutting down a pooled Python kernel.", e);
+		}
+	}
+
+	private final int m_minSize;
+
+	private final int m_maxSize;
+
+	private final long m_idleTimeout;
+
+	private final Map<Class<?>, Deque<DLPythonIdleKernel>> m_idleKernels = new HashMap<>();
+
+	private final Map<Class<?>, AtomicInteger> m_pendingStarts = new HashMap<>();
+
+	private final ScheduledExecutorService m_executor;
+
+	private boolean m_closed = false;
+
+	private DLPythonKernelPool(final int minSize, final int maxSize, final long idleTimeout) {
+		m_maxSize = maxSize;
+		m_minSize = Math.min(minSize, maxSize);
+		m_idleTimeout = idleTimeout;
+		final AtomicInteger threadCount = new AtomicInteger();
+		m_executor = Executors.newScheduledThreadPool(2, r -> {
+			final Thread t = new Thread(r, "DL-Python-Kernel-Pool-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		if (m_maxSize > 0 && m_idleTimeout > 0) {
+			final long period = Math.max(1000, Math.min(m_idleTimeout, 60000));
+			m_executor.scheduleWithFixedDelay(this::evictIdleKernels, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns a context whose kernel is taken from the pool if a healthy idle kernel for the given network type is
+	 * available. Otherwise, the context creates a new kernel on demand. Closing the returned context hands its kernel
+	 * back to the pool.
+	 * <P>
+	 * Callers should not rely on the Python global namespace being clean. Kernels are handed back to the pool only if
+	 * no error occurred while interacting with them.
+	 *
+	 * @param networkType the type of the network that will be used within the kernel
+	 * @return the context
+	 */
+	public DLPythonContext acquire(final Class<? extends DLPythonNetwork> networkType) {
+		if (m_maxSize == 0) {
+			return new DLPythonDefaultContext();
+		}
+		PythonKernel kernel;
+		while ((kernel = pollIdleKernel(networkType)) != null) {
+			if (isHealthy(kernel)) {
+				break;
+			}
+			closeQuietly(kernel);
+		}
+		ensureMinSize(networkType);
+		final DLPythonDefaultContext delegate =
+				kernel != null ? new DLPythonDefaultContext(kernel) : new DLPythonDefaultContext();
+		return new DLPythonPooledContext(networkType, delegate);
+	}
+
+	/**
+	 * Starts idle kernels for the given network type in the background until the configured minimum pool size is
+	 * reached.
+	 *
+	 * @param networkType the network type
+	 */
+	public void ensureMinSize(final Class<? extends DLPythonNetwork> networkType) {
+		synchronized (this) {
+			if (m_closed) {
+				return;
+			}
+			final AtomicInteger pending = m_pendingStarts.computeIfAbsent(networkType, t -> new AtomicInteger());
+			final int missing = m_minSize - getIdleKernels(networkType).size() - pending.get();
+			for (int i = 0; i < missing; i++) {
+				pending.incrementAndGet();
+				m_executor.execute(() -> {
+					try {
+						prestartKernel(networkType);
+					} finally {
+						pending.decrementAndGet();
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Shuts down all idle kernels. Contexts that are still in use are not affected but will shut down their kernels
+	 * when they are closed.
+	 */
+	public void close() {
+		final List<DLPythonIdleKernel> idleKernels = new ArrayList<>();
+		synchronized (this) {
+			m_closed = true;
+			for (final Deque<DLPythonIdleKernel> kernels : m_idleKernels.values()) {
+				idleKernels.addAll(kernels);
+			}
+			m_idleKernels.clear();
+		}
+		m_executor.shutdownNow();
+		for (final DLPythonIdleKernel idleKernel : idleKernels) {
+			closeQuietly(idleKernel.m_kernel);
+		}
+	}
+
+	private synchronized Deque<DLPythonIdleKernel> getIdleKernels(final Class<?> networkType) {
+		return m_idleKernels.computeIfAbsent(networkType, t -> new ArrayDeque<>());
+	}
+
+	private synchronized PythonKernel pollIdleKernel(final Class<?> networkType) {
+		// most recently used kernel first, this allows unused kernels to time out
+		final DLPythonIdleKernel idleKernel = getIdleKernels(networkType).pollLast();
+		return idleKernel != null ? idleKernel.m_kernel : null;
+	}
+
+	private void offer(final Class<?> networkType, final PythonKernel kernel) {
+		synchronized (this) {
+			final Deque<DLPythonIdleKernel> idleKernels = getIdleKernels(networkType);
+			if (!m_closed && idleKernels.size() < m_maxSize) {
+				idleKernels.addLast(new DLPythonIdleKernel(kernel));
+				return;
+			}
+		}
+		closeQuietly(kernel);
+	}
+
+	private void prestartKernel(final Class<? extends DLPythonNetwork> networkType) {
+		final DLPythonNetworkLoader<?> loader =
+				DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader(networkType).orElse(null);
+		if (!(loader instanceof DLPythonAbstractNetworkLoader)) {
+			return;
+		}
+		final DLPythonDefaultContext context = new DLPythonDefaultContext();
+		try {
+			// sets up the back end, the commands object itself is not needed anymore afterwards
+			((DLPythonAbstractNetworkLoader<?>) loader).createCommands(context).getContext(DLNotCancelable.INSTANCE);
+			offer(networkType, context.getKernel());
+		} catch (final Exception e) {
+			LOGGER.debug("Failed to start pooled Python kernel for network type '" + networkType.getCanonicalName()
+					+ "'.", e);
+			context.close();
+		}
+	}
+
+	private void evictIdleKernels() {
+		final List<PythonKernel> evicted = new ArrayList<>();
+		final long now = System.currentTimeMillis();
+		synchronized (this) {
+			for (final Deque<DLPythonIdleKernel> idleKernels : m_idleKernels.values()) {
+				// least recently used kernels are at the head of the queue
+				final Iterator<DLPythonIdleKernel> it = idleKernels.iterator();
+				while (it.hasNext() && idleKernels.size() > m_minSize) {
+					final DLPythonIdleKernel idleKernel = it.next();
+					if (now - idleKernel.m_idleSince < m_idleTimeout) {
+						break;
+					}
+					it.remove();
+					evicted.add(idleKernel.m_kernel);
+				}
+			}
+		}
+		for (final PythonKernel kernel : evicted) {
+			closeQuietly(kernel);
+		}
+	}
+
+	private static final class DLPythonIdleKernel {
+
+		private final PythonKernel m_kernel;
+
+		private final long m_idleSince;
+
+		private DLPythonIdleKernel(final PythonKernel kernel) {
+			m_kernel = kernel;
+			m_idleSince = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Delegates to a {@link DLPythonDefaultContext} and hands the kernel back to the pool on {@link #close()} unless
+	 * an error occurred while interacting with it.
+	 */
+	private final class DLPythonPooledContext implements DLPythonContext {
+
+		private final Class<?> m_networkType;
+
+		private final DLPythonDefaultContext m_delegate;
+
+		private boolean m_broken = false;
+
+		private boolean m_released = false;
+
+		private DLPythonPooledContext(final Class<?> networkType, final DLPythonDefaultContext delegate) {
+			m_networkType = networkType;
+			m_delegate = delegate;
+		}
+
+		@Override
+		public boolean isKernelOpen() {
+			return m_delegate.isKernelOpen();
+		}
+
+		@Override
+		public PythonKernel getKernel() throws DLInvalidEnvironmentException {
+			try {
+				return m_delegate.getKernel();
+			} catch (final DLInvalidEnvironmentException e) {
+				m_broken = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public String[] execute(final DLCancelable cancelable, final File script, final String... args)
+				throws IOException, DLCanceledExecutionException {
+			return m_delegate.execute(cancelable, script, args);
+		}
+
+		@Override
+		public String[] executeInKernel(final String code, final DLCancelable cancelable)
+				throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+			try {
+				return m_delegate.executeInKernel(code, cancelable);
+			} catch (final Exception e) {
+				m_broken = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public String[] executeAsyncInKernel(final String code, final DLCancelable cancelable)
+				throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+			try {
+				return m_delegate.executeAsyncInKernel(code, cancelable);
+			} catch (final Exception e) {
+				m_broken = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public void putDataInKernel(final String name, final TableChunker tableChunker, final int rowsPerChunk,
+				final DLCancelable cancelable)
+				throws IOException, DLCanceledExecutionException, DLInvalidEnvironmentException {
+			try {
+				m_delegate.putDataInKernel(name, tableChunker, rowsPerChunk, cancelable);
+			} catch (final Exception e) {
+				m_broken = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public TableCreator<?> getDataFromKernel(final String name, final TableCreatorFactory tcf,
+				final DLCancelable cancelable)
+				throws IOException, DLCanceledExecutionException, DLInvalidEnvironmentException {
+			try {
+				return m_delegate.getDataFromKernel(name, tcf, cancelable);
+			} catch (final Exception e) {
+				m_broken = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (m_released) {
+				return;
+			}
+			m_released = true;
+			if (!m_delegate.isKernelOpen()) {
+				return;
+			}
+			if (m_broken) {
+				m_delegate.close();
+				return;
+			}
+			try {
+				offer(m_networkType, m_delegate.getKernel());
+			} catch (final DLInvalidEnvironmentException e) {
+				// cannot happen, kernel is open
+				m_delegate.close();
+			}
+		}
+	}
+}
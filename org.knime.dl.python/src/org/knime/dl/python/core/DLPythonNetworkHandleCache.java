@@ -0,0 +1,280 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.cache.DLMemoryAlertAwareGuavaCache;
+import org.knime.dl.util.DLThrowingLambdas.DLThrowingSupplier;
+import org.knime.python2.kernel.PythonKernel;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Remembers which networks are already loaded in which {@link PythonKernel Python kernel} such that sessions that are
+ * run on a {@link DLPythonKernelPool pooled} kernel can skip loading a network that was loaded there before.
+ * <P>
+ * Entries are keyed by kernel, network source and a digest of the network file's content and are stored in
+ * {@link DLMemoryAlertAwareGuavaCache#CACHE}, i.e. they are discarded once memory gets low. Networks whose entries were
+ * discarded are removed from their kernel the next time a session on that kernel is
+ * {@link #release(DLPythonCommands, DLPythonNetworkHandle, DLCancelable) released}. Networks whose source is not a
+ * local file are never cached.
+ * <P>
+ * The cache only pays off if kernels are reused across sessions, i.e. it depends on the {@link DLPythonKernelPool
+ * kernel pool} being enabled. All entries of a kernel are discarded as soon as the kernel is shut down.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonNetworkHandleCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonNetworkHandleCache.class);
+
+    private static final DLPythonNetworkHandleCache INSTANCE = new DLPythonNetworkHandleCache();
+
+    /**
+     * @return the cache instance
+     */
+    public static DLPythonNetworkHandleCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final DLMemoryAlertAwareGuavaCache m_cache = DLMemoryAlertAwareGuavaCache.CACHE;
+
+    /**
+     * Identifies each kernel for as long as it is alive.
+     */
+    private final Map<PythonKernel, UUID> m_kernelIds = new WeakHashMap<>();
+
+    /**
+     * All handles that were put into the cache, per kernel. Used to find the networks whose cache entries were
+     * discarded in the meantime.
+     */
+    private final Map<UUID, Map<UUID, DLPythonNetworkHandle>> m_cachedHandles = new WeakHashMap<>();
+
+    private final Cache<String, String> m_digests = CacheBuilder.newBuilder().maximumSize(100).build();
+
+    private final AtomicLong m_hits = new AtomicLong();
+
+    private final AtomicLong m_misses = new AtomicLong();
+
+    private DLPythonNetworkHandleCache() {
+        // singleton
+    }
+
+    /**
+     * Returns the handle of the network from the given source if it is already loaded in the kernel of the given
+     * context. Otherwise, loads the network using the given loader and caches its handle.
+     *
+     * @param context the context whose kernel hosts the network
+     * @param source the source of the network
+     * @param loader loads the network into the kernel of the given context
+     * @return the network handle
+     * @throws Exception if loading the network failed
+     */
+    public DLPythonNetworkHandle getOrLoad(final DLPythonContext context, final DLNetworkLocation source,
+        final DLThrowingSupplier<DLPythonNetworkHandle, Exception> loader) throws Exception {
+        final UUID key = createKey(context, source);
+        if (key != null) {
+            final Optional<Object> cached = m_cache.get(key);
+            if (cached.isPresent()) {
+                LOGGER.debug("Network from '" + source + "' is already loaded (cache hits: " + m_hits.incrementAndGet()
+                    + ", misses: " + m_misses.get() + ").");
+                return (DLPythonNetworkHandle)cached.get();
+            }
+            LOGGER.debug("Network from '" + source + "' needs to be loaded (cache hits: " + m_hits.get()
+                + ", misses: " + m_misses.incrementAndGet() + ").");
+        }
+        final DLPythonNetworkHandle handle = loader.get();
+        if (key != null) {
+            m_cache.put(key, handle);
+            synchronized (this) {
+                m_cachedHandles.computeIfAbsent(getKernelId(context.getKernel()), k -> new HashMap<>())
+                    .put(key, handle);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Removes the given network from the kernel of the given commands unless it is cached. Also removes all other
+     * networks from that kernel whose entries were discarded from the cache in the meantime. Once no network is left
+     * in the kernel, the back end resets its global state (e.g. the Keras session and TensorFlow graph). Must be
+     * called before the commands are closed and their kernel is handed back to the pool.
+     *
+     * @param commands the commands whose kernel is released
+     * @param handle the handle of the network that was used by the releasing session
+     * @param cancelable to check if the operation has been canceled
+     * @throws DLInvalidEnvironmentException if the Python side was not properly set up
+     * @throws IOException if an error occurred while communicating with Python
+     * @throws DLCanceledExecutionException if the operation has been canceled
+     */
+    public void release(final DLPythonCommands commands, final DLPythonNetworkHandle handle,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final Set<DLPythonNetworkHandle> discarded = new HashSet<>();
+        discarded.add(handle);
+        synchronized (this) {
+            final Map<UUID, DLPythonNetworkHandle> handles =
+                m_cachedHandles.get(getKernelId(commands.getContext(cancelable).getKernel()));
+            if (handles != null) {
+                for (final Iterator<Map.Entry<UUID, DLPythonNetworkHandle>> it = handles.entrySet().iterator(); it
+                    .hasNext();) {
+                    final Map.Entry<UUID, DLPythonNetworkHandle> entry = it.next();
+                    if (m_cache.get(entry.getKey()).isPresent()) {
+                        discarded.remove(entry.getValue());
+                    } else {
+                        discarded.add(entry.getValue());
+                        it.remove();
+                    }
+                }
+            }
+        }
+        for (final DLPythonNetworkHandle h : discarded) {
+            commands.removeNetwork(h, cancelable);
+        }
+    }
+
+    /**
+     * Discards the entries of all networks loaded in the given kernel. Must be called when the kernel is shut down
+     * instead of being handed back to the pool.
+     *
+     * @param kernel the kernel that is shut down
+     */
+    void discard(final PythonKernel kernel) {
+        final Map<UUID, DLPythonNetworkHandle> handles;
+        synchronized (this) {
+            final UUID kernelId = m_kernelIds.remove(kernel);
+            handles = kernelId != null ? m_cachedHandles.remove(kernelId) : null;
+        }
+        if (handles != null) {
+            for (final UUID key : handles.keySet()) {
+                m_cache.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return the number of networks that are currently cached across all kernels
+     */
+    public synchronized int getCachedNetworkCount() {
+        int count = 0;
+        for (final Map<UUID, DLPythonNetworkHandle> handles : m_cachedHandles.values()) {
+            for (final UUID key : handles.keySet()) {
+                if (m_cache.get(key).isPresent()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of lookups that found an already loaded network
+     */
+    public long getHitCount() {
+        return m_hits.get();
+    }
+
+    /**
+     * @return the number of lookups that required loading the network
+     */
+    public long getMissCount() {
+        return m_misses.get();
+    }
+
+    private synchronized UUID getKernelId(final PythonKernel kernel) {
+        return m_kernelIds.computeIfAbsent(kernel, k -> UUID.randomUUID());
+    }
+
+    /**
+     * @return the key or <code>null</code> if the network from the given source cannot be cached
+     */
+    private UUID createKey(final DLPythonContext context, final DLNetworkLocation source)
+        throws DLInvalidEnvironmentException {
+        final File file;
+        try {
+            file = FileUtil.getFileFromURL(source.getURI().toURL());
+        } catch (final Exception e) {
+            return null;
+        }
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final String digest;
+        try {
+            // re-hash only if the file was modified
+            final String fileKey = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+            digest = m_digests.get(fileKey, () -> Files.asByteSource(file).hash(Hashing.md5()).toString());
+        } catch (final ExecutionException e) {
+            LOGGER.debug("Failed to compute digest of network file '" + file + "'. Network will not be cached.", e);
+            return null;
+        }
+        final String key = getKernelId(context.getKernel()) + "|" + source.getURI() + "|" + digest;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.data.DLAbstractDirectDataBuffer;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDirectDoubleBuffer;
+import org.knime.dl.core.data.DLDirectFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+
+/**
+ * Transfers tensor data between Java and Python via memory-mapped files instead of serializing it into the tables that
+ * are sent over the kernel's socket connection. Only the file path, the element type and the element count of a tensor
+ * cross the socket, Python wraps the file using a <code>numpy.memmap</code>. Files are placed in <code>/dev/shm</code>
+ * if available (i.e. they never leave main memory) and in the temporary directory otherwise.
+ * <P>
+ * The transport can be enabled via the VM option <code>-Dknime.dl.python.sharedmemory=true</code>. Each instance
+ * holds one file per tensor that is reused (and grown if necessary) across batches.
+ * <P>
+ * Buffers that live outside of the Java heap ({@link DLAbstractDirectDataBuffer}) are always transferred this way as
+ * they can be copied into the mapped files without an intermediate Java array.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPythonSharedMemoryTransport implements AutoCloseable {
+
+	/**
+	 * The VM option that enables the shared memory transport.
+	 */
+	static final String ENABLED_VM_OPTION = "knime.dl.python.sharedmemory";
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonSharedMemoryTransport.class);
+
+	private static final File SHARED_MEMORY_ROOT = new File("/dev/shm");
+
+	/**
+	 * Mappings are limited to 2^31-1 bytes by the JDK. We therefore map large files in windows of this size. Must be a
+	 * multiple of the largest element size.
+	 */
+	private static final long MAX_MAPPING_SIZE = 1L << 30;
+
+	private static final Map<Class<?>, DLElementType> ELEMENT_TYPES = new HashMap<>();
+
+	static {
+		ELEMENT_TYPES.put(DLPythonBitBuffer.class, DLElementType.BIT);
+		ELEMENT_TYPES.put(DLPythonByteBuffer.class, DLElementType.BYTE);
+		ELEMENT_TYPES.put(DLPythonUnsignedByteBuffer.class, DLElementType.UNSIGNED_BYTE);
+		ELEMENT_TYPES.put(DLPythonShortBuffer.class, DLElementType.SHORT);
+		ELEMENT_TYPES.put(DLPythonIntBuffer.class, DLElementType.INT);
+		ELEMENT_TYPES.put(DLPythonLongBuffer.class, DLElementType.LONG);
+		ELEMENT_TYPES.put(DLPythonFloatBuffer.class, DLElementType.FLOAT);
+		ELEMENT_TYPES.put(DLPythonDoubleBuffer.class, DLElementType.DOUBLE);
+		ELEMENT_TYPES.put(DLDirectFloatBuffer.class, DLElementType.FLOAT);
+		ELEMENT_TYPES.put(DLDirectDoubleBuffer.class, DLElementType.DOUBLE);
+	}
+
+	/**
+	 * @return true if the shared memory transport is enabled via {@link #ENABLED_VM_OPTION}
+	 */
+	static boolean isEnabled() {
+		return Boolean.getBoolean(ENABLED_VM_OPTION);
+	}
+
+	/**
+	 * @param buffer the buffer to check
+	 * @return true if the given buffer shall be transferred via shared memory, i.e. if it is
+	 *         {@link #supports(DLBuffer) supported} and the transport is either {@link #isEnabled() enabled} or the
+	 *         buffer lives outside of the Java heap
+	 */
+	static boolean isApplicable(final DLBuffer buffer) {
+		return (isEnabled() || buffer instanceof DLAbstractDirectDataBuffer) && supports(buffer);
+	}
+
+	/**
+	 * @param buffer the buffer to check
+	 * @return true if the given buffer can be transferred via shared memory
+	 */
+	static boolean supports(final DLBuffer buffer) {
+		return ELEMENT_TYPES.containsKey(buffer.getClass());
+	}
+
+	private final File m_directory;
+
+	private final Map<String, File> m_files = new HashMap<>();
+
+	DLPythonSharedMemoryTransport() throws IOException {
+		final File root = SHARED_MEMORY_ROOT.isDirectory() && SHARED_MEMORY_ROOT.canWrite() ? SHARED_MEMORY_ROOT
+				: new File(System.getProperty("java.io.tmpdir"));
+		m_directory = Files.createTempDirectory(root.toPath(), "knime-dl-").toFile();
+	}
+
+	/**
+	 * @param buffer the buffer
+	 * @return the numpy dtype that corresponds to the given buffer
+	 */
+	static String getDType(final DLBuffer buffer) {
+		return getElementType(buffer).m_dtype;
+	}
+
+	/**
+	 * @param tensorIdentifier the identifier of the tensor the file belongs to
+	 * @return the file that backs the tensor with the given identifier
+	 */
+	File getFile(final String tensorIdentifier) {
+		return m_files.computeIfAbsent(tensorIdentifier,
+				id -> new File(m_directory, id.replaceAll("[^A-Za-z0-9_.-]", "_") + "_" + m_files.size() + ".bin"));
+	}
+
+	/**
+	 * Writes the unread content of the given buffer to the file of the given tensor. The file is grown if necessary
+	 * but never shrunk, Python must therefore only map the returned number of elements.
+	 *
+	 * @return the number of elements written
+	 */
+	long write(final String tensorIdentifier, final DLBuffer buffer) throws IOException {
+		final DLElementType type = getElementType(buffer);
+		final DLPythonDataBuffer<?> pythonBuffer;
+		final DLAbstractDirectDataBuffer directBuffer;
+		final long start;
+		if (buffer instanceof DLAbstractDirectDataBuffer) {
+			pythonBuffer = null;
+			directBuffer = (DLAbstractDirectDataBuffer) buffer;
+			start = directBuffer.getNextReadPosition();
+		} else {
+			pythonBuffer = (DLPythonDataBuffer<?>) buffer;
+			directBuffer = null;
+			start = pythonBuffer.getNextReadPosition();
+		}
+		final long size = buffer.size() - start;
+		final Object storage = pythonBuffer != null ? pythonBuffer.getStorageForReading(start, size) : null;
+		final long numBytes = size * type.m_numBytes;
+		try (RandomAccessFile file = new RandomAccessFile(getFile(tensorIdentifier), "rw");
+				FileChannel channel = file.getChannel()) {
+			if (file.length() < numBytes) {
+				file.setLength(numBytes);
+			}
+			for (long pos = 0; pos < numBytes; pos += MAX_MAPPING_SIZE) {
+				final long windowSize = Math.min(MAX_MAPPING_SIZE, numBytes - pos);
+				final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, pos, windowSize);
+				mapped.order(ByteOrder.LITTLE_ENDIAN);
+				if (directBuffer != null) {
+					directBuffer.getBytes(start + pos / type.m_numBytes, mapped);
+				} else {
+					type.put(mapped, storage, (int) (start + pos / type.m_numBytes),
+							(int) (windowSize / type.m_numBytes));
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Appends the content of the file of the given tensor, as written by Python, to the given buffer.
+	 */
+	void read(final String tensorIdentifier, final DLBuffer buffer) throws IOException {
+		final DLElementType type = getElementType(buffer);
+		try (RandomAccessFile file = new RandomAccessFile(getFile(tensorIdentifier), "r");
+				FileChannel channel = file.getChannel()) {
+			final long numBytes = channel.size();
+			final long size = numBytes / type.m_numBytes;
+			if (buffer instanceof DLAbstractDirectDataBuffer) {
+				final DLAbstractDirectDataBuffer directBuffer = (DLAbstractDirectDataBuffer) buffer;
+				for (long pos = 0; pos < numBytes; pos += MAX_MAPPING_SIZE) {
+					final long windowSize = Math.min(MAX_MAPPING_SIZE, numBytes - pos);
+					final MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, pos, windowSize);
+					mapped.order(ByteOrder.LITTLE_ENDIAN);
+					directBuffer.putBytes(mapped);
+				}
+				return;
+			}
+			final DLPythonDataBuffer<?> pythonBuffer = (DLPythonDataBuffer<?>) buffer;
+			final long start = pythonBuffer.size();
+			final Object storage = pythonBuffer.getStorageForWriting(start, size);
+			for (long pos = 0; pos < numBytes; pos += MAX_MAPPING_SIZE) {
+				final long windowSize = Math.min(MAX_MAPPING_SIZE, numBytes - pos);
+				final MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, pos, windowSize);
+				mapped.order(ByteOrder.LITTLE_ENDIAN);
+				type.get(mapped, storage, (int) (start + pos / type.m_numBytes), (int) (windowSize / type.m_numBytes));
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		m_files.clear();
+		try {
+			FileUtils.deleteDirectory(m_directory);
+		} catch (final IOException e) {
+			// Mapped files cannot be deleted on some platforms as long as a mapping is alive.
+			LOGGER.debug("Failed to delete shared memory directory '" + m_directory + "'.", e);
+			m_directory.deleteOnExit();
+		}
+	}
+
+	private static DLElementType getElementType(final DLBuffer buffer) {
+		final DLElementType type = ELEMENT_TYPES.get(buffer.getClass());
+		if (type == null) {
+			throw new IllegalArgumentException(
+					"Buffer type '" + buffer.getClass().getName() + "' is not supported by the shared memory transport.");
+		}
+		return type;
+	}
+
+	private enum DLElementType {
+
+			BIT("bool", 1), BYTE("int8", 1), UNSIGNED_BYTE("uint8", 1), SHORT("int16", Short.BYTES),
+			INT("int32", Integer.BYTES), LONG("int64", Long.BYTES), FLOAT("float32", Float.BYTES),
+			DOUBLE("float64", Double.BYTES);
+
+		private final String m_dtype;
+
+		private final int m_numBytes;
+
+		private DLElementType(final String dtype, final int numBytes) {
+			m_dtype = dtype;
+			m_numBytes = numBytes;
+		}
+
+		private void put(final ByteBuffer target, final Object source, final int offset, final int length) {
+			switch (this) {
+				case BIT:
+					final boolean[] bits = (boolean[]) source;
+					for (int i = offset; i < offset + length; i++) {
+						target.put(bits[i] ? (byte) 1 : (byte) 0);
+					}
+					break;
+				case BYTE:
+				case UNSIGNED_BYTE:
+					target.put((byte[]) source, offset, length);
+					break;
+				case SHORT:
+					target.asShortBuffer().put((short[]) source, offset, length);
+					break;
+				case INT:
+					target.asIntBuffer().put((int[]) source, offset, length);
+					break;
+				case LONG:
+					target.asLongBuffer().put((long[]) source, offset, length);
+					break;
+				case FLOAT:
+					target.asFloatBuffer().put((float[]) source, offset, length);
+					break;
+				case DOUBLE:
+					target.asDoubleBuffer().put((double[]) source, offset, length);
+					break;
+				default:
+					throw new IllegalStateException("Unhandled element type '" + this + "'.");
+			}
+		}
+
+		private void get(final ByteBuffer source, final Object target, final int offset, final int length) {
+			switch (this) {
+				case BIT:
+					final boolean[] bits = (boolean[]) target;
+					for (int i = offset; i < offset + length; i++) {
+						bits[i] = source.get() != 0;
+					}
+					break;
+				case BYTE:
+				case UNSIGNED_BYTE:
+					source.get((byte[]) target, offset, length);
+					break;
+				case SHORT:
+					source.asShortBuffer().get((short[]) target, offset, length);
+					break;
+				case INT:
+					source.asIntBuffer().get((int[]) target, offset, length);
+					break;
+				case LONG:
+					source.asLongBuffer().get((long[]) target, offset, length);
+					break;
+				case FLOAT:
+					source.asFloatBuffer().get((float[]) target, offset, length);
+					break;
+				case DOUBLE:
+					source.asDoubleBuffer().get((double[]) target, offset, length);
+					break;
+				default:
+					throw new IllegalStateException("Unhandled element type '" + this + "'.");
+			}
+		}
+	}
+}
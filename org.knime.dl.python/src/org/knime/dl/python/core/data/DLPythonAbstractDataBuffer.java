@@ -113,6 +113,17 @@ public S getStorageForWriting(final long startPos, final long length) throws Buf
 		return m_buffer.getStorageForWriting(startPos, length);
 	}
 
+	@Override
+	public boolean supportsWriteWindows() {
+		return m_buffer.supportsWriteWindows();
+	}
+
+	@Override
+	public DLWrappingDataBuffer<S> createWriteWindow(final long startPos, final long length)
+			throws BufferOverflowException {
+		return m_buffer.createWriteWindow(startPos, length);
+	}
+
 	@Override
 	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
 		m_buffer.zeroPad(length);
@@ -0,0 +1,132 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLDefaultPackedBitBuffer;
+import org.knime.dl.python.core.data.DLPythonPackedBitBuffer;
+import org.knime.python.typeextension.Deserializer;
+import org.knime.python.typeextension.DeserializerFactory;
+
+/**
+ * Deserializes packed bits into a {@link DLPythonPackedBitBuffer}. See {@link DLPythonPackedBitBufferSerializerFactory}
+ * for the serialized form.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLPythonPackedBitBufferDeserializerFactory extends DeserializerFactory
+    implements DLPythonDeserializerFactory {
+
+    /**
+     * The unique identifier of this deserializer factory.
+     */
+    public static final String IDENTIFIER =
+        "org.knime.dl.python.core.data.serde.DLPythonPackedBitBufferDeserializerFactory";
+
+    /**
+     * Empty framework constructor.
+     */
+    public DLPythonPackedBitBufferDeserializerFactory() {
+        super(DLPythonPackedBitBuffer.TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Deserializer createDeserializer() {
+        return new DLPythonDeserializer<DLPythonPackedBitBuffer>() {
+
+            @Override
+            public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
+                throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                final int size = getSize(buffer);
+                final DLPythonPackedBitBuffer value = new DLPythonPackedBitBuffer(size);
+                value.putAllWords(getWords(buffer, size), size);
+                return value;
+            }
+
+            @Override
+            public void deserialize(final byte[] bytes, final DLTensor<DLPythonPackedBitBuffer> data) {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                final int size = getSize(buffer);
+                data.getBuffer().putAllWords(getWords(buffer, size), size);
+            }
+
+            private int getSize(final ByteBuffer buffer) {
+                final long size = buffer.getLong();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalStateException(
+                        "Receiving data from Python failed. Buffer size exceeds the limit of 2^31-1 bits.");
+                }
+                return (int)size;
+            }
+
+            private long[] getWords(final ByteBuffer buffer, final int size) {
+                final long[] words = new long[DLDefaultPackedBitBuffer.getNumWords(size)];
+                buffer.asLongBuffer().get(words);
+                return words;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<? extends DLPythonPackedBitBuffer> getBufferType() {
+        return DLPythonPackedBitBuffer.class;
+    }
+}
@@ -48,28 +48,47 @@
  */
 package org.knime.dl.python.core.execution;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkInputPreparer;
+import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.execution.DLAbstractNetworkExecutionSession;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLExecutionMonitor;
 import org.knime.dl.core.execution.DLExecutionStatus;
+import org.knime.dl.core.execution.DLNetworkExecutionSession;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
-import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.DLPythonCommands;
+import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonKernelPool;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkHandleCache;
+import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 
 /**
@@ -80,78 +99,192 @@
 	extends DLAbstractNetworkExecutionSession<N> implements DLPythonNetworkExecutionSession {
 
 	/**
-	 * Is instantiated via {@link #createCommands()} at the beginning of the first call of
-	 * {@link #trainInternal(DLTrainingMonitor)}.
+	 * The number of input and output tensor sets that circulate in pipelined mode.
+	 */
+	private static final int NUM_PIPELINED_TENSOR_SETS = 2;
+
+	private static final long PIPELINE_POLL_INTERVAL_MS = 100;
+
+	/**
+	 * Is instantiated via {@link #createCommands(DLPythonContext)} at the beginning of the first call of
+	 * {@link #executeInternal(DLExecutionMonitor)}. Its context is acquired from the {@link DLPythonKernelPool}.
 	 */
 	private C m_commands;
 
 	private DLPythonNetworkHandle m_handle;
 
-	protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
-			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
-			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
-		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+	/**
+	 * Second set of input tensors, only allocated in pipelined mode (see {@link DLExecutionConfig#isPipeliningEnabled()}).
+	 */
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_secondInput;
+
+	/**
+	 * Second set of output tensors, only allocated in pipelined mode (see {@link DLExecutionConfig#isPipeliningEnabled()}).
+	 */
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_secondOutput;
+
+	/**
+	 * The Python processes among which batches are distributed in data parallel mode (see
+	 * {@link DLExecutionConfig#getNumParallelProcesses()}). The first process wraps the commands, network handle and
+	 * input tensors of this session. Only instantiated in data parallel mode.
+	 */
+	private List<DLPythonExecutionProcess> m_parallelProcesses;
+
+	protected DLPythonAbstractNetworkExecutionSession(final N network, final DLExecutionConfig executionConfig,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory) {
+		super(network, executionConfig, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				tensorFactory);
 	}
 
 	/**
 	 * The caller is responsible for {@link AutoCloseable#close() closing} the command.
+	 *
+	 * @param context the Python context the commands operate on
 	 */
-	protected abstract C createCommands() throws DLInvalidEnvironmentException;
+	protected abstract C createCommands(DLPythonContext context) throws DLInvalidEnvironmentException;
 
 	@Override
 	public void close() throws Exception {
 		super.close();
+		if (m_secondInput != null) {
+			m_secondInput.values().forEach(DLTensor::close);
+		}
+		if (m_secondOutput != null) {
+			m_secondOutput.values().forEach(DLTensor::close);
+		}
+		// close all additional processes even if one of them fails, they hold kernels
+		Exception failure = null;
+		if (m_parallelProcesses != null) {
+			for (int i = 0; i < m_parallelProcesses.size(); i++) {
+				try {
+					m_parallelProcesses.get(i).close(i > 0);
+				} catch (final Exception e) {
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+		}
 		if (m_commands != null) {
-			m_commands.close();
+			try {
+				if (m_handle != null) {
+					// the kernel may be reused by subsequent sessions, only keep the network if it is cached
+					DLPythonNetworkHandleCache.getInstance().release(m_commands, m_handle, DLNotCancelable.INSTANCE);
+				}
+			} finally {
+				m_commands.close();
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Sums up the current resident memory of all Python processes used by this session.
+	 */
+	@Override
+	public long getBackendMemoryUsage(final DLCancelable cancelable) throws DLCanceledExecutionException, Exception {
+		if (m_commands == null) {
+			return -1;
+		}
+		if (m_parallelProcesses == null) {
+			return m_commands.getMemoryUsage(cancelable);
+		}
+		long memory = 0;
+		for (final DLPythonExecutionProcess process : m_parallelProcesses) {
+			final long processMemory = process.m_commands.getMemoryUsage(cancelable);
+			if (processMemory == -1) {
+				return -1;
+			}
+			memory += processMemory;
 		}
+		return memory;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Hands over the Python process that holds the loaded network if the given session is of the same type. Additional
+	 * processes of data parallel mode are not handed over but returned to the {@link DLPythonKernelPool kernel pool}
+	 * when this session is closed.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void transferBackendTo(final DLNetworkExecutionSession successor) {
+		if (m_commands == null || successor.getClass() != getClass()) {
+			return;
+		}
+		final DLPythonAbstractNetworkExecutionSession<N, C> session =
+				(DLPythonAbstractNetworkExecutionSession<N, C>) successor;
+		if (session.m_commands != null || !session.m_network.equals(m_network)
+				|| !session.m_requestedOutputs.equals(m_requestedOutputs)) {
+			return;
+		}
+		session.m_commands = m_commands;
+		session.m_handle = m_handle;
+		// closing this session must neither release the network nor the kernel anymore
+		m_commands = null;
+		m_handle = null;
 	}
 
 	@Override
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
-			m_commands = createCommands();
-			m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader(m_network.getClass()).orElseThrow(
-					() -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-							+ "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network.getSource().getURI(), m_commands.getContext(monitor), false, monitor);
+			m_commands = createCommands(DLPythonKernelPool.getInstance().acquire(m_network.getClass()));
+			m_handle = setupNetwork(m_commands, monitor);
 		}
-		final DLExecutionStatus status = monitor.getExecutionStatus();
-		long currentInBatchSize = m_expectedBatchSize;
 		final long numBatches = m_inputPreparer.getNumBatches();
+		if (m_executionConfig.getNumParallelProcesses() > 1 && numBatches > 1) {
+			executeDataParallel(monitor, numBatches);
+		} else if (m_executionConfig.isPipeliningEnabled() && numBatches > 1) {
+			executePipelined(monitor, numBatches);
+		} else {
+			executeSequentially(monitor, numBatches);
+		}
+	}
+
+	/**
+	 * Loads the network into the Python process of the given commands (unless it is cached there already) and applies
+	 * the per-process settings of the execution config.
+	 */
+	private DLPythonNetworkHandle setupNetwork(final C commands, final DLExecutionMonitor monitor)
+			throws DLCanceledExecutionException, Exception {
+		final DLPythonNetworkLoader<? extends DLPythonNetwork> loader = DLPythonNetworkLoaderRegistry.getInstance()
+				.getNetworkLoader(m_network.getClass())
+				.orElseThrow(() -> new DLMissingExtensionException(
+						"Python back end '" + m_network.getClass().getCanonicalName()
+								+ "' could not be found. Are you missing a KNIME Deep Learning extension?"));
+		final DLPythonContext context = commands.getContext(monitor);
+		if (m_executionConfig.getNumThreadsPerProcess() > 0) {
+			// must happen before the network is loaded, see DLPythonCommands#setNumThreads
+			commands.setNumThreads(m_executionConfig.getNumThreadsPerProcess(), monitor);
+		}
+		final DLPythonNetworkHandle handle = DLPythonNetworkHandleCache.getInstance().getOrLoad(context,
+				m_network.getSource(), () -> loader.load(m_network.getSource().getURI(), context, false, monitor));
+		if (m_executionConfig.isPrepareExecutionEnabled()) {
+			commands.prepareNetworkExecution(handle, m_requestedOutputs, monitor);
+		}
+		return handle;
+	}
+
+	private void executeSequentially(final DLExecutionMonitor monitor, final long numBatches)
+			throws DLCanceledExecutionException, Exception {
+		final DLExecutionStatus status = monitor.getExecutionStatus();
 		final long lastBatchIndex = numBatches - 1;
 		for (long i = 0; i < numBatches; i++) {
 			monitor.checkCanceled();
 			m_inputPreparer.prepare(m_input, i);
 			monitor.checkCanceled();
-			if (i == lastBatchIndex) {
-				// last batch might be incomplete
-				final DLTensor<? extends DLWritableBuffer> tensor = m_input.values().stream().findAny().get();
-				currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
-			}
-			m_commands.setNetworkInputs(m_handle, m_input, monitor);
-			monitor.checkCanceled();
-			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
-			monitor.checkCanceled();
-			for (final DLTensor<?> input : m_input.values()) {
-				input.getBuffer().reset();
-			}
+			executeBatch(m_commands, m_handle, m_input, i == lastBatchIndex, monitor);
 			if (m_output == null) {
-				m_output = new HashMap<>(m_requestedOutputs.size());
-				final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
-						m_network.getSpec().getHiddenOutputSpecs());
-				final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle,
-						m_requestedOutputs, monitor);
-				for (final DLTensorSpec spec : outputSpecs) {
-					if (m_requestedOutputs.contains(spec.getIdentifier())) {
-						final long[] outShape = outputShapes.get(spec.getIdentifier());
-						final long outBatchSize = outShape[0];
-						final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
-						System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
-						final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
-								outShapeWithoutBatchSize);
-						m_output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
-					}
-				}
+				m_output = createOutputTensors(m_commands, m_handle, monitor);
 			}
 			m_commands.getNetworkOutputs(m_handle, m_output, monitor);
 			monitor.checkCanceled();
@@ -162,4 +295,361 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 			status.batchEnded().raise(null);
 		}
 	}
+
+	/**
+	 * Runs input preparation, network execution and output consumption of consecutive batches concurrently. Batch i+1
+	 * is prepared on a worker thread while batch i is executed in Python (on the calling thread) and the outputs of
+	 * batch i-1 are consumed on another worker thread. Two sets of input and output tensors circulate between the
+	 * stages via bounded queues, which keeps the order of the batches and blocks stages that are ahead.
+	 */
+	private void executePipelined(final DLExecutionMonitor monitor, final long numBatches)
+			throws DLCanceledExecutionException, Exception {
+		final DLExecutionStatus status = monitor.getExecutionStatus();
+		if (m_secondInput == null) {
+			m_secondInput = createInputTensors();
+		}
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> freeInputs =
+				new ArrayBlockingQueue<>(NUM_PIPELINED_TENSOR_SETS);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> preparedInputs =
+				new ArrayBlockingQueue<>(NUM_PIPELINED_TENSOR_SETS);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> freeOutputs =
+				new ArrayBlockingQueue<>(NUM_PIPELINED_TENSOR_SETS);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> computedOutputs =
+				new ArrayBlockingQueue<>(NUM_PIPELINED_TENSOR_SETS);
+		freeInputs.add(m_input);
+		freeInputs.add(m_secondInput);
+		if (m_output != null) {
+			if (m_secondOutput == null) {
+				m_secondOutput = createOutputTensors(m_commands, m_handle, monitor);
+			}
+			freeOutputs.add(m_output);
+			freeOutputs.add(m_secondOutput);
+		}
+
+		final AtomicInteger threadCount = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+			final Thread t = new Thread(r, "DL-Python-Execution-Pipeline-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			final Future<?> preparation = executor.submit(() -> {
+				for (long i = 0; i < numBatches; i++) {
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = freeInputs.take();
+					monitor.checkCanceled();
+					m_inputPreparer.prepare(input, i);
+					preparedInputs.put(input);
+				}
+				return null;
+			});
+			final Future<?> consumption = executor.submit(() -> {
+				for (long i = 0; i < numBatches; i++) {
+					final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = computedOutputs.take();
+					monitor.checkCanceled();
+					m_outputConsumer.accept(output);
+					for (final DLTensor<?> tensor : output.values()) {
+						tensor.getBuffer().reset();
+					}
+					freeOutputs.put(output);
+					status.batchEnded().raise(null);
+				}
+				return null;
+			});
+			final long lastBatchIndex = numBatches - 1;
+			for (long i = 0; i < numBatches; i++) {
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
+						takeFromStage(preparedInputs, monitor, preparation, consumption);
+				executeBatch(m_commands, m_handle, input, i == lastBatchIndex, monitor);
+				freeInputs.put(input);
+				if (m_output == null) {
+					m_output = createOutputTensors(m_commands, m_handle, monitor);
+					m_secondOutput = createOutputTensors(m_commands, m_handle, monitor);
+					freeOutputs.add(m_output);
+					freeOutputs.add(m_secondOutput);
+				}
+				final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+						takeFromStage(freeOutputs, monitor, preparation, consumption);
+				m_commands.getNetworkOutputs(m_handle, output, monitor);
+				monitor.checkCanceled();
+				computedOutputs.put(output);
+			}
+			// wait until all outputs are consumed
+			while (true) {
+				monitor.checkCanceled();
+				try {
+					consumption.get(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+					break;
+				} catch (final TimeoutException e) {
+					// check for cancellation and keep waiting
+				} catch (final ExecutionException e) {
+					rethrowFailure(consumption);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			// the worker threads must not touch any tensors once this method returned
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Distributes the batches round-robin among several Python processes, each of which holds its own copy of the
+	 * network. Batch i is executed by process i modulo the number of processes. Input preparation runs on a worker
+	 * thread, each process is driven by a worker thread of its own, and the outputs are consumed on the calling thread
+	 * in the order of the batches. Since the assignment of batches to processes is fixed, taking the outputs from the
+	 * processes in turn restores the original order without any reordering buffer.
+	 */
+	private void executeDataParallel(final DLExecutionMonitor monitor, final long numBatches)
+			throws DLCanceledExecutionException, Exception {
+		final DLExecutionStatus status = monitor.getExecutionStatus();
+		final int numProcesses = (int) Math.min(m_executionConfig.getNumParallelProcesses(), numBatches);
+		final AtomicInteger threadCount = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(numProcesses + 1, r -> {
+			final Thread t = new Thread(r, "DL-Python-Execution-Parallel-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			final List<DLPythonExecutionProcess> processes = setupParallelProcesses(numProcesses, executor, monitor);
+			for (final DLPythonExecutionProcess process : processes) {
+				process.reset();
+			}
+			final List<Future<?>> stages = new ArrayList<>(numProcesses + 1);
+			stages.add(executor.submit(() -> {
+				for (long i = 0; i < numBatches; i++) {
+					final DLPythonExecutionProcess process = processes.get((int) (i % numProcesses));
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = process.m_freeInputs.take();
+					monitor.checkCanceled();
+					m_inputPreparer.prepare(input, i);
+					process.m_preparedInputs.put(input);
+				}
+				return null;
+			}));
+			final long lastBatchIndex = numBatches - 1;
+			for (int p = 0; p < numProcesses; p++) {
+				final DLPythonExecutionProcess process = processes.get(p);
+				final long firstBatchIndex = p;
+				stages.add(executor.submit(() -> {
+					for (long i = firstBatchIndex; i < numBatches; i += numProcesses) {
+						final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
+								process.m_preparedInputs.take();
+						monitor.checkCanceled();
+						executeBatch(process.m_commands, process.m_handle, input, i == lastBatchIndex, monitor);
+						process.m_freeInputs.put(input);
+						if (process.m_output == null) {
+							process.m_output = createOutputTensors(process.m_commands, process.m_handle, monitor);
+							process.m_freeOutputs.put(process.m_output);
+						}
+						final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+								process.m_freeOutputs.take();
+						process.m_commands.getNetworkOutputs(process.m_handle, output, monitor);
+						monitor.checkCanceled();
+						process.m_computedOutputs.put(output);
+					}
+					return null;
+				}));
+			}
+			final Future<?>[] stageArray = stages.toArray(new Future<?>[stages.size()]);
+			for (long i = 0; i < numBatches; i++) {
+				final DLPythonExecutionProcess process = processes.get((int) (i % numProcesses));
+				final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+						takeFromStage(process.m_computedOutputs, monitor, stageArray);
+				m_outputConsumer.accept(output);
+				for (final DLTensor<?> tensor : output.values()) {
+					tensor.getBuffer().reset();
+				}
+				process.m_freeOutputs.put(output);
+				status.batchEnded().raise(null);
+			}
+		} finally {
+			executor.shutdownNow();
+			// the worker threads must not touch any tensors or kernels once this method returned
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Starts the additional Python processes of data parallel mode, if not done yet, and loads the network into them
+	 * concurrently.
+	 */
+	private List<DLPythonExecutionProcess> setupParallelProcesses(final int numProcesses,
+			final ExecutorService executor, final DLExecutionMonitor monitor)
+			throws DLCanceledExecutionException, Exception {
+		if (m_parallelProcesses == null) {
+			m_parallelProcesses = new ArrayList<>(numProcesses);
+			m_parallelProcesses.add(new DLPythonExecutionProcess(m_commands, m_handle, m_input));
+		}
+		final List<Future<DLPythonExecutionProcess>> pending = new ArrayList<>();
+		for (int i = m_parallelProcesses.size(); i < numProcesses; i++) {
+			pending.add(executor.submit(() -> {
+				final C commands = createCommands(DLPythonKernelPool.getInstance().acquire(m_network.getClass()));
+				try {
+					final DLPythonNetworkHandle handle = setupNetwork(commands, monitor);
+					return new DLPythonExecutionProcess(commands, handle, createInputTensors());
+				} catch (final Exception e) {
+					commands.close();
+					throw e;
+				}
+			}));
+		}
+		// Collect all processes, also the ones that were set up after a failure, to be able to close them. Setting up
+		// a process observes cancellation via the monitor, so waiting for it does not delay cancellation for long.
+		Exception failure = null;
+		for (final Future<DLPythonExecutionProcess> process : pending) {
+			try {
+				m_parallelProcesses.add(process.get());
+			} catch (final ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return m_parallelProcesses.subList(0, numProcesses);
+	}
+
+	private void executeBatch(final C commands, final DLPythonNetworkHandle handle,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final boolean isLastBatch,
+			final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		long currentInBatchSize = m_expectedBatchSize;
+		if (isLastBatch) {
+			// last batch might be incomplete
+			final DLTensor<? extends DLWritableBuffer> tensor = input.values().stream().findAny().get();
+			currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
+		}
+		commands.setNetworkInputs(handle, input, monitor);
+		monitor.checkCanceled();
+		commands.executeNetwork(handle, m_requestedOutputs, currentInBatchSize, monitor);
+		monitor.checkCanceled();
+		for (final DLTensor<?> tensor : input.values()) {
+			tensor.getBuffer().reset();
+		}
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> createOutputTensors(final C commands,
+			final DLPythonNetworkHandle handle, final DLExecutionMonitor monitor)
+			throws DLCanceledExecutionException, Exception {
+		final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = new HashMap<>(
+				m_requestedOutputs.size());
+		final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
+				m_network.getSpec().getHiddenOutputSpecs());
+		final Map<DLTensorId, long[]> outputShapes = commands.getNetworkOutputShapes(handle, m_requestedOutputs,
+				monitor);
+		for (final DLTensorSpec spec : outputSpecs) {
+			if (m_requestedOutputs.contains(spec.getIdentifier())) {
+				final long[] outShape = outputShapes.get(spec.getIdentifier());
+				final long outBatchSize = outShape[0];
+				final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
+				System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
+				final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
+						outShapeWithoutBatchSize);
+				output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Waits for the next element of the given queue while periodically checking for cancellation and for failures of
+	 * the worker stages.
+	 */
+	private static <T> T takeFromStage(final BlockingQueue<T> queue, final DLExecutionMonitor monitor,
+			final Future<?>... stages) throws DLCanceledExecutionException, Exception {
+		while (true) {
+			monitor.checkCanceled();
+			final T element = queue.poll(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+			if (element != null) {
+				return element;
+			}
+			for (final Future<?> stage : stages) {
+				if (stage.isDone()) {
+					// a stage that completed normally has already handed over all of its elements
+					rethrowFailure(stage);
+				}
+			}
+		}
+	}
+
+	private static void rethrowFailure(final Future<?> stage) throws Exception {
+		try {
+			stage.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A Python process of data parallel mode together with its network handle and its tensors, which circulate between
+	 * the stages of {@link DLPythonAbstractNetworkExecutionSession#executeDataParallel(DLExecutionMonitor, long)}.
+	 */
+	private final class DLPythonExecutionProcess {
+
+		private final C m_commands;
+
+		private final DLPythonNetworkHandle m_handle;
+
+		private final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_input;
+
+		/**
+		 * Is instantiated after the first batch was executed in this process.
+		 */
+		private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_output;
+
+		private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_freeInputs =
+				new ArrayBlockingQueue<>(1);
+
+		private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_preparedInputs =
+				new ArrayBlockingQueue<>(1);
+
+		private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> m_freeOutputs =
+				new ArrayBlockingQueue<>(1);
+
+		private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> m_computedOutputs =
+				new ArrayBlockingQueue<>(1);
+
+		private DLPythonExecutionProcess(final C commands, final DLPythonNetworkHandle handle,
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+			m_commands = commands;
+			m_handle = handle;
+			m_input = input;
+		}
+
+		/**
+		 * Puts the tensors of this process back into their initial queues before a run.
+		 */
+		private void reset() {
+			m_freeInputs.clear();
+			m_preparedInputs.clear();
+			m_freeOutputs.clear();
+			m_computedOutputs.clear();
+			m_freeInputs.add(m_input);
+			if (m_output != null) {
+				m_freeOutputs.add(m_output);
+			}
+		}
+
+		/**
+		 * @param closeResources true if the commands, network handle and input tensors are owned by this process and
+		 *            shall be closed as well, false if only the output tensors shall be closed
+		 */
+		private void close(final boolean closeResources) throws Exception {
+			if (m_output != null) {
+				m_output.values().forEach(DLTensor::close);
+			}
+			if (closeResources) {
+				m_input.values().forEach(DLTensor::close);
+				try {
+					DLPythonNetworkHandleCache.getInstance().release(m_commands, m_handle, DLNotCancelable.INSTANCE);
+				} finally {
+					m_commands.close();
+				}
+			}
+		}
+	}
 }
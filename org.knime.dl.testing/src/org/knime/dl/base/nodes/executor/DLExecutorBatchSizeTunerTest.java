@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.nodes.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLExecutorBatchSizeTunerTest {
+
+	private static final long MB = 1L << 20;
+
+	@Test
+	public void testDoublesUntilPlateau() {
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(4096, 1024 * MB);
+		assertEquals(8, tuner.getCurrentBatchSize());
+		assertEquals(8 * DLExecutorBatchSizeTuner.PROBE_BATCHES, tuner.getCurrentProbeSize());
+		tuner.report(100, 100 * MB);
+		assertEquals(16, tuner.getCurrentBatchSize());
+		tuner.report(180, 100 * MB);
+		assertEquals(32, tuner.getCurrentBatchSize());
+		tuner.report(300, 110 * MB);
+		assertEquals(64, tuner.getCurrentBatchSize());
+		assertFalse(tuner.isDone());
+		// less than 5% faster
+		tuner.report(310, 120 * MB);
+		assertTrue(tuner.isDone());
+		assertEquals(32, tuner.getBestBatchSize());
+		assertEquals(300, tuner.getBestThroughput(), 0);
+	}
+
+	@Test
+	public void testKeepsPreviousBatchSizeIfMemoryBudgetIsExceeded() {
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(4096, 50 * MB);
+		tuner.report(100, 100 * MB);
+		tuner.report(200, 120 * MB);
+		tuner.report(400, 200 * MB);
+		assertTrue(tuner.isDone());
+		assertEquals(16, tuner.getBestBatchSize());
+	}
+
+	@Test
+	public void testStopsAtMaximumBatchSize() {
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(20, 1024 * MB);
+		tuner.report(100, -1);
+		assertEquals(16, tuner.getCurrentBatchSize());
+		tuner.report(200, -1);
+		assertEquals(20, tuner.getCurrentBatchSize());
+		tuner.report(300, -1);
+		assertTrue(tuner.isDone());
+		assertEquals(20, tuner.getBestBatchSize());
+		assertEquals("8: 100 rows/s; 16: 200 rows/s; 20: 300 rows/s", tuner.getSummary());
+	}
+
+	@Test
+	public void testStop() {
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(4096, 1024 * MB);
+		assertEquals(-1, tuner.getBestBatchSize());
+		tuner.report(100, -1);
+		tuner.stop();
+		assertTrue(tuner.isDone());
+		assertEquals(8, tuner.getBestBatchSize());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReportAfterDoneFails() {
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(8, 1024 * MB);
+		tuner.report(100, -1);
+		tuner.report(100, -1);
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLAbstractRowIteratorTest {
+
+	private static final DLTensorId NUMERIC = new DLDefaultTensorId("numeric");
+
+	private static final DLTensorId MIXED = new DLDefaultTensorId("mixed");
+
+	private static final DataTableSpec SPEC = new DataTableSpec(
+			new DataColumnSpecCreator("double", DoubleCell.TYPE).createSpec(),
+			new DataColumnSpecCreator("int", IntCell.TYPE).createSpec(),
+			new DataColumnSpecCreator("string", StringCell.TYPE).createSpec());
+
+	private static DLRowIterator createIterator(final DataRow... rows) {
+		final Map<DLTensorId, int[]> columns = new HashMap<>();
+		columns.put(NUMERIC, new int[] { 1, 0 });
+		columns.put(MIXED, new int[] { 0, 2 });
+		final Iterator<DataRow> iterator = Arrays.asList(rows).iterator();
+		return new DLRowInputRowIterator(new RowInput() {
+
+			@Override
+			public DataTableSpec getDataTableSpec() {
+				return SPEC;
+			}
+
+			@Override
+			public DataRow poll() {
+				return iterator.hasNext() ? iterator.next() : null;
+			}
+
+			@Override
+			public void close() {
+				// no op
+			}
+		}, columns);
+	}
+
+	private static DataRow createRow(final String key, final DataCell... cells) {
+		return new DefaultRow(key, cells);
+	}
+
+	@Test
+	public void testIsNumeric() {
+		final DLRowIterator iterator = createIterator();
+		assertTrue(iterator.isNumeric(NUMERIC));
+		assertFalse(iterator.isNumeric(MIXED));
+	}
+
+	@Test
+	public void testCopyNumericValuesToFloatBuffer() {
+		final DataRow row1 = createRow("1", new DoubleCell(0.5), new IntCell(3), new StringCell("a"));
+		final DataRow row2 = createRow("2", new DoubleCell(-1.25), new IntCell(7), new StringCell("b"));
+		final DLRowIterator iterator = createIterator(row1, row2);
+		final DLDefaultFloatBuffer buffer = new DLDefaultFloatBuffer(4);
+		iterator.copyNumericValues(iterator.next(), NUMERIC, buffer);
+		iterator.copyNumericValues(iterator.next(), NUMERIC, buffer);
+		assertEquals(4, buffer.size());
+		assertEquals(3f, buffer.readNextFloat(), 0f);
+		assertEquals(0.5f, buffer.readNextFloat(), 0f);
+		assertEquals(7f, buffer.readNextFloat(), 0f);
+		assertEquals(-1.25f, buffer.readNextFloat(), 0f);
+	}
+
+	@Test
+	public void testCopyNumericValuesToDoubleBuffer() {
+		final DataRow row = createRow("1", new DoubleCell(0.1), new IntCell(Integer.MAX_VALUE), new StringCell("a"));
+		final DLRowIterator iterator = createIterator(row);
+		final DLDefaultDoubleBuffer buffer = new DLDefaultDoubleBuffer(2);
+		iterator.copyNumericValues(iterator.next(), NUMERIC, buffer);
+		assertEquals(Integer.MAX_VALUE, buffer.readNextDouble(), 0d);
+		assertEquals(0.1, buffer.readNextDouble(), 0d);
+	}
+
+	@Test(expected = DLInvalidNetworkInputException.class)
+	public void testCopyNumericValuesFailsOnMissingCell() {
+		final DataRow row = createRow("1", DataType.getMissingCell(), new IntCell(3), new StringCell("a"));
+		final DLRowIterator iterator = createIterator(row);
+		iterator.copyNumericValues(iterator.next(), NUMERIC, new DLDefaultFloatBuffer(2));
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testCopyNumericValuesFailsOnOverflow() {
+		final DataRow row = createRow("1", new DoubleCell(0.5), new IntCell(3), new StringCell("a"));
+		final DLRowIterator iterator = createIterator(row);
+		iterator.copyNumericValues(iterator.next(), NUMERIC, new DLDefaultFloatBuffer(1));
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLWindowedShuffleDataTableRowIteratorTest {
+
+	private static final DLTensorId INPUT = new DLDefaultTensorId("input");
+
+	private static final DataTableSpec SPEC = new DataTableSpec(
+			new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+	private static final int TABLE_SIZE = 100;
+
+	private static final int NUM_EPOCHS = 3;
+
+	private static BufferedDataTable table;
+
+	@BeforeClass
+	@SuppressWarnings({ "rawtypes", "unchecked", "deprecation" })
+	public static void setUpBeforeClass() {
+		final ExecutionContext exec = new ExecutionContext(new DefaultNodeProgressMonitor(),
+				new Node((NodeFactory) new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0])),
+				SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+		final BufferedDataContainer container = exec.createDataContainer(SPEC);
+		for (int i = 0; i < TABLE_SIZE; i++) {
+			container.addRowToTable(new DefaultRow(RowKey.createRowKey((long) i), new IntCell(i)));
+		}
+		container.close();
+		table = container.getTable();
+	}
+
+	private static DLRowIterator createIterator(final long seed, final int windowSize) {
+		final Map<DLTensorId, int[]> columns = Collections.singletonMap(INPUT, new int[] { 0 });
+		return new DLWindowedShuffleDataTableRowIterator(table, columns, seed, windowSize);
+	}
+
+	/**
+	 * Reads the remaining rows of the current epoch and resets the iterator to the next one.
+	 */
+	private static List<Integer> readEpoch(final DLRowIterator iterator) {
+		final List<Integer> values = new ArrayList<>(TABLE_SIZE);
+		while (iterator.hasNext()) {
+			values.add(((IntCell) iterator.next().getCell(0)).getIntValue());
+		}
+		iterator.reset();
+		return values;
+	}
+
+	private static void assertEveryRowOncePerEpoch(final int windowSize) {
+		try (final DLRowIterator iterator = createIterator(42, windowSize)) {
+			assertEquals(TABLE_SIZE, iterator.size());
+			for (int e = 0; e < NUM_EPOCHS; e++) {
+				final List<Integer> values = readEpoch(iterator);
+				assertEquals(TABLE_SIZE, values.size());
+				Collections.sort(values);
+				for (int i = 0; i < TABLE_SIZE; i++) {
+					assertEquals(i, (int) values.get(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEveryRowOncePerEpochWindowSmallerThanTable() {
+		assertEveryRowOncePerEpoch(10);
+		assertEveryRowOncePerEpoch(1);
+	}
+
+	@Test
+	public void testEveryRowOncePerEpochWindowAtLeastTableSize() {
+		assertEveryRowOncePerEpoch(TABLE_SIZE);
+		assertEveryRowOncePerEpoch(10 * TABLE_SIZE);
+	}
+
+	@Test
+	public void testRowsMoveAtMostWindowSizeTowardsFront() {
+		final int windowSize = 10;
+		try (final DLRowIterator iterator = createIterator(42, windowSize)) {
+			for (int e = 0; e < NUM_EPOCHS; e++) {
+				final List<Integer> values = readEpoch(iterator);
+				for (int position = 0; position < values.size(); position++) {
+					// row i only enters the window after i - windowSize + 1 rows have been emitted
+					assertTrue(position >= values.get(position) - windowSize + 1);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOrderDiffersBetweenEpochs() {
+		for (final int windowSize : new int[] { 10, TABLE_SIZE }) {
+			try (final DLRowIterator iterator = createIterator(42, windowSize)) {
+				final List<Integer> first = readEpoch(iterator);
+				final List<Integer> second = readEpoch(iterator);
+				assertFalse(first.equals(second));
+			}
+		}
+	}
+
+	@Test
+	public void testFixedSeedIsDeterministic() {
+		for (final int windowSize : new int[] { 10, TABLE_SIZE }) {
+			try (final DLRowIterator iterator1 = createIterator(1234, windowSize);
+					final DLRowIterator iterator2 = createIterator(1234, windowSize);
+					final DLRowIterator iterator3 = createIterator(4321, windowSize)) {
+				for (int e = 0; e < NUM_EPOCHS; e++) {
+					final List<Integer> values1 = readEpoch(iterator1);
+					assertEquals(values1, readEpoch(iterator2));
+					assertFalse(values1.equals(readEpoch(iterator3)));
+				}
+			}
+		}
+	}
+}
@@ -105,4 +105,31 @@ public void testGetStorageForWritingOverflow() throws Exception {
 			final double[] storage = buffer.getStorageForWriting(1, 10);
 		}
 	}
+
+	@Test
+	public void testWriteWindows() throws Exception {
+		try (DLDefaultDoubleBuffer buffer = new DLDefaultDoubleBuffer(10)) {
+			final DLDefaultDoubleBuffer second = buffer.createWriteWindow(5, 5);
+			final DLDefaultDoubleBuffer first = buffer.createWriteWindow(0, 5);
+			second.putAll(new double[] { 5, 6, 7, 8, 9 });
+			first.putAll(new double[] { 0, 1, 2, 3, 4 });
+			assertEquals(10, second.size());
+			assertEquals(5, first.size());
+			// windows do not touch the size of the windowed buffer
+			assertEquals(0, buffer.size());
+			buffer.getStorageForWriting(0, 10);
+			assertEquals(10, buffer.size());
+			for (int i = 0; i < 10; i++) {
+				assertEquals(i, buffer.readNextDouble(), 0.0);
+			}
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testWriteWindowOverflow() throws Exception {
+		try (DLDefaultDoubleBuffer buffer = new DLDefaultDoubleBuffer(10)) {
+			final DLDefaultDoubleBuffer window = buffer.createWriteWindow(8, 2);
+			window.putAll(new double[3]);
+		}
+	}
 }
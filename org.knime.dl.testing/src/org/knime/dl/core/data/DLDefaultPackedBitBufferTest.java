@@ -0,0 +1,193 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.alternatingBooleanArray;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+@SuppressWarnings("javadoc")
+public class DLDefaultPackedBitBufferTest {
+
+    @Test
+    public void testStorageSize() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(130)) {
+            assertEquals(3, buffer.m_storage.length);
+            assertEquals(130, buffer.getCapacity());
+        }
+    }
+
+    @Test
+    public void testPutBoolean() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(10)) {
+            buffer.put(true);
+            buffer.put(false);
+            buffer.put(true);
+            assertEquals(3, buffer.size());
+            assertEquals(0b101L, buffer.m_storage[0]);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutBooleanOverflow() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(1)) {
+            buffer.put(true);
+            buffer.put(false);
+        }
+    }
+
+    @Test
+    public void testPutAllBoolean() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(100)) {
+            final boolean[] expected = alternatingBooleanArray(100);
+            buffer.putAll(expected);
+            assertArrayEquals(expected, buffer.toBitArray());
+        }
+    }
+
+    @Test
+    public void testPutOverwritesBitsAfterReset() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(70)) {
+            buffer.putAllWords(new long[]{-1L, -1L}, 70);
+            buffer.resetWrite();
+            buffer.put(false);
+            buffer.zeroPad(69);
+            assertArrayEquals(new boolean[70], buffer.toBitArray());
+        }
+    }
+
+    @Test
+    public void testPutAllWordsAligned() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(128)) {
+            buffer.putAllWords(new long[]{0x0123456789abcdefL, 0xfedcba9876543210L}, 128);
+            assertEquals(128, buffer.size());
+            assertArrayEquals(new long[]{0x0123456789abcdefL, 0xfedcba9876543210L}, buffer.m_storage);
+        }
+    }
+
+    @Test
+    public void testPutAllWordsUnaligned() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(200)) {
+            final boolean[] expected = new boolean[200];
+            for (int i = 0; i < 3; i++) {
+                buffer.put(true);
+                expected[i] = true;
+            }
+            final long[] words = new long[]{0x8000000000000001L, 0x5L};
+            buffer.putAllWords(words, 67);
+            expected[3] = true;
+            expected[3 + 63] = true;
+            expected[3 + 64] = true;
+            expected[3 + 66] = true;
+            assertEquals(70, buffer.size());
+            final boolean[] actual = buffer.toBitArray();
+            for (int i = 0; i < 70; i++) {
+                assertEquals("Bit " + i, expected[i], actual[i]);
+            }
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutAllWordsOverflow() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(10)) {
+            buffer.putAllWords(new long[]{-1L}, 11);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutAllWordsExceedsWords() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(100)) {
+            buffer.putAllWords(new long[]{-1L}, 65);
+        }
+    }
+
+    @Test
+    public void testReadToWordArrayUnaligned() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(128)) {
+            buffer.putAllWords(new long[]{-1L, -1L}, 128);
+            buffer.readNextBit();
+            final long[] words = new long[2];
+            buffer.readToWordArray(words, 70);
+            assertArrayEquals(new long[]{-1L, 0x3fL}, words);
+            assertEquals(71, buffer.getNextReadPosition());
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadToWordArrayUnderflow() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(100)) {
+            buffer.zeroPad(10);
+            buffer.readToWordArray(new long[1], 11);
+        }
+    }
+
+    @Test
+    public void testReadNextFloat() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(2)) {
+            buffer.put(false);
+            buffer.put(true);
+            assertEquals(0f, buffer.readNextFloat(), 0f);
+            assertEquals(1f, buffer.readNextFloat(), 0f);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCreateWriteWindowUnsupported() throws Exception {
+        try (DLDefaultPackedBitBuffer buffer = new DLDefaultPackedBitBuffer(128)) {
+            buffer.createWriteWindow(0, 64);
+        }
+    }
+}
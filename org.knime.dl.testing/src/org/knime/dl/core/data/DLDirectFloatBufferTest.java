@@ -0,0 +1,215 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.FLOAT_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.alternatingBooleanArray;
+import static org.knime.dl.testing.DLTestUtil.byteRange;
+import static org.knime.dl.testing.DLTestUtil.floatRange;
+import static org.knime.dl.testing.DLTestUtil.toDouble;
+import static org.knime.dl.testing.DLTestUtil.toFloat;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDirectFloatBufferTest {
+
+	@Test
+	public void testPutAllBoolean() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			final boolean[] expected = alternatingBooleanArray(10);
+			buffer.putAll(expected);
+			assertEquals(10, buffer.size());
+			assertArrayEquals(toFloat(expected), buffer.toFloatArray(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test
+	public void testPutAllByte() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			final byte[] expected = byteRange(10);
+			buffer.putAll(expected);
+			assertArrayEquals(toFloat(expected), buffer.toFloatArray(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test
+	public void testPutFloat() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			buffer.put(1.0f);
+			buffer.put(-5.0f);
+			assertEquals(2, buffer.size());
+			assertEquals(1.0f, buffer.readNextFloat(), FLOAT_EPSILON);
+			assertEquals(-5.0f, buffer.readNextFloat(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testPutFloatOverflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(1)) {
+			buffer.put(1.0f);
+			buffer.put(2.0f);
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testPutAllFloatOverflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(1)) {
+			buffer.putAll(floatRange(10));
+		}
+	}
+
+	@Test
+	public void testToDoubleArray() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			final float[] expected = floatRange(10);
+			buffer.putAll(expected);
+			assertArrayEquals(toDouble(expected), buffer.toDoubleArray(), DOUBLE_EPSILON);
+		}
+	}
+
+	@Test
+	public void testReadToFloatArray() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			final float[] expected = floatRange(10);
+			buffer.putAll(expected);
+			final float[] actual = new float[12];
+			buffer.readToFloatArray(actual, 2, 4);
+			buffer.readToFloatArray(actual, 6, 6);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], actual[i + 2], FLOAT_EPSILON);
+			}
+		}
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testReadToFloatArrayUnderflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			buffer.putAll(floatRange(5));
+			buffer.readToFloatArray(new float[10], 0, 10);
+		}
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testReadNextDoubleUnderflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			final float[] expected = floatRange(10);
+			buffer.putAll(expected);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], buffer.readNextDouble(), DOUBLE_EPSILON);
+			}
+			buffer.readNextDouble();
+		}
+	}
+
+	@Test
+	public void testZeroPad() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			buffer.putAll(floatRange(10));
+			buffer.reset();
+			buffer.zeroPad(10);
+			assertArrayEquals(new float[10], buffer.toFloatArray(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testZeroPadOverflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			buffer.put(1.0f);
+			buffer.zeroPad(10);
+		}
+	}
+
+	@Test
+	public void testGetAndPutBytes() throws Exception {
+		try (DLDirectFloatBuffer source = new DLDirectFloatBuffer(10);
+				DLDirectFloatBuffer target = new DLDirectFloatBuffer(10)) {
+			final float[] expected = floatRange(10);
+			source.putAll(expected);
+			final ByteBuffer bytes = ByteBuffer.allocate(6 * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			source.getBytes(4, bytes);
+			assertEquals(0, source.getNextReadPosition());
+			bytes.flip();
+			assertEquals(expected[4], bytes.getFloat(0), FLOAT_EPSILON);
+			target.putAll(new float[] { -1.0f, -2.0f });
+			target.putBytes(bytes);
+			assertEquals(8, target.size());
+			final float[] actual = new float[8];
+			target.readToFloatArray(actual, 0, 8);
+			assertEquals(-2.0f, actual[1], FLOAT_EPSILON);
+			for (int i = 0; i < 6; i++) {
+				assertEquals(expected[i + 4], actual[i + 2], FLOAT_EPSILON);
+			}
+		}
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testGetBytesUnderflow() throws Exception {
+		try (DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10)) {
+			buffer.putAll(floatRange(5));
+			buffer.getBytes(0, ByteBuffer.allocate(10 * Float.BYTES));
+		}
+	}
+
+	@Test
+	public void testCloseTwice() throws Exception {
+		final DLDirectFloatBuffer buffer = new DLDirectFloatBuffer(10);
+		buffer.putAll(floatRange(10));
+		buffer.close();
+		buffer.close();
+	}
+}
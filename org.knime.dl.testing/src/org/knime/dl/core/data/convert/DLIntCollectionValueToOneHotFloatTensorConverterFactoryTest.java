@@ -71,7 +71,9 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLDefaultFloatBuffer;
+import org.knime.dl.core.data.DLDefaultOneHotIndexBuffer;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableOneHotIndexBuffer;
 
 /**
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
@@ -197,4 +199,27 @@ public void testCreateConverter() throws Exception {
 			assertEquals(0, buffer.readNextFloat(), EPSILON);
 		}
 	}
+	
+	@Test
+	public void testGetPreferredBufferType() throws Exception {
+		DLIntCollectionValueToOneHotFloatTensorConverterFactory factory =
+				new DLIntCollectionValueToOneHotFloatTensorConverterFactory();
+		assertEquals(DLWritableOneHotIndexBuffer.class, factory.getPreferredBufferType());
+	}
+	
+	@Test
+	public void testCreateConverterWritesIndicesToIndexBuffer() throws Exception {
+		DLIntCollectionValueToOneHotFloatTensorConverterFactory factory =
+				new DLIntCollectionValueToOneHotFloatTensorConverterFactory();
+		List<CollectionDataValue> value = Arrays.asList(createCollectionValue("0,1,2", "i,i,i"));
+		DLTensorSpec spec = createTensorSpec("?,5");
+		int exampleSize = 15;
+		DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> converter = factory.createConverter();
+		try (DLDefaultOneHotIndexBuffer buffer = new DLDefaultOneHotIndexBuffer(3, 5);
+				DLTensor<DLWritableFloatBuffer> tensor = new DLDefaultTensor<>(spec, buffer, exampleSize)) {
+			converter.convert(value, tensor);
+			assertEquals(exampleSize, buffer.size());
+			assertArrayEquals(new int[] {0, 1, 2}, buffer.getStorageForReading(0, 3));
+		}
+	}
 }
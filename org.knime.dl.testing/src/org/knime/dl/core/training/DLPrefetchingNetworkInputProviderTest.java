@@ -0,0 +1,209 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkInputPreparer;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLPrefetchingNetworkInputProviderTest {
+
+	private static final DLTensorId ID = new DLDefaultTensorId("input");
+
+	private static final int BATCH_SIZE = 4;
+
+	@Test
+	public void testBatchesAreProvidedInOrder() throws Exception {
+		final CountingPreparer preparer = new CountingPreparer(3, -1);
+		try (final DLPrefetchingNetworkInputProvider provider =
+				new DLPrefetchingNetworkInputProvider(preparer, 2, 4, true,
+						DLPrefetchingNetworkInputProviderTest::createInput)) {
+			assertEquals(3, provider.getNumBatches());
+			DLTensor<? extends DLWritableBuffer> previous = null;
+			for (int i = 0; i < 10; i++) {
+				final DLTensor<? extends DLWritableBuffer> tensor = provider.get(i % 3).get(ID);
+				assertEquals(BATCH_SIZE, tensor.getBuffer().size());
+				final DLReadableDoubleBuffer buffer = (DLReadableDoubleBuffer) tensor.getBuffer();
+				for (int j = 0; j < BATCH_SIZE; j++) {
+					// the preparer writes the running number of the prepared batch
+					assertEquals(i, buffer.readNextDouble(), DOUBLE_EPSILON);
+				}
+				// the previous tensor set is recycled and must not be handed out twice in a row
+				assertNotSame(previous, tensor);
+				previous = tensor;
+				// consumers reset the buffers once done
+				tensor.getBuffer().reset();
+			}
+		}
+	}
+
+	@Test
+	public void testPreparerFailureIsPropagated() throws Exception {
+		final CountingPreparer preparer = new CountingPreparer(3, 2);
+		try (final DLPrefetchingNetworkInputProvider provider =
+				new DLPrefetchingNetworkInputProvider(preparer, 2, 1, true,
+						DLPrefetchingNetworkInputProviderTest::createInput)) {
+			provider.get(0);
+			provider.get(1);
+			try {
+				provider.get(2);
+			} catch (final DLInvalidNetworkInputException e) {
+				assertTrue(e.getMessage().contains("batch 2"));
+				return;
+			}
+			throw new AssertionError("Expected exception was not thrown.");
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrefetchSizeMustBePositive() {
+		new DLPrefetchingNetworkInputProvider(new CountingPreparer(1, -1), 0, 1, true,
+				DLPrefetchingNetworkInputProviderTest::createInput);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testOutOfOrderRequestFails() throws Exception {
+		try (final DLPrefetchingNetworkInputProvider provider = new DLPrefetchingNetworkInputProvider(
+				new CountingPreparer(3, -1), 2, 1, true, DLPrefetchingNetworkInputProviderTest::createInput)) {
+			provider.get(0);
+			provider.get(2);
+		}
+	}
+
+	@Test
+	public void testNoBatchesArePreparedAfterLastEpoch() throws Exception {
+		final CountingPreparer preparer = new CountingPreparer(3, -1);
+		try (final DLPrefetchingNetworkInputProvider provider = new DLPrefetchingNetworkInputProvider(preparer, 2, 2,
+				true, DLPrefetchingNetworkInputProviderTest::createInput)) {
+			for (int i = 0; i < 6; i++) {
+				provider.get(i % 3).get(ID).getBuffer().reset();
+			}
+			Thread.sleep(200);
+			assertEquals(6, preparer.m_count);
+			// batches beyond the last epoch are still provided on demand
+			provider.get(0);
+			assertEquals(7, preparer.m_count);
+		}
+	}
+
+	@Test
+	public void testNextPassIsOnlyPreparedOnRequestIfNotPrefetchingAcrossEpochs() throws Exception {
+		final CountingPreparer preparer = new CountingPreparer(3, -1);
+		try (final DLPrefetchingNetworkInputProvider provider = new DLPrefetchingNetworkInputProvider(preparer, 2, 3,
+				false, DLPrefetchingNetworkInputProviderTest::createInput)) {
+			for (int i = 0; i < 3; i++) {
+				provider.get(i).get(ID).getBuffer().reset();
+			}
+			Thread.sleep(200);
+			assertEquals(3, preparer.m_count);
+			provider.get(0);
+			assertTrue(preparer.m_count >= 4);
+		}
+	}
+
+	private static Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createInput() {
+		@SuppressWarnings("unchecked")
+		final DLTensor<? extends DLWritableBuffer> tensor =
+				(DLTensor<? extends DLWritableBuffer>) createTensor(Double.class, BATCH_SIZE, 1);
+		return Collections.singletonMap(ID, tensor);
+	}
+
+	private static final class CountingPreparer implements DLNetworkInputPreparer {
+
+		private final long m_numBatches;
+
+		private final long m_failAt;
+
+		private volatile long m_count;
+
+		private CountingPreparer(final long numBatches, final long failAt) {
+			m_numBatches = numBatches;
+			m_failAt = failAt;
+		}
+
+		@Override
+		public long getNumBatches() {
+			return m_numBatches;
+		}
+
+		@Override
+		public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
+				throws DLInvalidNetworkInputException {
+			if (m_count == m_failAt) {
+				throw new DLInvalidNetworkInputException("Cannot prepare batch " + m_count + ".");
+			}
+			final DLWritableDoubleBuffer buffer = (DLWritableDoubleBuffer) input.get(ID).getBuffer();
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				buffer.put((double) m_count);
+			}
+			m_count++;
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.nodes.executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Determines the batch size of the executor node by probing increasing batch sizes. Each probe processes
+ * {@link #PROBE_BATCHES} batches of the {@link #getCurrentBatchSize() current batch size} and {@link #report(double,
+ * long) reports} the measured throughput and memory usage. The batch size is doubled after each probe until the
+ * throughput stops improving notably, the memory usage exceeds the budget or the maximum batch size was probed.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+final class DLExecutorBatchSizeTuner {
+
+	/**
+	 * The number of batches processed per probe. The first batch of each probe is considered warm-up and not measured.
+	 */
+	static final int PROBE_BATCHES = 11;
+
+	static final int START_BATCH_SIZE = 8;
+
+	/**
+	 * The relative throughput gain a doubled batch size must achieve in order to be preferred over the smaller one.
+	 */
+	private static final double MIN_IMPROVEMENT = 0.05;
+
+	private final int m_maxBatchSize;
+
+	private final long m_memoryBudget;
+
+	private final List<String> m_probes;
+
+	private int m_currentBatchSize;
+
+	private boolean m_done;
+
+	private int m_bestBatchSize;
+
+	private double m_bestThroughput;
+
+	private long m_baselineMemory;
+
+	/**
+	 * @param maxBatchSize the largest batch size that is probed, must be positive
+	 * @param memoryBudget the memory in bytes a batch size may use in addition to the first probed batch size
+	 */
+	DLExecutorBatchSizeTuner(final int maxBatchSize, final long memoryBudget) {
+		checkArgument(maxBatchSize > 0, "Maximum batch size must be positive.");
+		checkArgument(memoryBudget >= 0, "Memory budget must be non-negative.");
+		m_maxBatchSize = maxBatchSize;
+		m_memoryBudget = memoryBudget;
+		m_probes = new ArrayList<>();
+		m_currentBatchSize = Math.min(START_BATCH_SIZE, maxBatchSize);
+		m_done = false;
+		m_bestBatchSize = -1;
+		m_bestThroughput = 0;
+		m_baselineMemory = -1;
+	}
+
+	/**
+	 * @return the batch size of the next probe, only meaningful if not {@link #isDone() done}
+	 */
+	int getCurrentBatchSize() {
+		return m_currentBatchSize;
+	}
+
+	/**
+	 * @return the number of rows of the next probe
+	 */
+	long getCurrentProbeSize() {
+		return (long) m_currentBatchSize * PROBE_BATCHES;
+	}
+
+	boolean isDone() {
+		return m_done;
+	}
+
+	/**
+	 * Records the measurements of the probe of the {@link #getCurrentBatchSize() current batch size} and advances to
+	 * the next batch size, if any.
+	 *
+	 * @param rowsPerSecond the measured throughput
+	 * @param memory the measured memory usage in bytes, <code>-1</code> if unknown. The memory budget applies to the
+	 *            difference to the memory usage reported for the first probe.
+	 */
+	void report(final double rowsPerSecond, final long memory) {
+		if (m_done) {
+			throw new IllegalStateException("Batch size tuning is already done.");
+		}
+		m_probes.add(m_currentBatchSize + ": " + Math.round(rowsPerSecond) + " rows/s"
+				+ (memory != -1 ? ", " + (memory >> 20) + " MB" : ""));
+		if (m_baselineMemory == -1) {
+			m_baselineMemory = memory;
+		}
+		if (memory != -1 && m_baselineMemory != -1 && memory - m_baselineMemory > m_memoryBudget
+				&& m_bestBatchSize != -1) {
+			// exceeds the budget, keep the previous batch size
+			m_done = true;
+			return;
+		}
+		if (m_bestBatchSize != -1 && rowsPerSecond < m_bestThroughput * (1 + MIN_IMPROVEMENT)) {
+			// throughput reached a plateau, prefer the smaller batch size
+			m_done = true;
+			return;
+		}
+		m_bestBatchSize = m_currentBatchSize;
+		m_bestThroughput = rowsPerSecond;
+		if (m_currentBatchSize >= m_maxBatchSize) {
+			m_done = true;
+		} else {
+			m_currentBatchSize = (int) Math.min(2L * m_currentBatchSize, m_maxBatchSize);
+		}
+	}
+
+	/**
+	 * Ends tuning before the next probe, e.g. because the remaining input is too small for it.
+	 */
+	void stop() {
+		m_done = true;
+	}
+
+	/**
+	 * @return the best batch size probed so far or <code>-1</code> if nothing was reported yet
+	 */
+	int getBestBatchSize() {
+		return m_bestBatchSize;
+	}
+
+	/**
+	 * @return the throughput of the {@link #getBestBatchSize() best batch size} in rows per second
+	 */
+	double getBestThroughput() {
+		return m_bestThroughput;
+	}
+
+	/**
+	 * @return a human readable summary of all probes
+	 */
+	String getSummary() {
+		return String.join("; ", m_probes);
+	}
+}
@@ -57,6 +57,7 @@
 import org.knime.dl.base.settings.AbstractConfig;
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
+import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.execution.DLExecutionContext;
@@ -81,6 +82,24 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
 	private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+	private static final String CFG_KEY_PREPARE_EXECUTION = "prepare_execution";
+
+	private static final String CFG_KEY_PIPELINED_EXECUTION = "pipelined_execution";
+
+	private static final String CFG_KEY_NUM_PARALLEL_PROCESSES = "num_parallel_processes";
+
+	private static final String CFG_KEY_NUM_THREADS_PER_PROCESS = "num_threads_per_process";
+
+	private static final String CFG_KEY_AUTO_BATCH_SIZE = "auto_batch_size";
+
+	private static final String CFG_KEY_AUTO_BATCH_SIZE_MAX = "auto_batch_size_max";
+
+	private static final String CFG_KEY_AUTO_BATCH_SIZE_MEMORY_BUDGET = "auto_batch_size_memory_budget";
+
+	private static final String CFG_KEY_OFF_HEAP_TENSORS = "off_heap_tensors";
+
+	private static final String CFG_KEY_CONVERSION_THREADS = "conversion_threads";
+
 
 	@SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
@@ -118,6 +137,88 @@ public void loadSettingsFrom(NodeSettingsRO settings) throws InvalidSettingsExce
 		put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize,
 		    1, Integer.MAX_VALUE));
 		put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_PREPARE_EXECUTION, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): networks were previously prepared lazily on the first batch
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_PIPELINED_EXECUTION, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): batches were previously processed strictly one after another
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_PARALLEL_PROCESSES, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): networks were previously executed in a single process
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_THREADS_PER_PROCESS, Integer.class, 0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): the back end's thread settings were previously left untouched
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_AUTO_BATCH_SIZE, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): the batch size was previously always set by the user
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_AUTO_BATCH_SIZE_MAX, Integer.class, 4096) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = 4096;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_AUTO_BATCH_SIZE_MEMORY_BUDGET, Integer.class, 1024) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7)
+				m_value = 1024;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_OFF_HEAP_TENSORS, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): tensors were previously always allocated on the Java heap
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_CONVERSION_THREADS, Integer.class,
+				Runtime.getRuntime().availableProcessors()) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.7): input rows were previously converted on a single thread
+				m_value = 1;
+				return true;
+			}
+		});
 	}
 
 	ConfigEntry<Integer> getBatchSizeEntry() {
@@ -134,6 +235,45 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    ConfigEntry<Boolean> getPrepareExecutionEntry() {
+        return get(CFG_KEY_PREPARE_EXECUTION, Boolean.class);
+    }
+
+    ConfigEntry<Boolean> getPipelinedExecutionEntry() {
+        return get(CFG_KEY_PIPELINED_EXECUTION, Boolean.class);
+    }
+
+    ConfigEntry<Integer> getNumParallelProcessesEntry() {
+        return get(CFG_KEY_NUM_PARALLEL_PROCESSES, Integer.class);
+    }
+
+    ConfigEntry<Integer> getNumThreadsPerProcessEntry() {
+        return get(CFG_KEY_NUM_THREADS_PER_PROCESS, Integer.class);
+    }
+
+    ConfigEntry<Boolean> getAutoBatchSizeEntry() {
+        return get(CFG_KEY_AUTO_BATCH_SIZE, Boolean.class);
+    }
+
+    ConfigEntry<Integer> getAutoBatchSizeMaxEntry() {
+        return get(CFG_KEY_AUTO_BATCH_SIZE_MAX, Integer.class);
+    }
+
+    /**
+     * @return the entry holding the memory budget of automatic batch size tuning in megabytes
+     */
+    ConfigEntry<Integer> getAutoBatchSizeMemoryBudgetEntry() {
+        return get(CFG_KEY_AUTO_BATCH_SIZE_MEMORY_BUDGET, Integer.class);
+    }
+
+    ConfigEntry<Boolean> getOffHeapTensorsEntry() {
+        return get(CFG_KEY_OFF_HEAP_TENSORS, Boolean.class);
+    }
+
+    ConfigEntry<Integer> getConversionThreadsEntry() {
+        return get(CFG_KEY_CONVERSION_THREADS, Integer.class);
+    }
+
 
     static Collection<DLExecutionContext<?>> getAvailableExecutionContexts(Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
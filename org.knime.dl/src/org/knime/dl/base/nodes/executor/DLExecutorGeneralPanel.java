@@ -59,6 +59,7 @@
 import org.knime.dl.base.nodes.AbstractGridBagDialogComponentGroup;
 import org.knime.dl.base.nodes.DialogComponentObjectSelection;
 import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
+import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.ConfigUtil;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkSpec;
@@ -92,8 +93,41 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		    
 		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
 		    m_cfg.getBatchSizeEntry(), 1, Integer.MAX_VALUE), "Input batch size", 100);
+		final ConfigEntry<Boolean> autoBatchSizeEntry = m_cfg.getAutoBatchSizeEntry();
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(autoBatchSizeEntry),
+		    "Tune batch size automatically", true);
+		final ConfigEntry<Integer> autoBatchSizeMaxEntry = m_cfg.getAutoBatchSizeMaxEntry();
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    autoBatchSizeMaxEntry, 1, Integer.MAX_VALUE), "Maximum tuned batch size", 100);
+		final ConfigEntry<Integer> autoBatchSizeMemoryBudgetEntry = m_cfg.getAutoBatchSizeMemoryBudgetEntry();
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    autoBatchSizeMemoryBudgetEntry, 1, Integer.MAX_VALUE), "Tuning memory budget (MB)", 256);
+		final Runnable updateAutoBatchSizeOptions = () -> {
+		    final boolean enabled = autoBatchSizeEntry.getEnabled() && autoBatchSizeEntry.getValue();
+		    autoBatchSizeMaxEntry.setEnabled(enabled);
+		    autoBatchSizeMemoryBudgetEntry.setEnabled(enabled);
+		};
+		updateAutoBatchSizeOptions.run();
+		autoBatchSizeEntry.addValueChangeListener((e, v) -> updateAutoBatchSizeOptions.run());
+		autoBatchSizeEntry.addEnableChangeListener(e -> updateAutoBatchSizeOptions.run());
+		autoBatchSizeEntry.addLoadListener(e -> updateAutoBatchSizeOptions.run());
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
 		    "Keep input columns in output table", true);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getPrepareExecutionEntry()),
+		    "Prepare network before first batch", true);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getPipelinedExecutionEntry()),
+		    "Overlap data conversion and network execution", true);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getOffHeapTensorsEntry()),
+		    "Allocate tensors outside of the Java heap", true);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getNumParallelProcessesEntry(), 1, Integer.MAX_VALUE),
+		    "Number of parallel back end processes", 1);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getNumThreadsPerProcessEntry(), 0, Integer.MAX_VALUE),
+		    "Threads per process (0 = back end default)", 1);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getConversionThreadsEntry(), 1, Integer.MAX_VALUE),
+		    "Input conversion threads", 1);
 	}
 	
 
@@ -125,8 +159,10 @@ public void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectSpec
 		if (batchSize != -1) {
 			m_cfg.getBatchSizeEntry().setValue((int) batchSize);
 			m_cfg.getBatchSizeEntry().setEnabled(false);
+			m_cfg.getAutoBatchSizeEntry().setEnabled(false);
 		} else {
 			m_cfg.getBatchSizeEntry().setEnabled(true);
+			m_cfg.getAutoBatchSizeEntry().setEnabled(true);
 		}
 	}
 
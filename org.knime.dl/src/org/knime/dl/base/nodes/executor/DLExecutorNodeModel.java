@@ -52,6 +52,7 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -102,16 +103,20 @@
 import org.knime.dl.core.DLExecutionSpecCreator;
 import org.knime.dl.core.DLInstallationTestTimeout;
 import org.knime.dl.core.DLInstallationTestTimeoutException;
+import org.knime.dl.core.DLLimitedRowIterator;
 import org.knime.dl.core.DLMissingDependencyException;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLRowInputRowIterator;
+import org.knime.dl.core.DLRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.execution.DLDefaultExecutionConfig;
 import org.knime.dl.core.execution.DLDefaultExecutionStatus;
+import org.knime.dl.core.execution.DLExecutionConfig;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLExecutionStatus;
 import org.knime.dl.core.execution.DLKnimeExecutionMonitor;
@@ -564,6 +569,12 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 
 		final boolean keepInputColumns = m_generalCfg.getKeepInputColumnsEntry().getValue();
 
+		final DLExecutionConfig executionConfig = new DLDefaultExecutionConfig(
+				m_generalCfg.getPrepareExecutionEntry().getValue(), m_generalCfg.getPipelinedExecutionEntry().getValue(),
+				m_generalCfg.getNumParallelProcessesEntry().getValue(),
+				m_generalCfg.getNumThreadsPerProcessEntry().getValue(),
+				m_generalCfg.getOffHeapTensorsEntry().getValue());
+
 		// assign input column indices to network inputs
 		final LinkedHashMap<DLTensorId, int[]> columnsForTensorId = new LinkedHashMap<>(m_inputConverters.size());
 		final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId = new LinkedHashMap<>(
@@ -574,17 +585,25 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 		final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId =
             createOutputConverterMap();
 
-		try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
-				final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
-						rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
-				final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
-						inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
-				final DLNetworkExecutionSession session = ctx.createExecutionSession(network,
-						DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
-								batchSize, columnsForTensorId, m_inputConverters),
-						outputConverterForTensorId.keySet(), inputPreparer, outputConsumer)) {
-			final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer);
-			session.run(monitor);
+		boolean autoBatchSize = m_generalCfg.getAutoBatchSizeEntry().getValue();
+		if (autoBatchSize && isPredefinedBatchSize) {
+			autoBatchSize = false;
+			setWarningMessage("The network has a predefined batch size. Automatic batch size tuning was skipped.");
+		}
+
+		try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId)) {
+			try {
+				if (autoBatchSize) {
+					executeWithTunedBatchSize(ctx, network, executionConfig, rowIterator, columnsForTensorId,
+							inputConverterForTensorId, outputConverterForTensorId, keepInputColumns, rowOutput, exec);
+				} else {
+					executeSession(ctx, network, executionConfig, rowIterator, batchSize, isPredefinedBatchSize,
+							columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId,
+							keepInputColumns, rowOutput, exec, exec, null);
+				}
+			} finally {
+				rowOutput.close();
+			}
 		} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
 			throw e;
 		} catch (final Exception e) {
@@ -592,6 +611,183 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 		}
 	}
 
+	/**
+	 * Probes increasing batch sizes on the first rows of the input, see {@link DLExecutorBatchSizeTuner}, and
+	 * processes the remaining rows using the best one. The rows of the probes are part of the output.
+	 */
+	private <N extends DLNetwork> void executeWithTunedBatchSize(final DLExecutionContext<N> ctx, final N network,
+			final DLExecutionConfig executionConfig, final DLRowInputRowIterator rowIterator,
+			final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+			final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+			final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId,
+			final boolean keepInputColumns, final RowOutput rowOutput, final ExecutionContext exec)
+			throws Exception {
+		final long numRows;
+		try {
+			numRows = rowIterator.size();
+		} catch (final UnsupportedOperationException e) {
+			setWarningMessage("Automatic batch size tuning requires the number of input rows to be known, which "
+					+ "is not the case when streaming. The configured batch size was used instead.");
+			executeSession(ctx, network, executionConfig, rowIterator, m_generalCfg.getBatchSizeEntry().getValue(),
+					false, columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId,
+					keepInputColumns, rowOutput, exec, exec, null);
+			return;
+		}
+		final DLExecutorBatchSizeTuner tuner = new DLExecutorBatchSizeTuner(
+				m_generalCfg.getAutoBatchSizeMaxEntry().getValue(),
+				m_generalCfg.getAutoBatchSizeMemoryBudgetEntry().getValue() * (1L << 20));
+		long remainingRows = numRows;
+		// All probes and the final run share the back end (e.g. a started Python process that holds the loaded
+		// network). It is only set up once and the memory usage of all probes is measured in the same process.
+		DLExecutorSession session = null;
+		try {
+			while (!tuner.isDone()) {
+				final long probeSize = tuner.getCurrentProbeSize();
+				// leave enough rows to make use of the result of tuning
+				if (remainingRows < 2 * probeSize) {
+					tuner.stop();
+					break;
+				}
+				exec.setMessage("Probing batch size " + tuner.getCurrentBatchSize() + "...");
+				session = handOver(session, openSession(ctx, network, executionConfig,
+						new DLLimitedRowIterator(rowIterator, probeSize), tuner.getCurrentBatchSize(), false,
+						columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId, keepInputColumns,
+						rowOutput, exec));
+				runSession(session, tuner.getCurrentBatchSize(), exec.createSubProgress(probeSize / (double) numRows),
+						tuner);
+				remainingRows -= probeSize;
+			}
+			final int batchSize = tuner.getBestBatchSize() != -1 ? tuner.getBestBatchSize()
+					: m_generalCfg.getBatchSizeEntry().getValue();
+			LOGGER.debug(
+					"Automatic batch size tuning chose batch size " + batchSize + ". Probes: " + tuner.getSummary());
+			pushFlowVariableInt("auto_batch_size", batchSize);
+			pushFlowVariableDouble("auto_batch_size_rows_per_second", tuner.getBestThroughput());
+			pushFlowVariableString("auto_batch_size_probes", tuner.getSummary());
+			if (remainingRows > 0) {
+				session = handOver(session,
+						openSession(ctx, network, executionConfig,
+								new DLLimitedRowIterator(rowIterator, remainingRows), batchSize, false,
+								columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId,
+								keepInputColumns, rowOutput, exec));
+				runSession(session, batchSize, exec.createSubProgress(remainingRows / (double) numRows), null);
+			}
+		} finally {
+			if (session != null) {
+				session.close();
+			}
+		}
+	}
+
+	/**
+	 * Transfers the back end of the given predecessor (if any) to the given successor and closes the predecessor.
+	 *
+	 * @return the successor
+	 */
+	private static DLExecutorSession handOver(final DLExecutorSession predecessor,
+			final DLExecutorSession successor) throws Exception {
+		if (predecessor != null) {
+			try {
+				try {
+					predecessor.m_session.transferBackendTo(successor.m_session);
+				} finally {
+					predecessor.close();
+				}
+			} catch (final Exception e) {
+				successor.close();
+				throw e;
+			}
+		}
+		return successor;
+	}
+
+	/**
+	 * Executes the network on all rows of the given iterator. The caller is responsible for closing the row output.
+	 *
+	 * @param exec the execution context used to create the output cells
+	 * @param progress the monitor that receives the progress of this session
+	 * @param tuner if not null, the throughput and memory usage of the session are reported to this tuner
+	 */
+	private <N extends DLNetwork> void executeSession(final DLExecutionContext<N> ctx, final N network,
+			final DLExecutionConfig executionConfig, final DLRowIterator rowIterator, final int batchSize,
+			final boolean isPredefinedBatchSize, final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+			final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+			final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId,
+			final boolean keepInputColumns, final RowOutput rowOutput, final ExecutionContext exec,
+			final ExecutionMonitor progress, final DLExecutorBatchSizeTuner tuner) throws Exception {
+		try (final DLExecutorSession session = openSession(ctx, network, executionConfig, rowIterator, batchSize,
+				isPredefinedBatchSize, columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId,
+				keepInputColumns, rowOutput, exec)) {
+			runSession(session, batchSize, progress, tuner);
+		}
+	}
+
+	/**
+	 * Creates the input preparer and the execution session for the rows of the given iterator. The caller is
+	 * responsible for closing the returned session, which does not close the row output.
+	 *
+	 * @param exec the execution context used to create the output cells
+	 */
+	private <N extends DLNetwork> DLExecutorSession openSession(final DLExecutionContext<N> ctx, final N network,
+			final DLExecutionConfig executionConfig, final DLRowIterator rowIterator, final int batchSize,
+			final boolean isPredefinedBatchSize, final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+			final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+			final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId,
+			final boolean keepInputColumns, final RowOutput rowOutput, final ExecutionContext exec) throws Exception {
+		final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
+				rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId,
+				m_generalCfg.getConversionThreadsEntry().getValue());
+		try {
+			final DLNetworkExecutionSession session = ctx.createExecutionSession(network, executionConfig,
+					DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(), batchSize,
+							columnsForTensorId, m_inputConverters),
+					outputConverterForTensorId.keySet(), inputPreparer,
+					// not closed here as that would close the row output
+					new DLKnimeNetworkOutputConsumer(rowOutput, inputPreparer.getBaseRows()::remove,
+							keepInputColumns, outputConverterForTensorId, exec));
+			return new DLExecutorSession(inputPreparer, session);
+		} catch (final Exception e) {
+			inputPreparer.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param progress the monitor that receives the progress of the session
+	 * @param tuner if not null, the throughput and memory usage of the session are reported to this tuner
+	 */
+	private void runSession(final DLExecutorSession executorSession, final int batchSize,
+			final ExecutionMonitor progress, final DLExecutorBatchSizeTuner tuner) throws Exception {
+		final DLKnimeNetworkExecutionInputPreparer inputPreparer = executorSession.m_inputPreparer;
+		final DLNetworkExecutionSession session = executorSession.m_session;
+		final DLKnimeExecutionMonitor monitor = createExecutionMonitor(progress, inputPreparer);
+		final List<Long> batchEndTimes = Collections.synchronizedList(new ArrayList<>());
+		if (tuner != null) {
+			monitor.getExecutionStatus().batchEnded()
+					.addListener((src, v) -> batchEndTimes.add(System.nanoTime()));
+		}
+		session.run(monitor);
+		if (tuner != null) {
+			// the first batch is considered warm-up
+			final int numMeasuredBatches = batchEndTimes.size() - 1;
+			if (numMeasuredBatches < 1) {
+				tuner.stop();
+				return;
+			}
+			// the median batch duration is robust against single slow batches (e.g. due to garbage collection)
+			final long[] batchDurations = new long[numMeasuredBatches];
+			for (int i = 0; i < numMeasuredBatches; i++) {
+				batchDurations[i] = batchEndTimes.get(i + 1) - batchEndTimes.get(i);
+			}
+			Arrays.sort(batchDurations);
+			final double seconds = batchDurations[numMeasuredBatches / 2] / 1e9;
+			final double rowsPerSecond = batchSize / Math.max(seconds, 1e-9);
+			// the JVM's heap usage mostly reflects garbage that has not been collected yet, so only the back end's
+			// resident memory is considered
+			tuner.report(rowsPerSecond, session.getBackendMemoryUsage(monitor));
+		}
+	}
+
     private LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> createOutputConverterMap() {
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId = new LinkedHashMap<>(
 				m_outputConverters.size());
@@ -645,7 +841,7 @@ private static void handleGeneralException(final Exception e) throws CanceledExe
         throw new RuntimeException(message, e);
     }
 
-    private static DLKnimeExecutionMonitor createExecutionMonitor(final ExecutionContext exec,
+    private static DLKnimeExecutionMonitor createExecutionMonitor(final ExecutionMonitor exec,
         final DLKnimeNetworkExecutionInputPreparer inputPreparer) {
         final DLExecutionStatus status = createExecutionStatus(inputPreparer);
         final DLKnimeExecutionMonitor monitor = new DLKnimeExecutionMonitor(exec, status);
@@ -678,4 +874,29 @@ private static Class<? extends DataValue> getAllowedInputColumnType(final DLExec
 		final DLDataValueToTensorConverterFactory<? extends DataValue, ?> conv = inputCfg.getConverterEntry().getValue();
 		return conv.getSourceType();
 	}
+
+	/**
+	 * The input preparer and the execution session that process (a part of) the input rows.
+	 */
+	private static final class DLExecutorSession implements AutoCloseable {
+
+		private final DLKnimeNetworkExecutionInputPreparer m_inputPreparer;
+
+		private final DLNetworkExecutionSession m_session;
+
+		private DLExecutorSession(final DLKnimeNetworkExecutionInputPreparer inputPreparer,
+				final DLNetworkExecutionSession session) {
+			m_inputPreparer = inputPreparer;
+			m_session = session;
+		}
+
+		@Override
+		public void close() throws Exception {
+			try {
+				m_session.close();
+			} finally {
+				m_inputPreparer.close();
+			}
+		}
+	}
 }
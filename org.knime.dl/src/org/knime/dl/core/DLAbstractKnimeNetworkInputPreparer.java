@@ -49,13 +49,23 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.nio.BufferOverflowException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.convert.DLAbstractScalarDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
@@ -71,6 +81,14 @@ public abstract class DLAbstractKnimeNetworkInputPreparer implements DLNetworkIn
 
 	protected final Map<DLTensorId, DLDataValueToTensorConverter<?, ?>> m_converters;
 
+	/**
+	 * The tensors that {@link #writeRowInTensors(DataRow, Map)} fills directly from the numeric columns of the rows,
+	 * bypassing their converters.
+	 */
+	private final Set<DLTensorId> m_numericTensors;
+
+	private final Map<DLTensorId, Class<? extends DLWritableBuffer>> m_preferredBufferTypes;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}.
@@ -86,6 +104,36 @@ public DLAbstractKnimeNetworkInputPreparer(final DLRowIterator iterator, final i
 		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
 			m_converters.put(converter.getKey(), converter.getValue().createConverter());
 		}
+		m_numericTensors = new HashSet<>();
+		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
+			if (copiesDoubleValues(converter.getValue()) && iterator.isNumeric(converter.getKey())) {
+				m_numericTensors.add(converter.getKey());
+			}
+		}
+		m_preferredBufferTypes = new HashMap<>();
+		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
+			final Class<? extends DLWritableBuffer> preferredBufferType = converter.getValue().getPreferredBufferType();
+			if (preferredBufferType != converter.getValue().getBufferType()) {
+				m_preferredBufferTypes.put(converter.getKey(), preferredBufferType);
+			}
+		}
+	}
+
+	/**
+	 * Scalar converters from {@link DoubleValue} to float or double tensors merely copy the double value of each cell.
+	 * The same can be achieved without grouping the cells of a row, see
+	 * {@link DLRowIterator#copyNumericValues(DataRow, DLTensorId, DLDefaultFloatBuffer)}.
+	 */
+	private static boolean copiesDoubleValues(final DLDataValueToTensorConverterFactory<?, ?> factory) {
+		return factory instanceof DLAbstractScalarDataValueToTensorConverterFactory
+				&& factory.getSourceType() == DoubleValue.class
+				&& (factory.getBufferType() == DLWritableFloatBuffer.class
+						|| factory.getBufferType() == DLWritableDoubleBuffer.class);
+	}
+
+	@Override
+	public Map<DLTensorId, Class<? extends DLWritableBuffer>> getPreferredBufferTypes() {
+		return Collections.unmodifiableMap(m_preferredBufferTypes);
 	}
 
 	@Override
@@ -114,6 +162,46 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 		}
 	}
 
+	/**
+	 * Writes the given row in the tensors. Numeric columns are copied directly into the tensors' storage where possible
+	 * (see {@link DLRowIterator#isNumeric(DLTensorId)}), all other values are grouped via
+	 * {@link DLRowIterator#groupByTensor(DataRow)} and written by the tensors' converters.
+	 *
+	 * @param row the row which to write in the tensors
+	 * @param tensors the tensors in which to write the row
+	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
+	 *             tensor can be retrieved via {@link DLBufferOverflowExceptionForTensor#getTensor()}.
+	 */
+	protected final void writeRowInTensors(final DataRow row,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+			throws DLBufferOverflowExceptionForTensor {
+		if (m_numericTensors.isEmpty()) {
+			writeDataValuesInTensors(m_iterator.groupByTensor(row), tensors);
+			return;
+		}
+		Map<DLTensorId, List<DataValue>> dataValues = null;
+		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : tensors.entrySet()) {
+			final DLTensorId identifier = entry.getKey();
+			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+			final DLWritableBuffer buffer = tensor.getBuffer();
+			try {
+				if (m_numericTensors.contains(identifier) && buffer instanceof DLDefaultFloatBuffer) {
+					m_iterator.copyNumericValues(row, identifier, (DLDefaultFloatBuffer) buffer);
+				} else if (m_numericTensors.contains(identifier) && buffer instanceof DLDefaultDoubleBuffer) {
+					m_iterator.copyNumericValues(row, identifier, (DLDefaultDoubleBuffer) buffer);
+				} else {
+					if (dataValues == null) {
+						dataValues = m_iterator.groupByTensor(row);
+					}
+					final DLDataValueToTensorConverter converter = m_converters.get(identifier);
+					converter.convert(dataValues.get(identifier), tensor);
+				}
+			} catch (final BufferOverflowException ex) {
+				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
+			}
+		}
+	}
+
 	/**
 	 * Thrown by {@link DLAbstractKnimeNetworkInputPreparer#writeDataValuesInTensors(Map, Map)} if a
 	 * <code>BufferOverflowException</code> occurs while filling a tensor.
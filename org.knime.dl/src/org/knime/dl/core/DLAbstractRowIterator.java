@@ -49,17 +49,23 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -73,15 +79,25 @@ public abstract class DLAbstractRowIterator implements DLRowIterator {
 
 	protected final Map<DLTensorId, List<DataValue>> m_temp;
 
+	/**
+	 * The tensors whose columns are all compatible to {@link DoubleValue}, determined once from the table spec.
+	 */
+	private final Set<DLTensorId> m_numericTensors;
+
 	protected DLAbstractRowIterator(final DataTableSpec tableSpec, final Map<DLTensorId, int[]> columns) {
 		m_tableSpec = checkNotNull(tableSpec);
 		m_columns = new HashMap<>(checkNotNull(columns));
 		m_temp = new HashMap<>(columns.size());
+		m_numericTensors = new HashSet<>();
 		for (final Entry<DLTensorId, int[]> entry : columns.entrySet()) {
 			final int numColumns = entry.getValue().length;
 			final ArrayList<DataValue> list = new ArrayList<>(
 					Collections.nCopies(numColumns, DataType.getMissingCell()));
 			m_temp.put(entry.getKey(), list);
+			if (Arrays.stream(entry.getValue())
+					.allMatch(c -> tableSpec.getColumnSpec(c).getType().isCompatible(DoubleValue.class))) {
+				m_numericTensors.add(entry.getKey());
+			}
 		}
 	}
 
@@ -94,12 +110,54 @@ public final Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
 				final int column = columns[i];
 				final DataCell cell = row.getCell(column);
 				if (cell.isMissing()) {
-					throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey()
-							+ "', column '" + m_tableSpec.getColumnSpec(column).getName() + "'.");
+					throw createMissingCellException(row, column);
 				}
 				list.set(i, cell);
 			}
 		}
 		return m_temp;
 	}
+
+	@Override
+	public final boolean isNumeric(final DLTensorId tensorId) {
+		return m_numericTensors.contains(tensorId);
+	}
+
+	@Override
+	public final void copyNumericValues(final DataRow row, final DLTensorId tensorId,
+			final DLDefaultFloatBuffer buffer) {
+		final int[] columns = m_columns.get(tensorId);
+		final int offset = (int) buffer.size();
+		final float[] storage = buffer.getStorageForWriting(offset, columns.length);
+		for (int i = 0; i < columns.length; i++) {
+			final DataCell cell = row.getCell(columns[i]);
+			// the columns are numeric, so only missing cells are no double values
+			if (!(cell instanceof DoubleValue)) {
+				throw createMissingCellException(row, columns[i]);
+			}
+			// explicitly lossy cast
+			storage[offset + i] = (float) ((DoubleValue) cell).getDoubleValue();
+		}
+	}
+
+	@Override
+	public final void copyNumericValues(final DataRow row, final DLTensorId tensorId,
+			final DLDefaultDoubleBuffer buffer) {
+		final int[] columns = m_columns.get(tensorId);
+		final int offset = (int) buffer.size();
+		final double[] storage = buffer.getStorageForWriting(offset, columns.length);
+		for (int i = 0; i < columns.length; i++) {
+			final DataCell cell = row.getCell(columns[i]);
+			// the columns are numeric, so only missing cells are no double values
+			if (!(cell instanceof DoubleValue)) {
+				throw createMissingCellException(row, columns[i]);
+			}
+			storage[offset + i] = ((DoubleValue) cell).getDoubleValue();
+		}
+	}
+
+	private DLInvalidNetworkInputException createMissingCellException(final DataRow row, final int column) {
+		return new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey() + "', column '"
+				+ m_tableSpec.getColumnSpec(column).getName() + "'.");
+	}
 }
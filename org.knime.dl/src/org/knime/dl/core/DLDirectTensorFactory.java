@@ -0,0 +1,154 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.knime.dl.core.data.DLAbstractDirectDataBuffer;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDirectDoubleBuffer;
+import org.knime.dl.core.data.DLDirectFloatBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Tensor factory that allocates the buffers of float and double tensors outside of the Java heap (see
+ * {@link DLDirectFloatBuffer} and {@link DLDirectDoubleBuffer}). Tensors of all other element types are created by the
+ * wrapped factory. The memory of a tensor created by this factory is freed when the tensor is closed.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLDirectTensorFactory implements DLTensorFactory {
+
+	private final DLTensorFactory m_delegate;
+
+	/**
+	 * @param delegate the factory that creates the tensors which are not allocated outside of the Java heap and that
+	 *            handles all other requests
+	 */
+	public DLDirectTensorFactory(final DLTensorFactory delegate) {
+		m_delegate = checkNotNull(delegate);
+	}
+
+	@Override
+	public Class<? extends DLWritableBuffer> getWritableBufferType(final DLTensorSpec spec) {
+		final Class<? extends DLAbstractDirectDataBuffer> type = getDirectBufferType(spec);
+		return type != null ? type : m_delegate.getWritableBufferType(spec);
+	}
+
+	@Override
+	public Class<? extends DLReadableBuffer> getReadableBufferType(final DLTensorSpec spec) {
+		final Class<? extends DLAbstractDirectDataBuffer> type = getDirectBufferType(spec);
+		return type != null ? type : m_delegate.getReadableBufferType(spec);
+	}
+
+	@Override
+	public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec) {
+		final DLTensor<? extends DLWritableBuffer> tensor = createDirectTensor(spec);
+		return tensor != null ? tensor : m_delegate.createWritableTensor(spec);
+	}
+
+	@Override
+	public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec,
+			final Class<? extends DLWritableBuffer> preferredBufferType) {
+		// specialized buffer types take precedence over allocating outside of the Java heap
+		if (preferredBufferType != null && !preferredBufferType.isAssignableFrom(getWritableBufferType(spec))) {
+			return m_delegate.createWritableTensor(spec, preferredBufferType);
+		}
+		return createWritableTensor(spec);
+	}
+
+	@Override
+	public DLTensor<? extends DLReadableBuffer> createReadableTensor(final DLTensorSpec spec) {
+		final DLTensor<? extends DLReadableBuffer> tensor = createDirectTensor(spec);
+		return tensor != null ? tensor : m_delegate.createReadableTensor(spec);
+	}
+
+	@Override
+	public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final long batchSize, final long[] shape) {
+		return m_delegate.createExecutionTensorSpec(spec, batchSize, shape);
+	}
+
+	/**
+	 * @return the type of the buffers allocated outside of the Java heap for the given spec or <code>null</code> if
+	 *         the spec's element type is not supported by this factory
+	 */
+	private static Class<? extends DLAbstractDirectDataBuffer> getDirectBufferType(final DLTensorSpec spec) {
+		final Class<?> t = spec.getElementType();
+		if (t.equals(float.class)) {
+			return DLDirectFloatBuffer.class;
+		} else if (t.equals(double.class)) {
+			return DLDirectDoubleBuffer.class;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the tensor or <code>null</code> if the spec's element type is not supported by this factory
+	 */
+	@SuppressWarnings("unchecked")
+	private <B extends DLBuffer> DLTensor<B> createDirectTensor(final DLTensorSpec spec) {
+		final Class<? extends DLAbstractDirectDataBuffer> type = getDirectBufferType(spec);
+		if (type == null) {
+			return null;
+		}
+		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
+				.orElseThrow(() -> new IllegalArgumentException(
+						"Tensor spec '" + spec.getName() + "' does not provide a shape. Tensor cannot be created."));
+		if (!spec.getBatchSize().isPresent()) {
+			throw new IllegalArgumentException(
+					"Tensor spec '" + spec.getName() + "' does not provide a batch size. Tensor cannot be created.");
+		}
+		final long exampleSize = DLUtils.Shapes.getSize(shape);
+		final long size = exampleSize * spec.getBatchSize().getAsLong();
+		final B buffer = type == DLDirectFloatBuffer.class ? (B) new DLDirectFloatBuffer(size)
+				: (B) new DLDirectDoubleBuffer(size);
+		return new DLDefaultTensor<>(spec, buffer, exampleSize);
+	}
+}
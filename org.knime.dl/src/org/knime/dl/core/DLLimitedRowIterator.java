@@ -0,0 +1,150 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+
+/**
+ * Exposes a limited number of rows of another row iterator, e.g. to process the first rows of an input in a separate
+ * run. Closing this iterator does not close the underlying iterator, which continues after the last row returned by
+ * this instance.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLLimitedRowIterator implements DLRowIterator {
+
+	private final DLRowIterator m_delegate;
+
+	private final long m_limit;
+
+	private long m_returned;
+
+	/**
+	 * @param delegate the underlying iterator
+	 * @param limit the maximum number of rows returned by this iterator, must be non-negative
+	 */
+	public DLLimitedRowIterator(final DLRowIterator delegate, final long limit) {
+		checkArgument(limit >= 0, "Limit must be non-negative.");
+		m_delegate = checkNotNull(delegate);
+		m_limit = limit;
+		m_returned = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Returns the limit of this iterator or the size of the underlying data if that is smaller.
+	 */
+	@Override
+	public long size() {
+		return Math.min(m_limit, m_delegate.size());
+	}
+
+	@Override
+	public boolean hasNext() {
+		return m_returned < m_limit && m_delegate.hasNext();
+	}
+
+	@Override
+	public DataRow peek() {
+		if (m_returned >= m_limit) {
+			throw new NoSuchElementException();
+		}
+		return m_delegate.peek();
+	}
+
+	@Override
+	public DataRow next() {
+		if (m_returned >= m_limit) {
+			throw new NoSuchElementException();
+		}
+		final DataRow row = m_delegate.next();
+		m_returned++;
+		return row;
+	}
+
+	@Override
+	public Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
+		return m_delegate.groupByTensor(row);
+	}
+
+	@Override
+	public boolean isNumeric(final DLTensorId tensorId) {
+		return m_delegate.isNumeric(tensorId);
+	}
+
+	@Override
+	public void copyNumericValues(final DataRow row, final DLTensorId tensorId, final DLDefaultFloatBuffer buffer) {
+		m_delegate.copyNumericValues(row, tensorId, buffer);
+	}
+
+	@Override
+	public void copyNumericValues(final DataRow row, final DLTensorId tensorId, final DLDefaultDoubleBuffer buffer) {
+		m_delegate.copyNumericValues(row, tensorId, buffer);
+	}
+
+	@Override
+	public void reset() {
+		throw new UnsupportedOperationException("Cannot reset a limited view of another iterator.");
+	}
+
+	@Override
+	public void close() {
+		// no op - the underlying iterator is owned by the caller
+	}
+}
@@ -46,6 +46,7 @@
  */
 package org.knime.dl.core;
 
+import java.util.Collections;
 import java.util.Map;
 
 import org.knime.dl.core.data.DLWritableBuffer;
@@ -63,4 +64,13 @@ public interface DLNetworkInputPreparer extends AutoCloseable {
 
 	void prepare(Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException;
+
+	/**
+	 * @return the buffer types this preparer would prefer for the input tensors, see
+	 *         {@link DLTensorFactory#createWritableTensor(DLTensorSpec, Class)}. Tensors that are not contained in the
+	 *         map are allocated using the tensor factory's default buffer types.
+	 */
+	default Map<DLTensorId, Class<? extends DLWritableBuffer>> getPreferredBufferTypes() {
+		return Collections.emptyMap();
+	}
 }
@@ -53,6 +53,8 @@
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -80,6 +82,40 @@ public interface DLRowIterator extends Iterator<DataRow>, AutoCloseable {
 	 */
 	Map<DLTensorId, List<DataValue>> groupByTensor(DataRow row);
 
+	/**
+	 * Returns true if all columns of the given tensor are numeric (i.e. compatible to
+	 * {@link org.knime.core.data.DoubleValue}). The values
+	 * of such tensors can be copied directly into primitive buffers via
+	 * {@link #copyNumericValues(DataRow, DLTensorId, DLDefaultFloatBuffer)} and
+	 * {@link #copyNumericValues(DataRow, DLTensorId, DLDefaultDoubleBuffer)}, bypassing
+	 * {@link #groupByTensor(DataRow)}.
+	 */
+	default boolean isNumeric(final DLTensorId tensorId) {
+		return false;
+	}
+
+	/**
+	 * Appends the values of the columns of the given tensor to the given buffer. The tensor must be
+	 * {@link #isNumeric(DLTensorId) numeric}.
+	 *
+	 * @throws DLInvalidNetworkInputException if the row contains a missing cell in any of the tensor's columns
+	 * @throws java.nio.BufferOverflowException if the buffer's capacity would be exceeded
+	 */
+	default void copyNumericValues(final DataRow row, final DLTensorId tensorId, final DLDefaultFloatBuffer buffer) {
+		throw new UnsupportedOperationException("Iterator does not support copying numeric values.");
+	}
+
+	/**
+	 * Appends the values of the columns of the given tensor to the given buffer. The tensor must be
+	 * {@link #isNumeric(DLTensorId) numeric}.
+	 *
+	 * @throws DLInvalidNetworkInputException if the row contains a missing cell in any of the tensor's columns
+	 * @throws java.nio.BufferOverflowException if the buffer's capacity would be exceeded
+	 */
+	default void copyNumericValues(final DataRow row, final DLTensorId tensorId, final DLDefaultDoubleBuffer buffer) {
+		throw new UnsupportedOperationException("Iterator does not support copying numeric values.");
+	}
+
 	/**
 	 * @throws UnsupportedOperationException if the iterator does not support reset, e.g. when streaming
 	 */
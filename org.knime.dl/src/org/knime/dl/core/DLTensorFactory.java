@@ -75,6 +75,20 @@ public interface DLTensorFactory {
 	 */
 	DLTensor<? extends DLWritableBuffer> createWritableTensor(DLTensorSpec spec);
 
+	/**
+	 * Creates a writable tensor whose buffer is of the given type if this factory supports it (see
+	 * {@link org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory#getPreferredBufferType()}). Otherwise,
+	 * this method is equivalent to {@link #createWritableTensor(DLTensorSpec)}.
+	 *
+	 * @param spec the tensor spec
+	 * @param preferredBufferType the preferred type of the tensor's buffer, may be null
+	 * @throws IllegalArgumentException if failed to create a tensor due to invalid arguments
+	 */
+	default DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec,
+			final Class<? extends DLWritableBuffer> preferredBufferType) {
+		return createWritableTensor(spec);
+	}
+
 	/**
 	 * @throws IllegalArgumentException if failed to create a tensor due to invalid arguments
 	 */
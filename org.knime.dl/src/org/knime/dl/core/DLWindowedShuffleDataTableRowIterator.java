@@ -0,0 +1,146 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+
+/**
+ * Shuffles the rows of the input table on the fly by streaming them through an in-memory shuffle window of fixed
+ * size. In contrast to {@link DLShuffleDataTableRowIterator}, no shuffled copy of the table is written on
+ * {@link #reset()}. The resulting order is only approximately random: a row can move at most by the window size
+ * towards the front of the table. If the window is at least as large as the table, the shuffle is exact.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLWindowedShuffleDataTableRowIterator extends DLAbstractDataTableRowIterator {
+
+	private final Random m_random;
+
+	private final int m_windowSize;
+
+	/**
+	 * @param input the data table
+	 * @param columns a map specifying which columns belong to which tensor
+	 * @param seed seed for random number generator
+	 * @param windowSize the maximum number of rows that are held in memory for shuffling, must be positive
+	 */
+	public DLWindowedShuffleDataTableRowIterator(final BufferedDataTable input, final Map<DLTensorId, int[]> columns,
+			final long seed, final int windowSize) {
+		super(input, columns);
+		checkArgument(windowSize > 0, "Shuffle window size must be positive but was %s.", windowSize);
+		m_random = new Random(seed);
+		m_windowSize = (int) Math.min(windowSize, input.size());
+		m_iterator = makeNewIterator();
+	}
+
+	@Override
+	protected CloseableRowIterator makeNewIterator() {
+		return new DLShuffleWindowRowIterator(getInputTable().iterator(), m_windowSize, new Random(m_random.nextLong()));
+	}
+
+	private static final class DLShuffleWindowRowIterator extends CloseableRowIterator {
+
+		private final CloseableRowIterator m_source;
+
+		private final DataRow[] m_window;
+
+		private final Random m_random;
+
+		private int m_numBuffered;
+
+		private DLShuffleWindowRowIterator(final CloseableRowIterator source, final int windowSize,
+				final Random random) {
+			m_source = source;
+			m_window = new DataRow[windowSize];
+			m_random = random;
+			while (m_numBuffered < windowSize && source.hasNext()) {
+				m_window[m_numBuffered++] = source.next();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_numBuffered > 0;
+		}
+
+		@Override
+		public DataRow next() {
+			if (m_numBuffered == 0) {
+				throw new NoSuchElementException();
+			}
+			final int idx = m_random.nextInt(m_numBuffered);
+			final DataRow row = m_window[idx];
+			if (m_source.hasNext()) {
+				m_window[idx] = m_source.next();
+			} else {
+				// source is exhausted, drain the window
+				m_numBuffered--;
+				m_window[idx] = m_window[m_numBuffered];
+				m_window[m_numBuffered] = null;
+			}
+			return row;
+		}
+
+		@Override
+		public void close() {
+			m_source.close();
+			for (int i = 0; i < m_numBuffered; i++) {
+				m_window[i] = null;
+			}
+			m_numBuffered = 0;
+		}
+	}
+}
@@ -72,6 +72,17 @@ public DLAbstractByteBuffer(final long capacity) {
         super(capacity);
     }
 
+    /**
+     * Creates a write window onto the given storage, see {@link #createWriteWindow(long, long)}.
+     *
+     * @param storage the storage of the windowed buffer
+     * @param startPos the first position of the window
+     * @param length the length of the window
+     */
+    protected DLAbstractByteBuffer(final byte[] storage, final long startPos, final long length) {
+        super(storage, startPos, length);
+    }
+
     @Override
     public void setStorage(final byte[] storage, final long storageSize) throws IllegalArgumentException {
         checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
@@ -0,0 +1,368 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Abstract base class for buffers whose data lives outside of the Java heap. The data is held in a sequence of direct
+ * {@link ByteBuffer byte buffers} of at most 1 GiB each, which allows for capacities beyond
+ * <code>Integer.MAX_VALUE</code> elements. Elements are stored in little-endian byte order.
+ * <P>
+ * The memory of the buffer is freed when the buffer is {@link #close() closed} rather than when it is garbage
+ * collected. The buffer must not be used afterwards.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public abstract class DLAbstractDirectDataBuffer implements DLReadableBuffer, DLWritableBuffer {
+
+	private static final int CHUNK_SHIFT = 30;
+
+	private static final long CHUNK_BYTE_MASK = (1L << CHUNK_SHIFT) - 1;
+
+	private static final Consumer<ByteBuffer> DEALLOCATOR = createDeallocator();
+
+	/**
+	 * @param expression a boolean expression
+	 * @throws BufferOverflowException if {@code expression} is false
+	 */
+	protected static void checkOverflow(final boolean expression) throws BufferOverflowException {
+		if (!expression) {
+			throw new BufferOverflowException();
+		}
+	}
+
+	/**
+	 * @param expression a boolean expression
+	 * @throws BufferUnderflowException if {@code expression} is false
+	 */
+	protected static void checkUnderflow(final boolean expression) throws BufferUnderflowException {
+		if (!expression) {
+			throw new BufferUnderflowException();
+		}
+	}
+
+	/**
+	 * Direct byte buffers are usually only freed once they are garbage collected. Their cleaner can be invoked
+	 * explicitly via internal API whose location depends on the Java version: <code>sun.misc.Unsafe#invokeCleaner</code>
+	 * on Java 9 and later, <code>sun.misc.Cleaner#clean</code> on Java 8. If neither variant is available, freeing is
+	 * left to the garbage collector.
+	 */
+	private static Consumer<ByteBuffer> createDeallocator() {
+		try {
+			// Java 9 and later
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			final Object unsafe = theUnsafe.get(null);
+			final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			return buffer -> {
+				try {
+					invokeCleaner.invoke(unsafe, buffer);
+				} catch (final Exception e) {
+					// left to the garbage collector
+				}
+			};
+		} catch (final Exception e) {
+			// fall through
+		}
+		try {
+			// Java 8
+			final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				try {
+					final Object c = cleaner.invoke(buffer);
+					if (c != null) {
+						clean.invoke(c);
+					}
+				} catch (final Exception e) {
+					// left to the garbage collector
+				}
+			};
+		} catch (final Exception e) {
+			NodeLogger.getLogger(DLAbstractDirectDataBuffer.class)
+					.debug("Direct buffers cannot be freed explicitly, freeing is left to the garbage collector.", e);
+			return buffer -> {
+				// left to the garbage collector
+			};
+		}
+	}
+
+	protected final long m_capacity;
+
+	/**
+	 * The binary logarithm of the element size in bytes.
+	 */
+	private final int m_elementShift;
+
+	/**
+	 * The binary logarithm of the number of elements per chunk.
+	 */
+	private final int m_elementsPerChunkShift;
+
+	private final long m_elementMask;
+
+	private ByteBuffer[] m_chunks;
+
+	protected long m_nextWrite;
+
+	protected long m_nextRead;
+
+	/**
+	 * @param capacity the immutable capacity of the buffer in elements
+	 * @param elementSize the size of an element in bytes, must be a power of two
+	 */
+	protected DLAbstractDirectDataBuffer(final long capacity, final int elementSize) {
+		checkArgument(capacity >= 0, "Capacity must be non-negative.");
+		checkArgument(Integer.bitCount(elementSize) == 1, "Element size must be a power of two.");
+		m_capacity = capacity;
+		m_elementShift = Integer.numberOfTrailingZeros(elementSize);
+		m_elementsPerChunkShift = CHUNK_SHIFT - m_elementShift;
+		m_elementMask = (1L << m_elementsPerChunkShift) - 1;
+		final long numBytes = capacity << m_elementShift;
+		m_chunks = new ByteBuffer[(int) ((numBytes + CHUNK_BYTE_MASK) >>> CHUNK_SHIFT)];
+		for (int i = 0; i < m_chunks.length; i++) {
+			final long chunkSize = Math.min(1L << CHUNK_SHIFT, numBytes - ((long) i << CHUNK_SHIFT));
+			m_chunks[i] = ByteBuffer.allocateDirect((int) chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		m_nextWrite = 0;
+		m_nextRead = 0;
+	}
+
+	@Override
+	public long size() {
+		return m_nextWrite;
+	}
+
+	@Override
+	public long getCapacity() {
+		return m_capacity;
+	}
+
+	/**
+	 * Returns the position of the element that the next read will return. Together with {@link #size()}, it delimits
+	 * the elements that have not been read yet, e.g. when these are copied in bulk via
+	 * {@link #getBytes(long, ByteBuffer)}.
+	 *
+	 * @return the position of the next element to read
+	 */
+	public long getNextReadPosition() {
+		return m_nextRead;
+	}
+
+	@Override
+	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length > 0);
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		long from = m_nextWrite << m_elementShift;
+		final long to = (m_nextWrite + length) << m_elementShift;
+		while (from < to) {
+			final ByteBuffer chunk = m_chunks[(int) (from >>> CHUNK_SHIFT)];
+			final int start = (int) (from & CHUNK_BYTE_MASK);
+			final int end = (int) Math.min(chunk.capacity(), start + (to - from));
+			for (int i = start; i < end; i++) {
+				chunk.put(i, (byte) 0);
+			}
+			from += end - start;
+		}
+		m_nextWrite += length;
+	}
+
+	/**
+	 * Copies the elements in <code>[startPos, startPos + dest.remaining() / elementSize)</code> into the given byte
+	 * buffer, in little-endian byte order. The read position of this buffer is not affected.
+	 *
+	 * @param startPos the position of the first element to copy
+	 * @param dest the byte buffer to fill
+	 * @throws BufferUnderflowException if this buffer's {@link #size() size} would be exceeded
+	 */
+	public void getBytes(final long startPos, final ByteBuffer dest) throws BufferUnderflowException {
+		final long length = dest.remaining() >> m_elementShift;
+		checkUnderflow(startPos >= 0 && startPos + length <= m_nextWrite);
+		long from = startPos << m_elementShift;
+		final long to = (startPos + length) << m_elementShift;
+		while (from < to) {
+			final ByteBuffer chunk = m_chunks[(int) (from >>> CHUNK_SHIFT)].duplicate();
+			final int start = (int) (from & CHUNK_BYTE_MASK);
+			final int end = (int) Math.min(chunk.capacity(), start + (to - from));
+			chunk.limit(end);
+			chunk.position(start);
+			dest.put(chunk);
+			from += end - start;
+		}
+	}
+
+	/**
+	 * Appends the elements contained in the remaining bytes of the given byte buffer, which must be in little-endian
+	 * byte order, to this buffer.
+	 *
+	 * @param src the byte buffer to read, its position is advanced accordingly
+	 * @throws BufferOverflowException if this buffer's {@link #getCapacity() capacity} would be exceeded
+	 */
+	public void putBytes(final ByteBuffer src) throws BufferOverflowException {
+		final long length = src.remaining() >> m_elementShift;
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		long from = m_nextWrite << m_elementShift;
+		final long to = (m_nextWrite + length) << m_elementShift;
+		while (from < to) {
+			final ByteBuffer chunk = m_chunks[(int) (from >>> CHUNK_SHIFT)].duplicate();
+			final int start = (int) (from & CHUNK_BYTE_MASK);
+			final int end = (int) Math.min(chunk.capacity(), start + (to - from));
+			final ByteBuffer part = src.duplicate();
+			part.limit(part.position() + end - start);
+			chunk.position(start);
+			chunk.put(part);
+			src.position(src.position() + end - start);
+			from += end - start;
+		}
+		m_nextWrite += length;
+	}
+
+	@Override
+	public void resetRead() {
+		m_nextRead = 0;
+	}
+
+	@Override
+	public void resetWrite() {
+		m_nextWrite = 0;
+	}
+
+	@Override
+	public void reset() {
+		resetRead();
+		resetWrite();
+	}
+
+	/**
+	 * Frees the memory of this buffer.
+	 */
+	@Override
+	public void close() {
+		if (m_chunks != null) {
+			for (final ByteBuffer chunk : m_chunks) {
+				DEALLOCATOR.accept(chunk);
+			}
+			m_chunks = null;
+		}
+	}
+
+	/**
+	 * @param index the index of an element
+	 * @return the chunk that holds the element
+	 */
+	protected final ByteBuffer chunk(final long index) {
+		return m_chunks[(int) (index >>> m_elementsPerChunkShift)];
+	}
+
+	/**
+	 * @param index the index of an element
+	 * @return the byte offset of the element within its {@link #chunk(long) chunk}
+	 */
+	protected final int offset(final long index) {
+		return (int) ((index & m_elementMask) << m_elementShift);
+	}
+
+	/**
+	 * Splits the element range <code>[index, index + length)</code> at chunk boundaries and applies the given action to
+	 * each of the resulting segments in ascending order. The range must lie within the capacity of this buffer.
+	 *
+	 * @param index the first element of the range
+	 * @param length the number of elements of the range
+	 * @param action the action to apply to each segment
+	 */
+	protected final void forEachChunkSegment(final long index, final int length, final ChunkSegmentAction action) {
+		long next = index;
+		int done = 0;
+		while (done < length) {
+			final int chunkPos = (int) (next & m_elementMask);
+			final int segmentLength = (int) Math.min(length - done, m_elementMask + 1 - chunkPos);
+			action.apply(chunk(next), chunkPos, done, segmentLength);
+			next += segmentLength;
+			done += segmentLength;
+		}
+	}
+
+	/**
+	 * @param length the length of the array to create
+	 * @throws IllegalStateException if the length exceeds the maximum length of Java arrays
+	 */
+	protected static int checkArrayLength(final long length) {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException(
+					"Buffer size of " + length + " elements exceeds the maximum size of Java arrays.");
+		}
+		return (int) length;
+	}
+
+	/**
+	 * @see DLAbstractDirectDataBuffer#forEachChunkSegment(long, int, ChunkSegmentAction)
+	 */
+	@FunctionalInterface
+	protected interface ChunkSegmentAction {
+
+		/**
+		 * @param chunk the chunk that holds the segment, in little-endian byte order. Its position must not be changed.
+		 * @param chunkPos the index of the first element of the segment within the chunk
+		 * @param rangePos the offset of the segment from the start of the range
+		 * @param length the number of elements of the segment
+		 */
+		void apply(ByteBuffer chunk, int chunkPos, int rangePos, int length);
+	}
+}
@@ -62,4 +62,15 @@ protected DLAbstractFlatWrappingDataBuffer(long capacity) {
 		m_storage = createStorage();
 	}
 
+	/**
+	 * Creates a write window onto the given storage, see {@link #createWriteWindow(long, long)}.
+	 *
+	 * @param storage the storage of the windowed buffer
+	 * @param startPos the first position of the window
+	 * @param length the length of the window
+	 */
+	protected DLAbstractFlatWrappingDataBuffer(final S storage, final long startPos, final long length) {
+		super(storage, startPos, length);
+	}
+
 }
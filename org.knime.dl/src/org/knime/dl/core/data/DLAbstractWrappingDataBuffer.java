@@ -114,6 +114,21 @@ protected DLAbstractWrappingDataBuffer(final long capacity) {
 		m_capacity = (int) capacity;
 	}
 
+	/**
+	 * Creates a buffer that shares the given storage and whose write and read positions are limited to the region
+	 * <code>[startPos, startPos + length)</code>. See {@link #createWriteWindow(long, long)}.
+	 *
+	 * @param storage the storage that is shared with the windowed buffer
+	 * @param startPos the first position of the window
+	 * @param length the length of the window
+	 */
+	protected DLAbstractWrappingDataBuffer(final S storage, final long startPos, final long length) {
+		this(startPos + length);
+		m_storage = storage;
+		m_nextWrite = (int) startPos;
+		m_nextRead = (int) startPos;
+	}
+
 	/**
 	 * Creates the internal storage of this buffer. This method is only called once during construction of the instance.
 	 *
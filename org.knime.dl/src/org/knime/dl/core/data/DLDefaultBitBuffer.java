@@ -71,6 +71,21 @@ public DLDefaultBitBuffer(final long capacity) {
         super(capacity);
     }
 
+    private DLDefaultBitBuffer(final boolean[] storage, final long startPos, final long length) {
+        super(storage, startPos, length);
+    }
+
+    @Override
+    public boolean supportsWriteWindows() {
+        return true;
+    }
+
+    @Override
+    public DLDefaultBitBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+        return new DLDefaultBitBuffer(m_storage, startPos, length);
+    }
+
     @Override
     public void setStorage(final boolean[] storage, final long storageSize) throws IllegalArgumentException {
         checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
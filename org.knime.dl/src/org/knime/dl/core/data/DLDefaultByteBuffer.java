@@ -48,6 +48,7 @@
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 
 /**
@@ -69,6 +70,21 @@ public DLDefaultByteBuffer(final long capacity) {
         super(capacity);
     }
 
+    private DLDefaultByteBuffer(final byte[] storage, final long startPos, final long length) {
+        super(storage, startPos, length);
+    }
+
+    @Override
+    public boolean supportsWriteWindows() {
+        return true;
+    }
+
+    @Override
+    public DLDefaultByteBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+        return new DLDefaultByteBuffer(m_storage, startPos, length);
+    }
+
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
@@ -72,6 +72,21 @@ public DLDefaultFloatBuffer(final long capacity) {
 		super(capacity);
 	}
 
+	private DLDefaultFloatBuffer(final float[] storage, final long startPos, final long length) {
+		super(storage, startPos, length);
+	}
+
+	@Override
+	public boolean supportsWriteWindows() {
+		return true;
+	}
+
+	@Override
+	public DLDefaultFloatBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+		checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+		return new DLDefaultFloatBuffer(m_storage, startPos, length);
+	}
+
 	@Override
 	public void setStorage(final float[] storage, final long storageSize) throws IllegalArgumentException {
 		checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
@@ -72,6 +72,21 @@ public DLDefaultLongBuffer(final long capacity) {
 		super(capacity);
 	}
 
+	private DLDefaultLongBuffer(final long[] storage, final long startPos, final long length) {
+		super(storage, startPos, length);
+	}
+
+	@Override
+	public boolean supportsWriteWindows() {
+		return true;
+	}
+
+	@Override
+	public DLDefaultLongBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+		checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+		return new DLDefaultLongBuffer(m_storage, startPos, length);
+	}
+
 	@Override
 	public void setStorage(final long[] storage, final long storageSize) throws IllegalArgumentException {
 		checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
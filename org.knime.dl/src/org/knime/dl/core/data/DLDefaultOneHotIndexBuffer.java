@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+/**
+ * Default implementation of {@link DLWritableOneHotIndexBuffer}. The wrapped storage holds one index per one-hot
+ * encoded vector, <code>-1</code> denotes an all-zero (padded) vector. Positions passed to and returned by the storage
+ * accessors of {@link DLWrappingDataBuffer} therefore refer to vectors, not to elements of the dense tensor.
+ * <P>
+ * The buffer also accepts dense writes via the methods of {@link DLWritableFloatBuffer} as long as the written vectors
+ * are in fact one-hot encoded (or all zero).
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDefaultOneHotIndexBuffer extends DLAbstractFlatWrappingDataBuffer<int[]>
+		implements DLWritableOneHotIndexBuffer, DLWritableFloatBuffer {
+
+	private final int m_depth;
+
+	/**
+	 * The position within the vector that is currently written densely.
+	 */
+	private int m_vectorPos = 0;
+
+	/**
+	 * The index of the hot element of the vector that is currently written densely, <code>-1</code> if none.
+	 */
+	private int m_hotIndex = -1;
+
+	/**
+	 * Creates a new instance of this buffer.
+	 *
+	 * @param numVectors the immutable number of one-hot encoded vectors the buffer can hold
+	 * @param depth the length of each vector
+	 */
+	public DLDefaultOneHotIndexBuffer(final long numVectors, final int depth) {
+		super(numVectors);
+		checkArgument(depth > 0, "Depth must be positive.");
+		m_depth = depth;
+	}
+
+	@Override
+	public int getDepth() {
+		return m_depth;
+	}
+
+	@Override
+	public long size() {
+		return (long) m_nextWrite * m_depth + m_vectorPos;
+	}
+
+	@Override
+	public long getCapacity() {
+		return (long) m_capacity * m_depth;
+	}
+
+	@Override
+	public void setStorage(final int[] storage, final long storageSize) throws IllegalArgumentException {
+		checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
+		m_storage = storage;
+		m_nextWrite = (int) storageSize;
+		m_vectorPos = 0;
+		m_hotIndex = -1;
+		resetRead();
+	}
+
+	@Override
+	public void putIndex(final int index) throws IllegalArgumentException, BufferOverflowException {
+		checkState(m_vectorPos == 0, "A vector is currently being written densely.");
+		checkOverflow(m_nextWrite < m_capacity);
+		checkIndex(index);
+		m_storage[m_nextWrite++] = index;
+	}
+
+	@Override
+	public void putAllIndices(final int[] indices) throws IllegalArgumentException, BufferOverflowException {
+		checkState(m_vectorPos == 0, "A vector is currently being written densely.");
+		checkOverflow(m_nextWrite + indices.length <= m_capacity);
+		for (int i = 0; i < indices.length; i++) {
+			checkIndex(indices[i]);
+			m_storage[m_nextWrite++] = indices[i];
+		}
+	}
+
+	@Override
+	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length > 0);
+		checkOverflow(size() + length <= getCapacity());
+		long remaining = length;
+		while (m_vectorPos != 0 && remaining > 0) {
+			putDense(0f);
+			remaining--;
+		}
+		final int numVectors = (int) (remaining / m_depth);
+		Arrays.fill(m_storage, m_nextWrite, m_nextWrite + numVectors, -1);
+		m_nextWrite += numVectors;
+		for (long i = 0; i < remaining % m_depth; i++) {
+			putDense(0f);
+		}
+	}
+
+	@Override
+	public void resetWrite() {
+		super.resetWrite();
+		m_vectorPos = 0;
+		m_hotIndex = -1;
+	}
+
+	@Override
+	public void put(final boolean value) throws BufferOverflowException {
+		putDense(value ? 1f : 0f);
+	}
+
+	@Override
+	public void putAll(final boolean[] values) throws BufferOverflowException {
+		checkOverflow(size() + values.length <= getCapacity());
+		for (int i = 0; i < values.length; i++) {
+			putDense(values[i] ? 1f : 0f);
+		}
+	}
+
+	@Override
+	public void put(final byte value) throws BufferOverflowException {
+		putDense(value);
+	}
+
+	@Override
+	public void putAll(final byte[] values) throws BufferOverflowException {
+		checkOverflow(size() + values.length <= getCapacity());
+		for (int i = 0; i < values.length; i++) {
+			putDense(values[i]);
+		}
+	}
+
+	@Override
+	public void put(final short value) throws BufferOverflowException {
+		putDense(value);
+	}
+
+	@Override
+	public void putAll(final short[] values) throws BufferOverflowException {
+		checkOverflow(size() + values.length <= getCapacity());
+		for (int i = 0; i < values.length; i++) {
+			putDense(values[i]);
+		}
+	}
+
+	@Override
+	public void put(final float value) throws BufferOverflowException {
+		putDense(value);
+	}
+
+	@Override
+	public void putAll(final float[] values) throws BufferOverflowException {
+		checkOverflow(size() + values.length <= getCapacity());
+		for (int i = 0; i < values.length; i++) {
+			putDense(values[i]);
+		}
+	}
+
+	@Override
+	protected int[] createStorage() {
+		return new int[m_capacity];
+	}
+
+	/**
+	 * @throws UnsupportedOperationException if the value would break the one-hot encoding of the current vector
+	 */
+	private void putDense(final float value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		if (value != 0f) {
+			if (value != 1f || m_hotIndex != -1) {
+				throw new UnsupportedOperationException(
+						"Only one-hot encoded vectors can be written to a one-hot index buffer.");
+			}
+			m_hotIndex = m_vectorPos;
+		}
+		if (++m_vectorPos == m_depth) {
+			m_storage[m_nextWrite++] = m_hotIndex;
+			m_vectorPos = 0;
+			m_hotIndex = -1;
+		}
+	}
+
+	private void checkIndex(final int index) {
+		checkArgument(index >= 0 && index < m_depth, "Index %s is out of range [0, %s).", index, m_depth);
+	}
+}
@@ -0,0 +1,362 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+/**
+ * Bit type implementation of {@link DLWrappingDataBuffer} that packs 64 bits into each <code>long</code> of its
+ * storage, see {@link DLWritablePackedBitBuffer} for the layout. Capacity, size and all positions refer to bits.
+ * <P>
+ * Write windows are not supported as windows that do not start at a word boundary would share words with their
+ * neighbors.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDefaultPackedBitBuffer extends DLAbstractFlatWrappingDataBuffer<long[]>
+    implements DLWritablePackedBitBuffer, DLReadablePackedBitBuffer {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int BIT_INDEX_MASK = Long.SIZE - 1;
+
+    /**
+     * @param numBits the number of bits
+     * @return the number of words required to hold the given number of bits
+     */
+    public static int getNumWords(final long numBits) {
+        return (int)((numBits + BIT_INDEX_MASK) >>> ADDRESS_BITS_PER_WORD);
+    }
+
+    /**
+     * Creates a new instance of this buffer.
+     *
+     * @param capacity the immutable capacity of the buffer in bits
+     */
+    public DLDefaultPackedBitBuffer(final long capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public void setStorage(final long[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == getNumWords(m_capacity),
+            "Input storage capacity does not match buffer capacity.");
+        m_storage = storage;
+        m_nextWrite = (int)storageSize;
+        resetRead();
+    }
+
+    @Override
+    public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(length > 0);
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        for (int i = 0; i < length; i++) {
+            setBit(m_nextWrite++, false);
+        }
+    }
+
+    @Override
+    public void put(final boolean value) throws BufferOverflowException {
+        checkOverflow(m_nextWrite < m_capacity);
+        setBit(m_nextWrite++, value);
+    }
+
+    @Override
+    public void putAll(final boolean[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (int i = 0; i < values.length; i++) {
+            setBit(m_nextWrite++, values[i]);
+        }
+    }
+
+    @Override
+    public void putAllWords(final long[] words, final int length)
+        throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(length >= 0 && length <= (long)words.length * Long.SIZE,
+            "Number of bits to copy must be in [0, " + (long)words.length * Long.SIZE + "].");
+        checkOverflow(m_nextWrite + (long)length <= m_capacity);
+        final int offset = m_nextWrite & BIT_INDEX_MASK;
+        final int start = m_nextWrite >>> ADDRESS_BITS_PER_WORD;
+        final int numWords = getNumWords(length);
+        if (offset == 0) {
+            System.arraycopy(words, 0, m_storage, start, numWords);
+        } else {
+            // keep the bits that were already written to the first word, bits beyond the new size are undefined
+            long carry = m_storage[start] & ((1L << offset) - 1);
+            for (int i = 0; i < numWords; i++) {
+                m_storage[start + i] = carry | (words[i] << offset);
+                carry = words[i] >>> (Long.SIZE - offset);
+            }
+            if (start + numWords < m_storage.length) {
+                m_storage[start + numWords] = carry;
+            }
+        }
+        m_nextWrite += length;
+    }
+
+    @Override
+    public void readToWordArray(final long[] dest, final int length)
+        throws IllegalArgumentException, BufferUnderflowException {
+        checkArgument(length >= 0 && length <= (long)dest.length * Long.SIZE,
+            "Number of bits to read must be in [0, " + (long)dest.length * Long.SIZE + "].");
+        checkUnderflow(m_nextRead + (long)length <= m_nextWrite);
+        final int offset = m_nextRead & BIT_INDEX_MASK;
+        final int start = m_nextRead >>> ADDRESS_BITS_PER_WORD;
+        final int numWords = getNumWords(length);
+        if (offset == 0) {
+            System.arraycopy(m_storage, start, dest, 0, numWords);
+        } else {
+            for (int i = 0; i < numWords; i++) {
+                final long high = start + i + 1 < m_storage.length ? m_storage[start + i + 1] << (Long.SIZE - offset)
+                    : 0L;
+                dest[i] = (m_storage[start + i] >>> offset) | high;
+            }
+        }
+        final int tail = length & BIT_INDEX_MASK;
+        if (tail != 0) {
+            dest[numWords - 1] &= (1L << tail) - 1;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public boolean readNextBit() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return getBit(m_nextRead++);
+    }
+
+    @Override
+    public boolean[] toBitArray() {
+        final boolean[] tmp = new boolean[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToBitArray(final boolean[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public byte readNextByte() throws BufferUnderflowException {
+        return (byte)(readNextBit() ? 1 : 0);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final byte[] tmp = new byte[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (byte)(getBit(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToByteArray(final byte[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (byte)(getBit(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public short readNextShort() throws BufferUnderflowException {
+        return (short)(readNextBit() ? 1 : 0);
+    }
+
+    @Override
+    public short[] toShortArray() {
+        final short[] tmp = new short[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (short)(getBit(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToShortArray(final short[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (short)(getBit(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public int readNextInt() throws BufferUnderflowException {
+        return readNextBit() ? 1 : 0;
+    }
+
+    @Override
+    public int[] toIntArray() {
+        final int[] tmp = new int[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1 : 0;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToIntArray(final int[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1 : 0;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public long readNextLong() throws BufferUnderflowException {
+        return readNextBit() ? 1L : 0L;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        final long[] tmp = new long[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1L : 0L;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToLongArray(final long[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1L : 0L;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public float readNextFloat() throws BufferUnderflowException {
+        return readNextBit() ? 1f : 0f;
+    }
+
+    @Override
+    public float[] toFloatArray() {
+        final float[] tmp = new float[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1f : 0f;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1f : 0f;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public double readNextDouble() throws BufferUnderflowException {
+        return readNextBit() ? 1. : 0.;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        final double[] tmp = new double[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1. : 0.;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1. : 0.;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    protected long[] createStorage() {
+        return new long[getNumWords(m_capacity)];
+    }
+
+    private boolean getBit(final int pos) {
+        return (m_storage[pos >>> ADDRESS_BITS_PER_WORD] & (1L << pos)) != 0;
+    }
+
+    private void setBit(final int pos, final boolean value) {
+        if (value) {
+            m_storage[pos >>> ADDRESS_BITS_PER_WORD] |= 1L << pos;
+        } else {
+            m_storage[pos >>> ADDRESS_BITS_PER_WORD] &= ~(1L << pos);
+        }
+    }
+}
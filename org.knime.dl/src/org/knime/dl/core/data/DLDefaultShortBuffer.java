@@ -71,6 +71,21 @@ public DLDefaultShortBuffer(final long capacity) {
         super(capacity);
     }
 
+    private DLDefaultShortBuffer(final short[] storage, final long startPos, final long length) {
+        super(storage, startPos, length);
+    }
+
+    @Override
+    public boolean supportsWriteWindows() {
+        return true;
+    }
+
+    @Override
+    public DLDefaultShortBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+        return new DLDefaultShortBuffer(m_storage, startPos, length);
+    }
+
     @Override
     public void setStorage(final short[] storage, final long storageSize) throws IllegalArgumentException {
         checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
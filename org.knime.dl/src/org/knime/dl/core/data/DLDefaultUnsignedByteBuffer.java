@@ -48,6 +48,7 @@
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 
 /**
@@ -71,6 +72,21 @@ public DLDefaultUnsignedByteBuffer(final long capacity) {
         super(capacity);
     }
 
+    private DLDefaultUnsignedByteBuffer(final byte[] storage, final long startPos, final long length) {
+        super(storage, startPos, length);
+    }
+
+    @Override
+    public boolean supportsWriteWindows() {
+        return true;
+    }
+
+    @Override
+    public DLDefaultUnsignedByteBuffer createWriteWindow(final long startPos, final long length) throws BufferOverflowException {
+        checkOverflow(startPos >= 0 && startPos + length <= m_capacity);
+        return new DLDefaultUnsignedByteBuffer(m_storage, startPos, length);
+    }
+
     @Override
     public short readNextUnsignedByte() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
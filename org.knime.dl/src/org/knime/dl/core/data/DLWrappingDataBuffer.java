@@ -95,6 +95,35 @@
 	 */
 	void setStorage(final S storage, long storageSize) throws IllegalArgumentException;
 
+	/**
+	 * @return true if this buffer supports {@link #createWriteWindow(long, long) write windows}
+	 */
+	default boolean supportsWriteWindows() {
+		return false;
+	}
+
+	/**
+	 * Returns a buffer of the same kind that writes directly into the region <code>[startPos, startPos + length)</code>
+	 * of this buffer's storage using its own write position. This allows several threads to fill disjoint regions of
+	 * this buffer concurrently.<br>
+	 * Writing to the window does not change the {@link #size() size} of this buffer. Once all windows are filled,
+	 * callers have to commit the written region via {@link #getStorageForWriting(long, long)}. The size of the window
+	 * equals {@code startPos} plus the number of elements written to it. Windows must not be used anymore once this
+	 * buffer is reset or closed.
+	 *
+	 * @param startPos the first position of the window
+	 * @param length the length of the window
+	 * @return the window
+	 * @throws BufferOverflowException if the window exceeds the buffer's {@link #getCapacity() capacity}
+	 * @throws UnsupportedOperationException if this buffer does not {@link #supportsWriteWindows() support} write
+	 *             windows
+	 */
+	default DLWrappingDataBuffer<S> createWriteWindow(final long startPos, final long length)
+			throws BufferOverflowException {
+		throw new UnsupportedOperationException(
+				"Buffer of type '" + getClass().getName() + "' does not support write windows.");
+	}
+
 	@Override
 	default void reset() {
 		resetRead();
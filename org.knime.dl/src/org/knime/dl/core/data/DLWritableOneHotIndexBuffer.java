@@ -0,0 +1,87 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * A writable buffer for float tensors whose vectors along the last dimension are one-hot encoded. Instead of the dense
+ * vectors, only the index of the hot element of each vector is stored. Expanding the indices into the dense tensor is
+ * left to the consumer of the buffer, e.g. a back end.
+ * <P>
+ * {@link #size() Size}, {@link #getCapacity() capacity} and {@link #zeroPad(long) padding} refer to the elements of
+ * the dense tensor, i.e. each stored index accounts for {@link #getDepth() depth} elements. Padded vectors are all
+ * zero.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public interface DLWritableOneHotIndexBuffer extends DLWritableBuffer {
+
+	/**
+	 * @return the length of the one-hot encoded vectors, i.e. the size of the last dimension of the tensor
+	 */
+	int getDepth();
+
+	/**
+	 * Appends a one-hot encoded vector.
+	 *
+	 * @param index the index of the hot element, must be in <code>[0, depth)</code>
+	 * @throws IllegalArgumentException if the index is out of range
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded
+	 */
+	void putIndex(int index) throws IllegalArgumentException, BufferOverflowException;
+
+	/**
+	 * Appends a one-hot encoded vector for each of the given indices.
+	 *
+	 * @param indices the indices of the hot elements, each must be in <code>[0, depth)</code>
+	 * @throws IllegalArgumentException if an index is out of range
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded
+	 */
+	void putAllIndices(int[] indices) throws IllegalArgumentException, BufferOverflowException;
+}
@@ -55,7 +55,9 @@
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLDefaultPackedBitBuffer;
 import org.knime.dl.core.data.DLReadableBitBuffer;
+import org.knime.dl.core.data.DLReadablePackedBitBuffer;
 import org.knime.dl.util.DLUtils;
 
 /**
@@ -93,9 +95,16 @@ public DLTensorToDataCellConverter<DLReadableBitBuffer, DenseBitVectorCell> crea
             final long exampleSize = DLUtils.Shapes.getFixedSize(input.getSpec().getShape()).getAsLong();
             final DLReadableBitBuffer buf = input.getBuffer();
             for (int i = 0; i < bufferSize / exampleSize; i++) {
-                final DenseBitVector vector = new DenseBitVector(exampleSize);
-                for (long j = 0; j < exampleSize; j++) {
-                    vector.set(j, buf.readNextBit());
+                final DenseBitVector vector;
+                if (buf instanceof DLReadablePackedBitBuffer) {
+                    final long[] words = new long[DLDefaultPackedBitBuffer.getNumWords(exampleSize)];
+                    ((DLReadablePackedBitBuffer)buf).readToWordArray(words, (int)exampleSize);
+                    vector = new DenseBitVector(words, exampleSize);
+                } else {
+                    vector = new DenseBitVector(exampleSize);
+                    for (long j = 0; j < exampleSize; j++) {
+                        vector.set(j, buf.readNextBit());
+                    }
                 }
                 out[i] = (new DenseBitVectorCellFactory(vector)).createDataCell();
             }
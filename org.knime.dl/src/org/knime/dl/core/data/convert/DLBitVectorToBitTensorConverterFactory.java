@@ -48,6 +48,7 @@
  */
 package org.knime.dl.core.data.convert;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalLong;
 
@@ -56,7 +57,9 @@
 import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLDefaultPackedBitBuffer;
 import org.knime.dl.core.data.DLWritableBitBuffer;
+import org.knime.dl.core.data.DLWritablePackedBitBuffer;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -90,12 +93,43 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 	public DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> createConverter() {
 		return new DLAbstractTensorDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer>() {
 
+			/**
+			 * Reused across inputs, only its first {@link DLDefaultPackedBitBuffer#getNumWords(long)} words are
+			 * meaningful for the current input.
+			 */
+			private long[] m_words = new long[0];
+
 			@Override
 			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
 				final DLWritableBitBuffer buffer = output.getBuffer();
-				for (int i = 0; i < input.length(); i++) {
-					buffer.put(input.get(i));
+				if (buffer instanceof DLWritablePackedBitBuffer) {
+					((DLWritablePackedBitBuffer) buffer).putAllWords(toWords(input), (int) input.length());
+				} else {
+					for (int i = 0; i < input.length(); i++) {
+						buffer.put(input.get(i));
+					}
+				}
+			}
+
+			/**
+			 * Copies the bits of the given vector into words of the layout expected by
+			 * {@link DLWritablePackedBitBuffer}. The vector is traversed via its set bits, which also avoids the
+			 * intermediate copies of the storage of dense vectors (these do not expose their words).
+			 */
+			private long[] toWords(final BitVectorValue input) {
+				final long length = input.length();
+				final int numWords = DLDefaultPackedBitBuffer.getNumWords(length);
+				if (m_words.length < numWords) {
+					m_words = new long[numWords];
+				} else {
+					Arrays.fill(m_words, 0, numWords, 0L);
+				}
+				long i = input.nextSetBit(0);
+				while (i >= 0) {
+					m_words[(int) (i >>> 6)] |= 1L << i;
+					i = i + 1 < length ? input.nextSetBit(i + 1) : -1;
 				}
+				return m_words;
 			}
 		};
 	}
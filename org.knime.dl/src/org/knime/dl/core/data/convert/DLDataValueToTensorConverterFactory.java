@@ -100,6 +100,18 @@ default String getIdentifier() {
 	 */
 	Class<O> getBufferType();
 
+	/**
+	 * Returns a more specific buffer type that converters created by this factory can fill more efficiently than
+	 * buffers of the {@link #getBufferType() supported buffer type}, e.g. because it requires less memory. Tensor
+	 * factories that support the preferred type may allocate it instead, all others ignore it. Converters must
+	 * therefore always be able to handle buffers of the supported buffer type.
+	 *
+	 * @return the preferred buffer type, by default the {@link #getBufferType() supported buffer type}
+	 */
+	default Class<? extends DLWritableBuffer> getPreferredBufferType() {
+		return getBufferType();
+	}
+
 	/**
 	 * Returns the aggregated number of buffer elements for a single input row that will make up the output of
 	 * converters created by this factory given a number of input column specs. If the number of elements cannot be
@@ -52,6 +52,8 @@
 
 import org.knime.core.data.DataType;
 import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableDoubleBuffer;
 import org.knime.dl.util.DLUtils;
@@ -85,10 +87,29 @@ public OptionalLong getDestCount(final DLTensorSpec spec) {
 
 	@Override
 	public DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell> createConverter() {
-		return (input, out, exec) -> {
-			final DLReadableDoubleBuffer buf = input.getBuffer();
-			for (int i = 0; i < buf.size(); i++) {
-				out[i] = new DoubleCell(buf.readNextDouble());
+		return new DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell>() {
+
+			/**
+			 * Holds the values of a batch, reused across batches as long as the batch size does not change.
+			 */
+			private double[] m_values;
+
+			@Override
+			public void convert(final DLTensor<DLReadableDoubleBuffer> input, final DoubleCell[] out,
+					final ExecutionContext exec) {
+				final DLReadableDoubleBuffer buf = input.getBuffer();
+				// the output array holds one cell per element, so the size fits into an int
+				final int size = (int) buf.size();
+				if (size == 0) {
+					return;
+				}
+				if (m_values == null || m_values.length != size) {
+					m_values = new double[size];
+				}
+				buf.readToDoubleArray(m_values, 0, size);
+				for (int i = 0; i < size; i++) {
+					out[i] = new DoubleCell(m_values[i]);
+				}
 			}
 		};
 	}
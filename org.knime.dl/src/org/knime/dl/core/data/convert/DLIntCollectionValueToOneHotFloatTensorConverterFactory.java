@@ -59,7 +59,9 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorShape;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableOneHotIndexBuffer;
 import org.knime.dl.util.DLUtils;
 
 /**
@@ -85,6 +87,14 @@ public Class<DLWritableFloatBuffer> getBufferType() {
 		return DLWritableFloatBuffer.class;
 	}
 
+	/**
+	 * Only the indices need to be stored if the tensor factory supports it, see {@link DLWritableOneHotIndexBuffer}.
+	 */
+	@Override
+	public Class<? extends DLWritableBuffer> getPreferredBufferType() {
+		return DLWritableOneHotIndexBuffer.class;
+	}
+
 	@Override
 	public OptionalLong getDestCount(List<DataColumnSpec> spec) {
 		return OptionalLong.empty();
@@ -99,6 +109,15 @@ protected void convertInternal(CollectionDataValue element, DLTensor<DLWritableF
 				checkType(element.getElementType());
 				DLWritableFloatBuffer buffer = output.getBuffer();
 				int featureDimSize = getFeatureDimSize(output.getSpec());
+				if (buffer instanceof DLWritableOneHotIndexBuffer) {
+					final DLWritableOneHotIndexBuffer indexBuffer = (DLWritableOneHotIndexBuffer) buffer;
+					for (DataCell cell : element) {
+						int index = ((IntCell)cell).getIntValue();
+						checkIndexValid(index, featureDimSize);
+						indexBuffer.putIndex(index);
+					}
+					return;
+				}
 				byte[] dummyVector = new byte[featureDimSize];
 				for (DataCell cell : element) {
 					int index = ((IntCell)cell).getIntValue();
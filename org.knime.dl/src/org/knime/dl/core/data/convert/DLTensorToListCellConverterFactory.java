@@ -55,6 +55,8 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.collection.CollectionCellFactory;
 import org.knime.core.data.collection.ListCell;
+import org.knime.core.node.ExecutionContext;
+import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableBuffer;
 
@@ -107,37 +109,65 @@ public OptionalLong getDestCount(final DLTensorSpec spec) {
 	@Override
 	public DLTensorToDataCellConverter<I, ListCell> createConverter() {
 		final DLTensorToDataCellConverter<I, OE> elementConverter = m_elementConverterFactory.createConverter();
-		return (input, out, exec) -> {
-			final DLTensorSpec spec = input.getSpec();
-			final long batchSize = input.getBuffer().size() / input.getExampleSize();
-			// dest count must be computable at runtime
-			final long numOutputsPerElementLong = m_elementConverterFactory.getDestCount(spec).getAsLong();
-			if (numOutputsPerElementLong > Integer.MAX_VALUE) {
-				throw new IllegalArgumentException("The number of entries of the current output list, "
-						+ numOutputsPerElementLong + ", is larger than 2^31-1. This is currently not supported.");
-			}
-			final int numOutputsPerElement = (int) numOutputsPerElementLong;
-			final long numOutputsLong = numOutputsPerElement * batchSize;
-			if (numOutputsLong > Integer.MAX_VALUE) {
-				throw new IllegalArgumentException("The number of entries of the current output list per batch, "
-						+ numOutputsLong + ", is larger than 2^31-1. This is currently not supported.");
-			}
-			final int numOutputs = (int) numOutputsLong;
-			@SuppressWarnings("unchecked") // guaranteed by DLTensorToDataCellConverterFactory#getDestType()
-			final OE[] temp = (OE[]) Array.newInstance(m_elementConverterFactory.getDestType().getCellClass(),
-					numOutputs);
-			elementConverter.convert(input, temp, exec);
-			// dest count must be computable and batch size must be configured at runtime
-			final long numListsLong = getDestCount(spec).getAsLong() * batchSize;
-			if (numListsLong > Integer.MAX_VALUE) {
-				throw new IllegalArgumentException("The number of entries of the current output list per batch, "
-						+ numOutputs + ", is larger than 2^31-1. This is currently not supported.");
+		return new DLTensorToDataCellConverter<I, ListCell>() {
+
+			/**
+			 * Holds the converted elements of a batch. Reused across batches as long as the number of elements does
+			 * not change. Reusing is safe since the list cells copy their elements upon creation.
+			 */
+			private OE[] m_temp;
+
+			/**
+			 * Holds the elements of a single list. Reused across lists, {@link #m_listTempAsList} is a fixed-size view
+			 * on it.
+			 */
+			private OE[] m_listTemp;
+
+			private List<OE> m_listTempAsList;
+
+			@Override
+			public void convert(final DLTensor<I> input, final ListCell[] out, final ExecutionContext exec) {
+				final DLTensorSpec spec = input.getSpec();
+				final long batchSize = input.getBuffer().size() / input.getExampleSize();
+				// dest count must be computable at runtime
+				final long numOutputsPerElementLong = m_elementConverterFactory.getDestCount(spec).getAsLong();
+				if (numOutputsPerElementLong > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("The number of entries of the current output list, "
+							+ numOutputsPerElementLong + ", is larger than 2^31-1. This is currently not supported.");
+				}
+				final int numOutputsPerElement = (int) numOutputsPerElementLong;
+				final long numOutputsLong = numOutputsPerElement * batchSize;
+				if (numOutputsLong > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("The number of entries of the current output list per batch, "
+							+ numOutputsLong + ", is larger than 2^31-1. This is currently not supported.");
+				}
+				final int numOutputs = (int) numOutputsLong;
+				if (m_temp == null || m_temp.length != numOutputs) {
+					m_temp = newElementArray(numOutputs);
+				}
+				if (m_listTemp == null || m_listTemp.length != numOutputsPerElement) {
+					m_listTemp = newElementArray(numOutputsPerElement);
+					m_listTempAsList = Arrays.asList(m_listTemp);
+				}
+				elementConverter.convert(input, m_temp, exec);
+				// dest count must be computable and batch size must be configured at runtime
+				final long numListsLong = getDestCount(spec).getAsLong() * batchSize;
+				if (numListsLong > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("The number of entries of the current output list per batch, "
+							+ numOutputs + ", is larger than 2^31-1. This is currently not supported.");
+				}
+				final int numLists = (int) numListsLong;
+				for (int i = 0; i < numLists; i++) {
+					System.arraycopy(m_temp, i * numOutputsPerElement, m_listTemp, 0, numOutputsPerElement);
+					out[i] = CollectionCellFactory.createListCell(m_listTempAsList);
+				}
 			}
-			final int numLists = (int) numListsLong;
-			final List<OE> tempAsList = Arrays.asList(temp);
-			for (int i = 0; i < numLists; i++) {
-				out[i] = CollectionCellFactory
-						.createListCell(tempAsList.subList(i * numOutputsPerElement, (i + 1) * numOutputsPerElement));
+
+			private OE[] newElementArray(final int length) {
+				@SuppressWarnings("unchecked") // guaranteed by DLTensorToDataCellConverterFactory#getDestType()
+				final OE[] array =
+						(OE[]) Array.newInstance(m_elementConverterFactory.getDestType().getCellClass(), length);
+				return array;
 			}
 		};
 	}
@@ -47,6 +47,7 @@
 package org.knime.dl.core.execution;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -57,6 +58,7 @@
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLDirectTensorFactory;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.DLNetworkInputPreparer;
 import org.knime.dl.core.DLTensor;
@@ -114,6 +116,8 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 
 	protected final DLTensorFactory m_tensorFactory;
 
+	protected final DLExecutionConfig m_executionConfig;
+
 	/**
 	 * Is instantiated at the beginning of the first call of {@link #run(DLExecutionMonitor)}.
 	 */
@@ -127,6 +131,14 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 	protected DLAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
+		this(network, DLDefaultExecutionConfig.DEFAULT, executionInputSpecs, requestedOutputs, inputPreparer,
+				outputConsumer, tensorFactory);
+	}
+
+	protected DLAbstractNetworkExecutionSession(final N network, final DLExecutionConfig executionConfig,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory) {
 		checkArgument(areInputSpecsValid(network, executionInputSpecs),
 				"Network input specs and execution input specs differ.");
 		checkArgument(areOutputSpecsValid(network, requestedOutputs),
@@ -140,7 +152,9 @@ protected DLAbstractNetworkExecutionSession(final N network, final Set<DLTensorS
 		m_requestedOutputs = new HashSet<>(requestedOutputs);
 		m_inputPreparer = inputPreparer;
 		m_outputConsumer = outputConsumer;
-		m_tensorFactory = tensorFactory;
+		m_executionConfig = checkNotNull(executionConfig);
+		m_tensorFactory = executionConfig.isOffHeapTensorsEnabled() ? new DLDirectTensorFactory(tensorFactory)
+				: tensorFactory;
 	}
 
 	protected abstract void executeInternal(DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception;
@@ -154,14 +168,29 @@ public N getNetwork() {
 	public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		// lazily preallocate input tensors
 		if (m_input == null) {
-			m_input = new HashMap<>(m_executionInputSpecs.size());
-			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
-			}
+			m_input = createInputTensors();
 		}
 		executeInternal(monitor);
 	}
 
+	/**
+	 * Allocates a new set of input tensors according to the execution input specs of this session. The caller is
+	 * responsible for closing the returned tensors.
+	 *
+	 * @return the newly allocated input tensors
+	 */
+	protected Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createInputTensors() {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = new HashMap<>(
+				m_executionInputSpecs.size());
+		final Map<DLTensorId, Class<? extends DLWritableBuffer>> preferredBufferTypes = m_inputPreparer
+				.getPreferredBufferTypes();
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec,
+					preferredBufferTypes.get(spec.getIdentifier())));
+		}
+		return input;
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (m_input != null) {
@@ -0,0 +1,133 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDefaultExecutionConfig implements DLExecutionConfig {
+
+	/**
+	 * The configuration that is used if none is specified.
+	 */
+	public static final DLExecutionConfig DEFAULT = new DLDefaultExecutionConfig(false, false);
+
+	private final boolean m_prepareExecution;
+
+	private final boolean m_pipelining;
+
+	private final int m_numParallelProcesses;
+
+	private final int m_numThreadsPerProcess;
+
+	private final boolean m_offHeapTensors;
+
+	/**
+	 * @param prepareExecution see {@link #isPrepareExecutionEnabled()}
+	 * @param pipelining see {@link #isPipeliningEnabled()}
+	 */
+	public DLDefaultExecutionConfig(final boolean prepareExecution, final boolean pipelining) {
+		this(prepareExecution, pipelining, 1, 0);
+	}
+
+	/**
+	 * @param prepareExecution see {@link #isPrepareExecutionEnabled()}
+	 * @param pipelining see {@link #isPipeliningEnabled()}
+	 * @param numParallelProcesses see {@link #getNumParallelProcesses()}, must be positive
+	 * @param numThreadsPerProcess see {@link #getNumThreadsPerProcess()}, must not be negative
+	 */
+	public DLDefaultExecutionConfig(final boolean prepareExecution, final boolean pipelining,
+			final int numParallelProcesses, final int numThreadsPerProcess) {
+		this(prepareExecution, pipelining, numParallelProcesses, numThreadsPerProcess, false);
+	}
+
+	/**
+	 * @param prepareExecution see {@link #isPrepareExecutionEnabled()}
+	 * @param pipelining see {@link #isPipeliningEnabled()}
+	 * @param numParallelProcesses see {@link #getNumParallelProcesses()}, must be positive
+	 * @param numThreadsPerProcess see {@link #getNumThreadsPerProcess()}, must not be negative
+	 * @param offHeapTensors see {@link #isOffHeapTensorsEnabled()}
+	 */
+	public DLDefaultExecutionConfig(final boolean prepareExecution, final boolean pipelining,
+			final int numParallelProcesses, final int numThreadsPerProcess, final boolean offHeapTensors) {
+		checkArgument(numParallelProcesses > 0, "Number of parallel processes must be positive.");
+		checkArgument(numThreadsPerProcess >= 0, "Number of threads per process must not be negative.");
+		m_prepareExecution = prepareExecution;
+		m_pipelining = pipelining;
+		m_numParallelProcesses = numParallelProcesses;
+		m_numThreadsPerProcess = numThreadsPerProcess;
+		m_offHeapTensors = offHeapTensors;
+	}
+
+	@Override
+	public boolean isPrepareExecutionEnabled() {
+		return m_prepareExecution;
+	}
+
+	@Override
+	public boolean isPipeliningEnabled() {
+		return m_pipelining;
+	}
+
+	@Override
+	public int getNumParallelProcesses() {
+		return m_numParallelProcesses;
+	}
+
+	@Override
+	public int getNumThreadsPerProcess() {
+		return m_numThreadsPerProcess;
+	}
+
+	@Override
+	public boolean isOffHeapTensorsEnabled() {
+		return m_offHeapTensors;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+/**
+ * Back end independent options that control how an {@link DLNetworkExecutionSession execution session} processes its
+ * input. Back ends are free to ignore options that do not apply to them.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+public interface DLExecutionConfig {
+
+	/**
+	 * @return true if the network shall be prepared for computing the requested outputs before the first batch is
+	 *         processed. This allows back ends to do one-time work (e.g. building the computation graph for the
+	 *         requested outputs) up front instead of when the first batch arrives.
+	 */
+	boolean isPrepareExecutionEnabled();
+
+	/**
+	 * @return true if input preparation, network execution and output consumption of consecutive batches shall
+	 *         overlap. Back ends that support this use two sets of input and output tensors and hand batches between
+	 *         worker threads, which doubles the tensor memory of a session.
+	 */
+	boolean isPipeliningEnabled();
+
+	/**
+	 * @return the number of back end processes among which the input batches are distributed. Each process holds its
+	 *         own copy of the network. Outputs are handed to the output consumer in the order of the input batches.
+	 */
+	default int getNumParallelProcesses() {
+		return 1;
+	}
+
+	/**
+	 * @return the number of threads each back end process may use for executing the network, zero to keep the back
+	 *         end's default
+	 */
+	default int getNumThreadsPerProcess() {
+		return 0;
+	}
+
+	/**
+	 * @return true if the buffers of float and double tensors shall be allocated outside of the Java heap. This keeps
+	 *         large batches from putting pressure on the heap and allows for tensors of more than
+	 *         <code>Integer.MAX_VALUE</code> elements. The memory is freed when the session is closed.
+	 */
+	default boolean isOffHeapTensorsEnabled() {
+		return false;
+	}
+}
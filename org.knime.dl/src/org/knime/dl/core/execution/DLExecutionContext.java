@@ -89,4 +89,25 @@ DLNetworkExecutionSession createExecutionSession(N network, Set<DLTensorSpec> ex
 			Set<DLTensorId> requestedOutputs, DLNetworkInputPreparer inputPreparer,
 			DLNetworkOutputConsumer outputConsumer);
 
+	/**
+	 * Creates a {@link DLNetworkExecutionSession execution session} for a given {@link DLNetwork network} that is
+	 * configured by the given execution config. The default implementation ignores the config, back ends that support
+	 * any of its options should override this method.
+	 *
+	 * @param network the network to execute
+	 * @param executionConfig the execution config
+	 * @param executionInputSpecs see {@link #createExecutionSession(DLNetwork, Set, Set, DLNetworkInputPreparer,
+	 *            DLNetworkOutputConsumer)}
+	 * @param requestedOutputs see {@link #createExecutionSession(DLNetwork, Set, Set, DLNetworkInputPreparer,
+	 *            DLNetworkOutputConsumer)}
+	 * @param inputPreparer the input data preparer
+	 * @param outputConsumer the network output consumer
+	 * @return the created execution session
+	 * @throws IllegalArgumentException if failed to create the execution session due to invalid arguments
+	 */
+	default DLNetworkExecutionSession createExecutionSession(final N network, final DLExecutionConfig executionConfig,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
+		return createExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer);
+	}
 }
@@ -46,19 +46,31 @@
  */
 package org.knime.dl.core.execution;
 
-import java.util.ArrayDeque;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
 import org.knime.dl.core.DLAbstractKnimeNetworkInputPreparer;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLDefaultTensor;
 import org.knime.dl.core.DLInvalidNetworkInputException;
 import org.knime.dl.core.DLRowIterator;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.util.DLUtils;
 
@@ -68,10 +80,29 @@
  */
 public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeNetworkInputPreparer {
 
+	/**
+	 * Batches smaller than this are always converted sequentially.
+	 */
+	private static final int MIN_ROWS_PER_SLICE = 4;
+
 	private final boolean m_isPredefinedBatchSize;
 
+	/**
+	 * Filled by {@link #prepare(Map, long)} and drained by the output consumer. Both may run on different threads if
+	 * the execution session is pipelined.
+	 */
 	private final Queue<DataRow> m_baseRows;
 
+	private final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> m_converterFactories;
+
+	private final int m_parallelism;
+
+	/**
+	 * Set to false once a tensor turns out not to support write windows, see
+	 * {@link DLWrappingDataBuffer#supportsWriteWindows()}.
+	 */
+	private boolean m_useWriteWindows;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size. It must be in a proper initial
@@ -86,9 +117,26 @@ public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeN
 	public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final int batchSize,
 			final boolean isPredefinedBatchSize,
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
+		this(iterator, batchSize, isPredefinedBatchSize, converters, 1);
+	}
+
+	/**
+	 * @param iterator see {@link #DLKnimeNetworkExecutionInputPreparer(DLRowIterator, int, boolean, Map)}
+	 * @param batchSize see {@link #DLKnimeNetworkExecutionInputPreparer(DLRowIterator, int, boolean, Map)}
+	 * @param isPredefinedBatchSize see {@link #DLKnimeNetworkExecutionInputPreparer(DLRowIterator, int, boolean, Map)}
+	 * @param converters see {@link #DLKnimeNetworkExecutionInputPreparer(DLRowIterator, int, boolean, Map)}
+	 * @param parallelism the maximum number of slices of a batch that are converted concurrently. Values less than or
+	 *            equal to one disable parallel conversion.
+	 */
+	public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final int batchSize,
+			final boolean isPredefinedBatchSize,
+			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters, final int parallelism) {
 		super(iterator, batchSize, converters);
 		m_isPredefinedBatchSize = isPredefinedBatchSize;
-		m_baseRows = new ArrayDeque<>(batchSize);
+		m_baseRows = new ConcurrentLinkedQueue<>();
+		m_converterFactories = new HashMap<>(converters);
+		m_parallelism = parallelism;
+		m_useWriteWindows = parallelism > 1;
 	}
 
 	@Override
@@ -103,31 +151,8 @@ public Queue<DataRow> getBaseRows() {
 	@Override
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
-		long i;
-		for (i = 0; i < m_batchSize; i++) {
-			if (!m_iterator.hasNext()) {
-				// last batch will be incomplete, handled below
-				break;
-			}
-			final DataRow row = m_iterator.next();
-			m_baseRows.add(row);
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor e) {
-				final DLTensor<?> tensor = e.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
-								+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
-								+ ". Thus, expected input data size is " + exampleSize * batchSize
-								+ ". Please check the column selection for this input "
-								+ "and validate the node's input data.",
-						e);
-			}
-		}
+		final long i = m_useWriteWindows && m_batchSize >= 2 * MIN_ROWS_PER_SLICE ? prepareInParallel(input)
+				: prepareSequentially(input);
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
 			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
@@ -164,4 +189,155 @@ public void close() throws Exception {
 		super.close();
 		m_baseRows.clear();
 	}
+
+	private long prepareSequentially(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+			throws DLInvalidNetworkInputException {
+		long i;
+		for (i = 0; i < m_batchSize; i++) {
+			if (!m_iterator.hasNext()) {
+				// last batch will be incomplete, handled in prepare
+				break;
+			}
+			final DataRow row = m_iterator.next();
+			m_baseRows.add(row);
+			try {
+				writeRowInTensors(row, input);
+			} catch (final DLBufferOverflowExceptionForTensor e) {
+				throw createInputSizeException(e);
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Reads the rows of the batch on the calling thread and converts disjoint slices of them concurrently. Each slice is
+	 * written into its own {@link DLWrappingDataBuffer#createWriteWindow(long, long) write window} of the input
+	 * tensors. Falls back to sequential conversion of the batch if the windows are not supported or if any slice does
+	 * not exactly fill its windows, which lets the sequential code path report the actual input error.
+	 */
+	private long prepareInParallel(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
+			throws DLInvalidNetworkInputException {
+		final List<Map<DLTensorId, List<DataValue>>> rows = new ArrayList<>(m_batchSize);
+		while (rows.size() < m_batchSize && m_iterator.hasNext()) {
+			final DataRow row = m_iterator.next();
+			m_baseRows.add(row);
+			// the iterator reuses the returned map, copy it
+			final Map<DLTensorId, List<DataValue>> grouped = m_iterator.groupByTensor(row);
+			final Map<DLTensorId, List<DataValue>> copy = new HashMap<>(grouped.size());
+			for (final Entry<DLTensorId, List<DataValue>> entry : grouped.entrySet()) {
+				copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+			}
+			rows.add(copy);
+		}
+		if (!writeRowsInParallel(rows, input)) {
+			for (final Map<DLTensorId, List<DataValue>> row : rows) {
+				writeRow(row, input);
+			}
+		}
+		return rows.size();
+	}
+
+	private boolean writeRowsInParallel(final List<Map<DLTensorId, List<DataValue>>> rows,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		final int numRows = rows.size();
+		final int numSlices = Math.min(m_parallelism, numRows / MIN_ROWS_PER_SLICE);
+		if (numSlices < 2) {
+			return false;
+		}
+		for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+			final DLWritableBuffer buffer = tensor.getBuffer();
+			if (!(buffer instanceof DLWrappingDataBuffer && ((DLWrappingDataBuffer<?>) buffer).supportsWriteWindows())) {
+				m_useWriteWindows = false;
+				return false;
+			}
+			if (buffer.size() + numRows * tensor.getExampleSize() > buffer.getCapacity()) {
+				// let the sequential code path report the overflow
+				return false;
+			}
+		}
+		final List<Callable<Boolean>> slices = new ArrayList<>(numSlices);
+		for (int s = 0; s < numSlices; s++) {
+			final int from = (int) ((long) numRows * s / numSlices);
+			final int to = (int) ((long) numRows * (s + 1) / numSlices);
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> windows = new HashMap<>(input.size());
+			for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
+				final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+				final long exampleSize = tensor.getExampleSize();
+				final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) tensor.getBuffer();
+				final DLWrappingDataBuffer<?> window = buffer.createWriteWindow(buffer.size() + from * exampleSize,
+						(to - from) * exampleSize);
+				windows.put(entry.getKey(), new DLDefaultTensor<>(tensor.getSpec(), window, exampleSize));
+			}
+			slices.add(() -> writeSlice(rows.subList(from, to), windows));
+		}
+		try {
+			for (final Future<Boolean> slice : ForkJoinPool.commonPool().invokeAll(slices)) {
+				if (!slice.get()) {
+					return false;
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (final ExecutionException e) {
+			return false;
+		}
+		// commit the regions written via the windows
+		for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+			final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) tensor.getBuffer();
+			buffer.getStorageForWriting(buffer.size(), numRows * tensor.getExampleSize());
+		}
+		return true;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private boolean writeSlice(final List<Map<DLTensorId, List<DataValue>>> rows,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> windows) {
+		// converters are not necessarily thread-safe, each slice uses its own instances
+		final Map<DLTensorId, DLDataValueToTensorConverter> converters = new HashMap<>(windows.size());
+		for (final DLTensorId identifier : windows.keySet()) {
+			converters.put(identifier, m_converterFactories.get(identifier).createConverter());
+		}
+		try {
+			for (final Map<DLTensorId, List<DataValue>> row : rows) {
+				for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> window : windows.entrySet()) {
+					converters.get(window.getKey()).convert(row.get(window.getKey()), window.getValue());
+				}
+			}
+		} catch (final BufferOverflowException e) {
+			return false;
+		}
+		// each window must be filled exactly
+		for (final DLTensor<? extends DLWritableBuffer> window : windows.values()) {
+			final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) window.getBuffer();
+			if (buffer.size() != buffer.getCapacity()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void writeRow(final Map<DLTensorId, List<DataValue>> row,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) throws DLInvalidNetworkInputException {
+		try {
+			writeDataValuesInTensors(row, input);
+		} catch (final DLBufferOverflowExceptionForTensor e) {
+			throw createInputSizeException(e);
+		}
+	}
+
+	private static DLInvalidNetworkInputException createInputSizeException(final DLBufferOverflowExceptionForTensor e) {
+		final DLTensor<?> tensor = e.getTensor();
+		// must be present
+		final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+		// must be present
+		final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+		return new DLInvalidNetworkInputException(
+				"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
+						+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
+						+ ". Thus, expected input data size is " + exampleSize * batchSize
+						+ ". Please check the column selection for this input "
+						+ "and validate the node's input data.",
+				e);
+	}
 }
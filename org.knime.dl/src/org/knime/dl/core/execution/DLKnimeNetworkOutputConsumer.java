@@ -89,9 +89,16 @@ public final class DLKnimeNetworkOutputConsumer implements DLNetworkOutputConsum
     private final LinkedHashMap<DLTensorId, DLKnimeOutputConsumerHelperStruct> m_helpers;
 
     /**
-     * <code>null</code> before the first call of {@link #accept(Map)}.
+     * The number of cells created per row, i.e. the sum of the dest counts of all converters. <code>-1</code> before
+     * the first call of {@link #accept(Map)}.
      */
-    private DataCell[] m_temp;
+    private int m_numOutputCells = -1;
+
+    /**
+     * Holds the output cells of the row that is currently being created if not appending. Reused across rows since new
+     * rows copy their cells upon creation. <code>null</code> before the first call of {@link #accept(Map)}.
+     */
+    private DataCell[] m_rowTemp;
 
     /**
      * @param append if true, the output cells created by this instance will be appended to their respective base rows.
@@ -119,7 +126,7 @@ public DLKnimeNetworkOutputConsumer(final RowOutput output, final Supplier<DataR
 
 	@Override
 	public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> tensors) {
-		if (m_temp == null) {
+		if (m_numOutputCells == -1) {
 			// initialize output structs the first time we know how the network output looks like
 			initialize(tensors);
 		}
@@ -142,17 +149,6 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 		final DLTensor<? extends DLReadableBuffer> tensor = tensors.values().iterator().next();
 		final long batchSize = tensor.getBuffer().size() / tensor.getExampleSize();
 		for (int r = 0; r < batchSize; r++) {
-			int c = 0;
-	        for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
-	            final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
-				final DataCell[] temp = helper.m_temp;
-				// casting is fine here as we are already performing exact multiplication in the initialize method
-				final int o = (int) (r * helper.m_numOutputElements);
-				for (int i = 0; i < helper.m_numOutputElements; i++) {
-					m_temp[c + i] = temp[o + i];
-				}
-				c += helper.m_numOutputElements;
-			}
 			DataRow baseRow;
 			try {
 				baseRow = m_baseRows.get();
@@ -160,11 +156,21 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 				// this should only occur in case of incomplete last batches and pre-defined batch size
 				break;
 			}
+			// Appended rows keep a reference to the array of their appended cells, so each of them gets its own array
+			// that only holds the row's output slice. New rows copy their cells upon creation and can share the array.
+			final DataCell[] cells = m_append ? new DataCell[m_numOutputCells] : m_rowTemp;
+			int c = 0;
+			for (final DLKnimeOutputConsumerHelperStruct helper : m_helpers.values()) {
+				// casting is fine here as we are already performing exact multiplication in the initialize method
+				final int numOutputElements = (int) helper.m_numOutputElements;
+				System.arraycopy(helper.m_temp, r * numOutputElements, cells, c, numOutputElements);
+				c += numOutputElements;
+			}
 			try {
 				if (m_append) {
-					m_output.push(new AppendedColumnRow(baseRow, m_temp.clone()));
+					m_output.push(new AppendedColumnRow(baseRow, cells));
 				} else {
-					m_output.push(new DefaultRow(baseRow.getKey(), m_temp));
+					m_output.push(new DefaultRow(baseRow.getKey(), cells));
 				}
 			} catch (final InterruptedException ex) {
 				Thread.currentThread().interrupt();
@@ -209,7 +215,8 @@ private void initialize(final Map<DLTensorId, DLTensor<? extends DLReadableBuffe
 			throw new IllegalArgumentException("Number of output elements (" + totalNumOutputElements
 					+ ") is larger than 2^31-1. This is currently not supported.");
 		}
-		m_temp = new DataCell[(int) totalNumOutputElements];
+		m_numOutputCells = (int) totalNumOutputElements;
+		m_rowTemp = new DataCell[m_numOutputCells];
 	}
 
 	private static final class DLKnimeOutputConsumerHelperStruct {
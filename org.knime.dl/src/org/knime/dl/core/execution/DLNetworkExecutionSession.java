@@ -48,6 +48,7 @@
  */
 package org.knime.dl.core.execution;
 
+import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLNetworkSession;
 
@@ -60,4 +61,27 @@
 public interface DLNetworkExecutionSession extends DLNetworkSession {
 
 	void run(DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception;
+
+	/**
+	 * Returns the memory used by the back end process(es) of this session, if they live outside of the JVM. Intended
+	 * to be called between runs, e.g. to compare the memory demand of different batch sizes.
+	 *
+	 * @return the memory in bytes or <code>-1</code> if the back end does not report it or runs within the JVM
+	 */
+	default long getBackendMemoryUsage(final DLCancelable cancelable) throws DLCanceledExecutionException, Exception {
+		return -1;
+	}
+
+	/**
+	 * Hands the back end resources of this session (e.g. a started back end process that holds the loaded network)
+	 * over to the given session, which executes the same network and has not been run yet. This allows consecutive
+	 * sessions, e.g. with different batch sizes, to set up the back end only once. Afterwards, this session must not be
+	 * run anymore and closing it does not release the handed over resources. The default implementation does nothing,
+	 * i.e. the given session sets up its back end on its own.
+	 *
+	 * @param successor the session that takes over the back end resources of this session
+	 */
+	default void transferBackendTo(final DLNetworkExecutionSession successor) {
+		// no-op
+	}
 }
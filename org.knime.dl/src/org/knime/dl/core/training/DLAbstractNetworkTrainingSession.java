@@ -56,6 +56,7 @@
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLDirectTensorFactory;
 import org.knime.dl.core.DLFixedTensorShape;
 import org.knime.dl.core.DLInvalidNetworkInputException;
 import org.knime.dl.core.DLNetwork;
@@ -145,6 +146,18 @@ private static boolean doExecInputsSpecsMatchConfig(final DLTrainingConfig train
 	 */
 	protected final DLTensorFactory m_tensorFactory;
 
+	/**
+	 * The buffer types preferred by the training data preparer, also used for the validation tensors since both
+	 * preparers use the same converters.
+	 */
+	private final Map<DLTensorId, Class<? extends DLWritableBuffer>> m_preferredBufferTypes;
+
+	/**
+	 * Non-null if training data is prefetched, i.e. if the training config's prefetch size is positive. In this case,
+	 * {@link #m_trainingInputProvider} refers to the same object and {@link #m_trainingInput} is never initialized.
+	 */
+	private final DLPrefetchingNetworkInputProvider m_prefetchingTrainingInputProvider;
+
 	/**
 	 * Initialized during the first call of {@link #run(DLTrainingMonitor)}.
 	 */
@@ -180,25 +193,34 @@ protected DLAbstractNetworkTrainingSession(final N network, final CFG trainingCo
 		m_trainingConfig = checkNotNull(trainingConfig);
 		m_executionInputSpecs = executionInputSpecs;
 		checkNotNull(trainingInputPreparer);
-		m_trainingInputProvider = new DLNetworkInputProvider() {
+		m_preferredBufferTypes = trainingInputPreparer.getPreferredBufferTypes();
+		if (trainingConfig.getPrefetchSize() > 0) {
+			m_prefetchingTrainingInputProvider = new DLPrefetchingNetworkInputProvider(trainingInputPreparer,
+					trainingConfig.getPrefetchSize(), Math.max(trainingConfig.getNumRequestedEpochs(), 1),
+					!trainingConfig.isSinglePassPossible(), this::createTrainingInputTensors);
+			m_trainingInputProvider = m_prefetchingTrainingInputProvider;
+		} else {
+			m_prefetchingTrainingInputProvider = null;
+			m_trainingInputProvider = new DLNetworkInputProvider() {
 
-			@Override
-			public long getNumBatches() {
-				return trainingInputPreparer.getNumBatches();
-			}
+				@Override
+				public long getNumBatches() {
+					return trainingInputPreparer.getNumBatches();
+				}
 
-			@Override
-			public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
-					throws DLCanceledExecutionException, DLInvalidNetworkInputException {
-				trainingInputPreparer.prepare(m_trainingInput, batchIndex);
-				return m_trainingInput;
-			}
+				@Override
+				public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+						throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+					trainingInputPreparer.prepare(m_trainingInput, batchIndex);
+					return m_trainingInput;
+				}
 
-			@Override
-			public void close() throws Exception {
-				trainingInputPreparer.close();
-			}
-		};
+				@Override
+				public void close() throws Exception {
+					trainingInputPreparer.close();
+				}
+			};
+		}
 		m_doValidation = validationInputPreparer != null;
 		m_validationInputProvider = m_doValidation ? new DLNetworkInputProvider() {
 
@@ -219,7 +241,8 @@ public void close() throws Exception {
 				validationInputPreparer.close();
 			}
 		} : null;
-		m_tensorFactory = tensorFactory;
+		m_tensorFactory = trainingConfig.isOffHeapTensorsEnabled() ? new DLDirectTensorFactory(tensorFactory)
+				: tensorFactory;
 	}
 
 	/**
@@ -251,12 +274,9 @@ public DLTrainingConfig getTrainingConfig() {
 	@Override
 	public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledExecutionException, Exception {
 		monitor.getTrainingStatus().trainingStarted().raise(null);
-		// lazily preallocate training input/target tensors
-		if (m_trainingInput == null) {
-			m_trainingInput = new HashMap<>(m_executionInputSpecs.size());
-			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_trainingInput.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
-			}
+		// lazily preallocate training input/target tensors, the prefetching provider allocates its own ones
+		if (m_trainingInput == null && m_prefetchingTrainingInputProvider == null) {
+			m_trainingInput = createTrainingInputTensors();
 		}
 		// lazily preallocate validation input/target tensors
 		if (m_doValidation && m_validationInput == null) {
@@ -266,16 +286,29 @@ public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledE
 				// defined, no need to check if optionals are present.
 				final DLTensorSpec validationSpec = m_tensorFactory.createExecutionTensorSpec(spec,
 						m_trainingConfig.getValidationBatchSize(), DLUtils.Shapes.getFixedShape(spec.getShape()).get());
-				m_validationInput.put(validationSpec.getIdentifier(),
-						m_tensorFactory.createWritableTensor(validationSpec));
+				m_validationInput.put(validationSpec.getIdentifier(), m_tensorFactory
+						.createWritableTensor(validationSpec, m_preferredBufferTypes.get(validationSpec.getIdentifier())));
 			}
 		}
 		trainInternal(monitor);
 		monitor.getTrainingStatus().trainingEnded().raise(null);
 	}
 
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTrainingInputTensors() {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> trainingInput =
+				new HashMap<>(m_executionInputSpecs.size());
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			trainingInput.put(spec.getIdentifier(),
+					m_tensorFactory.createWritableTensor(spec, m_preferredBufferTypes.get(spec.getIdentifier())));
+		}
+		return trainingInput;
+	}
+
 	@Override
 	public void close() throws Exception {
+		if (m_prefetchingTrainingInputProvider != null) {
+			m_prefetchingTrainingInputProvider.close();
+		}
 		if (m_trainingInput != null) {
 			m_trainingInput.values().forEach(DLTensor::close);
 		}
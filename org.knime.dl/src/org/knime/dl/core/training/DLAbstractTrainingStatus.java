@@ -77,6 +77,10 @@ public abstract class DLAbstractTrainingStatus implements DLTrainingStatus {
 
 	private int m_currentBatchInEpoch = -1;
 
+	private int m_initialEpoch = 0;
+
+	private int m_initialBatchInEpoch = 0;
+
 	private final DLEvent<Void> m_trainingStarted = new DLDefaultEvent<>();
 
 	private final DLEvent<Void> m_trainingEnded = new DLDefaultEvent<>();
@@ -112,7 +116,7 @@ protected DLAbstractTrainingStatus() {
 		m_trainingStarted.addListener((src, v) -> {
 			m_startDateTime = LocalDateTime.now();
 			m_status = Status.RUNNING;
-			m_currentEpoch = -1;
+			m_currentEpoch = m_initialEpoch - 1;
 			m_currentBatchInEpoch = -1;
 		});
 		m_trainingEnded.addListener((src, v) -> {
@@ -120,8 +124,8 @@ protected DLAbstractTrainingStatus() {
 			m_endDateTime = LocalDateTime.now();
 		});
 		m_epochStarted.addListener((src, v) -> {
-			m_currentBatchInEpoch = -1;
 			m_currentEpoch++;
+			m_currentBatchInEpoch = (m_currentEpoch == m_initialEpoch ? m_initialBatchInEpoch : 0) - 1;
 		});
 		m_batchStarted.addListener((src, v) -> m_currentBatchInEpoch++);
 	}
@@ -166,6 +170,20 @@ public int getCurrentBatchInEpoch() {
 		return m_currentBatchInEpoch;
 	}
 
+	/**
+	 * Sets the position at which training starts, e.g. if training is resumed from a checkpoint. Must be called before
+	 * training is started.
+	 *
+	 * @param initialEpoch the zero-based epoch at which training starts
+	 * @param initialBatchInEpoch the zero-based batch within the initial epoch at which training starts
+	 */
+	public void setInitialPosition(final int initialEpoch, final int initialBatchInEpoch) {
+		checkArgument(initialEpoch >= 0 && initialEpoch < m_numEpochs);
+		checkArgument(initialBatchInEpoch >= 0 && initialBatchInEpoch < m_numBatchesPerEpoch);
+		m_initialEpoch = initialEpoch;
+		m_initialBatchInEpoch = initialBatchInEpoch;
+	}
+
 	// callbacks:
 
 	@Override
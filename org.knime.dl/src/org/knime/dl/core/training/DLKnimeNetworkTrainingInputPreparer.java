@@ -107,7 +107,7 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			}
 			final DataRow row = m_iterator.next();
 			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				writeRowInTensors(row, input);
 			} catch (final DLBufferOverflowExceptionForTensor ex) {
 				final DLTensor<?> tensor = ex.getTensor();
 				// must be present
@@ -0,0 +1,295 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkInputPreparer;
+import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Input provider that prepares batches ahead of time on a background thread. The batches are written into a ring of
+ * preallocated tensor sets: up to <code>prefetchSize</code> sets hold batches that are ready to be fetched while one
+ * additional set is owned by the consumer, i.e. holds the batch returned by the last call of {@link #get(long)}. That
+ * set is handed back to the producer on the next call of {@link #get(long)}, so consumers must be done with it by then.
+ * <P>
+ * Batches are prepared in consecutive order, starting at index zero and wrapping around after the last batch. This
+ * matches how training data is requested from a network input provider. Requesting batches out of order is not
+ * supported and fails with an {@link IllegalStateException}.
+ * <P>
+ * The producer prepares at most <code>numEpochs</code> passes over the data, i.e. it never starts a pass (which
+ * includes resetting and possibly reshuffling the data) that will not be requested. If prefetching across epochs is
+ * disabled, the producer additionally waits at the end of each pass until the consumer requests the first batch of the
+ * next pass. This is useful if the consumer may stop requesting data after a single pass. Batches that are requested
+ * beyond <code>numEpochs</code> passes are still provided but are not prepared ahead of time.
+ * <P>
+ * {@link #close()} stops prefetching and releases the tensors of this instance. The underlying input preparer is not
+ * closed, it is owned by the creator of this instance.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPrefetchingNetworkInputProvider implements DLNetworkInputProvider {
+
+	private static final long POLL_INTERVAL_MS = 100;
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private final DLNetworkInputPreparer m_preparer;
+
+	private final int m_prefetchSize;
+
+	private final long m_numBatches;
+
+	/**
+	 * The total number of batches that will be requested if the consumer requests <code>numEpochs</code> passes.
+	 */
+	private final long m_maxNumBatches;
+
+	private final Object m_limitLock = new Object();
+
+	/**
+	 * The number of batches the producer may prepare in total. Guarded by {@link #m_limitLock}.
+	 */
+	private long m_limit;
+
+	/**
+	 * The number of batches that were requested via {@link #get(long)} so far.
+	 */
+	private long m_numRequested;
+
+	private final Supplier<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_tensorSetFactory;
+
+	private final List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_tensorSets;
+
+	private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_free;
+
+	private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_ready;
+
+	/**
+	 * The tensor set returned by the last call of {@link #get(long)}, <code>null</code> if none.
+	 */
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_current;
+
+	/**
+	 * <code>null</code> before the first call of {@link #get(long)}.
+	 */
+	private Thread m_producer;
+
+	private volatile Exception m_failure;
+
+	private volatile boolean m_stopped;
+
+	/**
+	 * @param preparer the preparer that fills the tensors, must not be used by anyone else while this instance is open
+	 * @param prefetchSize the maximum number of batches that are prepared ahead of time, must be positive
+	 * @param numEpochs the number of passes over the data the consumer is expected to request, must be positive
+	 * @param prefetchAcrossEpochs false if the batches of a pass must not be prepared before the consumer requested the
+	 *            first batch of that pass
+	 * @param tensorSetFactory creates a new, empty set of input tensors. Called <code>prefetchSize + 1</code> times
+	 *            during the first call of {@link #get(long)}.
+	 */
+	DLPrefetchingNetworkInputProvider(final DLNetworkInputPreparer preparer, final int prefetchSize,
+			final int numEpochs, final boolean prefetchAcrossEpochs,
+			final Supplier<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> tensorSetFactory) {
+		if (prefetchSize < 1) {
+			throw new IllegalArgumentException("Prefetch size must be positive but was " + prefetchSize + ".");
+		}
+		if (numEpochs < 1) {
+			throw new IllegalArgumentException("Number of epochs must be positive but was " + numEpochs + ".");
+		}
+		m_preparer = preparer;
+		m_prefetchSize = prefetchSize;
+		m_numBatches = preparer.getNumBatches();
+		m_maxNumBatches = numEpochs * m_numBatches;
+		m_limit = prefetchAcrossEpochs ? m_maxNumBatches : m_numBatches;
+		m_tensorSetFactory = tensorSetFactory;
+		m_tensorSets = new ArrayList<>(prefetchSize + 1);
+		m_free = new ArrayBlockingQueue<>(prefetchSize + 1);
+		m_ready = new ArrayBlockingQueue<>(prefetchSize + 1);
+	}
+
+	@Override
+	public long getNumBatches() {
+		return m_numBatches;
+	}
+
+	@Override
+	public synchronized Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		if (m_stopped) {
+			throw new IllegalStateException("Input provider has already been closed.");
+		}
+		final long expectedBatchIndex = m_numRequested % m_numBatches;
+		if (batchIndex != expectedBatchIndex) {
+			throw new IllegalStateException("Batch " + batchIndex + " of the input data was requested but batch "
+					+ expectedBatchIndex + " is next. Batches must be requested in consecutive order.");
+		}
+		extendLimit(m_numRequested);
+		m_numRequested++;
+		if (m_producer == null) {
+			startProducer();
+		}
+		if (m_current != null) {
+			release(m_current);
+			m_current = null;
+		}
+		try {
+			while (true) {
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> next =
+						m_ready.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (next != null) {
+					m_current = next;
+					return next;
+				}
+				rethrowFailure();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DLCanceledExecutionException("Interrupted while waiting for the next batch of input data.");
+		}
+	}
+
+	@Override
+	public synchronized void close() throws Exception {
+		m_stopped = true;
+		if (m_producer != null) {
+			m_producer.interrupt();
+			// the producer must not touch the preparer or any tensors once this method returned
+			m_producer.join();
+		}
+		m_tensorSets.forEach(s -> s.values().forEach(DLTensor::close));
+		m_tensorSets.clear();
+		m_free.clear();
+		m_ready.clear();
+		m_current = null;
+	}
+
+	private void startProducer() {
+		for (int i = 0; i <= m_prefetchSize; i++) {
+			m_tensorSets.add(m_tensorSetFactory.get());
+		}
+		m_free.addAll(m_tensorSets.subList(0, m_prefetchSize));
+		// the remaining set is handed over to the producer right away by the current call of get
+		m_current = m_tensorSets.get(m_prefetchSize);
+		m_producer = new Thread(this::produce, "DL-Training-Data-Prefetcher-" + THREAD_COUNT.incrementAndGet());
+		m_producer.setDaemon(true);
+		m_producer.start();
+	}
+
+	/**
+	 * Allows the producer to prepare the batch with the given running number. If it starts a new pass, the whole pass
+	 * may be prepared unless all expected passes were already prepared.
+	 */
+	private void extendLimit(final long batchNumber) {
+		synchronized (m_limitLock) {
+			if (batchNumber < m_limit) {
+				return;
+			}
+			m_limit = batchNumber < m_maxNumBatches ? Math.min(batchNumber + m_numBatches, m_maxNumBatches)
+					: batchNumber + 1;
+			m_limitLock.notifyAll();
+		}
+	}
+
+	private void produce() {
+		long batchNumber = 0;
+		try {
+			while (!m_stopped) {
+				synchronized (m_limitLock) {
+					while (batchNumber >= m_limit) {
+						m_limitLock.wait();
+					}
+				}
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensorSet = m_free.take();
+				m_preparer.prepare(tensorSet, batchNumber % m_numBatches);
+				m_ready.put(tensorSet);
+				batchNumber++;
+			}
+		} catch (final InterruptedException e) {
+			// closed, exit quietly
+		} catch (final Exception e) {
+			m_failure = e;
+		}
+	}
+
+	private void release(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensorSet) {
+		for (final DLTensor<? extends DLWritableBuffer> tensor : tensorSet.values()) {
+			tensor.getBuffer().reset();
+		}
+		// cannot fail, there are never more tensor sets than the queue's capacity
+		m_free.add(tensorSet);
+	}
+
+	private void rethrowFailure() throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		final Exception failure = m_failure;
+		if (failure == null) {
+			return;
+		}
+		if (failure instanceof DLCanceledExecutionException) {
+			throw (DLCanceledExecutionException) failure;
+		} else if (failure instanceof DLInvalidNetworkInputException) {
+			throw (DLInvalidNetworkInputException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else {
+			throw new RuntimeException("An error occurred while preparing input data.", failure);
+		}
+	}
+}
@@ -68,4 +68,39 @@ public interface DLTrainingConfig {
 	 *         performing model evaluation during training.
 	 */
 	long getValidationBatchSize();
+
+	/**
+	 * @return the number of training data batches that are prepared ahead of time while the network is being trained.
+	 *         Zero means that each batch is prepared on demand. Back ends may use this value as a hint for additional
+	 *         buffering on their side.
+	 */
+	default int getPrefetchSize() {
+		return 0;
+	}
+
+	/**
+	 * @return the number of passes over the training data whose batches are requested from the training data provider,
+	 *         e.g. smaller than {@link #getEpochs()} if training is resumed. Batches are not prepared ahead of time
+	 *         beyond these passes.
+	 */
+	default int getNumRequestedEpochs() {
+		return getEpochs();
+	}
+
+	/**
+	 * @return true if the back end may decide during training to request a single pass over the training data only.
+	 *         In this case, the batches of a pass are not prepared ahead of time before the back end requests the first
+	 *         batch of that pass.
+	 */
+	default boolean isSinglePassPossible() {
+		return false;
+	}
+
+	/**
+	 * @return true if the buffers of float and double input and target tensors shall be allocated outside of the Java
+	 *         heap. The memory is freed when the session is closed.
+	 */
+	default boolean isOffHeapTensorsEnabled() {
+		return false;
+	}
 }